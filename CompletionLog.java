@@ -0,0 +1,467 @@
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+// 습관 하나의 완료 상세 기록 (완료 시각, 수량, 메모)
+// 완료 여부는 트래커의 날짜 집합이 기준이고, 여기에는 상세가 있는 완료만 날짜 순으로 둔다.
+// 기록마다 객체를 두지 않고 열(column)마다 가변 길이 정수(varint)로 이어 붙인 바이트 배열 하나씩에 넣는다:
+//   날짜: 앞 기록과의 일수 차이 (매일 하면 1바이트)
+//   시각: 0이면 없음, 아니면 앞 시각과의 초 차이(zigzag) + 1. 시각은 그날 UTC 0시 기준 초라서 시간대와 무관하게 Instant로 되돌린다.
+//   수량/메모: 한 번이라도 쓴 습관만 열을 만든다. 0이면 없음, 아니면 zigzag(수량) + 1 / 메모 번호 + 1
+// 비슷한 시각에 하는 습관이면 기록 하나가 3바이트 정도다. 새 기록은 대부분 마지막 날짜 뒤라서 끝에 붙이고,
+// 중간을 고치거나 지울 때만 전체를 풀어서 다시 쓴다 (습관 하나의 기록이라 수 KB 이하).
+public final class CompletionLog {
+    private static final int SECONDS_PER_DAY = 86400;
+
+    // 완료 하나의 상세 (없는 값은 null)
+    public static final class Entry {
+        private final LocalDate date;
+        private final Instant time;
+        private final Integer quantity;
+        private final String note;
+
+        public Entry(LocalDate date, Instant time, Integer quantity, String note) {
+            this.date = Objects.requireNonNull(date);
+            this.time = time;
+            this.quantity = quantity;
+            this.note = note == null || note.isBlank() ? null : note.strip();
+        }
+
+        public LocalDate getDate() {
+            return date;
+        }
+
+        public Instant getTime() {
+            return time;
+        }
+
+        public Integer getQuantity() {
+            return quantity;
+        }
+
+        public String getNote() {
+            return note;
+        }
+
+        // 시간대 기준 완료 시각 (시각이 없으면 null)
+        public LocalTime getLocalTime(ZoneId zone) {
+            return time != null ? LocalTime.ofInstant(time, zone) : null;
+        }
+
+        // 시각, 수량, 메모 중 하나도 없으면 기록할 것이 없다
+        public boolean isEmpty() {
+            return time == null && quantity == null && note == null;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Entry)) return false;
+            Entry other = (Entry) o;
+            return date.equals(other.date) && Objects.equals(time, other.time)
+                && Objects.equals(quantity, other.quantity) && Objects.equals(note, other.note);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(date, time, quantity, note);
+        }
+    }
+
+    private final Column days = new Column();
+    private final Column times = new Column();
+    private Column quantities;
+    private Column noteIds;
+    private List<String> notes;
+    private int size;
+    // 끝에 붙일 때 필요한 마지막 날짜와 마지막 시각 (그날 UTC 0시 기준 초)
+    private long lastDay;
+    private long lastOffset;
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // 메모리/파일에서 차지하는 열 바이트 수 (메모 글자 제외)
+    public int byteSize() {
+        return days.length + times.length
+            + (quantities != null ? quantities.length : 0)
+            + (noteIds != null ? noteIds.length : 0);
+    }
+
+    // 상세를 넣거나 바꾼다 (빈 상세면 지운다). 바뀌기 전 상세를 돌려준다.
+    public Entry put(Entry entry) {
+        if (entry.isEmpty()) {
+            return remove(entry.getDate());
+        }
+        long day = entry.getDate().toEpochDay();
+        if (size == 0 || day > lastDay) {
+            append(entry);
+            return null;
+        }
+        List<Entry> rows = entries();
+        int at = indexOf(rows, day);
+        Entry previous = null;
+        if (at >= 0) {
+            previous = rows.set(at, entry);
+        } else {
+            rows.add(-at - 1, entry);
+        }
+        rebuild(rows);
+        return previous;
+    }
+
+    // 날짜의 상세를 지우고 돌려준다 (없으면 null)
+    public Entry remove(LocalDate date) {
+        long day = date.toEpochDay();
+        if (size == 0 || day > lastDay) {
+            return null;
+        }
+        List<Entry> rows = entries();
+        int at = indexOf(rows, day);
+        if (at < 0) {
+            return null;
+        }
+        Entry removed = rows.remove(at);
+        rebuild(rows);
+        return removed;
+    }
+
+    public Entry get(LocalDate date) {
+        long day = date.toEpochDay();
+        if (size == 0 || day > lastDay) {
+            return null;
+        }
+        Reader reader = new Reader();
+        while (reader.hasNext()) {
+            reader.next();
+            if (reader.day == day) {
+                return reader.entry();
+            }
+            if (reader.day > day) {
+                break;
+            }
+        }
+        return null;
+    }
+
+    // 기간 [from, to]의 상세 (날짜 -> 상세)
+    public Map<LocalDate, Entry> range(LocalDate from, LocalDate to) {
+        Map<LocalDate, Entry> result = new HashMap<>();
+        long first = from.toEpochDay();
+        long last = to.toEpochDay();
+        Reader reader = new Reader();
+        while (reader.hasNext()) {
+            reader.next();
+            if (reader.day > last) {
+                break;
+            }
+            if (reader.day >= first) {
+                Entry entry = reader.entry();
+                result.put(entry.getDate(), entry);
+            }
+        }
+        return result;
+    }
+
+    // 같은 내용의 새 로그 (다른 스레드에 넘길 복사본용)
+    public CompletionLog copy() {
+        CompletionLog copy = new CompletionLog();
+        for (Entry entry : entries()) {
+            copy.append(entry);
+        }
+        return copy;
+    }
+
+    // 전체 상세 (날짜 순)
+    public List<Entry> entries() {
+        List<Entry> rows = new ArrayList<>(size);
+        Reader reader = new Reader();
+        while (reader.hasNext()) {
+            reader.next();
+            rows.add(reader.entry());
+        }
+        return rows;
+    }
+
+    // 시각이 있는 완료를 시간대 기준 시(0~23)별로 센다 (counts에 더한다). 기록마다 객체를 만들지 않는다.
+    public void addHourCounts(int[] counts, ZoneId zone) {
+        ZoneRules rules = zone.getRules();
+        Reader reader = new Reader();
+        while (reader.hasNext()) {
+            reader.next();
+            if (reader.hasTime) {
+                long epochSecond = reader.day * SECONDS_PER_DAY + reader.offset;
+                int offsetSeconds = rules.isFixedOffset()
+                    ? rules.getOffset(Instant.EPOCH).getTotalSeconds()
+                    : rules.getOffset(Instant.ofEpochSecond(epochSecond)).getTotalSeconds();
+                counts[(int) Math.floorMod(epochSecond + offsetSeconds, (long) SECONDS_PER_DAY) / 3600]++;
+            }
+        }
+    }
+
+    // ---- 파일 형식 ----
+    // 기록 수 | 날짜 열 | 시각 열 | 수량 열 | 메모 번호 열 | 메모 수 | 메모... (열은 길이 + 바이트, 없는 열은 길이 0)
+
+    public void write(DataOutputStream out) throws IOException {
+        out.writeInt(size);
+        days.write(out);
+        times.write(out);
+        Column.write(out, quantities);
+        Column.write(out, noteIds);
+        out.writeInt(notes != null ? notes.size() : 0);
+        if (notes != null) {
+            for (String note : notes) {
+                SnapshotFile.writeName(out, note);
+            }
+        }
+    }
+
+    // 형식이 맞지 않거나 잘렸으면 IllegalArgumentException (손상 블록으로 처리된다)
+    public static CompletionLog read(ByteBuffer in) {
+        try {
+            return readColumns(in);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("완료 상세가 중간에 잘렸습니다", e);
+        }
+    }
+
+    private static CompletionLog readColumns(ByteBuffer in) {
+        CompletionLog log = new CompletionLog();
+        int count = in.getInt();
+        if (count < 0 || count > in.remaining()) {
+            throw new IllegalArgumentException("완료 상세 수가 올바르지 않습니다: " + count);
+        }
+        log.days.read(in);
+        log.times.read(in);
+        Column quantities = new Column();
+        quantities.read(in);
+        Column noteIds = new Column();
+        noteIds.read(in);
+        int noteCount = in.getInt();
+        if (noteCount < 0 || noteCount > in.remaining()) {
+            throw new IllegalArgumentException("메모 수가 올바르지 않습니다: " + noteCount);
+        }
+        if (quantities.length > 0) {
+            log.quantities = quantities;
+        }
+        if (noteIds.length > 0) {
+            log.noteIds = noteIds;
+            log.notes = new ArrayList<>(noteCount);
+            for (int i = 0; i < noteCount; i++) {
+                log.notes.add(SnapshotFile.readName(in));
+            }
+        }
+        // 열 길이와 기록 수가 맞는지 끝까지 풀어 보면서 마지막 날짜/시각을 맞춘다
+        log.size = count;
+        Reader reader = log.new Reader();
+        while (reader.hasNext()) {
+            reader.next();
+            if (reader.noteId > 0 && reader.noteId > log.notes.size()) {
+                throw new IllegalArgumentException("메모 번호가 올바르지 않습니다: " + reader.noteId);
+            }
+        }
+        if (!reader.consumedAll()) {
+            throw new IllegalArgumentException("완료 상세 열 길이가 맞지 않습니다");
+        }
+        log.lastDay = reader.day;
+        log.lastOffset = reader.lastOffset;
+        return log;
+    }
+
+    // ---- 내부 ----
+
+    private void append(Entry entry) {
+        long day = entry.getDate().toEpochDay();
+        days.put(day - lastDay);
+        if (entry.getTime() != null) {
+            long offset = entry.getTime().getEpochSecond() - day * SECONDS_PER_DAY;
+            times.put(zigzag(offset - lastOffset) + 1);
+            lastOffset = offset;
+        } else {
+            times.put(0);
+        }
+        if (entry.getQuantity() != null && quantities == null) {
+            quantities = Column.zeros(size);
+        }
+        if (quantities != null) {
+            quantities.put(entry.getQuantity() != null ? zigzag(entry.getQuantity()) + 1 : 0);
+        }
+        if (entry.getNote() != null && noteIds == null) {
+            noteIds = Column.zeros(size);
+            notes = new ArrayList<>();
+        }
+        if (noteIds != null) {
+            if (entry.getNote() != null) {
+                notes.add(entry.getNote());
+                noteIds.put(notes.size());
+            } else {
+                noteIds.put(0);
+            }
+        }
+        lastDay = day;
+        size++;
+    }
+
+    private void rebuild(List<Entry> rows) {
+        days.length = 0;
+        times.length = 0;
+        quantities = null;
+        noteIds = null;
+        notes = null;
+        size = 0;
+        lastDay = 0;
+        lastOffset = 0;
+        for (Entry row : rows) {
+            append(row);
+        }
+    }
+
+    private static int indexOf(List<Entry> rows, long day) {
+        int low = 0;
+        int high = rows.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midDay = rows.get(mid).getDate().toEpochDay();
+            if (midDay < day) {
+                low = mid + 1;
+            } else if (midDay > day) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private static long zigzag(long value) {
+        return value << 1 ^ value >> 63;
+    }
+
+    private static long unzigzag(long value) {
+        return value >>> 1 ^ -(value & 1);
+    }
+
+    // 앞에서부터 한 기록씩 푼다
+    private final class Reader {
+        private final int[] positions = new int[4];
+        private int row;
+        long day;
+        boolean hasTime;
+        long offset;
+        long lastOffset;
+        long quantity;   // zigzag + 1, 0이면 없음
+        long noteId;     // 메모 번호 + 1, 0이면 없음
+
+        boolean hasNext() {
+            return row < size;
+        }
+
+        void next() {
+            day += days.get(positions, 0);
+            long time = times.get(positions, 1);
+            hasTime = time != 0;
+            if (hasTime) {
+                offset = lastOffset + unzigzag(time - 1);
+                lastOffset = offset;
+            }
+            quantity = quantities != null ? quantities.get(positions, 2) : 0;
+            noteId = noteIds != null ? noteIds.get(positions, 3) : 0;
+            row++;
+        }
+
+        Entry entry() {
+            return new Entry(LocalDate.ofEpochDay(day),
+                hasTime ? Instant.ofEpochSecond(day * SECONDS_PER_DAY + offset) : null,
+                quantity != 0 ? (int) unzigzag(quantity - 1) : null,
+                noteId != 0 ? notes.get((int) noteId - 1) : null);
+        }
+
+        boolean consumedAll() {
+            return positions[0] == days.length && positions[1] == times.length
+                && (quantities == null || positions[2] == quantities.length)
+                && (noteIds == null || positions[3] == noteIds.length);
+        }
+    }
+
+    // varint 바이트 열
+    private static final class Column {
+        byte[] bytes = new byte[8];
+        int length;
+
+        static Column zeros(int count) {
+            Column column = new Column();
+            column.bytes = new byte[Math.max(8, count * 2)];
+            column.length = count; // 0은 1바이트
+            return column;
+        }
+
+        void put(long value) {
+            if (length + 10 > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + 10));
+            }
+            while ((value & ~0x7FL) != 0) {
+                bytes[length++] = (byte) (value & 0x7F | 0x80);
+                value >>>= 7;
+            }
+            bytes[length++] = (byte) value;
+        }
+
+        // positions[slot] 위치의 값을 읽고 위치를 옮긴다
+        long get(int[] positions, int slot) {
+            int pos = positions[slot];
+            long value = 0;
+            for (int shift = 0; ; shift += 7) {
+                if (pos >= length || shift > 63) {
+                    throw new IllegalArgumentException("완료 상세 열이 잘렸습니다");
+                }
+                byte b = bytes[pos++];
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    break;
+                }
+            }
+            positions[slot] = pos;
+            return value;
+        }
+
+        void write(DataOutputStream out) throws IOException {
+            out.writeInt(length);
+            out.write(bytes, 0, length);
+        }
+
+        static void write(DataOutputStream out, Column column) throws IOException {
+            if (column != null) {
+                column.write(out);
+            } else {
+                out.writeInt(0);
+            }
+        }
+
+        void read(ByteBuffer in) {
+            int count = in.getInt();
+            if (count < 0 || count > in.remaining()) {
+                throw new IllegalArgumentException("완료 상세 열 길이가 올바르지 않습니다: " + count);
+            }
+            bytes = new byte[count];
+            in.get(bytes);
+            length = count;
+        }
+    }
+}
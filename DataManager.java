@@ -1,170 +1,442 @@
 import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
 import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
 
 public class DataManager {
-    private static final String DATA_FILE = "habits_data.dat";
+    static final String DEFAULT_DATA_FILE = "habits_data.dat";
     
-    // 데이터 저장
-    public static void saveData(HabitTracker tracker) {
-        try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(DATA_FILE))) {
-            System.out.println("데이터 저장 시작...");
-            System.out.println("저장할 습관 수: " + tracker.getHabits().size());
-            
-            // 습관 리스트를 직렬화 가능한 형태로 변환
-            List<SerializableHabit> serializableHabits = new ArrayList<>();
-            for (Habit habit : tracker.getHabits()) {
-                serializableHabits.add(new SerializableHabit(
-                    habit.getName(),
-                    habit.getStartDate().toString(),
-                    habit.getEndDate().toString()
-                ));
-                System.out.println("저장 중인 습관: " + habit.getName() + 
-                    " (" + habit.getStartDate() + " ~ " + habit.getEndDate() + ")");
-            }
-            
-            // 완료 기록도 직렬화 가능한 형태로 변환
-            Map<String, Set<String>> serializableRecords = new HashMap<>();
-            for (Habit habit : tracker.getHabits()) {
-                Set<String> dateStrings = new HashSet<>();
-                for (LocalDate date = habit.getStartDate(); !date.isAfter(habit.getEndDate()); date = date.plusDays(1)) {
-                    if (tracker.isCompleted(habit.getName(), date)) {
-                        dateStrings.add(date.toString());
-                    }
+    // 저장 방식: segmented(기본, 습관별 파일, 바뀐 습관만 다시 쓰기), serialized(단일 파일, 전체 다시 쓰기),
+    // mapped(메모리 매핑, 변경 즉시 제자리 기록),
+    // partitioned(연도별 파일, 시작할 때 올해 기록만 읽음), memory(디스크를 쓰지 않음, 테스트/벤치마크용),
+    // jdbc(내장 데이터베이스, -Dhabit.jdbc.url 필요)
+    private static final String STORAGE_MODE = System.getProperty("habit.storage", "segmented");
+    private static final String JDBC_URL = System.getProperty("habit.jdbc.url", "");
+    
+    // 한 프로세스 안에서는 같은 파일에 FileLock을 겹쳐 잡을 수 없으므로 스레드끼리는 먼저 이 잠금으로 줄 세운다
+    private static final ReentrantLock PROCESS_LOCK = new ReentrantLock();
+    
+    // openStore()가 실제로 여는 저장 방식 이름 (알 수 없는 값이면 기본 방식)
+    static String storageMode() {
+        String mode = STORAGE_MODE.toLowerCase();
+        switch (mode) {
+            case "mapped":
+            case "partitioned":
+            case "memory":
+            case "jdbc":
+            case "serialized":
+            case "segmented":
+                return mode;
+            default:
+                return "segmented";
+        }
+    }
+    
+    // 설정된 저장 방식의 저장소 열기
+    public static HabitStore openStore(String dataFile) throws IOException {
+        String mode = storageMode();
+        if (!mode.equals(STORAGE_MODE.toLowerCase())) {
+            Log.warn("알 수 없는 저장 방식이라 기본 방식을 사용합니다: {}", STORAGE_MODE);
+        }
+        switch (mode) {
+            case "mapped":
+                return openMappedStore(dataFile);
+            case "partitioned":
+                return openPartitionedStore(dataFile);
+            case "memory":
+                return new InMemoryHabitStore();
+            case "jdbc":
+                return openJdbcStore(dataFile);
+            case "serialized":
+                return new SnapshotHabitStore(dataFile);
+            default:
+                return openSegmentedStore(dataFile);
+        }
+    }
+    
+    // openStore()가 읽을 기록이 있는지 (없으면 읽기만 하는 명령이 저장소 파일/디렉터리를 만들지 않게 한다)
+    // 데이터베이스는 열어 봐야 알 수 있으므로 있다고 본다
+    static boolean hasStoredData(String dataFile) {
+        if (new File(dataFile).exists()) {
+            return true; // 처음 열 때 옮겨 올 기존 파일
+        }
+        switch (storageMode()) {
+            case "mapped":
+                return MappedHabitStore.exists(mappedFileFor(dataFile));
+            case "partitioned":
+                return PartitionedHabitStore.exists(partitionDirFor(dataFile));
+            case "serialized":
+                return false;
+            case "segmented":
+                return SegmentedHabitStore.exists(segmentDirFor(dataFile));
+            default:
+                return true;
+        }
+    }
+    
+    // 데이터 파일 경로에서 .dat를 뗀 부분 (저장소별 파일/디렉터리 이름의 앞부분)
+    static String basePath(String dataFile) {
+        return dataFile.endsWith(".dat") ? dataFile.substring(0, dataFile.length() - 4) : dataFile;
+    }
+    
+    // 데이터 파일에 대응하는 매핑 파일 경로 (habits_data.dat -> habits_data.map)
+    static String mappedFileFor(String dataFile) {
+        return basePath(dataFile) + ".map";
+    }
+    
+    // 매핑 저장소 열기 (처음이면 기존 직렬화 파일 내용을 옮겨 온다)
+    public static MappedHabitStore openMappedStore(String dataFile) throws IOException {
+        String mapFile = mappedFileFor(dataFile);
+        HabitTracker existing = null;
+        if (!MappedHabitStore.exists(mapFile) && new File(dataFile).exists()) {
+            // 매핑 파일을 만들기 전에 이름 길이를 확인한다 (반쯤 옮긴 파일이 남지 않게)
+            existing = loadData(dataFile);
+            for (Habit habit : existing.getHabits()) {
+                try {
+                    MappedHabitStore.checkName(habit.getName());
+                } catch (IllegalArgumentException e) {
+                    throw new IOException("매핑 파일로 옮길 수 없습니다. " + e.getMessage(), e);
                 }
-                serializableRecords.put(habit.getName(), dateStrings);
-                System.out.println("습관 '" + habit.getName() + "'의 완료 기록 수: " + dateStrings.size());
             }
-            
-            oos.writeObject(serializableHabits);
-            oos.writeObject(serializableRecords);
-            
-            System.out.println("데이터 저장 완료: " + DATA_FILE);
-            
+        }
+        MappedHabitStore store = MappedHabitStore.open(mapFile);
+        if (existing != null) {
+            Log.info("직렬화 파일을 매핑 파일로 옮깁니다: {} -> {}", dataFile, mapFile);
+            store.importFrom(existing);
+        }
+        return store;
+    }
+    
+    // 데이터 파일에 대응하는 연도별 저장 디렉터리 (habits_data.dat -> habits_data.parts)
+    static String partitionDirFor(String dataFile) {
+        return basePath(dataFile) + ".parts";
+    }
+    
+    // 연도별 저장소 열기 (처음이면 기존 파일 내용을 연도별로 나눠 옮긴다)
+    public static PartitionedHabitStore openPartitionedStore(String dataFile) throws IOException {
+        String directory = partitionDirFor(dataFile);
+        boolean migrate = !PartitionedHabitStore.exists(directory) && new File(dataFile).exists();
+        PartitionedHabitStore store = PartitionedHabitStore.open(directory);
+        if (migrate) {
+            Log.info("데이터 파일을 연도별 저장소로 옮깁니다: {} -> {}", dataFile, directory);
+            store.importFrom(loadData(dataFile));
+        }
+        return store;
+    }
+    
+    // 데이터 파일에 대응하는 습관별 저장 디렉터리 (habits_data.dat -> habits_data.segs)
+    static String segmentDirFor(String dataFile) {
+        return basePath(dataFile) + ".segs";
+    }
+    
+    // 습관별 저장소 열기 (처음이면 기존 파일 내용을 습관별로 나눠 옮긴다)
+    public static SegmentedHabitStore openSegmentedStore(String dataFile) throws IOException {
+        String directory = segmentDirFor(dataFile);
+        boolean migrate = !SegmentedHabitStore.exists(directory) && new File(dataFile).exists();
+        SegmentedHabitStore store = SegmentedHabitStore.open(directory);
+        if (migrate) {
+            Log.info("데이터 파일을 습관별 저장소로 옮깁니다: {} -> {}", dataFile, directory);
+            store.importFrom(loadData(dataFile));
+        }
+        return store;
+    }
+    
+    // 데이터베이스 저장소 열기 (비어 있으면 기존 파일 내용을 옮겨 온다)
+    public static JdbcHabitStore openJdbcStore(String dataFile) throws IOException {
+        if (JDBC_URL.isEmpty()) {
+            throw new IOException("-Dhabit.jdbc.url 설정이 필요합니다. (예: jdbc:h2:./habits)");
+        }
+        JdbcHabitStore store = new JdbcHabitStore(JDBC_URL);
+        if (store.isEmpty() && new File(dataFile).exists()) {
+            Log.info("데이터 파일을 데이터베이스로 옮깁니다: {} -> {}", dataFile, JDBC_URL);
+            store.importFrom(loadData(dataFile));
+        }
+        return store;
+    }
+    
+    // 같은 저장소를 쓰는 다른 프로세스와의 잠금 (쓰기는 배타, 읽기는 공유)
+    // 이미 잡고 있는 스레드가 다시 부르면 파일 잠금은 건너뛴다.
+    // 잠금 파일을 만들 수 없으면 (읽기 전용 위치 등) 경고만 남기고 잠금 없이 진행한다.
+    static StoreLock lock(File lockFile, boolean shared) {
+        PROCESS_LOCK.lock();
+        if (PROCESS_LOCK.getHoldCount() > 1) {
+            return new StoreLock(null, null);
+        }
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(lockFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            long startNanos = System.nanoTime();
+            FileLock fileLock = channel.lock(0, Long.MAX_VALUE, shared);
+            Metrics.histogram("dataManager.lockWait").recordSince(startNanos);
+            return new StoreLock(channel, fileLock);
+        } catch (IOException e) {
+            Log.warn("파일 잠금을 잡을 수 없어 잠금 없이 진행합니다: {} ({})", lockFile, e.getMessage());
+            closeQuietly(channel);
+            return new StoreLock(null, null);
+        } catch (RuntimeException e) {
+            closeQuietly(channel);
+            PROCESS_LOCK.unlock();
+            throw e;
+        }
+    }
+    
+    private static void closeQuietly(Closeable closeable) {
+        if (closeable == null) {
+            return;
+        }
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            Log.warn("닫기 중 오류: {}", e.getMessage());
+        }
+    }
+    
+    static class StoreLock implements Closeable {
+        private final FileChannel channel;
+        private final FileLock fileLock;
+        
+        private StoreLock(FileChannel channel, FileLock fileLock) {
+            this.channel = channel;
+            this.fileLock = fileLock;
+        }
+        
+        @Override
+        public void close() {
+            if (fileLock != null) {
+                closeQuietly(fileLock::release);
+                closeQuietly(channel);
+            }
+            PROCESS_LOCK.unlock();
+        }
+    }
+    
+    // 데이터 저장
+    public static void saveData(HabitTracker tracker) {
+        saveData(tracker, DEFAULT_DATA_FILE);
+    }
+    
+    // 지정한 파일에 저장 (벤치마크/테스트용)
+    // 임시 파일에 쓴 뒤 교체하므로 저장 도중 종료되어도 기존 파일은 그대로 남는다
+    // (잠금은 블록이 끝날 때까지 쥐고 있기만 하고 본문에서 쓰지 않는다)
+    @SuppressWarnings("try")
+    public static void saveData(HabitTracker tracker, String dataFile) {
+        long startNanos = System.nanoTime();
+        try (StoreLock lock = lock(new File(dataFile + ".lock"), false)) {
+            Log.info("데이터 저장 시작 - 습관 수: {}", tracker.getHabits().size());
+            SnapshotFile.write(tracker, new File(dataFile));
+            Log.info("데이터 저장 완료: {}", dataFile);
         } catch (IOException e) {
-            System.err.println("데이터 저장 중 오류 발생: " + e.getMessage());
-            e.printStackTrace();
+            Log.error("데이터 저장 중 오류 발생: {}", e, e.getMessage());
+            Metrics.counter("dataManager.save.errors").increment();
         }
+        
+        Metrics.histogram("dataManager.save").recordSince(startNanos);
+        Metrics.counter("dataManager.save.bytes").add(new File(dataFile).length());
     }
     
     // 데이터 로드
-    @SuppressWarnings("unchecked")
     public static HabitTracker loadData() {
-        HabitTracker tracker = new HabitTracker();
-        
-        File file = new File(DATA_FILE);
-        System.out.println("데이터 파일 경로: " + file.getAbsolutePath());
-        System.out.println("데이터 파일 존재 여부: " + file.exists());
+        return loadData(DEFAULT_DATA_FILE);
+    }
+    
+    // 지정한 파일에서 로드 (벤치마크/테스트용, 잠금은 블록 동안 쥐고 있기만 한다)
+    @SuppressWarnings("try")
+    public static HabitTracker loadData(String dataFile) {
+        long startNanos = System.nanoTime();
+        File file = new File(dataFile);
+        Log.debug("데이터 파일 경로: {}", file.getAbsolutePath());
         
         if (!file.exists()) {
-            System.out.println("데이터 파일이 없습니다. 빈 트래커를 반환합니다.");
-            return tracker; // 파일이 없으면 빈 트래커 반환
+            Log.info("데이터 파일이 없습니다. 빈 트래커를 반환합니다.");
+            return new HabitTracker(); // 파일이 없으면 빈 트래커 반환
         }
         
-        System.out.println("데이터 파일 크기: " + file.length() + " bytes");
+        Log.info("데이터 파일 읽기 시작: {} ({} bytes)", dataFile, file.length());
         
-        try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(DATA_FILE))) {
-            System.out.println("데이터 파일 읽기 시작...");
-            
+        HabitTracker tracker;
+        try (StoreLock lock = lock(new File(dataFile + ".lock"), true)) {
+            if (SnapshotFile.isSnapshot(file)) {
+                tracker = loadSnapshot(file);
+            } else {
+                tracker = loadLegacy(file);
+            }
+        }
+        
+        Metrics.histogram("dataManager.load").recordSince(startNanos);
+        Metrics.counter("dataManager.load.bytes").add(file.length());
+        return tracker;
+    }
+    
+    // 체크섬 블록 파일 로드: 깨진 블록의 습관만 빠지고 나머지는 살린다
+    private static HabitTracker loadSnapshot(File file) {
+        try {
+            SnapshotFile.ReadResult result = SnapshotFile.read(file);
+            HabitTracker tracker = result.tracker;
+            if (result.isDamaged()) {
+                Log.warn("데이터 파일 일부가 손상되었습니다. 손상 블록 {}개를 건너뛰고 습관 {}개를 복원했습니다.{}",
+                    result.corruptBlocks, tracker.getHabits().size(), result.complete ? "" : " (파일 끝이 잘림)");
+                Metrics.counter("dataManager.load.corruptBlocks").add(result.corruptBlocks);
+                backupDamagedFile(file, false);
+            } else if (result.expectedBlocks != result.blocks) {
+                Log.warn("저장된 습관 수({})와 복원한 습관 수({})가 다릅니다.", result.expectedBlocks, result.blocks);
+            }
+            Log.info("데이터 로드 완료. 최종 습관 수: {}", tracker.getHabits().size());
+            return tracker;
+        } catch (IOException e) {
+            Log.error("데이터 로드 중 오류 발생: {}", e, e.getMessage());
+            backupDamagedFile(file, true);
+            Metrics.counter("dataManager.load.errors").increment();
+            return new HabitTracker();
+        }
+    }
+    
+    // 이전 버전(자바 직렬화) 파일 로드. 다음 저장 때 새 형식으로 바뀐다.
+    @SuppressWarnings("unchecked")
+    private static HabitTracker loadLegacy(File file) {
+        HabitTracker tracker = new HabitTracker();
+        try (ObjectInputStream ois = new ObjectInputStream(new BufferedInputStream(new FileInputStream(file), 64 * 1024))) {
             List<SerializableHabit> serializableHabits = (List<SerializableHabit>) ois.readObject();
             Map<String, Set<String>> serializableRecords = (Map<String, Set<String>>) ois.readObject();
             
-            System.out.println("파일에서 읽은 습관 수: " + serializableHabits.size());
-            System.out.println("파일에서 읽은 기록 수: " + serializableRecords.size());
+            Log.debug("파일에서 읽은 습관 수: {}, 기록 수: {}", serializableHabits.size(), serializableRecords.size());
             
             // 습관 복원
+            List<Habit> habits = new ArrayList<>();
             for (SerializableHabit sh : serializableHabits) {
                 try {
                     Habit habit = new Habit(
                         sh.getName(),
                         LocalDate.parse(sh.getStartDate()),
-                        LocalDate.parse(sh.getEndDate())
+                        LocalDate.parse(sh.getEndDate()),
+                        sh.getReminderTime() != null ? LocalTime.parse(sh.getReminderTime()) : null
                     );
-                    tracker.addHabit(habit);
-                    System.out.println("복원된 습관: " + habit.getName() + 
-                        " (" + habit.getStartDate() + " ~ " + habit.getEndDate() + ")");
+                    habits.add(habit);
+                    if (Log.isDebugEnabled()) {
+                        Log.debug("복원된 습관: {} ({} ~ {})", habit.getName(), habit.getStartDate(), habit.getEndDate());
+                    }
                 } catch (Exception e) {
-                    System.err.println("습관 복원 중 오류: " + sh.getName() + " - " + e.getMessage());
+                    Log.warn("습관 복원 중 오류: {} - {}", sh.getName(), e.getMessage());
                 }
             }
             
-            // 완료 기록 복원
-            for (Map.Entry<String, Set<String>> entry : serializableRecords.entrySet()) {
-                String habitName = entry.getKey();
-                Set<String> dateStrings = entry.getValue();
-                System.out.println("복원 중인 기록 - 습관: " + habitName + ", 기록 수: " + dateStrings.size());
-                
-                for (String dateString : dateStrings) {
-                    try {
-                        tracker.markCompleted(habitName, LocalDate.parse(dateString));
-                    } catch (Exception e) {
-                        System.err.println("완료 기록 복원 중 오류: " + habitName + " - " + dateString + " - " + e.getMessage());
-                    }
-                }
+            // 완료 기록 복원: 날짜 문자열 변환은 습관 단위로 작업 스레드들이 나눠 하고, 트래커에는 순서대로 넣는다
+            HabitTracker result = tracker;
+            ParallelDecoder<Habit, SnapshotFile.LoadedHabit> decoder = new ParallelDecoder<>(
+                habit -> new SnapshotFile.LoadedHabit(habit,
+                    parseDates(habit.getName(), serializableRecords.getOrDefault(habit.getName(), Collections.emptySet()))),
+                loaded -> result.restoreHabit(loaded.habit, loaded.dates));
+            for (Habit habit : habits) {
+                Set<String> dateStrings = serializableRecords.get(habit.getName());
+                decoder.add(habit, dateStrings != null ? dateStrings.size() * 16 : 16);
             }
+            decoder.finish();
             
-            System.out.println("데이터 로드 완료. 최종 습관 수: " + tracker.getHabits().size());
+            Log.info("데이터 로드 완료. 최종 습관 수: {}", tracker.getHabits().size());
             
         } catch (IOException | ClassNotFoundException e) {
-            System.err.println("데이터 로드 중 오류 발생: " + e.getMessage());
-            e.printStackTrace();
+            Log.error("데이터 로드 중 오류 발생: {}", e, e.getMessage());
             
             // 파일이 손상된 경우 백업 생성
-            try {
-                File backupFile = new File(DATA_FILE + ".backup." + System.currentTimeMillis());
-                if (file.renameTo(backupFile)) {
-                    System.out.println("손상된 파일을 백업으로 이동: " + backupFile.getName());
-                }
-            } catch (Exception backupError) {
-                System.err.println("백업 생성 중 오류: " + backupError.getMessage());
-            }
+            backupDamagedFile(file, true);
             
             // 빈 트래커 반환
             tracker = new HabitTracker();
+            Metrics.counter("dataManager.load.errors").increment();
         }
-        
         return tracker;
     }
     
-    // 만료된 습관 정리 및 알림 필요 여부 반환
-    public static boolean cleanExpiredHabits(HabitTracker tracker) {
-        LocalDate today = LocalDate.now();
-        List<Habit> habitsToRemove = new ArrayList<>();
-        
-        System.out.println("만료된 습관 정리 시작...");
-        
-        for (Habit habit : tracker.getHabits()) {
-            if (habit.getEndDate().isBefore(today)) {
-                habitsToRemove.add(habit);
-                System.out.println("만료된 습관 발견: " + habit.getName() + " (종료일: " + habit.getEndDate() + ")");
+    // 작업 스레드에서 불린다 (트래커를 건드리지 않는다)
+    private static Set<LocalDate> parseDates(String habitName, Set<String> dateStrings) {
+        Set<LocalDate> dates = new HashSet<>(Math.max(16, dateStrings.size() * 4 / 3 + 1));
+        for (String dateString : dateStrings) {
+            try {
+                dates.add(LocalDate.parse(dateString));
+            } catch (Exception e) {
+                Log.warn("완료 기록 복원 중 오류: {} - {} - {}", habitName, dateString, e.getMessage());
             }
         }
-        
-        for (Habit habit : habitsToRemove) {
-            tracker.removeHabit(habit.getName());
-            System.out.println("만료된 습관 제거됨: " + habit.getName());
+        return dates;
+    }
+    
+    // 손상된 파일을 .backup.<시각> 으로 남긴다 (일부라도 복원했으면 원본은 두고 복사본만 만든다)
+    static void backupDamagedFile(File file, boolean move) {
+        File backupFile = new File(file.getPath() + ".backup." + System.currentTimeMillis());
+        try {
+            if (move) {
+                Files.move(file.toPath(), backupFile.toPath());
+                Log.warn("손상된 파일을 백업으로 이동: {}", backupFile.getName());
+            } else {
+                Files.copy(file.toPath(), backupFile.toPath());
+                Log.warn("손상된 파일의 복사본을 남김: {}", backupFile.getName());
+            }
+        } catch (IOException backupError) {
+            Log.error("백업 생성 중 오류: {}", backupError, backupError.getMessage());
+        }
+    }
+    
+    // 데이터 파일에 대응하는 보관함 경로 (habits_data.dat -> habits_data.archive)
+    static String archiveFileFor(String dataFile) {
+        return basePath(dataFile) + ".archive";
+    }
+    
+    // 데이터 파일에 대응하는 그룹 파일 경로 (habits_data.dat -> habits_data.groups)
+    static String groupsFileFor(String dataFile) {
+        return basePath(dataFile) + ".groups";
+    }
+    
+    // 만료된 습관을 보관함으로 옮기고 알림 필요 여부 반환 (만료된 습관이 없으면 false, 보관 실패는 IOException)
+    // 큐 앞쪽에서 새로 만료된 습관만 꺼내므로 전체 목록을 다시 훑지 않는다.
+    public static boolean archiveExpiredHabits(HabitTracker tracker, ExpiryQueue expiryQueue, HabitArchive archive) throws IOException {
+        LocalDate today = HabitClock.today();
+        List<Habit> expired = expiryQueue.pollExpired(today);
+        if (expired.isEmpty()) {
+            return false;
+        }
+        if (Log.isDebugEnabled()) {
+            for (Habit habit : expired) {
+                Log.debug("만료된 습관 발견: {} (종료일: {})", habit.getName(), habit.getEndDate());
+            }
         }
         
-        System.out.println("만료된 습관 정리 완료. 제거된 습관 수: " + habitsToRemove.size());
+        try {
+            archive.append(tracker, expired, today);
+        } catch (IOException e) {
+            // 보관에 실패하면 기록을 잃지 않도록 트래커에 그대로 두고, 다음에 다시 꺼내도록 큐에도 되돌린다
+            expiryQueue.requeue(expired);
+            throw e;
+        }
         
-        return !habitsToRemove.isEmpty(); // 삭제된 습관이 있으면 true 반환
+        for (Habit habit : expired) {
+            tracker.removeHabit(habit.getName());
+            Log.info("만료된 습관을 보관함으로 옮김: {}", habit.getName());
+        }
+        return true;
     }
     
-    // 직렬화 가능한 습관 클래스
+    // 직렬화 가능한 습관 클래스 (이전 버전 파일 읽기용)
     private static class SerializableHabit implements Serializable {
         private static final long serialVersionUID = 1L;
         private String name;
         private String startDate;
         private String endDate;
+        private String reminderTime; // 이전 버전 파일에서는 null
         
-        public SerializableHabit(String name, String startDate, String endDate) {
+        public SerializableHabit(String name, String startDate, String endDate, String reminderTime) {
             this.name = name;
             this.startDate = startDate;
             this.endDate = endDate;
+            this.reminderTime = reminderTime;
         }
         
         public String getName() { return name; }
         public String getStartDate() { return startDate; }
         public String getEndDate() { return endDate; }
+        public String getReminderTime() { return reminderTime; }
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
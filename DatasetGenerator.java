@@ -0,0 +1,195 @@
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Random;
+
+// 규모 테스트용 합성 데이터 생성기 (같은 시드면 항상 같은 데이터)
+// 사용법: java DatasetGenerator habits=20000 days=1825 density=0.6 pattern=streaky seed=1 [today=2025-01-01] out=big.dat
+public class DatasetGenerator {
+    public enum Pattern {
+        RANDOM,   // 날마다 독립적으로 density 확률로 완료
+        STREAKY,  // 연속 달성 구간과 쉬는 구간이 번갈아 나옴 (평균 완료율은 density)
+        WEEKDAYS  // 평일에만 density 확률로 완료
+    }
+
+    // 기준일 기본값. 실행한 날에 따라 기간과 완료 기록이 바뀌지 않도록 고정한다 (today= 로 바꿀 수 있다).
+    static final LocalDate DEFAULT_TODAY = LocalDate.of(2025, 1, 1);
+
+    private static final String[] NAME_POOL = {
+        "운동", "독서", "물 마시기", "명상", "영어 공부", "일기 쓰기", "스트레칭", "코딩", "산책", "일찍 자기"
+    };
+
+    private final long seed;
+    private int habitCount = 100;
+    private int minPeriodDays = 30;
+    private int maxPeriodDays = 365;
+    private double density = 0.7;
+    private int meanStreakLength = 7;
+    private double expiredFraction = 0.0;
+    private Pattern pattern = Pattern.RANDOM;
+    private LocalDate today = DEFAULT_TODAY;
+
+    public DatasetGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    public DatasetGenerator habitCount(int habitCount) {
+        this.habitCount = habitCount;
+        return this;
+    }
+
+    // 습관 기간 길이 범위 (일)
+    public DatasetGenerator periodDays(int minPeriodDays, int maxPeriodDays) {
+        this.minPeriodDays = Math.max(1, minPeriodDays);
+        this.maxPeriodDays = Math.max(this.minPeriodDays, maxPeriodDays);
+        return this;
+    }
+
+    public DatasetGenerator density(double density) {
+        this.density = Math.min(1.0, Math.max(0.0, density));
+        return this;
+    }
+
+    public DatasetGenerator meanStreakLength(int meanStreakLength) {
+        this.meanStreakLength = Math.max(1, meanStreakLength);
+        return this;
+    }
+
+    // 이미 종료된 습관 비율 (만료 정리/보관 테스트용)
+    public DatasetGenerator expiredFraction(double expiredFraction) {
+        this.expiredFraction = Math.min(1.0, Math.max(0.0, expiredFraction));
+        return this;
+    }
+
+    public DatasetGenerator pattern(Pattern pattern) {
+        this.pattern = pattern;
+        return this;
+    }
+
+    public DatasetGenerator today(LocalDate today) {
+        this.today = today;
+        return this;
+    }
+
+    public HabitTracker generate() {
+        Random random = new Random(seed);
+        HabitTracker tracker = new HabitTracker();
+
+        for (int i = 0; i < habitCount; i++) {
+            String name = String.format("%s %05d", NAME_POOL[i % NAME_POOL.length], i);
+            int periodDays = minPeriodDays + random.nextInt(maxPeriodDays - minPeriodDays + 1);
+
+            LocalDate endDate;
+            if (random.nextDouble() < expiredFraction) {
+                endDate = today.minusDays(1 + random.nextInt(30));
+            } else {
+                endDate = today.plusDays(random.nextInt(31));
+            }
+            LocalDate startDate = endDate.minusDays(periodDays - 1L);
+
+            tracker.addHabit(new Habit(name, startDate, endDate));
+            fillCompletions(tracker, name, startDate, endDate.isAfter(today) ? today : endDate, random);
+        }
+        return tracker;
+    }
+
+    private void fillCompletions(HabitTracker tracker, String name, LocalDate from, LocalDate to, Random random) {
+        switch (pattern) {
+            case STREAKY:
+                fillStreaky(tracker, name, from, to, random);
+                break;
+            case WEEKDAYS:
+                for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+                    DayOfWeek dayOfWeek = date.getDayOfWeek();
+                    boolean weekend = dayOfWeek == DayOfWeek.SATURDAY || dayOfWeek == DayOfWeek.SUNDAY;
+                    if (!weekend && random.nextDouble() < density) {
+                        tracker.markCompleted(name, date);
+                    }
+                }
+                break;
+            default:
+                for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+                    if (random.nextDouble() < density) {
+                        tracker.markCompleted(name, date);
+                    }
+                }
+                break;
+        }
+    }
+
+    // 완료 구간/쉬는 구간 길이를 기하분포로 뽑는다
+    // 평균 쉬는 구간 = 평균 연속 구간 * (1 - density) / density 이면 전체 완료율이 density가 된다
+    private void fillStreaky(HabitTracker tracker, String name, LocalDate from, LocalDate to, Random random) {
+        if (density <= 0.0) {
+            return;
+        }
+        double meanGap = meanStreakLength * (1.0 - density) / density;
+        boolean completing = random.nextDouble() < density;
+        int remaining = geometric(random, completing ? meanStreakLength : meanGap);
+
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            while (remaining == 0) {
+                completing = !completing;
+                remaining = geometric(random, completing ? meanStreakLength : meanGap);
+            }
+            if (completing) {
+                tracker.markCompleted(name, date);
+            }
+            remaining--;
+        }
+    }
+
+    private static int geometric(Random random, double mean) {
+        if (mean <= 0.0) {
+            return 0;
+        }
+        double p = 1.0 / (mean + 1.0);
+        return (int) Math.floor(Math.log(1.0 - random.nextDouble()) / Math.log(1.0 - p));
+    }
+
+    // key=value 인자로 생성기 설정
+    static DatasetGenerator fromArgs(String[] args) {
+        long seed = 42;
+        for (String arg : args) {
+            if (arg.startsWith("seed=")) {
+                seed = Long.parseLong(arg.substring(5));
+            }
+        }
+        DatasetGenerator generator = new DatasetGenerator(seed);
+        int minDays = generator.minPeriodDays;
+        int maxDays = generator.maxPeriodDays;
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq < 0) {
+                continue;
+            }
+            String key = arg.substring(0, eq);
+            String value = arg.substring(eq + 1);
+            switch (key) {
+                case "habits": generator.habitCount(Integer.parseInt(value)); break;
+                case "days": minDays = maxDays = Integer.parseInt(value); break;
+                case "minDays": minDays = Integer.parseInt(value); break;
+                case "maxDays": maxDays = Integer.parseInt(value); break;
+                case "density": generator.density(Double.parseDouble(value)); break;
+                case "streak": generator.meanStreakLength(Integer.parseInt(value)); break;
+                case "expired": generator.expiredFraction(Double.parseDouble(value)); break;
+                case "pattern": generator.pattern(Pattern.valueOf(value.toUpperCase())); break;
+                case "today": generator.today(LocalDate.parse(value)); break;
+                default: break;
+            }
+        }
+        generator.periodDays(minDays, maxDays);
+        return generator;
+    }
+
+    public static void main(String[] args) {
+        String out = "habits_generated.dat";
+        for (String arg : args) {
+            if (arg.startsWith("out=")) {
+                out = arg.substring(4);
+            }
+        }
+        HabitTracker tracker = fromArgs(args).generate();
+        DataManager.saveData(tracker, out);
+        System.out.println("생성 완료: " + out + " (습관 " + tracker.getHabits().size() + "개)");
+    }
+}
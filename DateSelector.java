@@ -11,7 +11,7 @@ public class DateSelector extends JPanel {
     private JComboBox<Integer> dayCombo;
     
     public DateSelector() {
-        this(LocalDate.now());
+        this(HabitClock.today());
     }
     
     public DateSelector(LocalDate initialDate) {
@@ -22,7 +22,7 @@ public class DateSelector extends JPanel {
     
     private void initializeComponents(LocalDate initialDate) {
         // 년도 콤보박스 (현재년도 기준 -10년 ~ +10년)
-        int currentYear = LocalDate.now().getYear();
+        int currentYear = HabitClock.today().getYear();
         Integer[] years = new Integer[21];
         for (int i = 0; i < 21; i++) {
             years[i] = currentYear - 10 + i;
@@ -89,7 +89,7 @@ public class DateSelector extends JPanel {
         if (yearCombo.getSelectedItem() == null || 
             monthCombo.getSelectedItem() == null || 
             dayCombo.getSelectedItem() == null) {
-            return LocalDate.now();
+            return HabitClock.today();
         }
         
         return LocalDate.of(
@@ -0,0 +1,185 @@
+import java.awt.AWTEvent;
+import java.awt.Color;
+import java.awt.EventQueue;
+import java.awt.Font;
+import java.awt.Toolkit;
+import java.awt.event.ActionEvent;
+import java.awt.event.MouseEvent;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.swing.AbstractButton;
+import javax.swing.JFrame;
+import javax.swing.JLabel;
+import javax.swing.JLayeredPane;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+
+// 이벤트 디스패치 스레드(EDT) 감시
+// - 하트비트로 이벤트 큐 대기 시간 측정
+// - 기준 시간보다 오래 걸린 이벤트 처리를 찾아 EDT 스택과 원인 동작(체크박스, 달력 클릭, 화면 이동 등)을 기록
+// -Dhabit.edt.thresholdMs=100 으로 기준 변경, -Dhabit.edt.overlay=true 로 화면 오버레이 표시
+public class EdtMonitor extends EventQueue {
+    private static final long THRESHOLD_NANOS = TimeUnit.MILLISECONDS.toNanos(Long.getLong("habit.edt.thresholdMs", 100L));
+    private static final long HEARTBEAT_MILLIS = 100;
+    private static final EdtMonitor INSTANCE = new EdtMonitor();
+
+    private volatile Thread edtThread;
+    private volatile long dispatchStartNanos; // 0이면 처리 중이 아님
+    private volatile long dispatchSeq;
+    private volatile StackTraceElement[] capturedStack;
+    private volatile long capturedSeq = -1;
+    private String currentAction; // 이하 EDT에서만 접근
+    private int depth;
+    private boolean pumpedNested; // 처리 중에 다른 이벤트가 디스패치됨 (모달 대화상자 등)
+    private final AtomicLong lastQueueLatencyNanos = new AtomicLong();
+    private final AtomicLong worstDispatchNanos = new AtomicLong();
+    private boolean installed;
+
+    private EdtMonitor() {
+    }
+
+    // 시스템 이벤트 큐를 감시용 큐로 교체하고 감시 스레드를 시작한다
+    public static synchronized void install() {
+        if (INSTANCE.installed) {
+            return;
+        }
+        INSTANCE.installed = true;
+        Toolkit.getDefaultToolkit().getSystemEventQueue().push(INSTANCE);
+        INSTANCE.startWatchdog();
+        INSTANCE.startHeartbeat();
+    }
+
+    // 현재 처리 중인 이벤트를 일으킨 동작 이름 (EDT에서 호출, 이벤트 처리가 끝나면 지워진다)
+    public static void markAction(String action) {
+        INSTANCE.currentAction = action;
+    }
+
+    @Override
+    protected void dispatchEvent(AWTEvent event) {
+        if (edtThread == null) {
+            edtThread = Thread.currentThread();
+        }
+        // 모달 대화상자는 처리 도중 이벤트를 다시 디스패치하므로 바깥 이벤트는 EDT를 막은 것이 아니다
+        boolean outerPumped = depth > 0 || pumpedNested;
+        depth++;
+        pumpedNested = false;
+        long seq = dispatchSeq + 1;
+        dispatchSeq = seq;
+        long start = System.nanoTime();
+        dispatchStartNanos = start;
+        try {
+            super.dispatchEvent(event);
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            boolean pumped = pumpedNested;
+            depth--;
+            pumpedNested = outerPumped;
+            dispatchStartNanos = 0;
+            if (!pumped) {
+                Metrics.histogram("edt.dispatch").recordNanos(elapsed);
+                worstDispatchNanos.accumulateAndGet(elapsed, Math::max);
+                if (elapsed >= THRESHOLD_NANOS) {
+                    reportSlowEvent(event, elapsed, seq);
+                }
+            }
+            if (depth == 0) {
+                currentAction = null;
+            }
+        }
+    }
+
+    private void reportSlowEvent(AWTEvent event, long elapsedNanos, long seq) {
+        Metrics.counter("edt.slowEvents").increment();
+        String action = currentAction != null ? currentAction : describe(event);
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("[EDT] 느린 이벤트 처리 %.1fms - 동작: %s", elapsedNanos / 1_000_000.0, action));
+        StackTraceElement[] stack = capturedStack;
+        if (stack != null && capturedSeq == seq) {
+            sb.append("\n  처리 중 EDT 스택:");
+            for (StackTraceElement element : stack) {
+                sb.append("\n    at ").append(element);
+            }
+        }
+        Log.warn(sb.toString());
+    }
+
+    // 명시적으로 표시한 동작이 없으면 이벤트 소스로 추정
+    private static String describe(AWTEvent event) {
+        Object source = event.getSource();
+        if (source instanceof AbstractButton) {
+            return source.getClass().getSimpleName() + "[" + ((AbstractButton) source).getText() + "]";
+        }
+        if (event instanceof ActionEvent) {
+            return "action " + ((ActionEvent) event).getActionCommand();
+        }
+        if (event instanceof MouseEvent) {
+            return "mouse " + event.paramString() + " on " + source.getClass().getSimpleName();
+        }
+        return event.getClass().getSimpleName() + " from " + (source != null ? source.getClass().getSimpleName() : "?");
+    }
+
+    // 처리 중인 이벤트가 기준 시간을 넘기면 그 순간의 EDT 스택을 잡아 둔다
+    private void startWatchdog() {
+        Thread watchdog = new Thread(() -> {
+            long pollMillis = Math.max(10, TimeUnit.NANOSECONDS.toMillis(THRESHOLD_NANOS) / 2);
+            while (true) {
+                try {
+                    Thread.sleep(pollMillis);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                long start = dispatchStartNanos;
+                long seq = dispatchSeq;
+                Thread edt = edtThread;
+                if (start != 0 && edt != null && seq != capturedSeq
+                        && System.nanoTime() - start >= THRESHOLD_NANOS) {
+                    capturedStack = edt.getStackTrace();
+                    capturedSeq = seq;
+                }
+            }
+        }, "habit-edt-watchdog");
+        watchdog.setDaemon(true);
+        watchdog.start();
+    }
+
+    // 주기적으로 빈 작업을 넣어서 큐에 들어간 뒤 실행되기까지 걸린 시간 측정
+    private void startHeartbeat() {
+        Thread heartbeat = new Thread(() -> {
+            while (true) {
+                try {
+                    Thread.sleep(HEARTBEAT_MILLIS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                long posted = System.nanoTime();
+                SwingUtilities.invokeLater(() -> {
+                    long latency = System.nanoTime() - posted;
+                    lastQueueLatencyNanos.set(latency);
+                    Metrics.histogram("edt.queueLatency").recordNanos(latency);
+                });
+            }
+        }, "habit-edt-heartbeat");
+        heartbeat.setDaemon(true);
+        heartbeat.start();
+    }
+
+    // 창 오른쪽 위에 큐 대기 시간과 최근 최대 처리 시간을 표시
+    public static void installOverlay(JFrame frame) {
+        JLabel overlay = new JLabel();
+        overlay.setOpaque(true);
+        overlay.setBackground(new Color(0, 0, 0, 160));
+        overlay.setForeground(Color.WHITE);
+        overlay.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 11));
+
+        JLayeredPane layeredPane = frame.getLayeredPane();
+        layeredPane.add(overlay, JLayeredPane.DRAG_LAYER);
+
+        new Timer(500, e -> {
+            long worst = INSTANCE.worstDispatchNanos.getAndSet(0);
+            overlay.setText(String.format(" 큐 %.1fms | 최대 처리 %.1fms ",
+                INSTANCE.lastQueueLatencyNanos.get() / 1_000_000.0, worst / 1_000_000.0));
+            overlay.setSize(overlay.getPreferredSize());
+            overlay.setLocation(layeredPane.getWidth() - overlay.getWidth() - 4, 4);
+        }).start();
+    }
+}
@@ -0,0 +1,69 @@
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+// 종료일 순 우선순위 큐
+// 만료된 습관을 찾을 때 전체 목록을 훑지 않고 큐 앞쪽(종료일이 가장 이른 습관)만 본다.
+// 삭제/기간 수정은 큐에서 바로 빼지 않고, 꺼낼 때 현재 습관과 다르면 버린다.
+public class ExpiryQueue implements HabitChangeListener {
+    private final PriorityQueue<Habit> queue = new PriorityQueue<>(Comparator.comparing(Habit::getEndDate));
+    private final Map<String, Habit> current = new HashMap<>();
+
+    public ExpiryQueue(HabitTracker tracker) {
+        for (Habit habit : tracker.getHabits()) {
+            habitAdded(habit);
+        }
+        tracker.addChangeListener(this);
+    }
+
+    // today 전에 끝난 습관을 종료일 순으로 꺼낸다
+    public List<Habit> pollExpired(LocalDate today) {
+        List<Habit> expired = new ArrayList<>();
+        while (!queue.isEmpty() && queue.peek().getEndDate().isBefore(today)) {
+            Habit habit = queue.poll();
+            if (current.get(habit.getName()) == habit) {
+                current.remove(habit.getName());
+                expired.add(habit);
+            }
+        }
+        return expired;
+    }
+
+    // 꺼냈지만 보관하지 못한 습관을 다시 넣는다 (다음 날짜 넘김이나 정리 때 다시 꺼낸다)
+    public void requeue(List<Habit> habits) {
+        for (Habit habit : habits) {
+            if (!current.containsKey(habit.getName())) {
+                habitAdded(habit);
+            }
+        }
+    }
+
+    @Override
+    public void habitAdded(Habit habit) {
+        current.put(habit.getName(), habit);
+        queue.add(habit);
+        compactIfStale();
+    }
+
+    @Override
+    public void habitRemoved(String habitName) {
+        current.remove(habitName);
+    }
+
+    @Override
+    public void habitUpdated(Habit habit) {
+        habitAdded(habit);
+    }
+
+    // 버려진 항목이 절반을 넘으면 현재 습관만으로 다시 만든다
+    private void compactIfStale() {
+        if (queue.size() > 2 * current.size() + 16) {
+            queue.clear();
+            queue.addAll(current.values());
+        }
+    }
+}
@@ -1,14 +1,47 @@
 import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.BitSet;
 
 public class Habit {
     private String name;
     private LocalDate startDate;
     private LocalDate endDate;
+    private LocalTime reminderTime; // 알림 시간 (없으면 null)
+    private Recurrence recurrence; // 반복 규칙 (기본 매일)
+    private int id = -1; // 트래커가 붙이는 번호 (트래커에 넣기 전에는 -1)
+
+    // 기간과 반복 규칙으로 만든 일정 비트맵 (비트 i = 시작일 + i일에 하는 날). 처음 쓸 때 만든다.
+    private volatile BitSet schedule;
 
     public Habit(String name, LocalDate startDate, LocalDate endDate) {
+        this(name, startDate, endDate, null);
+    }
+
+    public Habit(String name, LocalDate startDate, LocalDate endDate, LocalTime reminderTime) {
+        this(name, startDate, endDate, reminderTime, Recurrence.DAILY);
+    }
+
+    public Habit(String name, LocalDate startDate, LocalDate endDate, LocalTime reminderTime, Recurrence recurrence) {
         this.name = name;
         this.startDate = startDate;
         this.endDate = endDate;
+        this.reminderTime = reminderTime;
+        this.recurrence = recurrence != null ? recurrence : Recurrence.DAILY;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    // 번호를 붙인다. 아직 번호가 없으면 그대로 쓰고, 다른 번호가 있으면 복사본에 붙인다.
+    Habit withId(int id) {
+        if (this.id == id) {
+            return this;
+        }
+        Habit habit = this.id < 0 ? this : new Habit(name, startDate, endDate, reminderTime, recurrence);
+        habit.id = id;
+        habit.schedule = schedule;
+        return habit;
     }
 
     public String getName() {
@@ -23,9 +56,177 @@ public class Habit {
         return endDate;
     }
 
+    public LocalTime getReminderTime() {
+        return reminderTime;
+    }
+
+    public Recurrence getRecurrence() {
+        return recurrence;
+    }
+
     public boolean isInPeriod(LocalDate date) {
         return !(date.isBefore(startDate) || date.isAfter(endDate));
     }
-}
 
+    // 기간 안이면서 반복 규칙상 하는 날인지 (달력, 오늘 체크박스, 알림)
+    public boolean isScheduled(LocalDate date) {
+        return isInPeriod(date) && (recurrence.isDaily() || getSchedule().get(dayIndex(date)));
+    }
+
+    // from 이후(포함) 첫 번째 하는 날 (기간이 끝났으면 null)
+    public LocalDate nextScheduledDate(LocalDate from) {
+        if (from.isAfter(endDate)) {
+            return null;
+        }
+        if (from.isBefore(startDate)) {
+            from = startDate;
+        }
+        int next = getSchedule().nextSetBit(dayIndex(from));
+        return next >= 0 ? startDate.plusDays(next) : null;
+    }
 
+    int dayIndex(LocalDate date) {
+        return (int) (date.toEpochDay() - startDate.toEpochDay());
+    }
+
+    int periodLength() {
+        return (int) (endDate.toEpochDay() - startDate.toEpochDay() + 1);
+    }
+
+    // 읽기 전용으로만 쓴다 (여러 스레드가 같은 비트맵을 본다)
+    BitSet getSchedule() {
+        BitSet compiled = schedule;
+        if (compiled == null) {
+            compiled = recurrence.compile(startDate, endDate);
+            schedule = compiled;
+        }
+        return compiled;
+    }
+
+    // 완료 날짜들을 이 습관 기간 기준의 비트맵으로 (기간 밖의 날짜는 버린다)
+    BitSet toCompletionMask(Iterable<LocalDate> dates) {
+        int length = periodLength();
+        BitSet done = new BitSet(Math.max(length, 0));
+        for (LocalDate date : dates) {
+            int index = dayIndex(date);
+            if (index >= 0 && index < length) {
+                done.set(index);
+            }
+        }
+        return done;
+    }
+
+    // 기간 전체의 목표 일수: 하는 날의 수, 주 N회는 주마다 min(N, 그 주의 기간 안 일수)의 합
+    public long getTargetDays() {
+        if (!recurrence.isWeeklyQuota()) {
+            return recurrence.isDaily() ? Math.max(periodLength(), 0) : getSchedule().cardinality();
+        }
+        long target = 0;
+        int length = periodLength();
+        for (int weekStart = -firstDayOfWeek(); weekStart < length; weekStart += 7) {
+            target += weekTarget(weekStart, length);
+        }
+        return target;
+    }
+
+    // 목표에 들어가는 완료 수: 하는 날 중 완료한 날, 주 N회는 주마다 N회까지만 센다
+    long countScheduledCompletions(BitSet done) {
+        if (!recurrence.isWeeklyQuota()) {
+            BitSet counted = (BitSet) done.clone();
+            counted.and(getSchedule());
+            return counted.cardinality();
+        }
+        long count = 0;
+        int length = periodLength();
+        for (int weekStart = -firstDayOfWeek(); weekStart < length; weekStart += 7) {
+            count += Math.min(weekTarget(weekStart, length), countWeek(done, weekStart, length));
+        }
+        return count;
+    }
+
+    // index 날이 든 주에서 목표에 들어가는 완료 수 (주 N회 습관용, min(그 주의 목표, 그 주의 완료 수))
+    int countWeekCompletions(BitSet done, int index) {
+        int length = periodLength();
+        int weekStart = index - Math.floorMod(index + firstDayOfWeek(), 7);
+        return Math.min(weekTarget(weekStart, length), countWeek(done, weekStart, length));
+    }
+
+    // 완료 비트맵 기준 달성률 (%)
+    double completionRate(BitSet done) {
+        long target = getTargetDays();
+        return target > 0 ? (double) countScheduledCompletions(done) / target * 100 : 0.0;
+    }
+
+    // today부터 거꾸로 이어진 연속 달성. 하지 않는 날은 연속을 끊지 않는다.
+    // 주 N회는 목표를 채운 주가 몇 주 이어졌는지 센다 (진행 중인 이번 주는 아직 못 채웠어도 끊지 않는다).
+    int streak(BitSet done, LocalDate today) {
+        if (!isInPeriod(today)) {
+            return 0;
+        }
+        int todayIndex = dayIndex(today);
+        BitSet schedule = getSchedule();
+        if (recurrence.isWeeklyQuota()) {
+            int length = periodLength();
+            int weekStart = todayIndex - Math.floorMod(todayIndex + firstDayOfWeek(), 7);
+            int streak = countWeek(done, weekStart, todayIndex + 1) >= weekTarget(weekStart, length) ? 1 : 0;
+            for (weekStart -= 7; weekStart + 7 > 0; weekStart -= 7) {
+                if (countWeek(done, weekStart, length) < weekTarget(weekStart, length)) {
+                    break;
+                }
+                streak++;
+            }
+            return streak;
+        }
+        // 마지막으로 빠뜨린 날 이후의 하는 날 수
+        BitSet missed = schedule.get(0, todayIndex + 1);
+        missed.andNot(done);
+        int lastMissed = missed.previousSetBit(todayIndex);
+        return schedule.get(lastMissed + 1, todayIndex + 1).cardinality();
+    }
+
+    // 기간 처음부터 until까지 가장 길게 이어진 연속 달성 (streak와 같은 규칙, 주 N회는 주 단위)
+    int longestStreak(BitSet done, LocalDate until) {
+        if (until.isBefore(startDate)) {
+            return 0;
+        }
+        int length = periodLength();
+        int limit = Math.min(dayIndex(until) + 1, length);
+        int best = 0;
+        int run = 0;
+        if (recurrence.isWeeklyQuota()) {
+            for (int weekStart = -firstDayOfWeek(); weekStart < limit; weekStart += 7) {
+                if (countWeek(done, weekStart, limit) >= weekTarget(weekStart, length)) {
+                    best = Math.max(best, ++run);
+                } else if (weekStart + 7 <= limit) {
+                    // 진행 중인 주는 아직 못 채웠어도 끊지 않는다
+                    run = 0;
+                }
+            }
+            return best;
+        }
+        BitSet schedule = getSchedule();
+        for (int i = schedule.nextSetBit(0); i >= 0 && i < limit; i = schedule.nextSetBit(i + 1)) {
+            if (done.get(i)) {
+                best = Math.max(best, ++run);
+            } else {
+                run = 0;
+            }
+        }
+        return best;
+    }
+
+    // 시작일의 요일 (월요일 = 0). 주 단위 계산은 월요일부터 일요일까지를 한 주로 본다.
+    private int firstDayOfWeek() {
+        return startDate.getDayOfWeek().getValue() - 1;
+    }
+
+    private int weekTarget(int weekStart, int length) {
+        return Math.min(recurrence.getValue(), Math.min(weekStart + 7, length) - Math.max(weekStart, 0));
+    }
+
+    private static int countWeek(BitSet done, int weekStart, int limit) {
+        int from = Math.max(weekStart, 0);
+        int to = Math.min(weekStart + 7, limit);
+        return from < to ? done.get(from, to).cardinality() : 0;
+    }
+}
@@ -0,0 +1,209 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+// 만료된 습관 보관함
+// 기간이 끝난 습관을 지우지 않고 완료 기록과 함께 압축해서 보관 파일 끝에 덧붙인다. (기존 내용은 다시 쓰지 않음)
+// 목록은 통계 화면에서 처음 볼 때 읽고, 메모리가 부족하면 GC가 버릴 수 있도록 SoftReference로 들고 있는다.
+//
+// 블록 하나가 습관 하나: deflate(습관 정보 | 보관일 | 완료 수 | 완료일 간격... [| 'T' 완료 상세])
+// 완료 상세(CompletionLog)는 있는 습관만 뒤에 붙는다 (이전 블록에는 없다)
+public class HabitArchive {
+    private static final int MAGIC = 0x48424141; // "HBAA"
+    private static final byte DETAILS = 'T';
+
+    private final File file;
+    private SoftReference<List<ArchivedHabit>> cache = new SoftReference<>(null);
+
+    public HabitArchive(String path) {
+        this.file = new File(path);
+    }
+
+    // 습관들을 완료 기록과 함께 보관함에 덧붙인다
+    public synchronized void append(HabitTracker tracker, List<Habit> habits, LocalDate archivedOn) throws IOException {
+        List<byte[]> payloads = new ArrayList<>();
+        List<ArchivedHabit> added = new ArrayList<>();
+        for (Habit habit : habits) {
+            // 연도별 저장소라면 이 습관 기간의 연도만 읽어 온다
+            for (int year = habit.getStartDate().getYear(); year <= habit.getEndDate().getYear(); year++) {
+                tracker.ensureYearLoaded(year);
+            }
+            int[] days = tracker.getLoadedCompletedDates(habit.getName()).stream()
+                .mapToInt(date -> (int) date.toEpochDay())
+                .sorted()
+                .toArray();
+            CompletionLog log = tracker.getCompletionLog(habit.getName());
+            ArchivedHabit archived = new ArchivedHabit(habit, archivedOn, days, log != null && !log.isEmpty() ? log : null);
+            payloads.add(encode(archived));
+            added.add(archived);
+        }
+        if (payloads.isEmpty()) {
+            return;
+        }
+
+        SnapshotFile.appendBlocks(file, MAGIC, payloads);
+        List<ArchivedHabit> cached = cache.get();
+        if (cached != null) {
+            cached.addAll(added);
+        }
+        Metrics.counter("archive.appended").add(added.size());
+    }
+
+    // 보관된 습관 전체 (처음 부를 때나 캐시가 GC로 비워졌을 때 파일에서 읽는다)
+    public synchronized List<ArchivedHabit> entries() {
+        List<ArchivedHabit> cached = cache.get();
+        if (cached == null) {
+            cached = load();
+            cache = new SoftReference<>(cached);
+        }
+        return Collections.unmodifiableList(cached);
+    }
+
+    // 이름에 검색어가 들어간 습관 (대소문자 무시)
+    public List<ArchivedHabit> search(String query) {
+        String needle = query.trim().toLowerCase();
+        List<ArchivedHabit> result = new ArrayList<>();
+        for (ArchivedHabit archived : entries()) {
+            if (needle.isEmpty() || archived.getName().toLowerCase().contains(needle)) {
+                result.add(archived);
+            }
+        }
+        return result;
+    }
+
+    private List<ArchivedHabit> load() {
+        List<ArchivedHabit> entries = new ArrayList<>();
+        if (!file.exists()) {
+            return entries;
+        }
+        long startNanos = System.nanoTime();
+        SnapshotFile.BlockStats stats = new SnapshotFile.BlockStats();
+        try {
+            SnapshotFile.readBlocks(file, MAGIC, payload -> entries.add(decode(payload)), stats);
+        } catch (IOException e) {
+            Log.error("보관함을 읽을 수 없습니다: {}", e, e.getMessage());
+        }
+        if (stats.corruptBlocks > 0) {
+            Log.warn("보관함 일부가 손상되어 손상 블록 {}개를 건너뛰었습니다.", stats.corruptBlocks);
+        }
+        Metrics.histogram("archive.load").recordSince(startNanos);
+        return entries;
+    }
+
+    private static byte[] encode(ArchivedHabit archived) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(
+                new DeflaterOutputStream(bytes, new Deflater(Deflater.BEST_COMPRESSION)))) {
+            SnapshotFile.writeHabitInfo(out, archived.habit);
+            out.writeLong(archived.archivedOn.toEpochDay());
+            out.writeInt(archived.days.length);
+            // 날짜를 앞 날짜와의 간격으로 써서 매일 완료한 구간이 1의 연속이 되게 한다 (압축이 잘 된다)
+            long previous = archived.habit.getStartDate().toEpochDay();
+            for (int day : archived.days) {
+                out.writeInt((int) (day - previous));
+                previous = day;
+            }
+            if (archived.completionLog != null) {
+                out.writeByte(DETAILS);
+                archived.completionLog.write(out);
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static ArchivedHabit decode(ByteBuffer payload) {
+        byte[] compressed = new byte[payload.remaining()];
+        payload.get(compressed);
+        ByteBuffer in;
+        try (InflaterInputStream inflater = new InflaterInputStream(new ByteArrayInputStream(compressed))) {
+            in = ByteBuffer.wrap(inflater.readAllBytes());
+        } catch (IOException e) {
+            throw new IllegalArgumentException("보관 항목을 풀 수 없습니다: " + e.getMessage(), e);
+        }
+
+        Habit habit = SnapshotFile.readHabitInfo(in);
+        LocalDate archivedOn = LocalDate.ofEpochDay(in.getLong());
+        int count = in.getInt();
+        if (count < 0 || count > in.remaining() / 4) {
+            throw new IllegalArgumentException("완료 기록 수가 올바르지 않습니다: " + count);
+        }
+        int[] days = new int[count];
+        long previous = habit.getStartDate().toEpochDay();
+        for (int i = 0; i < count; i++) {
+            previous += in.getInt();
+            days[i] = (int) previous;
+        }
+        CompletionLog log = null;
+        if (in.hasRemaining()) {
+            if (in.get() != DETAILS) {
+                throw new IllegalArgumentException("알 수 없는 보관 항목 구역입니다");
+            }
+            log = CompletionLog.read(in);
+        }
+        return new ArchivedHabit(habit, archivedOn, days, log);
+    }
+
+    // 보관된 습관 하나 (읽기 전용)
+    public static class ArchivedHabit {
+        private final Habit habit;
+        private final LocalDate archivedOn;
+        private final int[] days; // 완료한 날 (epoch day, 오름차순)
+        private final CompletionLog completionLog; // 완료 상세가 없으면 null
+
+        ArchivedHabit(Habit habit, LocalDate archivedOn, int[] days, CompletionLog completionLog) {
+            this.habit = habit;
+            this.archivedOn = archivedOn;
+            this.days = days;
+            this.completionLog = completionLog;
+        }
+
+        public String getName() { return habit.getName(); }
+        public LocalDate getStartDate() { return habit.getStartDate(); }
+        public LocalDate getEndDate() { return habit.getEndDate(); }
+        public LocalTime getReminderTime() { return habit.getReminderTime(); }
+        public LocalDate getArchivedOn() { return archivedOn; }
+        public int getCompletedDaysCount() { return days.length; }
+
+        public boolean isCompleted(LocalDate date) {
+            return Arrays.binarySearch(days, (int) date.toEpochDay()) >= 0;
+        }
+
+        // 그날 완료의 시각/수량/메모 (없으면 null)
+        public CompletionLog.Entry getCompletionEntry(LocalDate date) {
+            return completionLog != null ? completionLog.get(date) : null;
+        }
+
+        public LocalDate getLastCompletedDate() {
+            return days.length > 0 ? LocalDate.ofEpochDay(days[days.length - 1]) : null;
+        }
+
+        public Recurrence getRecurrence() { return habit.getRecurrence(); }
+        public long getTargetDays() { return habit.getTargetDays(); }
+
+        // 트래커의 습관과 같은 규칙 (기간 밖의 완료는 세지 않는다)
+        public double getCompletionRate() {
+            BitSet done = new BitSet();
+            for (int day : days) {
+                int index = habit.dayIndex(LocalDate.ofEpochDay(day));
+                if (index >= 0 && index < habit.periodLength()) {
+                    done.set(index);
+                }
+            }
+            return habit.completionRate(done);
+        }
+    }
+}
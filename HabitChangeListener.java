@@ -0,0 +1,45 @@
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+// HabitTracker 변경 알림 (필요한 메서드만 구현)
+public interface HabitChangeListener {
+    // 습관을 추가하거나 이름을 바꾸기 전에 불린다. 저장할 수 없는 이름이면 IllegalArgumentException을 던져 막는다 (트래커는 그대로).
+    default void checkHabitName(String habitName) {}
+
+    // 완료 상세를 남기기 전에 불린다. 저장할 수 없는 상세(너무 긴 메모 등)면 IllegalArgumentException을 던져 막는다.
+    default void checkCompletionEntry(CompletionLog.Entry entry) {}
+
+    default void habitAdded(Habit habit) {}
+
+    default void habitRemoved(String habitName) {}
+
+    default void habitUpdated(Habit habit) {}
+
+    default void completionChanged(String habitName, LocalDate date, boolean completed) {}
+
+    // 완료 상세(시각/수량/메모)가 바뀌었을 때 (entry가 null이면 지움). 상세를 따로 저장하는 저장소만 구현한다.
+    default void completionDetailChanged(String habitName, LocalDate date, CompletionLog.Entry entry) {}
+
+    // 여러 날짜를 한 번에 바꿨을 때 (markRange/unmarkRange/applyBatch) 한 번만 온다.
+    // 기본 구현은 날짜마다 completionChanged를 부르므로 한 번에 처리할 수 있는 쪽만 다시 구현하면 된다.
+    default void completionsChanged(String habitName, List<LocalDate> dates, boolean completed) {
+        for (LocalDate date : dates) {
+            completionChanged(habitName, date, completed);
+        }
+    }
+
+    // 이름이 바뀌었을 때. 번호와 완료 기록은 그대로다.
+    // 기본 구현은 옛 이름 삭제 + 새 이름 추가 + 완료 기록 추가로 알리므로 이름을 키로 쓰는 저장소는 그대로 동작한다.
+    default void habitRenamed(String oldName, Habit habit, Set<LocalDate> dates) {
+        habitRemoved(oldName);
+        habitAdded(habit);
+        if (!dates.isEmpty()) {
+            List<LocalDate> sorted = new ArrayList<>(dates);
+            Collections.sort(sorted);
+            completionsChanged(habit.getName(), Collections.unmodifiableList(sorted), true);
+        }
+    }
+}
@@ -0,0 +1,302 @@
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// 화면 없이 쓰는 명령줄 도구 (cron, 서버, 다른 프로그램의 훅)
+// Swing/AWT 클래스를 하나도 읽지 않고 DataManager.openStore로 저장소만 연다.
+// 빨리 끝나야 하므로 로그는 경고 이상만 내고 (-Dhabit.log.level로 바꿀 수 있음), 메트릭 MBean은 등록하지 않는다.
+//
+// 사용법: java HabitCli <명령> [data=habits_data.dat] [이름=값...]
+//   list [query=검색어]                           습관 목록과 달성률
+//   status                                       습관별 달성률 보고서 (printHabitStatus)
+//   mark habit=<이름> [date=YYYY-MM-DD] [quantity=<정수>] [note=<메모>]   완료 표시 (오늘이면 완료 시각도 남긴다)
+//   unmark habit=<이름> [date=YYYY-MM-DD]         완료 해제
+//   import in=<파일> [format=csv|jsonl]           BulkTransfer 가져오기 (진행률은 표준 오류로)
+//   export out=<파일> [format=csv|jsonl]          BulkTransfer 내보내기
+//   report out=<파일> [format=html|md] [months=3]  HabitReport 보고서 (months=0이면 달력 없음, -1이면 기간 전체)
+//   compact                                      기간이 끝난 습관을 보관함으로 옮기고 저장
+// 종료 코드: 0 성공, 1 잘못된 사용법/없는 습관, 2 저장소 오류
+public class HabitCli {
+    private static final int OK = 0;
+    private static final int USAGE = 1;
+    private static final int FAILED = 2;
+
+    private static final String USAGE_TEXT = String.join("\n",
+        "사용법: java HabitCli <명령> [data=habits_data.dat] [이름=값...]",
+        "  list [query=검색어]",
+        "  status",
+        "  mark habit=<이름> [date=YYYY-MM-DD] [quantity=<정수>] [note=<메모>]",
+        "  unmark habit=<이름> [date=YYYY-MM-DD]",
+        "  import in=<파일> [format=csv|jsonl]",
+        "  export out=<파일> [format=csv|jsonl]",
+        "  report out=<파일> [format=html|md] [months=3]",
+        "  compact");
+
+    private HabitCli() {
+    }
+
+    public static void main(String[] args) {
+        // Metrics 클래스를 처음 쓰기 전에 정해야 한다
+        if (System.getProperty("habit.metrics.jmx") == null) {
+            System.setProperty("habit.metrics.jmx", "false");
+        }
+        if (System.getProperty("habit.log.level") == null) {
+            Log.setLevel(Log.Level.WARN);
+        }
+        int code;
+        try {
+            code = run(args);
+        } catch (IOException e) {
+            System.err.println("저장소 오류: " + e.getMessage());
+            code = FAILED;
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            code = USAGE;
+        }
+        Log.shutdown();
+        if (code != OK) {
+            System.exit(code);
+        }
+    }
+
+    static int run(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.out.println(USAGE_TEXT);
+            return USAGE;
+        }
+        String command = args[0];
+        Map<String, String> options = parseOptions(args);
+        String dataFile = options.getOrDefault("data", DataManager.DEFAULT_DATA_FILE);
+
+        switch (command) {
+            case "import":
+                requireOption(options, "in");
+                break;
+            case "export":
+            case "report":
+                requireOption(options, "out");
+                break;
+            case "list":
+            case "status":
+            case "mark":
+            case "unmark":
+            case "compact":
+                break;
+            default:
+                System.err.println("알 수 없는 명령: " + command);
+                System.err.println(USAGE_TEXT);
+                return USAGE;
+        }
+
+        boolean readOnly = command.equals("list") || command.equals("status")
+            || command.equals("export") || command.equals("report");
+        if (readOnly && !DataManager.hasStoredData(dataFile)) {
+            // 기록이 없으면 빈 목록으로 처리하고 저장소는 만들지 않는다
+            return runReadOnly(command, new HabitTracker(), options);
+        }
+
+        try (HabitStore store = DataManager.openStore(dataFile)) {
+            HabitTracker tracker = store.load();
+            if (readOnly) {
+                return runReadOnly(command, tracker, options);
+            }
+            switch (command) {
+                case "mark":
+                case "unmark":
+                    return mark(store, tracker, options, "mark".equals(command));
+                case "import":
+                    return importHistory(store, tracker, options);
+                default:
+                    return compact(store, tracker, dataFile);
+            }
+        }
+    }
+
+    // 저장소에 쓰지 않는 명령 (list, status, export, report)
+    private static int runReadOnly(String command, HabitTracker tracker, Map<String, String> options) throws IOException {
+        switch (command) {
+            case "list":
+                return list(tracker, options.getOrDefault("query", ""));
+            case "status":
+                tracker.printHabitStatus();
+                return OK;
+            case "export":
+                return exportHistory(tracker, options);
+            default:
+                return report(tracker, options);
+        }
+    }
+
+    // 습관 이름, 기간, 반복 규칙, 달성률, 연속 달성 (탭으로 구분해서 다른 도구가 자르기 쉽게)
+    private static int list(HabitTracker tracker, String query) {
+        LocalDate today = HabitClock.today();
+        List<Habit> habits = query.isBlank() ? tracker.getHabits() : new HabitSearchIndex(tracker).find(query);
+        // printf는 처음 쓸 때 Formatter와 정규식을 읽어 들이므로 시작 시간을 아끼려고 직접 잇는다
+        StringBuilder out = new StringBuilder(habits.size() * 64);
+        for (Habit habit : habits) {
+            long rateTenths = Math.round(tracker.getCompletionRate(habit.getId()) * 10);
+            out.append(habit.getName())
+                .append('\t').append(habit.getStartDate()).append(" ~ ").append(habit.getEndDate())
+                .append('\t').append(habit.getRecurrence().getLabel())
+                .append('\t').append(rateTenths / 10).append('.').append(rateTenths % 10).append('%')
+                .append('\t').append(tracker.getScheduledCompletionsCount(habit.getId())).append('/').append(habit.getTargetDays())
+                .append("\t연속 ").append(tracker.getStreakDays(habit.getId(), today))
+                .append('\n');
+        }
+        System.out.print(out);
+        return OK;
+    }
+
+    private static int mark(HabitStore store, HabitTracker tracker, Map<String, String> options, boolean completed) throws IOException {
+        String habitName = options.get("habit");
+        if (habitName == null) {
+            throw new IllegalArgumentException("habit= 으로 습관 이름을 지정하세요.");
+        }
+        int id = tracker.getHabitId(habitName);
+        if (id < 0) {
+            System.err.println("없는 습관입니다: " + habitName);
+            return USAGE;
+        }
+        LocalDate today = HabitClock.today();
+        LocalDate date = options.containsKey("date") ? parseDate(options.get("date")) : today;
+        if (completed && !store.supportsCompletionDetails()) {
+            if (options.containsKey("quantity") || options.containsKey("note")) {
+                throw new IllegalArgumentException("지금 저장 방식은 수량/메모를 저장하지 않습니다.");
+            }
+            tracker.markCompleted(id, date);
+        } else if (completed) {
+            Integer quantity = options.containsKey("quantity") ? parseQuantity(options.get("quantity")) : null;
+            // 화면과 같이 오늘 완료한 것만 시각을 남긴다
+            tracker.markCompleted(id, new CompletionLog.Entry(date,
+                date.equals(today) ? HabitClock.getClock().instant() : null, quantity, options.get("note")));
+        } else {
+            tracker.removeCompleted(id, date);
+        }
+        store.save(tracker);
+        System.out.println(habitName + " " + date + ": " + (tracker.isCompleted(id, date) ? "완료" : "미완료"));
+        return OK;
+    }
+
+    // 배치마다 저장소에 반영하고 (스냅샷 저장소는 끝에 한 번), 진행률은 결과를 읽는 스크립트와 섞이지 않게 표준 오류로
+    private static int importHistory(HabitStore store, HabitTracker tracker, Map<String, String> options) throws IOException {
+        java.nio.file.Path path = java.nio.file.Paths.get(options.get("in"));
+        BulkTransfer.Result result = new BulkTransfer.Result();
+        long startNanos = System.nanoTime();
+        try {
+            BulkTransfer.importFile(path, transferFormat(options, path), batch -> {
+                BulkTransfer.applyBatch(tracker, batch, result);
+                store.flush(tracker);
+            }, (done, total, records) -> System.err.print("\r" + (total > 0 ? done * 100 / total : 100) + "% (" + records + "줄)"), result);
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException(e.getMessage(), e);
+        }
+        System.err.println();
+        store.save(tracker);
+        System.out.println("가져오기 완료: " + result + " (" + (System.nanoTime() - startNanos) / 1_000_000 + "ms)");
+        return OK;
+    }
+
+    private static int exportHistory(HabitTracker tracker, Map<String, String> options) throws IOException {
+        java.nio.file.Path path = java.nio.file.Paths.get(options.get("out"));
+        long startNanos = System.nanoTime();
+        long records = BulkTransfer.exportFile(tracker, path, transferFormat(options, path), (done, total, count) -> { });
+        System.out.println("내보내기 완료: " + path + " (" + records + "줄, " + (System.nanoTime() - startNanos) / 1_000_000 + "ms)");
+        return OK;
+    }
+
+    private static BulkTransfer.Format transferFormat(Map<String, String> options, java.nio.file.Path path) {
+        String name = options.get("format");
+        if (name == null) {
+            return BulkTransfer.formatOf(path);
+        }
+        switch (name.trim().toLowerCase()) {
+            case "csv":
+                return BulkTransfer.Format.CSV;
+            case "jsonl":
+                return BulkTransfer.Format.JSONL;
+            default:
+                throw new IllegalArgumentException("가져오기/내보내기 형식은 csv 또는 jsonl 입니다: " + name);
+        }
+    }
+
+    private static int report(HabitTracker tracker, Map<String, String> options) throws IOException {
+        java.nio.file.Path path = java.nio.file.Paths.get(options.get("out"));
+        HabitReport.Format format = HabitReport.formatOf(path);
+        if (options.containsKey("format")) {
+            String name = options.get("format").trim().toLowerCase();
+            if (!name.equals("html") && !name.equals("md")) {
+                throw new IllegalArgumentException("보고서 형식은 html 또는 md 입니다: " + name);
+            }
+            format = name.equals("md") ? HabitReport.Format.MARKDOWN : HabitReport.Format.HTML;
+        }
+        int months = HabitReport.DEFAULT_CALENDAR_MONTHS;
+        if (options.containsKey("months")) {
+            try {
+                months = Integer.parseInt(options.get("months").trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("months는 정수로 입력하세요: " + options.get("months"));
+            }
+        }
+        long startNanos = System.nanoTime();
+        int habits = HabitReport.writeFile(tracker, path, format, months, (done, total, count) -> { });
+        System.out.println("보고서 저장: " + path + " (습관 " + habits + "개, " + (System.nanoTime() - startNanos) / 1_000_000 + "ms)");
+        return OK;
+    }
+
+    // 기간이 끝난 습관을 보관함으로 옮긴다 (화면을 켤 때 하는 정리와 같다)
+    private static int compact(HabitStore store, HabitTracker tracker, String dataFile) throws IOException {
+        int before = tracker.getHabits().size();
+        ExpiryQueue expiryQueue = new ExpiryQueue(tracker);
+        HabitArchive archive = new HabitArchive(DataManager.archiveFileFor(dataFile));
+        // 보관 파일을 쓰지 못하면 IOException으로 FAILED (예약 작업이 실패를 알 수 있게)
+        DataManager.archiveExpiredHabits(tracker, expiryQueue, archive);
+        store.save(tracker);
+        System.out.printf("보관함으로 옮긴 습관: %d개, 남은 습관: %d개%n", before - tracker.getHabits().size(), tracker.getHabits().size());
+        return OK;
+    }
+
+    private static void requireOption(Map<String, String> options, String name) {
+        if (options.get(name) == null || options.get(name).isBlank()) {
+            throw new IllegalArgumentException(name + "= 으로 파일을 지정하세요.\n" + USAGE_TEXT);
+        }
+    }
+
+    // 첫 인자(명령) 뒤의 이름=값 목록
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        List<String> unknown = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            int at = args[i].indexOf('=');
+            if (at <= 0) {
+                unknown.add(args[i]);
+                continue;
+            }
+            options.put(args[i].substring(0, at), args[i].substring(at + 1));
+        }
+        if (!unknown.isEmpty()) {
+            throw new IllegalArgumentException("이름=값 형식이 아닌 인자: " + String.join(" ", unknown));
+        }
+        return options;
+    }
+
+    private static LocalDate parseDate(String text) {
+        try {
+            return LocalDate.parse(text.trim());
+        } catch (java.time.format.DateTimeParseException e) {
+            throw new IllegalArgumentException("날짜 형식이 올바르지 않습니다 (YYYY-MM-DD): " + text);
+        }
+    }
+
+    private static Integer parseQuantity(String text) {
+        try {
+            return Integer.valueOf(text.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("수량은 정수로 입력하세요: " + text);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+// 앱 전체가 쓰는 "오늘"
+// 오늘 날짜와 그날의 시작/끝 시각(epoch ms)을 캐시해 두고, today()는 현재 시각만 비교한다 (시간대 계산 없음).
+// 자정을 넘기면 한 번만 날짜 변경 이벤트를 보낸다. 리스너가 있으면 타이머로 자정을 기다리므로 아무것도 읽지 않아도 알림이 온다.
+// 테스트/벤치마크는 setClock(Clock.fixed(...)) 또는 -Dhabit.today=2025-03-01 로 날짜를 고정한다.
+public final class HabitClock {
+    // 절전 등으로 타이머가 늦게 깨어나는 경우를 대비해 최대 이 간격마다 다시 확인한다
+    private static final long MAX_TIMER_DELAY_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    public interface RolloverListener {
+        // 리스너를 등록한 스레드가 아니라 날짜 변경을 알아챈 스레드(타이머 또는 today() 호출자)에서 불린다
+        void dayChanged(LocalDate previous, LocalDate today);
+    }
+
+    // 하루 (날짜와 그날의 [startMillis, endMillis) 구간)
+    private static final class Day {
+        final LocalDate date;
+        final ZoneId zone;
+        final long startMillis;
+        final long endMillis;
+
+        Day(LocalDate date, ZoneId zone) {
+            this.date = date;
+            this.zone = zone;
+            this.startMillis = date.atStartOfDay(zone).toInstant().toEpochMilli();
+            this.endMillis = date.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+        }
+
+        boolean contains(long millis) {
+            return millis >= startMillis && millis < endMillis;
+        }
+    }
+
+    private static final List<RolloverListener> listeners = new CopyOnWriteArrayList<>();
+    private static volatile Clock clock = initialClock();
+    private static volatile Day day = new Day(LocalDate.now(clock), clock.getZone());
+    private static TimerWheel wheel;
+    private static TimerWheel.Timeout rolloverTimer;
+
+    private HabitClock() {
+    }
+
+    private static Clock initialClock() {
+        String fixed = System.getProperty("habit.today");
+        if (fixed == null || fixed.isBlank()) {
+            return Clock.systemDefaultZone();
+        }
+        ZoneId zone = ZoneId.systemDefault();
+        return Clock.fixed(LocalDate.parse(fixed.trim()).atTime(12, 0).atZone(zone).toInstant(), zone);
+    }
+
+    public static LocalDate today() {
+        Day current = day;
+        if (!current.contains(clock.millis())) {
+            current = roll();
+        }
+        return current.date;
+    }
+
+    public static LocalDateTime now() {
+        return LocalDateTime.now(clock);
+    }
+
+    public static Clock getClock() {
+        return clock;
+    }
+
+    // 시계 교체 (테스트에서 고정 시계로 바꾸거나 날짜를 넘길 때). 날짜가 바뀌면 이벤트를 보낸다.
+    public static void setClock(Clock newClock) {
+        clock = newClock;
+        roll();
+        synchronized (HabitClock.class) {
+            armTimer();
+        }
+    }
+
+    public static void addRolloverListener(RolloverListener listener) {
+        listeners.add(listener);
+        synchronized (HabitClock.class) {
+            armTimer();
+        }
+    }
+
+    public static void removeRolloverListener(RolloverListener listener) {
+        listeners.remove(listener);
+    }
+
+    // 캐시한 날짜를 지금 시각 기준으로 맞춘다. 여러 스레드가 동시에 알아채도 이벤트는 한 번만 보낸다.
+    private static Day roll() {
+        Day previous;
+        Day current;
+        synchronized (HabitClock.class) {
+            previous = day;
+            Clock c = clock;
+            if (previous.contains(c.millis()) && previous.zone.equals(c.getZone())) {
+                return previous;
+            }
+            current = new Day(LocalDate.now(c), c.getZone());
+            day = current;
+        }
+        if (!current.date.equals(previous.date)) {
+            Log.info("날짜가 바뀌었습니다: {} -> {}", previous.date, current.date);
+            for (RolloverListener listener : listeners) {
+                try {
+                    listener.dayChanged(previous.date, current.date);
+                } catch (RuntimeException e) {
+                    Log.error("날짜 변경 처리 중 오류: {}", e, e.getMessage());
+                }
+            }
+        }
+        return current;
+    }
+
+    // 다음 자정에 깨어나는 타이머 (리스너가 없으면 필요 없다)
+    private static void armTimer() {
+        if (rolloverTimer != null) {
+            rolloverTimer.cancel();
+            rolloverTimer = null;
+        }
+        if (listeners.isEmpty()) {
+            return;
+        }
+        if (wheel == null) {
+            wheel = new TimerWheel(1, TimeUnit.SECONDS, "habit-clock");
+        }
+        long delay = Math.min(day.endMillis - clock.millis(), MAX_TIMER_DELAY_MILLIS);
+        TimerWheel.Timeout[] self = new TimerWheel.Timeout[1];
+        self[0] = wheel.schedule(() -> {
+            synchronized (HabitClock.class) {
+                if (rolloverTimer != self[0]) {
+                    return;
+                }
+                rolloverTimer = null;
+            }
+            roll();
+            synchronized (HabitClock.class) {
+                if (rolloverTimer == null) {
+                    armTimer();
+                }
+            }
+        }, Math.max(delay, 0), TimeUnit.MILLISECONDS);
+        rolloverTimer = self[0];
+    }
+}
@@ -0,0 +1,426 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.DataOutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+// 습관 그룹 ("건강/운동"처럼 /로 나눈 경로, 하위 그룹 가능)
+// 그룹 노드마다 하위 그룹까지 포함한 집계(습관 수, 목표 일수, 완료 수, 날짜별 완료/하는 날 수)를 들고 있다.
+// 완료 변경은 습관이 속한 그룹부터 최상위 그룹까지 올라가며 더하므로 깊이만큼만 일하고,
+// 그룹 통계와 그룹 달력 칸은 노드의 값을 그대로 읽는다.
+// 습관을 넣고 뺄 때는 그 습관의 하는 날 수만큼 일한다.
+//
+// 완료 수는 습관별 달성률과 같은 규칙으로 센다 (하는 날에 완료한 기록만, 주 N회 습관은 주마다 N회까지만).
+// 날짜별 완료 수는 그날 완료한 습관 수라서 주 N회의 목표를 넘긴 완료도 센다.
+// 소속(습관 이름 -> 그룹 경로)은 저장소 형식을 바꾸지 않도록 데이터 파일 옆 .groups 파일에 따로 둔다.
+public class HabitGroups implements HabitChangeListener {
+    private static final int MAGIC = 0x48424752; // "HBGR"
+    public static final String SEPARATOR = "/";
+
+    public static final class Group {
+        private final String name;
+        private final String path;
+        private final Group parent;
+        private final Map<String, Group> children = new TreeMap<>();
+        private int habitCount;
+        private long targetDays;
+        private long completedCount;
+        private final DayCounts completedByDay = new DayCounts();
+        private final DayCounts scheduledByDay = new DayCounts();
+
+        private Group(String name, Group parent) {
+            this.name = name;
+            this.parent = parent;
+            this.path = parent == null || parent.parent == null ? name : parent.path + SEPARATOR + name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public Group getParent() {
+            return parent;
+        }
+
+        public Collection<Group> getChildren() {
+            return Collections.unmodifiableCollection(children.values());
+        }
+
+        // 최상위 그룹이 0
+        public int getDepth() {
+            int depth = -1;
+            for (Group group = parent; group != null; group = group.parent) {
+                depth++;
+            }
+            return depth;
+        }
+
+        public int getHabitCount() {
+            return habitCount;
+        }
+
+        public long getTargetDays() {
+            return targetDays;
+        }
+
+        public long getCompletedCount() {
+            return completedCount;
+        }
+
+        // 습관별 달성률의 평균이 아니라 하위 습관 전체의 (완료 수 / 목표 일수)
+        public double getCompletionRate() {
+            return targetDays > 0 ? (double) completedCount / targetDays * 100 : 0.0;
+        }
+
+        // {완료한 습관 수, 하는 날인 습관 수} (달력 그룹 칸용)
+        public int[] getDailySummary(LocalDate date) {
+            int day = (int) date.toEpochDay();
+            return new int[] { completedByDay.get(day), scheduledByDay.get(day) };
+        }
+    }
+
+    // 날짜(epoch day)별 개수. 처음 더한 날부터 필요한 만큼 양쪽으로 늘린다.
+    private static final class DayCounts {
+        private int base;
+        private int[] counts = new int[0];
+
+        int get(int day) {
+            int index = day - base;
+            return index >= 0 && index < counts.length ? counts[index] : 0;
+        }
+
+        void add(int day, int delta) {
+            if (counts.length == 0) {
+                base = day;
+                counts = new int[64];
+            }
+            int index = day - base;
+            if (index < 0) {
+                int grow = Math.max(-index, counts.length);
+                int[] grown = new int[counts.length + grow];
+                System.arraycopy(counts, 0, grown, grow, counts.length);
+                counts = grown;
+                base -= grow;
+                index += grow;
+            } else if (index >= counts.length) {
+                counts = Arrays.copyOf(counts, Math.max(index + 1, counts.length * 2));
+            }
+            counts[index] += delta;
+        }
+    }
+
+    private final HabitTracker tracker;
+    private final File file;
+    private final Group root = new Group("", null);
+    // 습관 이름 -> 그룹 경로 (습관이 지워져도 실행 취소로 되살아날 수 있으므로 남겨 둔다)
+    private final Map<String, String> assignments = new HashMap<>();
+    // 습관 번호 -> 집계에 넣은 그룹, 그때의 습관, 센 완료 (습관 기간 기준 비트맵)
+    // 습관이 지워지거나 기간/반복 규칙이 바뀌면 이 값으로 빼고 새 값으로 다시 더한다.
+    private Group[] groupById = new Group[16];
+    private Habit[] habitById = new Habit[16];
+    private BitSet[] doneById = new BitSet[16];
+    private final Map<String, Integer> memberIds = new HashMap<>();
+
+    public HabitGroups(HabitTracker tracker, String path) {
+        this.tracker = tracker;
+        this.file = new File(path);
+        load();
+        List<Habit> members = new ArrayList<>();
+        for (Habit habit : tracker.getHabits()) {
+            if (assignments.containsKey(habit.getName())) {
+                members.add(habit);
+            }
+        }
+        // 아직 읽지 않은 연도의 기록은 트래커에 들이지 않고 떼어 낸 복사본으로 센다 (연도 파일마다 한 번씩 읽는다)
+        if (!members.isEmpty()) {
+            for (HabitTracker.HabitHistory history : tracker.copyHistories(members)) {
+                Habit habit = history.getHabit();
+                join(habit, assignments.get(habit.getName()), history.getDates());
+            }
+        }
+        // 이미 없는 습관의 소속은 버린다
+        assignments.keySet().retainAll(memberIds.keySet());
+        tracker.addChangeListener(this);
+    }
+
+    public void close() {
+        tracker.removeChangeListener(this);
+    }
+
+    // 최상위 그룹들의 부모 (이름 없음, 집계는 그룹에 속한 습관 전체)
+    public Group getRoot() {
+        return root;
+    }
+
+    // 전위 순회 순서의 모든 그룹 (상위 그룹 다음에 하위 그룹)
+    public List<Group> getGroups() {
+        List<Group> groups = new ArrayList<>();
+        collect(root, groups);
+        return groups;
+    }
+
+    private static void collect(Group group, List<Group> out) {
+        for (Group child : group.children.values()) {
+            out.add(child);
+            collect(child, out);
+        }
+    }
+
+    public Group findGroup(String path) {
+        Group group = root;
+        for (String part : split(path)) {
+            group = group.children.get(part);
+            if (group == null) {
+                return null;
+            }
+        }
+        return group == root ? null : group;
+    }
+
+    // 습관의 그룹 경로 (없으면 null)
+    public String getGroupPath(String habitName) {
+        return assignments.get(habitName);
+    }
+
+    // 습관을 그룹으로 옮긴다. 빈 경로면 그룹에서 뺀다.
+    public void assign(String habitName, String groupPath) throws IOException {
+        Habit habit = tracker.getHabit(tracker.getHabitId(habitName));
+        if (habit == null) {
+            throw new IllegalArgumentException("없는 습관입니다: " + habitName);
+        }
+        String normalized = String.join(SEPARATOR, split(groupPath));
+        String previous = assignments.get(habitName);
+        if (normalized.equals(previous == null ? "" : previous)) {
+            return;
+        }
+        if (previous != null) {
+            leave(habit.getId());
+            assignments.remove(habitName);
+        }
+        if (!normalized.isEmpty()) {
+            assignments.put(habitName, normalized);
+            join(habit, normalized, completedDates(habit));
+        }
+        save();
+    }
+
+    @Override
+    public void habitAdded(Habit habit) {
+        String groupPath = assignments.get(habit.getName());
+        if (groupPath != null) {
+            // 완료 기록은 뒤따르는 completionChanged 이벤트로 더해진다
+            join(habit, groupPath, Collections.emptySet());
+        }
+    }
+
+    @Override
+    public void habitRemoved(String habitName) {
+        Integer id = memberIds.get(habitName);
+        if (id != null) {
+            leave(id);
+        }
+    }
+
+    @Override
+    public void habitUpdated(Habit habit) {
+        int id = habit.getId();
+        if (id < 0 || id >= groupById.length || groupById[id] == null) {
+            return;
+        }
+        Group group = groupById[id];
+        apply(group, habitById[id], doneById[id], -1);
+        habitById[id] = habit;
+        doneById[id] = scheduledCompletions(habit, completedDates(habit));
+        apply(group, habit, doneById[id], 1);
+    }
+
+    // 번호와 집계는 그대로 두고 소속의 이름만 바꾼다
+    @Override
+    public void habitRenamed(String oldName, Habit habit, Set<LocalDate> dates) {
+        String groupPath = assignments.remove(oldName);
+        Integer id = memberIds.remove(oldName);
+        if (groupPath == null) {
+            return;
+        }
+        assignments.put(habit.getName(), groupPath);
+        if (id != null) {
+            memberIds.put(habit.getName(), id);
+            habitById[id] = habit;
+        }
+        try {
+            save();
+        } catch (IOException e) {
+            Log.error("그룹 파일 저장 중 오류: {}", e, e.getMessage());
+        }
+    }
+
+    @Override
+    public void completionChanged(String habitName, LocalDate date, boolean completed) {
+        Integer id = memberIds.get(habitName);
+        if (id != null) {
+            updateCompletion(id, date, completed);
+        }
+    }
+
+    @Override
+    public void completionsChanged(String habitName, List<LocalDate> dates, boolean completed) {
+        Integer id = memberIds.get(habitName);
+        if (id == null) {
+            return;
+        }
+        for (LocalDate date : dates) {
+            updateCompletion(id, date, completed);
+        }
+    }
+
+    // 하는 날의 완료가 바뀌었으면 그룹부터 최상위까지 더한다 (깊이만큼)
+    // 주 N회 습관은 그 주의 센 완료 수(min(N, 그 주의 완료 수))가 바뀐 만큼만 완료 수에 더한다.
+    private void updateCompletion(int id, LocalDate date, boolean completed) {
+        Habit habit = habitById[id];
+        if (!habit.isScheduled(date)) {
+            return;
+        }
+        BitSet done = doneById[id];
+        int index = habit.dayIndex(date);
+        if (done.get(index) == completed) {
+            return;
+        }
+        boolean weekly = habit.getRecurrence().isWeeklyQuota();
+        int before = weekly ? habit.countWeekCompletions(done, index) : 0;
+        done.set(index, completed);
+        int day = (int) date.toEpochDay();
+        int delta = completed ? 1 : -1;
+        int countDelta = weekly ? habit.countWeekCompletions(done, index) - before : delta;
+        for (Group node = groupById[id]; node != null; node = node.parent) {
+            node.completedCount += countDelta;
+            node.completedByDay.add(day, delta);
+        }
+    }
+
+    // 습관의 모든 완료 날짜 (아직 읽지 않은 연도도 트래커에 들이지 않고 읽는다)
+    private List<LocalDate> completedDates(Habit habit) {
+        List<HabitTracker.HabitHistory> histories = tracker.copyHistories(List.of(habit));
+        return histories.isEmpty() ? Collections.emptyList() : histories.get(0).getDates();
+    }
+
+    private void join(Habit habit, String groupPath, Collection<LocalDate> dates) {
+        int id = habit.getId();
+        if (id >= groupById.length) {
+            int capacity = Math.max(groupById.length * 2, id + 1);
+            groupById = Arrays.copyOf(groupById, capacity);
+            habitById = Arrays.copyOf(habitById, capacity);
+            doneById = Arrays.copyOf(doneById, capacity);
+        }
+        Group group = root;
+        for (String part : split(groupPath)) {
+            Group parent = group;
+            group = parent.children.computeIfAbsent(part, name -> new Group(name, parent));
+        }
+        groupById[id] = group;
+        habitById[id] = habit;
+        doneById[id] = scheduledCompletions(habit, dates);
+        memberIds.put(habit.getName(), id);
+        apply(group, habit, doneById[id], 1);
+    }
+
+    private void leave(int id) {
+        Group group = groupById[id];
+        if (group == null) {
+            return;
+        }
+        Habit habit = habitById[id];
+        apply(group, habit, doneById[id], -1);
+        groupById[id] = null;
+        habitById[id] = null;
+        doneById[id] = null;
+        memberIds.remove(habit.getName());
+        // 빈 그룹은 트리에서 뺀다
+        for (Group node = group; node != root && node.habitCount == 0 && node.children.isEmpty(); node = node.parent) {
+            node.parent.children.remove(node.name);
+        }
+    }
+
+    // 하는 날에 완료한 기록만 남긴 완료 비트맵
+    private static BitSet scheduledCompletions(Habit habit, Collection<LocalDate> dates) {
+        BitSet done = habit.toCompletionMask(dates);
+        done.and(habit.getSchedule());
+        return done;
+    }
+
+    // 습관 하나의 몫(습관 수, 목표 일수, 하는 날, 하는 날의 완료)을 그룹부터 최상위까지 더하거나 뺀다
+    private static void apply(Group group, Habit habit, BitSet done, int sign) {
+        long target = habit.getTargetDays();
+        int start = (int) habit.getStartDate().toEpochDay();
+        BitSet schedule = habit.getSchedule();
+        long doneCount = habit.countScheduledCompletions(done);
+        for (Group node = group; node != null; node = node.parent) {
+            node.habitCount += sign;
+            node.targetDays += sign * target;
+            node.completedCount += sign * doneCount;
+            for (int i = schedule.nextSetBit(0); i >= 0; i = schedule.nextSetBit(i + 1)) {
+                node.scheduledByDay.add(start + i, sign);
+            }
+            for (int i = done.nextSetBit(0); i >= 0; i = done.nextSetBit(i + 1)) {
+                node.completedByDay.add(start + i, sign);
+            }
+        }
+    }
+
+    // "건강 / 운동/" -> [건강, 운동]
+    private static List<String> split(String path) {
+        List<String> parts = new ArrayList<>();
+        if (path == null) {
+            return parts;
+        }
+        for (String part : path.split(SEPARATOR)) {
+            if (!part.isBlank()) {
+                parts.add(part.trim());
+            }
+        }
+        return parts;
+    }
+
+    private void load() {
+        if (!file.exists()) {
+            return;
+        }
+        SnapshotFile.BlockStats stats = new SnapshotFile.BlockStats();
+        try {
+            SnapshotFile.readBlocks(file, MAGIC, payload -> {
+                String habitName = SnapshotFile.readName(payload);
+                assignments.put(habitName, SnapshotFile.readName(payload));
+            }, stats);
+        } catch (IOException e) {
+            Log.error("그룹 파일을 읽을 수 없습니다: {}", e, e.getMessage());
+        }
+        if (stats.corruptBlocks > 0) {
+            Log.warn("그룹 파일 일부가 손상되어 손상 블록 {}개를 건너뛰었습니다.", stats.corruptBlocks);
+        }
+    }
+
+    // 블록 하나가 소속 하나: 습관 이름 | 그룹 경로
+    private void save() throws IOException {
+        try (SnapshotFile.BlockWriter writer = new SnapshotFile.BlockWriter(file, MAGIC)) {
+            for (Map.Entry<String, String> entry : assignments.entrySet()) {
+                DataOutputStream payload = writer.begin();
+                SnapshotFile.writeName(payload, entry.getKey());
+                SnapshotFile.writeName(payload, entry.getValue());
+                writer.end();
+            }
+            writer.commit();
+        }
+    }
+}
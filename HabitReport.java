@@ -0,0 +1,453 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+// 습관 기록 보고서 (HTML 또는 Markdown 한 파일, 외부 파일 없이 SVG를 본문에 넣는다)
+// 요약 → 습관별 통계/연속 달성/최근 달력/전체 기간 히트맵 순으로 습관 하나씩 바로 Writer에 쓴다.
+// 기록은 습관 몇 개씩 떼어 와서 습관마다 완료 비트맵을 잠깐 만들고 버리므로 습관 수나 기간이 늘어도 보고서 때문에 메모리가 늘지 않는다.
+//
+// 명령줄: java HabitCli report out=report.html [data=habits_data.dat] [format=html|md] [months=3]
+public class HabitReport {
+    public enum Format { HTML, MARKDOWN }
+
+    // 습관마다 보여 줄 최근 달력 개월 수 (0이면 달력 없음, 음수면 기간 전체)
+    public static final int DEFAULT_CALENDAR_MONTHS = 3;
+
+    private static final int IO_BUFFER = 1 << 16;
+    private static final String[] WEEKDAYS = { "월", "화", "수", "목", "금", "토", "일" };
+    // 히트맵: 한 해가 한 줄 (가로 53~54주 x 세로 7일), 왼쪽에 연도 글자 자리
+    private static final int HEATMAP_LABEL = 5;
+    private static final int HEATMAP_WEEKS = 54;
+    private static final int HEATMAP_ROW = 8;
+
+    private static final String STYLE = String.join("",
+        "body{font-family:sans-serif;margin:2em;color:#222}",
+        "table{border-collapse:collapse;margin:.5em 0}",
+        "th,td{border:1px solid #ccc;padding:2px 6px;text-align:right}",
+        "th{background:#f3f3f3}",
+        ".cal{display:inline-table;margin-right:1em;font-size:12px}",
+        ".cal td{width:1.6em;text-align:center}",
+        ".cal .d{background:#2da44e;color:#fff}",
+        ".cal .m{background:#fde2e1}",
+        ".cal .o{color:#aaa}",
+        "svg{display:block;max-width:100%;margin:.5em 0}",
+        "section{border-top:1px solid #ddd;margin-top:1.5em}");
+
+    // 요약 표에 쓰는 값 (화면에서는 EDT에서 만든다). 습관 목록 말고는 완료 기록을 복사하지 않는다.
+    public static final class Summary {
+        final List<Habit> habits;
+        final long completedCount;
+        final int[] hours;
+        final int historyBatch;
+
+        private Summary(List<Habit> habits, long completedCount, int[] hours, int historyBatch) {
+            this.habits = habits;
+            this.completedCount = completedCount;
+            this.hours = hours;
+            this.historyBatch = historyBatch;
+        }
+
+        public static Summary of(HabitTracker tracker) {
+            List<Habit> habits = new ArrayList<>(tracker.getHabits());
+            return new Summary(habits, tracker.getTotalCompletedCount(), tracker.getTimeOfDayHistogram(null),
+                BulkTransfer.historyBatchSize(tracker, habits.size()));
+        }
+    }
+
+    private HabitReport() {
+    }
+
+    // .md/.markdown이면 Markdown, 나머지는 HTML
+    public static Format formatOf(Path path) {
+        String name = path.getFileName().toString().toLowerCase();
+        return name.endsWith(".md") || name.endsWith(".markdown") ? Format.MARKDOWN : Format.HTML;
+    }
+
+    // 보고서를 파일로 쓰고 쓴 습관 수를 돌려준다
+    public static int writeFile(HabitTracker tracker, Path path, Format format, int calendarMonths,
+                                BulkTransfer.ProgressListener progress) throws IOException {
+        return writeFile(Summary.of(tracker), tracker::copyHistories, path, format, calendarMonths, progress);
+    }
+
+    public static int writeFile(Summary summary, BulkTransfer.HistorySource source, Path path, Format format,
+                                int calendarMonths, BulkTransfer.ProgressListener progress) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                 StandardOpenOption.TRUNCATE_EXISTING);
+             BufferedWriter writer = new BufferedWriter(
+                 Channels.newWriter(channel, StandardCharsets.UTF_8.newEncoder(), IO_BUFFER), IO_BUFFER)) {
+            return write(summary, source, writer, format, calendarMonths, progress);
+        }
+    }
+
+    // 진행률은 (쓴 습관 수, 전체 습관 수, 쓴 습관 수)로 알린다. out은 호출한 쪽에서 닫는다.
+    public static int write(HabitTracker tracker, Writer out, Format format, int calendarMonths,
+                            BulkTransfer.ProgressListener progress) throws IOException {
+        return write(Summary.of(tracker), tracker::copyHistories, out, format, calendarMonths, progress);
+    }
+
+    // 기록은 BulkTransfer.historyBatchSize()개 습관씩 source에서 떼어 온다 (그새 삭제된 습관은 빠진다)
+    public static int write(Summary summary, BulkTransfer.HistorySource source, Writer out, Format format,
+                            int calendarMonths, BulkTransfer.ProgressListener progress) throws IOException {
+        long startNanos = System.nanoTime();
+        LocalDate today = HabitClock.today();
+        List<Habit> habits = summary.habits;
+        boolean html = format == Format.HTML;
+
+        if (html) {
+            out.write("<!DOCTYPE html>\n<html lang=\"ko\"><head><meta charset=\"utf-8\"><title>습관 보고서</title><style>");
+            out.write(STYLE);
+            out.write("</style></head><body>\n<h1>습관 보고서</h1>\n");
+        } else {
+            out.write("# 습관 보고서\n\n");
+        }
+        writeSummary(summary, out, html, today);
+
+        ZoneId zone = HabitClock.getClock().getZone();
+        int written = 0;
+        for (int from = 0; from < habits.size(); from += summary.historyBatch) {
+            int to = Math.min(from + summary.historyBatch, habits.size());
+            for (HabitTracker.HabitHistory history : source.read(habits.subList(from, to))) {
+                Habit habit = history.getHabit();
+                BitSet done = habit.toCompletionMask(history.getDates());
+                int[] hours = new int[24];
+                if (history.getLog() != null) {
+                    history.getLog().addHourCounts(hours, zone);
+                }
+                writeHabit(habit, done, hours, out, html, today, calendarMonths);
+                written++;
+            }
+            progress.progress(to, habits.size(), written);
+        }
+
+        if (html) {
+            out.write("</body></html>\n");
+        }
+        Metrics.histogram("report.write").recordSince(startNanos);
+        return written;
+    }
+
+    // ---- 요약 ----
+
+    private static void writeSummary(Summary summary, Writer out, boolean html, LocalDate today) throws IOException {
+        List<Habit> habits = summary.habits;
+        int active = 0;
+        long targetDays = 0;
+        LocalDate first = null;
+        LocalDate last = null;
+        for (Habit habit : habits) {
+            if (habit.isInPeriod(today)) {
+                active++;
+            }
+            targetDays += habit.getTargetDays();
+            first = first == null || habit.getStartDate().isBefore(first) ? habit.getStartDate() : first;
+            last = last == null || habit.getEndDate().isAfter(last) ? habit.getEndDate() : last;
+        }
+        int[] hours = summary.hours;
+        int peak = peakHour(hours);
+
+        heading(out, html, 2, "요약");
+        tableStart(out, html, "항목", "값");
+        row(out, html, "기준일", today.toString());
+        row(out, html, "습관 수", Integer.toString(habits.size()));
+        row(out, html, "진행 중인 습관", Integer.toString(active));
+        row(out, html, "전체 기간", first == null ? "-" : first + " ~ " + last);
+        row(out, html, "완료 기록", Long.toString(summary.completedCount));
+        row(out, html, "목표 일수 합계", Long.toString(targetDays));
+        row(out, html, "주 완료 시간", peak < 0 ? "-" : peak + "시");
+        tableEnd(out, html);
+        if (peak >= 0) {
+            writeHourChart(out, html, hours);
+        }
+    }
+
+    // 시(0~23)별 완료 수 막대 그래프
+    private static void writeHourChart(Writer out, boolean html, int[] hours) throws IOException {
+        int max = 0;
+        for (int count : hours) {
+            max = Math.max(max, count);
+        }
+        if (!html) {
+            out.write('\n');
+        }
+        out.write("<svg xmlns=\"http://www.w3.org/2000/svg\" viewBox=\"0 0 240 60\" width=\"480\" height=\"120\" font-size=\"5\">");
+        out.write("<path stroke=\"#0969da\" stroke-width=\"8\" d=\"");
+        for (int hour = 0; hour < 24; hour++) {
+            int height = max > 0 ? (int) Math.round(hours[hour] * 50.0 / max) : 0;
+            if (height > 0) {
+                out.write("M" + (hour * 10 + 5) + " 50v-" + height);
+            }
+        }
+        out.write("\"/>");
+        for (int hour = 0; hour < 24; hour += 6) {
+            out.write("<text x=\"" + (hour * 10 + 2) + "\" y=\"58\">" + hour + "시</text>");
+        }
+        out.write("</svg>\n");
+        if (!html) {
+            out.write('\n');
+        }
+    }
+
+    // ---- 습관별 ----
+
+    private static void writeHabit(Habit habit, BitSet done, int[] hours, Writer out, boolean html,
+                                   LocalDate today, int calendarMonths) throws IOException {
+        // 기간이 끝난 습관은 마지막 날, 아직 시작 전이면 시작일 기준
+        LocalDate asOf = today.isAfter(habit.getEndDate()) ? habit.getEndDate() : today;
+        int streak = asOf.isBefore(habit.getStartDate()) ? 0 : habit.streak(done, asOf);
+        int peak = peakHour(hours);
+        String unit = habit.getRecurrence().isWeeklyQuota() ? "주" : "일";
+
+        if (html) {
+            out.write("<section>");
+        }
+        heading(out, html, 2, habit.getName());
+        tableStart(out, html, "기간", "반복", "달성률", "완료/목표", "연속 달성", "최장 연속", "주 완료 시간");
+        row(out, html,
+            habit.getStartDate() + " ~ " + habit.getEndDate(),
+            habit.getRecurrence().getLabel(),
+            percent(habit.completionRate(done)),
+            habit.countScheduledCompletions(done) + "/" + habit.getTargetDays(),
+            streak + unit,
+            habit.longestStreak(done, asOf) + unit,
+            peak < 0 ? "-" : peak + "시");
+        tableEnd(out, html);
+
+        if (calendarMonths != 0) {
+            writeCalendars(habit, done, out, html, asOf, calendarMonths);
+        }
+        writeHeatmap(habit, done, out, html);
+        if (html) {
+            out.write("</section>\n");
+        }
+    }
+
+    // 기준일이 든 달부터 거꾸로 calendarMonths개월 (기간 밖의 달은 뺀다)
+    private static void writeCalendars(Habit habit, BitSet done, Writer out, boolean html, LocalDate asOf, int calendarMonths) throws IOException {
+        YearMonth firstMonth = YearMonth.from(habit.getStartDate());
+        YearMonth lastMonth = YearMonth.from(asOf.isBefore(habit.getStartDate()) ? habit.getStartDate() : asOf);
+        if (calendarMonths > 0 && lastMonth.minusMonths(calendarMonths - 1).isAfter(firstMonth)) {
+            firstMonth = lastMonth.minusMonths(calendarMonths - 1);
+        }
+        if (html) {
+            out.write("<div>");
+        }
+        for (YearMonth month = firstMonth; !month.isAfter(lastMonth); month = month.plusMonths(1)) {
+            writeMonth(habit, done, out, html, asOf, month);
+        }
+        if (html) {
+            out.write("</div>\n");
+        }
+    }
+
+    // 완료한 날, 해야 했는데 빠뜨린 날, 하지 않는 날/기간 밖을 구분한다
+    private static void writeMonth(Habit habit, BitSet done, Writer out, boolean html, LocalDate asOf, YearMonth month) throws IOException {
+        if (html) {
+            out.write("<table class=\"cal\"><caption>" + month + "</caption><tr>");
+            for (String weekday : WEEKDAYS) {
+                out.write("<th>" + weekday + "</th>");
+            }
+            out.write("</tr>");
+        } else {
+            out.write("**" + month + "**\n\n|");
+            for (String weekday : WEEKDAYS) {
+                out.write(' ' + weekday + " |");
+            }
+            out.write("\n|---|---|---|---|---|---|---|\n");
+        }
+        int blanks = month.atDay(1).getDayOfWeek().getValue() - 1;
+        int length = month.lengthOfMonth();
+        for (int cell = 0; cell < blanks + length; cell++) {
+            if (cell % 7 == 0) {
+                out.write(html ? "<tr>" : "|");
+            }
+            if (cell < blanks) {
+                out.write(html ? "<td></td>" : "  |");
+                continue;
+            }
+            int day = cell - blanks + 1;
+            LocalDate date = month.atDay(day);
+            int index = habit.dayIndex(date);
+            boolean completed = habit.isInPeriod(date) && done.get(index);
+            boolean missed = !completed && habit.isScheduled(date) && !date.isAfter(asOf);
+            if (html) {
+                out.write(completed ? "<td class=\"d\">" : missed ? "<td class=\"m\">" : habit.isScheduled(date) ? "<td>" : "<td class=\"o\">");
+                out.write(Integer.toString(day));
+                out.write("</td>");
+            } else {
+                out.write(' ' + Integer.toString(day) + (completed ? " ✓" : missed ? " ·" : "") + " |");
+            }
+            if (cell % 7 == 6) {
+                out.write(html ? "</tr>" : "\n");
+            }
+        }
+        if ((blanks + length) % 7 != 0) {
+            out.write(html ? "</tr>" : "\n");
+        }
+        out.write(html ? "</table>" : "\n");
+    }
+
+    // 기간 전체의 완료 히트맵. 한 해가 한 줄이고 열은 그 해 첫 월요일 이전 주부터 센 주, 행은 요일이다.
+    // 완료한 칸만 그리되 같은 주에서 이어진 날은 세로선 하나로 묶어 습관 하나가 몇 KB를 넘지 않게 한다.
+    private static void writeHeatmap(Habit habit, BitSet done, Writer out, boolean html) throws IOException {
+        int firstYear = habit.getStartDate().getYear();
+        int years = habit.getEndDate().getYear() - firstYear + 1;
+        int width = HEATMAP_LABEL + HEATMAP_WEEKS;
+        int height = years * HEATMAP_ROW;
+        if (!html) {
+            out.write('\n');
+        }
+        out.write("<svg xmlns=\"http://www.w3.org/2000/svg\" viewBox=\"0 0 " + width + " " + height
+            + "\" width=\"" + width * 10 + "\" height=\"" + height * 10 + "\" font-size=\"3\">");
+        // 연도별 기간 칸을 옅게 깐다
+        out.write("<path fill=\"#ebedf0\" d=\"");
+        for (int y = 0; y < years; y++) {
+            int year = firstYear + y;
+            LocalDate from = year == firstYear ? habit.getStartDate() : LocalDate.of(year, 1, 1);
+            LocalDate to = y == years - 1 ? habit.getEndDate() : LocalDate.of(year, 12, 31);
+            int fromWeek = weekColumn(from);
+            out.write("M" + (HEATMAP_LABEL + fromWeek) + " " + y * HEATMAP_ROW
+                + "h" + (weekColumn(to) - fromWeek + 1) + "v7h-" + (weekColumn(to) - fromWeek + 1) + "z");
+        }
+        out.write("\"/>");
+        for (int y = 0; y < years; y++) {
+            out.write("<text x=\"0\" y=\"" + (y * HEATMAP_ROW + 5) + "\">" + (firstYear + y) + "</text>");
+        }
+
+        out.write("<path stroke=\"#2da44e\" stroke-width=\".8\" d=\"");
+        StringBuilder path = new StringBuilder(64);
+        LocalDate start = habit.getStartDate();
+        for (int i = done.nextSetBit(0); i >= 0; ) {
+            LocalDate date = start.plusDays(i);
+            int row = date.getDayOfWeek().getValue() - 1;
+            // 같은 주(일요일까지), 같은 해 안에서 이어진 완료를 한 선으로
+            int run = 1;
+            while (row + run < 7 && done.get(i + run) && date.plusDays(run).getYear() == date.getYear()) {
+                run++;
+            }
+            path.setLength(0);
+            path.append('M').append(HEATMAP_LABEL + weekColumn(date)).append(".5 ")
+                .append((date.getYear() - firstYear) * HEATMAP_ROW + row).append('v').append(run);
+            out.append(path);
+            i = done.nextSetBit(i + run);
+        }
+        out.write("\"/></svg>\n");
+        if (!html) {
+            out.write('\n');
+        }
+    }
+
+    // 그 해 1월 1일이 든 주(월요일 시작)를 0으로 센 주 번호
+    private static int weekColumn(LocalDate date) {
+        LocalDate firstMonday = LocalDate.of(date.getYear(), 1, 1).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        return (int) ((date.toEpochDay() - firstMonday.toEpochDay()) / 7);
+    }
+
+    // ---- 표/글자 ----
+
+    private static void heading(Writer out, boolean html, int level, String text) throws IOException {
+        if (html) {
+            out.write("<h" + level + ">" + escapeHtml(text) + "</h" + level + ">\n");
+        } else {
+            out.write("#".repeat(level) + " " + escapeMarkdown(text) + "\n\n");
+        }
+    }
+
+    private static void tableStart(Writer out, boolean html, String... headers) throws IOException {
+        if (html) {
+            out.write("<table><tr>");
+            for (String header : headers) {
+                out.write("<th>" + header + "</th>");
+            }
+            out.write("</tr>\n");
+            return;
+        }
+        out.write("|");
+        for (String header : headers) {
+            out.write(" " + header + " |");
+        }
+        out.write("\n|");
+        for (int i = 0; i < headers.length; i++) {
+            out.write("---|");
+        }
+        out.write('\n');
+    }
+
+    private static void row(Writer out, boolean html, String... cells) throws IOException {
+        out.write(html ? "<tr>" : "|");
+        for (String cell : cells) {
+            out.write(html ? "<td>" + escapeHtml(cell) + "</td>" : " " + escapeMarkdown(cell) + " |");
+        }
+        out.write(html ? "</tr>\n" : "\n");
+    }
+
+    private static void tableEnd(Writer out, boolean html) throws IOException {
+        out.write(html ? "</table>\n" : "\n");
+    }
+
+    private static String percent(double rate) {
+        long tenths = Math.round(rate * 10);
+        return tenths / 10 + "." + tenths % 10 + "%";
+    }
+
+    // 가장 많이 완료한 시 (기록이 없으면 -1)
+    private static int peakHour(int[] hours) {
+        int peak = -1;
+        for (int hour = 0; hour < hours.length; hour++) {
+            if (hours[hour] > 0 && (peak < 0 || hours[hour] > hours[peak])) {
+                peak = hour;
+            }
+        }
+        return peak;
+    }
+
+    static String escapeHtml(String text) {
+        StringBuilder escaped = null;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            String replacement = c == '&' ? "&amp;" : c == '<' ? "&lt;" : c == '>' ? "&gt;" : c == '"' ? "&quot;" : null;
+            if (replacement != null && escaped == null) {
+                escaped = new StringBuilder(text.length() + 16).append(text, 0, i);
+            }
+            if (escaped != null) {
+                if (replacement != null) {
+                    escaped.append(replacement);
+                } else {
+                    escaped.append(c);
+                }
+            }
+        }
+        return escaped != null ? escaped.toString() : text;
+    }
+
+    // 표 칸과 제목에서 서식으로 읽히는 글자 앞에 \를 붙인다
+    static String escapeMarkdown(String text) {
+        StringBuilder escaped = null;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            boolean special = "\\`*_[]<>|#".indexOf(c) >= 0;
+            if (special && escaped == null) {
+                escaped = new StringBuilder(text.length() + 8).append(text, 0, i);
+            }
+            if (escaped != null) {
+                if (special) {
+                    escaped.append('\\');
+                }
+                escaped.append(c);
+            }
+        }
+        return escaped != null ? escaped.toString() : text;
+    }
+}
@@ -0,0 +1,304 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// 습관 이름 검색 색인 (메인 화면/달력의 검색창)
+// 이름을 한글 자모 단위로 풀어 쓴 문자열(대소문자 무시)의 1~3글자 조각마다 습관 번호 목록을 두고,
+// 검색어의 조각 목록을 교집합한 뒤 후보만 실제로 비교한다. 1~3글자 검색어는 조각 목록이 곧 결과다.
+// 자모로 풀어 두므로 입력 중인 글자도 맞는다 ("무" -> "물", "닭" 입력 중의 "달" -> "닭").
+// 자음만 입력하면 초성으로 찾는다 ("ㅁㅅ" -> "물 마시기"). 초성 조각은 자모 조각과 따로 색인한다.
+// 트래커 변경 이벤트를 받아 바뀐 습관의 조각만 넣고 뺀다.
+public class HabitSearchIndex implements HabitChangeListener {
+    private static final String CHOSEONG = "ㄱㄲㄴㄷㄸㄹㅁㅂㅃㅅㅆㅇㅈㅉㅊㅋㅌㅍㅎ";
+    private static final String JUNGSEONG = "ㅏㅐㅑㅒㅓㅔㅕㅖㅗㅘㅙㅚㅛㅜㅝㅞㅟㅠㅡㅢㅣ";
+    private static final String JONGSEONG = "\0ㄱㄲㄳㄴㄵㄶㄷㄹㄺㄻㄼㄽㄾㄿㅀㅁㅂㅄㅅㅆㅇㅈㅊㅋㅌㅍㅎ";
+    // 겹받침/이중모음은 입력 순서대로 두 글자로 푼다
+    private static final String COMPOUND = "ㄳㄵㄶㄺㄻㄼㄽㄾㄿㅀㅄㅘㅙㅚㅝㅞㅟㅢ";
+    private static final String[] COMPOUND_PARTS = {
+        "ㄱㅅ", "ㄴㅈ", "ㄴㅎ", "ㄹㄱ", "ㄹㅁ", "ㄹㅂ", "ㄹㅅ", "ㄹㅌ", "ㄹㅍ", "ㄹㅎ", "ㅂㅅ",
+        "ㅗㅏ", "ㅗㅐ", "ㅗㅣ", "ㅜㅓ", "ㅜㅔ", "ㅜㅣ", "ㅡㅣ"
+    };
+
+    private final HabitTracker tracker;
+    // 조각(종류와 글자 수 | 글자들) -> 그 조각이 들어간 습관 번호 (오름차순)
+    private final Map<Long, Postings> postings = new HashMap<>();
+    // 습관 번호 -> 색인한 키 (자모 키, 초성 키). 뺄 때 같은 조각을 찾는 데 쓴다.
+    private String[][] keysById = new String[16][];
+    private final Map<String, Integer> idByName = new HashMap<>();
+    private int size;
+
+    public HabitSearchIndex(HabitTracker tracker) {
+        this.tracker = tracker;
+        for (Habit habit : tracker.getHabits()) {
+            habitAdded(habit);
+        }
+        tracker.addChangeListener(this);
+    }
+
+    public void close() {
+        tracker.removeChangeListener(this);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // 검색어가 이름에 들어간 습관 (번호 순). 빈 검색어면 전체 습관 목록 그대로.
+    public List<Habit> find(String query) {
+        if (normalize(query).isEmpty()) {
+            return tracker.getHabits();
+        }
+        int[] ids = search(query);
+        List<Habit> result = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            Habit habit = tracker.getHabit(id);
+            if (habit != null) {
+                result.add(habit);
+            }
+        }
+        return result;
+    }
+
+    // 검색어가 이름에 들어간 습관 번호 (오름차순)
+    public int[] search(String query) {
+        long startNanos = System.nanoTime();
+        String key = normalize(query);
+        boolean initialsOnly = isInitialsOnly(key);
+        if (initialsOnly) {
+            key = key.replace(" ", "");
+        }
+        int[] result;
+        if (key.isEmpty()) {
+            result = new int[0];
+        } else if (key.length() <= 3) {
+            // 조각 하나가 검색어 전체이므로 목록이 곧 결과
+            Postings list = postings.get(gram(key, 0, key.length(), initialsOnly));
+            result = list != null ? Arrays.copyOf(list.ids, list.size) : new int[0];
+        } else {
+            result = searchLong(key, initialsOnly);
+        }
+        Metrics.histogram("search.query").recordSince(startNanos);
+        return result;
+    }
+
+    // 3글자 조각 목록을 짧은 것부터 교집합하고, 남은 후보는 키를 직접 비교한다
+    private int[] searchLong(String key, boolean initialsOnly) {
+        List<Postings> lists = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        for (int i = 0; i + 3 <= key.length(); i++) {
+            long gram = gram(key, i, 3, initialsOnly);
+            if (!seen.add(gram)) {
+                continue;
+            }
+            Postings list = postings.get(gram);
+            if (list == null) {
+                return new int[0];
+            }
+            lists.add(list);
+        }
+        lists.sort((a, b) -> Integer.compare(a.size, b.size));
+        int[] candidates = Arrays.copyOf(lists.get(0).ids, lists.get(0).size);
+        int count = candidates.length;
+        for (int l = 1; l < lists.size() && count > 0; l++) {
+            count = intersect(candidates, count, lists.get(l));
+        }
+        int matched = 0;
+        int keyIndex = initialsOnly ? 1 : 0;
+        for (int i = 0; i < count; i++) {
+            if (keysById[candidates[i]][keyIndex].contains(key)) {
+                candidates[matched++] = candidates[i];
+            }
+        }
+        return Arrays.copyOf(candidates, matched);
+    }
+
+    // candidates[0, count) 중 list에도 있는 번호만 앞으로 모은다
+    private static int intersect(int[] candidates, int count, Postings list) {
+        int kept = 0;
+        int j = 0;
+        for (int i = 0; i < count && j < list.size; i++) {
+            int id = candidates[i];
+            j = list.lowerBound(id, j);
+            if (j < list.size && list.ids[j] == id) {
+                candidates[kept++] = id;
+            }
+        }
+        return kept;
+    }
+
+    @Override
+    public void habitAdded(Habit habit) {
+        int id = habit.getId();
+        if (id < 0) {
+            return;
+        }
+        if (id >= keysById.length) {
+            keysById = Arrays.copyOf(keysById, Math.max(keysById.length * 2, id + 1));
+        }
+        String[] keys = { normalize(habit.getName()), initials(habit.getName()) };
+        keysById[id] = keys;
+        idByName.put(habit.getName(), id);
+        for (long gram : grams(keys)) {
+            postings.computeIfAbsent(gram, g -> new Postings()).add(id);
+        }
+        size++;
+    }
+
+    @Override
+    public void habitRemoved(String habitName) {
+        Integer id = idByName.remove(habitName);
+        if (id == null || keysById[id] == null) {
+            return;
+        }
+        for (long gram : grams(keysById[id])) {
+            Postings list = postings.get(gram);
+            if (list != null && list.remove(id) && list.size == 0) {
+                postings.remove(gram);
+            }
+        }
+        keysById[id] = null;
+        size--;
+    }
+
+    // 자모 키와 초성 키의 1~3글자 조각 (정렬 후 중복 제거)
+    private static long[] grams(String[] keys) {
+        long[] grams = new long[3 * (keys[0].length() + keys[1].length())];
+        int count = 0;
+        for (int k = 0; k < keys.length; k++) {
+            String key = keys[k];
+            for (int i = 0; i < key.length(); i++) {
+                for (int n = 1; n <= 3 && i + n <= key.length(); n++) {
+                    grams[count++] = gram(key, i, n, k == 1);
+                }
+            }
+        }
+        Arrays.sort(grams, 0, count);
+        int unique = 0;
+        for (int i = 0; i < count; i++) {
+            if (unique == 0 || grams[unique - 1] != grams[i]) {
+                grams[unique++] = grams[i];
+            }
+        }
+        return Arrays.copyOf(grams, unique);
+    }
+
+    private static long gram(String key, int from, int length, boolean initials) {
+        long code = initials ? length + 4 : length;
+        for (int i = from; i < from + length; i++) {
+            code = code << 16 | key.charAt(i);
+        }
+        return code;
+    }
+
+    // 소문자, 한글은 호환 자모로 풀고 겹자모는 두 글자로, 연속된 공백은 하나로
+    static String normalize(String text) {
+        StringBuilder sb = new StringBuilder(text.length() * 3);
+        boolean space = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                space = sb.length() > 0;
+                continue;
+            }
+            if (space) {
+                sb.append(' ');
+                space = false;
+            }
+            if (c >= 0xAC00 && c <= 0xD7A3) {
+                int index = c - 0xAC00;
+                appendJamo(sb, CHOSEONG.charAt(index / 588));
+                appendJamo(sb, JUNGSEONG.charAt(index % 588 / 28));
+                if (index % 28 != 0) {
+                    appendJamo(sb, JONGSEONG.charAt(index % 28));
+                }
+            } else {
+                appendJamo(sb, Character.toLowerCase(c));
+            }
+        }
+        return sb.toString();
+    }
+
+    private static void appendJamo(StringBuilder sb, char c) {
+        int compound = COMPOUND.indexOf(c);
+        if (compound >= 0) {
+            sb.append(COMPOUND_PARTS[compound]);
+        } else {
+            sb.append(c);
+        }
+    }
+
+    // 한글 음절의 초성만 (공백과 다른 글자는 뺀다)
+    private static String initials(String text) {
+        StringBuilder sb = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= 0xAC00 && c <= 0xD7A3) {
+                sb.append(CHOSEONG.charAt((c - 0xAC00) / 588));
+            }
+        }
+        return sb.toString();
+    }
+
+    // 자음(호환 자모)과 공백만으로 된 검색어면 초성 검색
+    private static boolean isInitialsOnly(String key) {
+        boolean consonant = false;
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (c >= 'ㄱ' && c <= 'ㅎ') {
+                consonant = true;
+            } else if (c != ' ') {
+                return false;
+            }
+        }
+        return consonant;
+    }
+
+    // 오름차순 번호 목록
+    private static final class Postings {
+        int[] ids = new int[4];
+        int size;
+
+        void add(int id) {
+            // 새 습관은 번호가 가장 크므로 대부분 끝에 붙는다
+            int at = size > 0 && ids[size - 1] < id ? size : lowerBound(id, 0);
+            if (at < size && ids[at] == id) {
+                return;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, at, ids, at + 1, size - at);
+            ids[at] = id;
+            size++;
+        }
+
+        boolean remove(int id) {
+            int at = lowerBound(id, 0);
+            if (at == size || ids[at] != id) {
+                return false;
+            }
+            System.arraycopy(ids, at + 1, ids, at, size - at - 1);
+            size--;
+            return true;
+        }
+
+        // from 이후에서 id 이상인 첫 위치
+        int lowerBound(int id, int from) {
+            int low = from;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (ids[mid] < id) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
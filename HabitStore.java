@@ -0,0 +1,41 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+
+// 저장소 공통 인터페이스
+// load()로 만든 트래커는 변경 이벤트(HabitChangeListener)를 저장소로 보내고, 저장소는 그 변경을 쌓아 두거나 바로 기록한다.
+// 어떤 구현을 쓸지는 DataManager.openStore()가 -Dhabit.storage 설정으로 고른다.
+public interface HabitStore extends HabitChangeListener, Closeable {
+
+    // 저장된 내용으로 트래커를 만들고 이후 변경을 받도록 연결한다
+    HabitTracker load() throws IOException;
+
+    // 쌓인 변경을 저장소에 반영 (스냅샷 파일은 전체를 다시 쓴다)
+    void save(HabitTracker tracker) throws IOException;
+
+    // 대량 작업 중간에 반영. 매번 전체를 다시 써야 하는 저장소는 아무것도 하지 않고 save()에 맡긴다.
+    default void flush(HabitTracker tracker) throws IOException {
+    }
+
+    // 기간 안에 완료한 날짜 (오름차순)
+    List<LocalDate> queryRange(String habitName, LocalDate from, LocalDate to) throws IOException;
+
+    // 다른 프로세스가 저장소를 바꾸면 listener를 부른다 (감시 스레드에서 호출). 감시할 수 없는 저장소는 아무것도 하지 않는다.
+    default void watchExternalChanges(Runnable listener) throws IOException {
+    }
+
+    // 감지한 외부 변경 중 바뀐 습관만 트래커에 합치고 합친 습관 수를 돌려준다 (트래커를 쓰는 스레드에서 호출)
+    default int mergeExternalChanges(HabitTracker tracker) throws IOException {
+        return 0;
+    }
+
+    // 완료 상세(시각/수량/메모)를 저장할 수 있는지. 못 하는 저장소에서는 화면/명령줄이 상세를 받지 않는다.
+    default boolean supportsCompletionDetails() {
+        return true;
+    }
+
+    @Override
+    default void close() throws IOException {
+    }
+}
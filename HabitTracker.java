@@ -1,80 +1,813 @@
 import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
 import java.util.*;
 
 public class HabitTracker {
     private List<Habit> habits = new ArrayList<>();
-    private Map<String, Set<LocalDate>> records = new HashMap<>();
+    private List<HabitChangeListener> listeners = new ArrayList<>();
+    
+    // 습관마다 0부터 차례로 번호를 붙이고 습관별 데이터는 번호로 찾는 배열에 둔다.
+    // 이름은 바꿀 수 있는 속성일 뿐이므로 이름 -> 번호 표만 따로 둔다. 삭제된 번호는 다시 쓰지 않는다.
+    private final Map<String, Integer> idByName = new HashMap<>();
+    private Habit[] habitById = new Habit[16];
+    private Set<LocalDate>[] datesById = newDateSetArray(16);
+    private int nextId;
+    
+    // 연도별로 나눠 저장된 기록 중 아직 읽지 않은 연도와, 그 연도들의 습관별 완료 수
+    // 통계는 완료 수 요약으로 계산하고, 날짜별 기록은 그 연도를 처음 볼 때 읽어 온다.
+    private final Set<Integer> pendingYears = new HashSet<>();
+    private long[] pendingCounts = new long[16];
+    private PartitionLoader partitionLoader;
+    
+    // 마지막 저장 이후 바뀐 습관 이름 (삭제된 습관 포함). 저장소가 바뀐 습관만 다시 쓸 때 사용
+    private final Set<String> dirtyHabits = new HashSet<>();
+    
+    // 습관 기간 기준 완료 비트맵 (반복 규칙의 일정 비트맵과 AND 해서 달성률/연속 달성을 센다)
+    // 처음 필요할 때 만들고, 이후 완료 변경은 비트만 바꾼다. 기간이 바뀌면 버린다.
+    private BitSet[] completionMasks = new BitSet[16];
+    
+    // 완료 상세(시각, 수량, 메모). 상세를 한 번도 기록하지 않은 습관은 null
+    private CompletionLog[] logsById = new CompletionLog[16];
+    
+    // 실행 취소 기록 (없으면 기록하지 않는다)
+    private UndoLog undoLog;
+    
+    // 연도 하나의 완료 기록을 읽어서 restoreCompleted로 넣어 주는 저장소
+    public interface PartitionLoader {
+        void loadYear(HabitTracker tracker, int year);
+
+        // 트래커에 넣지 않고 연도 하나의 기록 중 habitNames 습관의 날짜만 sink로 넘긴다 (내보내기/보고서용)
+        void readYear(int year, Set<String> habitNames, PartitionSink sink);
+
+        // 아직 읽지 않은 연도의 습관 완료 수 (요약에서)
+        int countInYear(String habitName, int year);
+    }
+
+    public interface PartitionSink {
+        void accept(String habitName, LocalDate date);
+    }
+
+    // 습관 하나의 떼어 낸 기록 (날짜 오름차순, 상세가 없으면 log는 null)
+    public static final class HabitHistory {
+        private final Habit habit;
+        private final List<LocalDate> dates;
+        private final CompletionLog log;
+
+        HabitHistory(Habit habit, List<LocalDate> dates, CompletionLog log) {
+            this.habit = habit;
+            this.dates = dates;
+            this.log = log;
+        }
+
+        public Habit getHabit() {
+            return habit;
+        }
+
+        public List<LocalDate> getDates() {
+            return dates;
+        }
+
+        public CompletionLog getLog() {
+            return log;
+        }
+    }
+
+    public void addChangeListener(HabitChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeChangeListener(HabitChangeListener listener) {
+        listeners.remove(listener);
+    }
+    
+    void setUndoLog(UndoLog undoLog) {
+        this.undoLog = undoLog;
+    }
+    
+    // 지금 변경을 기록해야 하는 실행 취소 기록 (되돌리는 중이면 null)
+    private UndoLog recording() {
+        return undoLog != null && undoLog.isRecording() ? undoLog : null;
+    }
+
+    // 아직 읽지 않은 연도 등록 (저장소가 로드 직후 호출)
+    void setPendingPartitions(PartitionLoader loader, Set<Integer> years, Map<String, Long> counts) {
+        partitionLoader = loader;
+        pendingYears.clear();
+        pendingYears.addAll(years);
+        Arrays.fill(pendingCounts, 0);
+        for (Map.Entry<String, Long> entry : counts.entrySet()) {
+            int id = getHabitId(entry.getKey());
+            if (id >= 0) {
+                pendingCounts[id] = entry.getValue();
+            }
+        }
+    }
+    
+    public boolean isYearLoaded(int year) {
+        return !pendingYears.contains(year);
+    }
+    
+    // 해당 연도의 기록이 메모리에 없으면 저장소에서 읽어 온다
+    public void ensureYearLoaded(int year) {
+        if (!pendingYears.isEmpty() && pendingYears.remove(year)) {
+            partitionLoader.loadYear(this, year);
+        }
+    }
+    
+    public void ensureAllLoaded() {
+        for (Integer year : new ArrayList<>(pendingYears)) {
+            ensureYearLoaded(year);
+        }
+    }
+    
+    // ---- 번호 ----
+    
+    // 이름에 해당하는 습관 번호 (없으면 -1)
+    public int getHabitId(String habitName) {
+        Integer id = idByName.get(habitName);
+        return id != null ? id : -1;
+    }
+    
+    // 번호에 해당하는 습관 (삭제되었거나 없는 번호면 null)
+    public Habit getHabit(int id) {
+        return id >= 0 && id < nextId ? habitById[id] : null;
+    }
+    
+    private int allocateId() {
+        if (nextId == habitById.length) {
+            int capacity = habitById.length * 2;
+            habitById = Arrays.copyOf(habitById, capacity);
+            datesById = Arrays.copyOf(datesById, capacity);
+            pendingCounts = Arrays.copyOf(pendingCounts, capacity);
+            completionMasks = Arrays.copyOf(completionMasks, capacity);
+            logsById = Arrays.copyOf(logsById, capacity);
+        }
+        return nextId++;
+    }
+    
+    // 번호 자리에 습관과 완료 기록을 넣는다 (새 습관, 로드, 삭제 취소 공통)
+    private Habit install(Habit habit, int id, Set<LocalDate> dates) {
+        Habit stored = habit.withId(id);
+        habitById[id] = stored;
+        datesById[id] = dates;
+        completionMasks[id] = null;
+        pendingCounts[id] = 0;
+        idByName.put(stored.getName(), id);
+        habits.add(stored);
+        dirtyHabits.add(stored.getName());
+        return stored;
+    }
+    
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Set<LocalDate>[] newDateSetArray(int size) {
+        return (Set<LocalDate>[]) new Set[size];
+    }
+    
+    // 저장소에서 읽은 기록 넣기 (변경이 아니므로 이벤트를 보내지 않는다)
+    void restoreCompleted(String habitName, LocalDate date) {
+        int id = getHabitId(habitName);
+        if (id >= 0 && datesById[id].add(date)) {
+            updateMask(id, date, true);
+            if (pendingCounts[id] > 0) {
+                pendingCounts[id]--;
+            }
+        }
+    }
+    
+    // 로더가 디코딩을 마친 습관을 완료 집합째로 넣는다 (날짜마다 markCompleted를 거치지 않는다)
+    void restoreHabit(Habit habit, Set<LocalDate> dates) {
+        Habit stored = install(habit, allocateId(), dates);
+        for (HabitChangeListener listener : listeners) {
+            listener.habitAdded(stored);
+            for (LocalDate date : dates) {
+                listener.completionChanged(stored.getName(), date, true);
+            }
+        }
+    }
+    
+    // 저장소에서 읽은 완료 상세 넣기 (이벤트 없음)
+    void restoreCompletionLog(String habitName, CompletionLog log) {
+        int id = getHabitId(habitName);
+        if (id >= 0) {
+            logsById[id] = log != null && !log.isEmpty() ? log : null;
+        }
+    }
+    
+    // 저장할 완료 상세 (없으면 null)
+    CompletionLog getCompletionLog(String habitName) {
+        int id = getHabitId(habitName);
+        return id >= 0 ? logsById[id] : null;
+    }
+    
+    // 메모리에 있는 기록만 (저장소가 연도별로 나눠 쓸 때 사용)
+    Set<LocalDate> getLoadedCompletedDates(String habitName) {
+        int id = getHabitId(habitName);
+        return id >= 0 ? Collections.unmodifiableSet(datesById[id]) : Collections.emptySet();
+    }
+
+    // 저장 이후 바뀐 습관 이름 (읽기 전용)
+    public Set<String> getDirtyHabits() {
+        return Collections.unmodifiableSet(dirtyHabits);
+    }
+    
+    // 저장이 끝났거나 방금 읽어 온 상태라면 바뀐 습관 목록을 비운다
+    public void clearDirty() {
+        dirtyHabits.clear();
+    }
+    
+    // 저장소와 이미 같은 상태인 습관 (다른 프로세스의 변경을 합친 직후)
+    void markClean(String habitName) {
+        dirtyHabits.remove(habitName);
+    }
+    
+    // 아직 읽지 않은 연도가 있는지 (있으면 copyHistories가 부를 때마다 그 연도 파일을 훑는다)
+    public boolean hasPendingYears() {
+        return !pendingYears.isEmpty();
+    }
+    
+    // 습관 묶음의 기록을 떼어 낸 복사본 (내보내기, 보고서가 습관 몇 개씩 다른 스레드에서 읽는다).
+    // 아직 읽지 않은 연도는 트래커에 들이지 않고 연도마다 한 번씩 읽어서 복사본에만 넣는다. 그새 삭제된 습관은 빠진다.
+    public List<HabitHistory> copyHistories(List<Habit> batch) {
+        Map<String, List<LocalDate>> datesByName = new LinkedHashMap<>();
+        for (Habit habit : batch) {
+            Habit current = getHabit(habit.getId());
+            if (current != null) {
+                datesByName.put(current.getName(), new ArrayList<>(datesById[current.getId()]));
+            }
+        }
+        if (!pendingYears.isEmpty() && !datesByName.isEmpty()) {
+            List<Integer> years = new ArrayList<>(pendingYears);
+            Collections.sort(years);
+            for (int year : years) {
+                partitionLoader.readYear(year, datesByName.keySet(), (name, date) -> datesByName.get(name).add(date));
+            }
+        }
+        List<HabitHistory> histories = new ArrayList<>(datesByName.size());
+        for (Map.Entry<String, List<LocalDate>> entry : datesByName.entrySet()) {
+            int id = getHabitId(entry.getKey());
+            List<LocalDate> dates = entry.getValue();
+            Collections.sort(dates);
+            histories.add(new HabitHistory(habitById[id], dates, logsById[id] != null ? logsById[id].copy() : null));
+        }
+        return histories;
+    }
+
+    public boolean hasHabit(String habitName) {
+        return idByName.containsKey(habitName);
+    }
 
     public void addHabit(Habit habit) {
-        habits.add(habit);
-        records.put(habit.getName(), new HashSet<>());
+        checkHabitName(habit.getName());
+        Habit stored = install(habit, allocateId(), new HashSet<>());
+        for (HabitChangeListener listener : listeners) {
+            listener.habitAdded(stored);
+        }
+        UndoLog log = recording();
+        if (log != null) {
+            log.habitAdded(stored);
+            log.mutationDone();
+        }
+    }
+    
+    // 저장소가 받을 수 없는 이름이면 아무것도 바꾸기 전에 IllegalArgumentException
+    private void checkHabitName(String habitName) {
+        for (HabitChangeListener listener : listeners) {
+            listener.checkHabitName(habitName);
+        }
+    }
+
+    // 삭제했던 습관을 원래 번호 그대로 되살린다 (실행 취소용)
+    void readdHabit(Habit habit, Collection<LocalDate> dates, CompletionLog completionLog) {
+        int id = habit.getId();
+        if (id < 0 || id >= nextId || habitById[id] != null || hasHabit(habit.getName())) {
+            return;
+        }
+        Habit stored = install(habit, id, new HashSet<>(dates));
+        logsById[id] = completionLog;
+        for (HabitChangeListener listener : listeners) {
+            listener.habitAdded(stored);
+            if (!dates.isEmpty()) {
+                List<LocalDate> sorted = new ArrayList<>(dates);
+                Collections.sort(sorted);
+                listener.completionsChanged(stored.getName(), Collections.unmodifiableList(sorted), true);
+            }
+        }
+        fireAllDetails(id);
     }
 
     public boolean removeHabit(String name) {
-        boolean removed = habits.removeIf(h -> h.getName().equals(name));
-        records.remove(name);
-        return removed;
+        return removeHabit(getHabitId(name));
+    }
+    
+    public boolean removeHabit(int id) {
+        Habit habit = getHabit(id);
+        if (habit == null) return false;
+        String name = habit.getName();
+        UndoLog log = recording();
+        if (log != null) {
+            // 되돌릴 때 완료 기록도 살려야 하므로 아직 읽지 않은 연도까지 읽어 둔다
+            ensureAllLoaded();
+            log.habitRemoved(habit, datesById[id], logsById[id]);
+            log.mutationDone();
+        }
+        habits.remove(habit);
+        habitById[id] = null;
+        datesById[id] = null;
+        completionMasks[id] = null;
+        logsById[id] = null;
+        pendingCounts[id] = 0;
+        idByName.remove(name);
+        dirtyHabits.add(name);
+        for (HabitChangeListener listener : listeners) {
+            listener.habitRemoved(name);
+        }
+        return true;
+    }
+    
+    // 이름 바꾸기. 번호와 완료 기록은 그대로이고, 저장소에는 옛 이름 삭제 + 새 이름 추가로 알린다.
+    public boolean renameHabit(String oldName, String newName) {
+        return renameHabit(getHabitId(oldName), newName);
+    }
+    
+    public boolean renameHabit(int id, String newName) {
+        Habit habit = getHabit(id);
+        if (habit == null || newName == null || newName.isBlank() || hasHabit(newName)) return false;
+        checkHabitName(newName);
+        String oldName = habit.getName();
+        ensureAllLoaded();
+        Habit renamed = new Habit(newName, habit.getStartDate(), habit.getEndDate(), habit.getReminderTime(), habit.getRecurrence()).withId(id);
+        habitById[id] = renamed;
+        habits.set(habits.indexOf(habit), renamed);
+        idByName.remove(oldName);
+        idByName.put(newName, id);
+        dirtyHabits.add(oldName);
+        dirtyHabits.add(newName);
+        Set<LocalDate> dates = Collections.unmodifiableSet(datesById[id]);
+        for (HabitChangeListener listener : listeners) {
+            listener.habitRenamed(oldName, renamed, dates);
+        }
+        // 이름을 키로 쓰는 저장소가 상세도 새 이름으로 옮길 수 있게 다시 알린다
+        fireAllDetails(id);
+        UndoLog log = recording();
+        if (log != null) {
+            log.habitRenamed(id, oldName, newName);
+            log.mutationDone();
+        }
+        return true;
     }
 
     public void markCompleted(String habitName, LocalDate date) {
-        if (records.containsKey(habitName)) {
-            records.get(habitName).add(date);
+        markCompleted(getHabitId(habitName), date);
+    }
+    
+    public void markCompleted(int id, LocalDate date) {
+        if (getHabit(id) == null) return;
+        ensureYearLoaded(date.getYear());
+        if (datesById[id].add(date)) {
+            fireCompletionChanged(id, date, true);
+        }
+    }
+    
+    // 완료로 표시하고 상세(시각, 수량, 메모)도 남긴다. 이미 완료한 날이면 상세만 바꾼다.
+    public void markCompleted(String habitName, CompletionLog.Entry entry) {
+        markCompleted(getHabitId(habitName), entry);
+    }
+    
+    public void markCompleted(int id, CompletionLog.Entry entry) {
+        Habit habit = getHabit(id);
+        if (habit == null) return;
+        for (HabitChangeListener listener : listeners) {
+            listener.checkCompletionEntry(entry);
+        }
+        LocalDate date = entry.getDate();
+        ensureYearLoaded(date.getYear());
+        boolean added = datesById[id].add(date);
+        CompletionLog completionLog = logsById[id];
+        if (completionLog == null && !entry.isEmpty()) {
+            completionLog = new CompletionLog();
+            logsById[id] = completionLog;
+        }
+        CompletionLog.Entry previous = completionLog != null ? completionLog.put(entry) : null;
+        if (completionLog != null && completionLog.isEmpty()) {
+            logsById[id] = null;
+        }
+        boolean detailChanged = !Objects.equals(previous, entry.isEmpty() ? null : entry);
+        UndoLog log = recording();
+        if (log != null && detailChanged) {
+            log.detailChanged(id, date, previous, entry.isEmpty() ? null : entry);
         }
+        if (detailChanged) {
+            fireDetailChanged(id, date, entry.isEmpty() ? null : entry);
+        }
+        if (added) {
+            fireCompletionChanged(id, date, true);
+        } else if (detailChanged) {
+            dirtyHabits.add(habit.getName());
+            if (log != null) {
+                log.mutationDone();
+            }
+        }
+    }
+    
+    // 실행 취소/다시 실행으로 상세만 되돌린다 (완료 여부는 따로 되돌린다)
+    void restoreCompletionEntry(int id, LocalDate date, CompletionLog.Entry entry) {
+        Habit habit = getHabit(id);
+        if (habit == null) return;
+        CompletionLog completionLog = logsById[id];
+        if (entry != null) {
+            if (completionLog == null) {
+                completionLog = new CompletionLog();
+                logsById[id] = completionLog;
+            }
+            completionLog.put(entry);
+        } else if (completionLog != null) {
+            completionLog.remove(date);
+            if (completionLog.isEmpty()) {
+                logsById[id] = null;
+            }
+        }
+        dirtyHabits.add(habit.getName());
+        fireDetailChanged(id, date, entry);
+    }
+    
+    // 완료 상세 (없으면 null)
+    public CompletionLog.Entry getCompletionEntry(String habitName, LocalDate date) {
+        return getCompletionEntry(getHabitId(habitName), date);
+    }
+    
+    public CompletionLog.Entry getCompletionEntry(int id, LocalDate date) {
+        if (getHabit(id) == null || logsById[id] == null) return null;
+        return logsById[id].get(date);
+    }
+    
+    // 기간 [from, to]의 완료 상세 (달력 한 달치를 한 번에)
+    public Map<LocalDate, CompletionLog.Entry> getCompletionEntries(int id, LocalDate from, LocalDate to) {
+        if (getHabit(id) == null || logsById[id] == null) return Collections.emptyMap();
+        return logsById[id].range(from, to);
+    }
+    
+    // 시각을 남긴 완료를 시(0~23)별로 센다. habitName이 null이면 전체 습관.
+    public int[] getTimeOfDayHistogram(String habitName) {
+        ZoneId zone = HabitClock.getClock().getZone();
+        int[] counts = new int[24];
+        if (habitName != null) {
+            int id = getHabitId(habitName);
+            if (id >= 0 && logsById[id] != null) {
+                logsById[id].addHourCounts(counts, zone);
+            }
+            return counts;
+        }
+        for (int id = 0; id < nextId; id++) {
+            if (habitById[id] != null && logsById[id] != null) {
+                logsById[id].addHourCounts(counts, zone);
+            }
+        }
+        return counts;
     }
     
     // 완료 기록 제거 (체크박스 해제용)
     public void removeCompleted(String habitName, LocalDate date) {
-        if (records.containsKey(habitName)) {
-            records.get(habitName).remove(date);
+        removeCompleted(getHabitId(habitName), date);
+    }
+    
+    public void removeCompleted(int id, LocalDate date) {
+        if (getHabit(id) == null) return;
+        ensureYearLoaded(date.getYear());
+        if (datesById[id].remove(date)) {
+            removeEntry(id, date);
+            fireCompletionChanged(id, date, false);
+        }
+    }
+    
+    // 완료를 지우면 상세도 지운다 (되돌릴 때 살리도록 실행 취소 기록에 남긴다)
+    private void removeEntry(int id, LocalDate date) {
+        CompletionLog completionLog = logsById[id];
+        if (completionLog == null) {
+            return;
+        }
+        CompletionLog.Entry removed = completionLog.remove(date);
+        if (completionLog.isEmpty()) {
+            logsById[id] = null;
+        }
+        if (removed == null) {
+            return;
+        }
+        UndoLog log = recording();
+        if (log != null) {
+            log.detailChanged(id, date, removed, null);
+        }
+        fireDetailChanged(id, date, null);
+    }
+
+    private void fireDetailChanged(int id, LocalDate date, CompletionLog.Entry entry) {
+        String habitName = habitById[id].getName();
+        for (HabitChangeListener listener : listeners) {
+            listener.completionDetailChanged(habitName, date, entry);
+        }
+    }
+
+    // 습관의 상세 전체를 다시 알린다 (되살리기/이름 바꾸기)
+    private void fireAllDetails(int id) {
+        CompletionLog completionLog = logsById[id];
+        if (completionLog == null || listeners.isEmpty()) {
+            return;
+        }
+        for (CompletionLog.Entry entry : completionLog.entries()) {
+            fireDetailChanged(id, entry.getDate(), entry);
+        }
+    }
+    
+    // 기간 [from, to] 중 반복 규칙상 하는 날을 모두 완료로 (휴가 기간 몰아서 채우기, 달력 드래그). 바뀐 날짜 수를 돌려준다.
+    public int markRange(String habitName, LocalDate from, LocalDate to) {
+        return markRange(getHabitId(habitName), from, to);
+    }
+    
+    public int markRange(int id, LocalDate from, LocalDate to) {
+        Habit habit = getHabit(id);
+        if (habit == null) return 0;
+        List<LocalDate> dates = new ArrayList<>();
+        LocalDate last = to.isAfter(habit.getEndDate()) ? habit.getEndDate() : to;
+        for (LocalDate date = habit.nextScheduledDate(from); date != null && !date.isAfter(last);
+                date = habit.nextScheduledDate(date.plusDays(1))) {
+            dates.add(date);
+        }
+        return applyBatch(id, dates, true);
+    }
+    
+    // 기간 [from, to]의 완료 기록을 모두 지운다
+    public int unmarkRange(String habitName, LocalDate from, LocalDate to) {
+        return unmarkRange(getHabitId(habitName), from, to);
+    }
+    
+    public int unmarkRange(int id, LocalDate from, LocalDate to) {
+        if (getHabit(id) == null || to.isBefore(from)) return 0;
+        for (int year = from.getYear(); year <= to.getYear() && !pendingYears.isEmpty(); year++) {
+            ensureYearLoaded(year);
+        }
+        List<LocalDate> dates = new ArrayList<>();
+        for (LocalDate date : datesById[id]) {
+            if (!date.isBefore(from) && !date.isAfter(to)) {
+                dates.add(date);
+            }
+        }
+        Collections.sort(dates);
+        return applyBatch(id, dates, false);
+    }
+    
+    // 날짜 여러 개를 한꺼번에 완료/해제한다. 실제로 바뀐 날짜만 모아서 completionsChanged 이벤트 한 번으로 알린다.
+    public int applyBatch(String habitName, Collection<LocalDate> dates, boolean completed) {
+        return applyBatch(getHabitId(habitName), dates, completed);
+    }
+    
+    public int applyBatch(int id, Collection<LocalDate> dates, boolean completed) {
+        Habit habit = getHabit(id);
+        if (habit == null) return 0;
+        Set<LocalDate> current = datesById[id];
+        List<LocalDate> changed = new ArrayList<>();
+        for (LocalDate date : dates) {
+            ensureYearLoaded(date.getYear());
+            if (completed ? current.add(date) : current.remove(date)) {
+                updateMask(id, date, completed);
+                changed.add(date);
+                if (!completed) {
+                    removeEntry(id, date);
+                }
+            }
+        }
+        if (changed.isEmpty()) return 0;
+        String habitName = habit.getName();
+        dirtyHabits.add(habitName);
+        List<LocalDate> event = Collections.unmodifiableList(changed);
+        for (HabitChangeListener listener : listeners) {
+            listener.completionsChanged(habitName, event, completed);
+        }
+        UndoLog log = recording();
+        if (log != null) {
+            log.completionsChanged(id, event, completed);
+            log.mutationDone();
+        }
+        return changed.size();
+    }
+    
+    private void fireCompletionChanged(int id, LocalDate date, boolean completed) {
+        updateMask(id, date, completed);
+        String habitName = habitById[id].getName();
+        dirtyHabits.add(habitName);
+        for (HabitChangeListener listener : listeners) {
+            listener.completionChanged(habitName, date, completed);
+        }
+        UndoLog log = recording();
+        if (log != null) {
+            log.completionChanged(id, date, completed);
+            log.mutationDone();
         }
     }
     
     // 특정 날짜에 완료했는지 확인
     public boolean isCompleted(String habitName, LocalDate date) {
-        if (!records.containsKey(habitName)) return false;
-        return records.get(habitName).contains(date);
+        return isCompleted(getHabitId(habitName), date);
+    }
+    
+    public boolean isCompleted(int id, LocalDate date) {
+        if (getHabit(id) == null) return false;
+        ensureYearLoaded(date.getYear());
+        return datesById[id].contains(date);
+    }
+    
+    // 완료한 날짜 목록 (읽기 전용)
+    public Set<LocalDate> getCompletedDates(String habitName) {
+        return getCompletedDates(getHabitId(habitName));
+    }
+    
+    public Set<LocalDate> getCompletedDates(int id) {
+        ensureAllLoaded();
+        return getHabit(id) != null ? Collections.unmodifiableSet(datesById[id]) : Collections.emptySet();
     }
     
     // 완료된 일수 반환
     public long getCompletedDaysCount(String habitName) {
-        if (!records.containsKey(habitName)) return 0;
-        return records.get(habitName).size();
+        return getCompletedDaysCount(getHabitId(habitName));
+    }
+    
+    public long getCompletedDaysCount(int id) {
+        if (getHabit(id) == null) return 0;
+        return datesById[id].size() + pendingCounts[id];
     }
 
-    public double getCompletionRate(String habitName) {
-        Habit habit = habits.stream()
-                .filter(h -> h.getName().equals(habitName))
-                .findFirst()
-                .orElse(null);
-        if (habit == null) return 0.0;
+    // 전체 습관의 완료 기록 수
+    public long getTotalCompletedCount() {
+        long total = 0;
+        for (int id = 0; id < nextId; id++) {
+            if (habitById[id] != null) {
+                total += datesById[id].size() + pendingCounts[id];
+            }
+        }
+        return total;
+    }
 
-        long totalDays = habit.getStartDate().datesUntil(habit.getEndDate().plusDays(1)).count();
-        long completedDays = records.get(habitName).size();
+    // 목표에 들어가는 완료 수: 기간과 일정 안의 완료만, 주 N회는 주마다 N회까지만 센다 (달성률의 분자).
+    // 매일 하는 습관은 기간 안에 통째로 든 미로드 연도를 요약의 완료 수로 세고, 기간에 일부만 걸친 연도만 읽어 온다.
+    public long getScheduledCompletionsCount(String habitName) {
+        return getScheduledCompletionsCount(getHabitId(habitName));
+    }
+
+    public long getScheduledCompletionsCount(int id) {
+        Habit habit = getHabit(id);
+        if (habit == null) return 0;
+        if (!habit.getRecurrence().isDaily() || pendingYears.isEmpty()) {
+            return habit.countScheduledCompletions(getCompletionMask(id));
+        }
+        long completedDays = 0;
+        for (int year = habit.getStartDate().getYear(); year <= habit.getEndDate().getYear(); year++) {
+            if (!pendingYears.contains(year)) {
+                continue;
+            }
+            boolean wholeYear = !habit.getStartDate().isAfter(LocalDate.of(year, 1, 1))
+                && !habit.getEndDate().isBefore(LocalDate.of(year, 12, 31));
+            if (wholeYear) {
+                completedDays += partitionLoader.countInYear(habit.getName(), year);
+            } else {
+                ensureYearLoaded(year);
+            }
+        }
+        for (LocalDate date : datesById[id]) {
+            if (habit.isInPeriod(date)) {
+                completedDays++;
+            }
+        }
+        return completedDays;
+    }
 
-        return (double) completedDays / totalDays * 100;
+    // 일정 비트맵과 완료 비트맵으로 센다 (기간 밖의 기록은 세지 않는다).
+    public double getCompletionRate(String habitName) {
+        return getCompletionRate(getHabitId(habitName));
+    }
+    
+    public double getCompletionRate(int id) {
+        Habit habit = getHabit(id);
+        if (habit == null) return 0.0;
+        long totalDays = habit.getTargetDays();
+        if (totalDays <= 0) return 0.0;
+        return (double) getScheduledCompletionsCount(id) / totalDays * 100;
+    }
+    
+    // 기간 전체의 목표 일수 (반복 규칙상 하는 날의 수)
+    public long getTargetDays(String habitName) {
+        Habit habit = getHabit(getHabitId(habitName));
+        return habit != null ? habit.getTargetDays() : 0;
     }
     
     // 습관 날짜 수정
     public boolean updateHabitDates(String habitName, LocalDate newStartDate, LocalDate newEndDate) {
-        Habit habit = habits.stream()
-                .filter(h -> h.getName().equals(habitName))
-                .findFirst()
-                .orElse(null);
-        
+        Habit habit = getHabit(getHabitId(habitName));
         if (habit == null) return false;
-        
-        // 기존 습관 제거하고 새로운 날짜로 습관 생성
-        habits.removeIf(h -> h.getName().equals(habitName));
-        habits.add(new Habit(habitName, newStartDate, newEndDate));
+        return replaceHabit(habit, new Habit(habitName, newStartDate, newEndDate, habit.getReminderTime(), habit.getRecurrence()));
+    }
+    
+    // 반복 규칙 수정
+    public boolean updateHabitRecurrence(String habitName, Recurrence recurrence) {
+        Habit habit = getHabit(getHabitId(habitName));
+        if (habit == null) return false;
+        if (habit.getRecurrence().equals(recurrence)) return true;
+        return replaceHabit(habit, new Habit(habitName, habit.getStartDate(), habit.getEndDate(), habit.getReminderTime(), recurrence));
+    }
+    
+    // 알림 시간 수정 (null이면 알림 없음)
+    public boolean updateHabitReminder(String habitName, LocalTime reminderTime) {
+        Habit habit = getHabit(getHabitId(habitName));
+        if (habit == null) return false;
+        if (Objects.equals(habit.getReminderTime(), reminderTime)) return true;
+        return replaceHabit(habit, new Habit(habitName, habit.getStartDate(), habit.getEndDate(), reminderTime, habit.getRecurrence()));
+    }
+    
+    // 습관 정보(기간, 알림, 반복 규칙)를 통째로 바꾼다 (실행 취소용)
+    boolean restoreHabitInfo(Habit updated) {
+        Habit habit = getHabit(updated.getId() >= 0 ? updated.getId() : getHabitId(updated.getName()));
+        if (habit == null) return false;
+        return replaceHabit(habit, updated);
+    }
+    
+    private boolean replaceHabit(Habit habit, Habit updated) {
+        int id = habit.getId();
+        String habitName = habit.getName();
+        // 같은 번호, 같은 자리에서 새 정보로 교체
+        Habit stored = updated.withId(id);
+        habitById[id] = stored;
+        habits.set(habits.indexOf(habit), stored);
+        completionMasks[id] = null;
+        dirtyHabits.add(habitName);
         
         // 기존 완료 기록은 유지 (새로운 기간에 맞지 않는 기록은 자동으로 무시됨)
+        for (HabitChangeListener listener : listeners) {
+            listener.habitUpdated(stored);
+        }
+        UndoLog log = recording();
+        if (log != null) {
+            log.habitUpdated(habit, stored);
+            log.mutationDone();
+        }
         return true;
     }
 
+    // 기준일부터 거꾸로 이어진 연속 달성 (하지 않는 날은 건너뛴다, 주 N회 습관은 주 단위)
+    public int getStreakDays(String habitName, LocalDate today) {
+        return getStreakDays(getHabitId(habitName), today);
+    }
+    
+    public int getStreakDays(int id, LocalDate today) {
+        Habit habit = getHabit(id);
+        if (habit == null || !habit.isInPeriod(today)) return 0;
+        return habit.streak(getCompletionMask(id), today);
+    }
+    
+    // 습관 기간의 완료 비트맵 (기간에 걸친 연도만 읽어 온다)
+    private BitSet getCompletionMask(int id) {
+        BitSet mask = completionMasks[id];
+        if (mask == null) {
+            Habit habit = habitById[id];
+            for (int year = habit.getStartDate().getYear(); year <= habit.getEndDate().getYear() && !pendingYears.isEmpty(); year++) {
+                ensureYearLoaded(year);
+            }
+            mask = habit.toCompletionMask(datesById[id]);
+            completionMasks[id] = mask;
+        }
+        return mask;
+    }
+    
+    private void updateMask(int id, LocalDate date, boolean completed) {
+        BitSet mask = completionMasks[id];
+        if (mask == null) {
+            return;
+        }
+        Habit habit = habitById[id];
+        int index = habit.dayIndex(date);
+        if (index >= 0 && index < habit.periodLength()) {
+            mask.set(index, completed);
+        }
+    }
+    
+    // 특정 날짜의 {완료한 습관 수, 진행 중인 습관 수} (달력 "모든 습관" 칸용)
+    public int[] getDailySummary(LocalDate date) {
+        ensureYearLoaded(date.getYear());
+        int activeCount = 0;
+        int completedCount = 0;
+        for (int id = 0; id < nextId; id++) {
+            Habit habit = habitById[id];
+            if (habit != null && habit.isScheduled(date)) {
+                activeCount++;
+                if (datesById[id].contains(date)) {
+                    completedCount++;
+                }
+            }
+        }
+        return new int[] { completedCount, activeCount };
+    }
+
     public void printHabitStatus() {
         for (Habit habit : habits) {
             String name = habit.getName();
-            double rate = getCompletionRate(name);
+            double rate = getCompletionRate(habit.getId());
             System.out.printf("습관: %s | 달성률: %.2f%% ", name, rate);
             if (rate >= 80) {
                 System.out.println("훌륭해요! 계속 이어가요!");
@@ -87,10 +820,7 @@ public class HabitTracker {
     }
     
     public boolean isDateInHabitPeriod(String habitName, LocalDate date) {
-        Habit habit = habits.stream()
-                .filter(h -> h.getName().equals(habitName))
-                .findFirst()
-                .orElse(null);
+        Habit habit = getHabit(getHabitId(habitName));
         if (habit == null) return false;
         return habit.isInPeriod(date); 
     }
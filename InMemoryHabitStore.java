@@ -0,0 +1,123 @@
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+// 메모리 저장소 (테스트/벤치마크용, 디스크를 쓰지 않는다)
+// 트래커의 변경 이벤트를 그대로 받아 두었다가 load()에서 같은 내용의 새 트래커를 만든다.
+public class InMemoryHabitStore implements HabitStore {
+    private final Map<String, Habit> habits = new LinkedHashMap<>();
+    private final Map<String, TreeSet<LocalDate>> completions = new LinkedHashMap<>();
+    // 습관 이름 -> 완료 상세 (상세가 있는 습관만)
+    private final Map<String, CompletionLog> details = new HashMap<>();
+
+    @Override
+    public synchronized HabitTracker load() {
+        HabitTracker tracker = new HabitTracker();
+        for (Habit habit : habits.values()) {
+            tracker.addHabit(habit);
+            CompletionLog log = details.get(habit.getName());
+            for (LocalDate date : completions.get(habit.getName())) {
+                CompletionLog.Entry entry = log != null ? log.get(date) : null;
+                if (entry != null) {
+                    tracker.markCompleted(habit.getName(), entry);
+                } else {
+                    tracker.markCompleted(habit.getName(), date);
+                }
+            }
+        }
+        tracker.addChangeListener(this);
+        return tracker;
+    }
+
+    // 연결되지 않은 트래커의 내용으로 통째로 바꾼다
+    @Override
+    public synchronized void save(HabitTracker tracker) {
+        habits.clear();
+        completions.clear();
+        details.clear();
+        for (Habit habit : tracker.getHabits()) {
+            habitAdded(habit);
+            completions.get(habit.getName()).addAll(tracker.getCompletedDates(habit.getName()));
+            CompletionLog log = tracker.getCompletionLog(habit.getName());
+            if (log != null && !log.isEmpty()) {
+                details.put(habit.getName(), log.copy());
+            }
+        }
+    }
+
+    @Override
+    public synchronized List<LocalDate> queryRange(String habitName, LocalDate from, LocalDate to) {
+        TreeSet<LocalDate> dates = completions.get(habitName);
+        if (dates == null || from.isAfter(to)) {
+            return Collections.emptyList();
+        }
+        return new ArrayList<>(dates.subSet(from, true, to, true));
+    }
+
+    @Override
+    public synchronized void habitAdded(Habit habit) {
+        habits.put(habit.getName(), habit);
+        completions.put(habit.getName(), new TreeSet<>());
+    }
+
+    @Override
+    public synchronized void habitRemoved(String habitName) {
+        habits.remove(habitName);
+        completions.remove(habitName);
+        details.remove(habitName);
+    }
+
+    @Override
+    public synchronized void habitUpdated(Habit habit) {
+        habits.put(habit.getName(), habit);
+    }
+
+    @Override
+    public synchronized void completionChanged(String habitName, LocalDate date, boolean completed) {
+        TreeSet<LocalDate> dates = completions.get(habitName);
+        if (dates == null) {
+            return;
+        }
+        if (completed) {
+            dates.add(date);
+        } else {
+            dates.remove(date);
+        }
+    }
+
+    @Override
+    public synchronized void completionDetailChanged(String habitName, LocalDate date, CompletionLog.Entry entry) {
+        if (!completions.containsKey(habitName)) {
+            return;
+        }
+        if (entry != null) {
+            details.computeIfAbsent(habitName, name -> new CompletionLog()).put(entry);
+            return;
+        }
+        CompletionLog log = details.get(habitName);
+        if (log != null) {
+            log.remove(date);
+            if (log.isEmpty()) {
+                details.remove(habitName);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void completionsChanged(String habitName, List<LocalDate> dates, boolean completed) {
+        TreeSet<LocalDate> current = completions.get(habitName);
+        if (current == null) {
+            return;
+        }
+        if (completed) {
+            current.addAll(dates);
+        } else {
+            current.removeAll(dates);
+        }
+    }
+}
@@ -0,0 +1,371 @@
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// 내장 데이터베이스(JDBC) 저장소
+// 변경은 메모리에 모아 두었다가 save()/flush()에서 트랜잭션 하나로, 준비된 문장의 배치로 보낸다.
+// 같은 습관/날짜를 여러 번 바꿨으면 마지막 상태만 보낸다.
+// 드라이버는 실행 클래스패스에서 찾는다. 예) -Dhabit.storage=jdbc -Dhabit.jdbc.url=jdbc:h2:./habits
+//
+// 날짜는 DB마다 DATE 처리가 달라서 epoch day(BIGINT)로 저장한다. 완료 시각은 epoch second(UTC), 수량/메모는 있는 것만.
+public class JdbcHabitStore implements HabitStore {
+    // 이름/메모 열의 길이 (글자 수). 더 긴 값은 flush()가 통째로 실패하므로 트래커에 들어가기 전에 거부한다.
+    static final int MAX_NAME_LENGTH = 255;
+    static final int MAX_NOTE_LENGTH = 4000;
+    private static final String[] SCHEMA = {
+        "CREATE TABLE IF NOT EXISTS habit ("
+            + "name VARCHAR(255) PRIMARY KEY, start_day BIGINT NOT NULL, end_day BIGINT NOT NULL, reminder_seconds INT, recurrence INT DEFAULT 0 NOT NULL)",
+        "CREATE TABLE IF NOT EXISTS completion ("
+            + "habit_name VARCHAR(255) NOT NULL, epoch_day BIGINT NOT NULL, "
+            + "time_second BIGINT, quantity INT, note VARCHAR(4000), PRIMARY KEY (habit_name, epoch_day))"
+    };
+    private static final int AUTO_FLUSH_CHANGES = 10_000;
+
+    private final Connection connection;
+    // 아직 보내지 않은 변경: 습관 이름 -> 현재 습관 (삭제면 null)
+    private final Map<String, Habit> pendingHabits = new LinkedHashMap<>();
+    // 습관 이름 -> (epoch day -> 완료 여부)
+    private final Map<String, Map<Long, Boolean>> pendingCompletions = new LinkedHashMap<>();
+    // 습관 이름 -> (epoch day -> 완료 상세, 지웠으면 null)
+    private final Map<String, Map<Long, CompletionLog.Entry>> pendingDetails = new LinkedHashMap<>();
+    // 완료 기록을 통째로 지울 습관 이름. 지운 뒤 같은 이름으로 다시 추가해도 남겨 둔다 (pendingHabits의 null은 덮어써진다).
+    private final Set<String> purgedNames = new LinkedHashSet<>();
+    private int pendingCount;
+
+    public JdbcHabitStore(String url) throws IOException {
+        try {
+            connection = DriverManager.getConnection(url);
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                for (String sql : SCHEMA) {
+                    statement.execute(sql);
+                }
+            }
+            connection.commit();
+            addColumnIfMissing("habit", "recurrence", "INT DEFAULT 0 NOT NULL");
+            addColumnIfMissing("completion", "time_second", "BIGINT");
+            addColumnIfMissing("completion", "quantity", "INT");
+            addColumnIfMissing("completion", "note", "VARCHAR(4000)");
+        } catch (SQLException e) {
+            throw new IOException("데이터베이스를 열 수 없습니다: " + url + " (" + e.getMessage() + ")", e);
+        }
+    }
+
+    // 나중에 생긴 열(반복 규칙, 완료 상세)이 없는 이전 DB에 열을 추가한다
+    // (ADD COLUMN IF NOT EXISTS는 DB마다 지원이 달라서 먼저 읽어 본다)
+    private void addColumnIfMissing(String table, String column, String type) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.executeQuery("SELECT " + column + " FROM " + table + " WHERE 1 = 0").close();
+            connection.commit();
+        } catch (SQLException missing) {
+            connection.rollback();
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("ALTER TABLE " + table + " ADD " + column + " " + type);
+            }
+            connection.commit();
+        }
+    }
+
+    public synchronized boolean isEmpty() throws IOException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM habit")) {
+            rs.next();
+            boolean empty = rs.getLong(1) == 0;
+            connection.commit();
+            return empty && pendingHabits.isEmpty();
+        } catch (SQLException e) {
+            throw new IOException("데이터베이스에서 읽을 수 없습니다: " + e.getMessage(), e);
+        }
+    }
+
+    // 기존 트래커 내용을 통째로 옮긴다 (파일 저장소에서 처음 전환할 때)
+    public synchronized void importFrom(HabitTracker tracker) throws IOException {
+        for (Habit habit : tracker.getHabits()) {
+            pendingHabits.put(habit.getName(), habit);
+            Map<Long, Boolean> days = pendingCompletions.computeIfAbsent(habit.getName(), name -> new HashMap<>());
+            for (LocalDate date : tracker.getCompletedDates(habit.getName())) {
+                days.put(date.toEpochDay(), true);
+            }
+            CompletionLog log = tracker.getCompletionLog(habit.getName());
+            if (log != null) {
+                for (CompletionLog.Entry entry : log.entries()) {
+                    completionDetailChanged(habit.getName(), entry.getDate(), entry);
+                }
+            }
+        }
+        flush(tracker);
+    }
+
+    @Override
+    public synchronized HabitTracker load() throws IOException {
+        long startNanos = System.nanoTime();
+        HabitTracker tracker = new HabitTracker();
+        try (Statement statement = connection.createStatement()) {
+            try (ResultSet rs = statement.executeQuery("SELECT name, start_day, end_day, reminder_seconds, recurrence FROM habit")) {
+                while (rs.next()) {
+                    int reminder = rs.getInt(4);
+                    LocalTime reminderTime = rs.wasNull() ? null : LocalTime.ofSecondOfDay(reminder);
+                    tracker.addHabit(new Habit(rs.getString(1), LocalDate.ofEpochDay(rs.getLong(2)),
+                        LocalDate.ofEpochDay(rs.getLong(3)), reminderTime, Recurrence.fromCode(rs.getInt(5))));
+                }
+            }
+            try (ResultSet rs = statement.executeQuery("SELECT habit_name, epoch_day, time_second, quantity, note FROM completion")) {
+                while (rs.next()) {
+                    LocalDate date = LocalDate.ofEpochDay(rs.getLong(2));
+                    long second = rs.getLong(3);
+                    Instant time = rs.wasNull() ? null : Instant.ofEpochSecond(second);
+                    int quantity = rs.getInt(4);
+                    Integer quantityValue = rs.wasNull() ? null : quantity;
+                    CompletionLog.Entry entry = new CompletionLog.Entry(date, time, quantityValue, rs.getString(5));
+                    if (entry.isEmpty()) {
+                        tracker.markCompleted(rs.getString(1), date);
+                    } else {
+                        tracker.markCompleted(rs.getString(1), entry);
+                    }
+                }
+            }
+            connection.commit();
+        } catch (SQLException e) {
+            throw new IOException("데이터베이스에서 읽을 수 없습니다: " + e.getMessage(), e);
+        }
+        tracker.addChangeListener(this);
+        Metrics.histogram("jdbcStore.load").recordSince(startNanos);
+        return tracker;
+    }
+
+    // 쌓인 변경만 보낸다 (연결된 트래커는 이미 모든 변경을 이벤트로 알려 왔다)
+    @Override
+    public void save(HabitTracker tracker) throws IOException {
+        flush(tracker);
+    }
+
+    @Override
+    public synchronized void flush(HabitTracker tracker) throws IOException {
+        if (pendingHabits.isEmpty() && pendingCompletions.isEmpty() && pendingDetails.isEmpty() && purgedNames.isEmpty()) {
+            return;
+        }
+        long startNanos = System.nanoTime();
+        try {
+            writePending();
+            connection.commit();
+        } catch (SQLException e) {
+            try {
+                connection.rollback();
+            } catch (SQLException rollbackError) {
+                e.addSuppressed(rollbackError);
+            }
+            throw new IOException("데이터베이스에 쓸 수 없습니다: " + e.getMessage(), e);
+        }
+        pendingHabits.clear();
+        pendingCompletions.clear();
+        pendingDetails.clear();
+        purgedNames.clear();
+        pendingCount = 0;
+        Metrics.histogram("jdbcStore.flush").recordSince(startNanos);
+    }
+
+    private void writePending() throws SQLException {
+        // 삭제된 습관의 완료 기록을 먼저 지운다 (다시 추가된 같은 이름의 새 기록은 아래에서 넣는다)
+        if (!purgedNames.isEmpty()) {
+            try (PreparedStatement deleteAll = connection.prepareStatement("DELETE FROM completion WHERE habit_name = ?")) {
+                for (String habitName : purgedNames) {
+                    deleteAll.setString(1, habitName);
+                    deleteAll.addBatch();
+                }
+                deleteAll.executeBatch();
+            }
+        }
+
+        // 습관: 지우고 (삭제가 아니면) 다시 넣는다
+        try (PreparedStatement deleteHabit = connection.prepareStatement("DELETE FROM habit WHERE name = ?");
+             PreparedStatement insertHabit = connection.prepareStatement(
+                 "INSERT INTO habit (name, start_day, end_day, reminder_seconds, recurrence) VALUES (?, ?, ?, ?, ?)")) {
+            for (Map.Entry<String, Habit> entry : pendingHabits.entrySet()) {
+                deleteHabit.setString(1, entry.getKey());
+                deleteHabit.addBatch();
+                Habit habit = entry.getValue();
+                if (habit == null) {
+                    continue;
+                }
+                insertHabit.setString(1, habit.getName());
+                insertHabit.setLong(2, habit.getStartDate().toEpochDay());
+                insertHabit.setLong(3, habit.getEndDate().toEpochDay());
+                if (habit.getReminderTime() != null) {
+                    insertHabit.setInt(4, habit.getReminderTime().toSecondOfDay());
+                } else {
+                    insertHabit.setNull(4, Types.INTEGER);
+                }
+                insertHabit.setInt(5, habit.getRecurrence().toCode());
+                insertHabit.addBatch();
+            }
+            deleteHabit.executeBatch();
+            insertHabit.executeBatch();
+        }
+
+        // 완료 기록: 바뀐 날짜를 모두 지우고 완료 상태인 날짜만 다시 넣는다 (DB마다 다른 upsert를 피한다)
+        try (PreparedStatement delete = connection.prepareStatement("DELETE FROM completion WHERE habit_name = ? AND epoch_day = ?");
+             PreparedStatement insert = connection.prepareStatement("INSERT INTO completion (habit_name, epoch_day) VALUES (?, ?)")) {
+            for (Map.Entry<String, Map<Long, Boolean>> entry : pendingCompletions.entrySet()) {
+                for (Map.Entry<Long, Boolean> change : entry.getValue().entrySet()) {
+                    delete.setString(1, entry.getKey());
+                    delete.setLong(2, change.getKey());
+                    delete.addBatch();
+                    if (change.getValue()) {
+                        insert.setString(1, entry.getKey());
+                        insert.setLong(2, change.getKey());
+                        insert.addBatch();
+                    }
+                }
+            }
+            delete.executeBatch();
+            insert.executeBatch();
+        }
+
+        // 완료 상세: 다시 넣은 줄에도 적용되도록 완료 기록 다음에 덮어쓴다
+        try (PreparedStatement update = connection.prepareStatement(
+                "UPDATE completion SET time_second = ?, quantity = ?, note = ? WHERE habit_name = ? AND epoch_day = ?")) {
+            for (Map.Entry<String, Map<Long, CompletionLog.Entry>> entry : pendingDetails.entrySet()) {
+                for (Map.Entry<Long, CompletionLog.Entry> change : entry.getValue().entrySet()) {
+                    CompletionLog.Entry detail = change.getValue();
+                    if (detail != null && detail.getTime() != null) {
+                        update.setLong(1, detail.getTime().getEpochSecond());
+                    } else {
+                        update.setNull(1, Types.BIGINT);
+                    }
+                    if (detail != null && detail.getQuantity() != null) {
+                        update.setInt(2, detail.getQuantity());
+                    } else {
+                        update.setNull(2, Types.INTEGER);
+                    }
+                    if (detail != null && detail.getNote() != null) {
+                        update.setString(3, detail.getNote());
+                    } else {
+                        update.setNull(3, Types.VARCHAR);
+                    }
+                    update.setString(4, entry.getKey());
+                    update.setLong(5, change.getKey());
+                    update.addBatch();
+                }
+            }
+            update.executeBatch();
+        }
+    }
+
+    @Override
+    public synchronized List<LocalDate> queryRange(String habitName, LocalDate from, LocalDate to) throws IOException {
+        flush(null);
+        List<LocalDate> dates = new ArrayList<>();
+        try (PreparedStatement query = connection.prepareStatement(
+                "SELECT epoch_day FROM completion WHERE habit_name = ? AND epoch_day BETWEEN ? AND ? ORDER BY epoch_day")) {
+            query.setString(1, habitName);
+            query.setLong(2, from.toEpochDay());
+            query.setLong(3, to.toEpochDay());
+            try (ResultSet rs = query.executeQuery()) {
+                while (rs.next()) {
+                    dates.add(LocalDate.ofEpochDay(rs.getLong(1)));
+                }
+            }
+            connection.commit();
+        } catch (SQLException e) {
+            throw new IOException("데이터베이스에서 읽을 수 없습니다: " + e.getMessage(), e);
+        }
+        return dates;
+    }
+
+    @Override
+    public void checkHabitName(String habitName) {
+        if (habitName.length() > MAX_NAME_LENGTH) {
+            throw new IllegalArgumentException("습관 이름이 너무 깁니다 (" + habitName.length() + "자, 최대 " + MAX_NAME_LENGTH + "자): " + habitName);
+        }
+    }
+
+    @Override
+    public void checkCompletionEntry(CompletionLog.Entry entry) {
+        if (entry.getNote() != null && entry.getNote().length() > MAX_NOTE_LENGTH) {
+            throw new IllegalArgumentException("메모가 너무 깁니다 (" + entry.getNote().length() + "자, 최대 " + MAX_NOTE_LENGTH + "자)");
+        }
+    }
+
+    @Override
+    public synchronized void habitAdded(Habit habit) {
+        pendingHabits.put(habit.getName(), habit);
+        countChange();
+    }
+
+    @Override
+    public synchronized void habitRemoved(String habitName) {
+        // 삭제 전에 쌓인 완료 변경은 의미가 없다 (다시 추가되더라도 옛 기록이 살아나면 안 된다)
+        pendingCompletions.remove(habitName);
+        pendingDetails.remove(habitName);
+        pendingHabits.put(habitName, null);
+        purgedNames.add(habitName);
+        countChange();
+    }
+
+    @Override
+    public synchronized void habitUpdated(Habit habit) {
+        pendingHabits.put(habit.getName(), habit);
+        countChange();
+    }
+
+    @Override
+    public synchronized void completionChanged(String habitName, LocalDate date, boolean completed) {
+        pendingCompletions.computeIfAbsent(habitName, name -> new HashMap<>()).put(date.toEpochDay(), completed);
+        countChange();
+    }
+
+    @Override
+    public synchronized void completionDetailChanged(String habitName, LocalDate date, CompletionLog.Entry entry) {
+        pendingDetails.computeIfAbsent(habitName, name -> new HashMap<>()).put(date.toEpochDay(), entry);
+        countChange();
+    }
+
+    @Override
+    public synchronized void completionsChanged(String habitName, List<LocalDate> dates, boolean completed) {
+        Map<Long, Boolean> days = pendingCompletions.computeIfAbsent(habitName, name -> new HashMap<>());
+        for (LocalDate date : dates) {
+            days.put(date.toEpochDay(), completed);
+        }
+        pendingCount += dates.size() - 1;
+        countChange();
+    }
+
+    // 변경이 많이 쌓이면 (대량 가져오기 등) 중간에 보낸다
+    private void countChange() {
+        if (++pendingCount >= AUTO_FLUSH_CHANGES) {
+            try {
+                flush(null);
+            } catch (IOException e) {
+                Log.error("데이터베이스 자동 반영 중 오류: {}", e, e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            flush(null);
+        } finally {
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                Log.error("데이터베이스 닫기 중 오류: {}", e, e.getMessage());
+            }
+        }
+    }
+}
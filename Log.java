@@ -0,0 +1,192 @@
+import java.io.PrintStream;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+// 비동기 레벨 로깅
+// 호출 스레드는 락 없는 링 버퍼에 이벤트만 넣고, 문자열 조립과 출력은 백그라운드 스레드가 한다.
+// 메시지의 {} 자리에 인자가 차례로 들어간다. 레벨은 -Dhabit.log.level=DEBUG|INFO|WARN|ERROR (기본 INFO)
+// 반복문 안의 debug 로그는 isDebugEnabled()로 감싸서 꺼져 있을 때 인자 배열도 만들지 않게 한다.
+public class Log {
+    public enum Level { DEBUG, INFO, WARN, ERROR }
+
+    private static final int CAPACITY = 1 << 13;
+    private static final int MASK = CAPACITY - 1;
+    private static final long IDLE_PARK_NANOS = 5_000_000L;
+
+    private static final Event[] slots = new Event[CAPACITY];
+    private static final AtomicLongArray sequences = new AtomicLongArray(CAPACITY);
+    private static final AtomicLong tail = new AtomicLong();
+    private static final AtomicLong dropped = new AtomicLong();
+    private static long head; // 출력 스레드만 사용
+    private static volatile Level threshold = parseLevel(System.getProperty("habit.log.level"));
+    private static volatile boolean shuttingDown;
+    private static final Thread drainer;
+
+    static {
+        for (int i = 0; i < CAPACITY; i++) {
+            sequences.set(i, i);
+        }
+        drainer = new Thread(Log::drainLoop, "habit-log-writer");
+        drainer.setDaemon(true);
+        drainer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(Log::shutdown, "habit-log-flush"));
+    }
+
+    private Log() {
+    }
+
+    public static boolean isDebugEnabled() {
+        return threshold == Level.DEBUG;
+    }
+
+    public static boolean isEnabled(Level level) {
+        return level.compareTo(threshold) >= 0;
+    }
+
+    public static void setLevel(Level level) {
+        threshold = level;
+    }
+
+    public static void debug(String message, Object... args) {
+        log(Level.DEBUG, message, args, null);
+    }
+
+    public static void info(String message, Object... args) {
+        log(Level.INFO, message, args, null);
+    }
+
+    public static void warn(String message, Object... args) {
+        log(Level.WARN, message, args, null);
+    }
+
+    public static void error(String message, Throwable error, Object... args) {
+        log(Level.ERROR, message, args, error);
+    }
+
+    private static void log(Level level, String message, Object[] args, Throwable error) {
+        if (!isEnabled(level)) {
+            return;
+        }
+        Event event = new Event(level, message, args, error);
+        if (!offer(event)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    // 다중 생산자/단일 소비자 링 버퍼 (슬롯별 시퀀스로 게시, 가득 차면 버린다)
+    private static boolean offer(Event event) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) position & MASK;
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots[index] = event;
+                    sequences.lazySet(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    private static Event poll() {
+        int index = (int) head & MASK;
+        if (sequences.get(index) != head + 1) {
+            return null;
+        }
+        Event event = slots[index];
+        slots[index] = null;
+        sequences.lazySet(index, head + CAPACITY);
+        head++;
+        return event;
+    }
+
+    private static void drainLoop() {
+        while (true) {
+            Event event = poll();
+            if (event != null) {
+                write(event);
+                continue;
+            }
+            long lost = dropped.getAndSet(0);
+            if (lost > 0) {
+                System.err.println("[WARN] 로그 버퍼가 가득 차서 " + lost + "건을 버렸습니다.");
+            }
+            if (shuttingDown) {
+                return;
+            }
+            LockSupport.parkNanos(IDLE_PARK_NANOS);
+        }
+    }
+
+    private static void write(Event event) {
+        PrintStream out = event.level.compareTo(Level.WARN) >= 0 ? System.err : System.out;
+        String text = format(event.message, event.args);
+        if (event.level == Level.INFO) {
+            out.println(text);
+        } else {
+            out.println("[" + event.level + "] " + text);
+        }
+        if (event.error != null) {
+            event.error.printStackTrace(out);
+        }
+    }
+
+    private static String format(String message, Object[] args) {
+        if (args == null || args.length == 0) {
+            return message;
+        }
+        StringBuilder sb = new StringBuilder(message.length() + 16 * args.length);
+        int argIndex = 0;
+        int from = 0;
+        int at;
+        while (argIndex < args.length && (at = message.indexOf("{}", from)) >= 0) {
+            sb.append(message, from, at).append(args[argIndex++]);
+            from = at + 2;
+        }
+        sb.append(message, from, message.length());
+        return sb.toString();
+    }
+
+    // 남은 로그를 모두 출력할 때까지 기다린다 (종료 훅)
+    public static void shutdown() {
+        shuttingDown = true;
+        LockSupport.unpark(drainer);
+        try {
+            drainer.join(2000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Level parseLevel(String value) {
+        if (value == null) {
+            return Level.INFO;
+        }
+        try {
+            return Level.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return Level.INFO;
+        }
+    }
+
+    private static class Event {
+        final Level level;
+        final String message;
+        final Object[] args;
+        final Throwable error;
+
+        Event(Level level, String message, Object[] args, Throwable error) {
+            this.level = level;
+            this.message = message;
+            this.args = args;
+            this.error = error;
+        }
+    }
+}
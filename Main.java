@@ -4,9 +4,12 @@ import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.time.LocalDate;
+import java.time.LocalTime;
 import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
@@ -15,8 +18,20 @@ public class Main extends JFrame {
     private HabitTracker tracker = new HabitTracker();
     private CardLayout cardLayout = new CardLayout();
     private JPanel mainPanel = new JPanel(cardLayout);
-    private String currentHabitName = "";
-    private YearMonth currentCalendarMonth = YearMonth.now();
+    private int currentHabitId = -1; // 상세보기 중인 습관 번호 (이름이 바뀌어도 그대로)
+    private YearMonth currentCalendarMonth = YearMonth.from(HabitClock.today());
+    private LocalDate calendarAnchorDate; // 달력에서 마지막으로 누른 날짜 (Shift+클릭 범위의 시작)
+    private ReminderScheduler reminderScheduler;
+    private final String dataFile;
+    private HabitStore store; // -Dhabit.storage 설정으로 고른 저장소
+    private final HabitArchive archive;
+    private ExpiryQueue expiryQueue;
+    private UndoLog undoLog;
+    private HabitSearchIndex searchIndex;
+    private HabitGroups groups;
+    private final JTextField mainSearchField = new JTextField(15);
+    private final JTextField calendarSearchField = new JTextField(10);
+    private boolean updatingHabitCombo; // 달력 습관 목록을 다시 채우는 중에는 선택 이벤트를 무시
     
     // 화면 상수
     private static final String MAIN_SCREEN = "MAIN";
@@ -25,6 +40,7 @@ public class Main extends JFrame {
     private static final String EDIT_SCREEN = "EDIT";
     private static final String CALENDAR_SCREEN = "CALENDAR";
     private static final String STATS_SCREEN = "STATS";
+    private static final String GROUP_PREFIX = "그룹: "; // 달력 콤보박스의 그룹 항목
     
     // 색상 상수
     private static final Color COMPLETED_COLOR = new Color(76, 175, 80);  // 녹색
@@ -32,14 +48,58 @@ public class Main extends JFrame {
     private static final Color TODAY_COLOR = new Color(33, 150, 243);     // 파란색
     private static final Color DISABLED_COLOR = new Color(158, 158, 158); // 회색
     
+    private static final String CALENDAR_DATE_KEY = "calendarDate";
+    
+    // 등록/수정 화면에서 고를 수 있는 반복 규칙
+    private static final Recurrence[] RECURRENCE_PRESETS = {
+        Recurrence.DAILY,
+        Recurrence.daysOfWeek(Recurrence.WEEKDAYS),
+        Recurrence.daysOfWeek(Recurrence.WEEKEND),
+        Recurrence.daysOfWeek(0b0010101), // 월·수·금
+        Recurrence.daysOfWeek(0b0001010), // 화·목
+        Recurrence.everyNDays(2),
+        Recurrence.everyNDays(3),
+        Recurrence.timesPerWeek(1),
+        Recurrence.timesPerWeek(2),
+        Recurrence.timesPerWeek(3),
+        Recurrence.timesPerWeek(4),
+        Recurrence.timesPerWeek(5)
+    };
+    
     public Main() {
+        this(null, null, DataManager.DEFAULT_DATA_FILE, true);
+    }
+    
+    // initialTracker가 있으면 파일 로드를 건너뛰고 그 트래커를 불러온 initialStore를 쓴다 (스케일 하네스는 화면 없이 임시 파일로 실행)
+    Main(HabitStore initialStore, HabitTracker initialTracker, String dataFile, boolean interactive) {
+        this.dataFile = dataFile;
+        this.archive = new HabitArchive(DataManager.archiveFileFor(dataFile));
         setTitle("이번엔 진짜!");
         setSize(800, 600);
-        setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        setDefaultCloseOperation(interactive ? JFrame.EXIT_ON_CLOSE : JFrame.DISPOSE_ON_CLOSE);
         setLocationRelativeTo(null);
         
         // 데이터 로드
-        loadDataOnStartup();
+        if (initialTracker != null) {
+            tracker = initialTracker;
+            store = initialStore;
+        } else {
+            loadDataOnStartup();
+        }
+        // 로드와 만료 정리가 끝난 뒤부터 기록한다
+        undoLog = new UndoLog(tracker);
+        searchIndex = new HabitSearchIndex(tracker);
+        groups = new HabitGroups(tracker, DataManager.groupsFileFor(dataFile));
+        
+        // 습관/기록 수 게이지 (트래커가 교체될 수 있으므로 필드를 통해 읽는다)
+        Metrics.gauge("tracker.habitCount", () -> tracker.getHabits().size());
+        Metrics.gauge("tracker.recordCount", () -> tracker.getTotalCompletedCount());
+        
+        // 알림 스케줄러 시작 (로드된 트래커 기준)
+        if (interactive) {
+            startReminderScheduler();
+            HabitClock.addRolloverListener((previous, today) -> SwingUtilities.invokeLater(this::onDayChanged));
+        }
         
         // 각 화면 생성
         mainPanel.add(createMainScreen(), MAIN_SCREEN);
@@ -50,6 +110,11 @@ public class Main extends JFrame {
         mainPanel.add(createStatsScreen(), STATS_SCREEN);
         
         add(mainPanel);
+        setJMenuBar(createMenuBar());
+        
+        if (!interactive) {
+            return;
+        }
         
         // 데이터 로드 후 메인 화면 새로고침
         SwingUtilities.invokeLater(() -> {
@@ -61,43 +126,73 @@ public class Main extends JFrame {
         addWindowListener(new java.awt.event.WindowAdapter() {
             @Override
             public void windowClosing(java.awt.event.WindowEvent windowEvent) {
+                reminderScheduler.shutdown();
                 saveDataOnExit();
+                try {
+                    store.close();
+                } catch (Exception e) {
+                    Log.error("저장소 닫기 중 오류: {}", e, e.getMessage());
+                }
                 System.exit(0);
             }
         });
         
+        if (Boolean.getBoolean("habit.edt.overlay")) {
+            EdtMonitor.installOverlay(this);
+        }
+        
         setVisible(true);
     }
     
     // 데이터 로드 메서드
     private void loadDataOnStartup() {
         try {
-            tracker = DataManager.loadData();
-            System.out.println("데이터 로드 시작...");
-            System.out.println("로드된 습관 수: " + tracker.getHabits().size());
+            store = DataManager.openStore(dataFile);
+            tracker = store.load();
+            // 다른 창/프로세스가 같은 저장소에 쓰면 바뀐 습관만 합친다
+            try {
+                store.watchExternalChanges(() -> SwingUtilities.invokeLater(this::mergeExternalChanges));
+            } catch (java.io.IOException e) {
+                Log.warn("저장소 변경 감시를 시작할 수 없습니다: {}", e.getMessage());
+            }
             
             // 로드된 습관들 출력 (디버깅용)
-            for (Habit habit : tracker.getHabits()) {
-                System.out.println("로드된 습관: " + habit.getName() + 
-                    " (" + habit.getStartDate() + " ~ " + habit.getEndDate() + ")");
+            if (Log.isDebugEnabled()) {
+                for (Habit habit : tracker.getHabits()) {
+                    Log.debug("로드된 습관: {} ({} ~ {})", habit.getName(), habit.getStartDate(), habit.getEndDate());
+                }
             }
             
-            // 만료된 습관 정리
-            boolean hasExpiredHabits = DataManager.cleanExpiredHabits(tracker);
+            // 만료된 습관은 보관함으로
+            expiryQueue = new ExpiryQueue(tracker);
+            boolean hasExpiredHabits = false;
+            try {
+                hasExpiredHabits = DataManager.archiveExpiredHabits(tracker, expiryQueue, archive);
+            } catch (java.io.IOException e) {
+                // 보관하지 못한 습관은 트래커에 남고 다음 날짜 넘김에 다시 시도한다
+                Log.error("만료된 습관 보관 중 오류: {}", e, e.getMessage());
+            }
             if (hasExpiredHabits) {
-                System.out.println("만료된 습관들이 정리되었습니다.");
+                Log.info("만료된 습관들이 보관함으로 옮겨졌습니다.");
                 SwingUtilities.invokeLater(() -> {
                     JOptionPane.showMessageDialog(this, 
-                        "일부 만료된 습관이 자동으로 정리되었습니다.", 
+                        "기간이 끝난 습관을 보관함으로 옮겼습니다.\n통계 화면의 보관함에서 볼 수 있습니다.", 
                         "알림", 
                         JOptionPane.INFORMATION_MESSAGE);
                 });
             }
-            System.out.println("데이터가 성공적으로 로드되었습니다.");
+            Log.info("데이터가 성공적으로 로드되었습니다. 습관 수: {}", tracker.getHabits().size());
         } catch (Exception e) {
-            System.err.println("데이터 로드 중 오류: " + e.getMessage());
-            e.printStackTrace();
+            Log.error("데이터 로드 중 오류: {}", e, e.getMessage());
             tracker = new HabitTracker(); // 빈 트래커로 초기화
+            if (store != null) {
+                try {
+                    store.close();
+                } catch (Exception closeError) {
+                    Log.warn("저장소 닫기 중 오류: {}", closeError.getMessage());
+                }
+            }
+            store = new SnapshotHabitStore(dataFile); // 열 수 없는 저장소 대신 기본 파일에 저장
             SwingUtilities.invokeLater(() -> {
                 JOptionPane.showMessageDialog(this, 
                     "데이터 로드 중 오류가 발생했습니다. 새로운 데이터로 시작합니다.\n오류: " + e.getMessage(), 
@@ -107,21 +202,333 @@ public class Main extends JFrame {
         }
     }
     
+    // 알림 스케줄러 시작 (알림은 스케줄러 스레드에서 발생하므로 화면 표시는 EDT로 넘긴다)
+    private void startReminderScheduler() {
+        reminderScheduler = new ReminderScheduler(tracker, new ReminderScheduler.ReminderHandler() {
+            @Override
+            public void onReminder(Habit habit) {
+                SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(Main.this,
+                    "'" + habit.getName() + "' 할 시간이에요!",
+                    "습관 알림",
+                    JOptionPane.INFORMATION_MESSAGE));
+            }
+            
+            @Override
+            public void onStreakAtRisk(Habit habit) {
+                SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(Main.this,
+                    "'" + habit.getName() + "'을(를) 아직 완료하지 않았어요.\n오늘 안에 완료해야 연속 달성이 이어져요!",
+                    "연속 달성 위기",
+                    JOptionPane.WARNING_MESSAGE));
+            }
+        });
+    }
+    
     // 데이터 저장 메서드
     private void saveDataOnExit() {
         try {
-            DataManager.saveData(tracker);
-            System.out.println("데이터가 성공적으로 저장되었습니다.");
+            store.save(tracker);
+        } catch (Exception e) {
+            Log.error("데이터 저장 중 오류: {}", e, e.getMessage());
+        }
+    }
+    
+    // 자정이 지나면 날짜에 따라 달라지는 것만 다시 계산한다 (만료된 습관 정리, 오늘 체크박스, 연속 달성, 달력의 오늘 칸)
+    private void onDayChanged() {
+        EdtMonitor.markAction("날짜 변경: " + HabitClock.today());
+        boolean archived = false;
+        try {
+            archived = expiryQueue != null && DataManager.archiveExpiredHabits(tracker, expiryQueue, archive);
+        } catch (java.io.IOException e) {
+            Log.error("만료된 습관 보관 중 오류: {}", e, e.getMessage());
+        }
+        if (archived) {
+            undoLog.clear(); // 보관함으로 옮긴 습관은 되돌리지 않는다
+            try {
+                store.flush(tracker);
+            } catch (Exception e) {
+                Log.error("만료된 습관 정리 반영 중 오류: {}", e, e.getMessage());
+            }
+        }
+        refreshMainScreen();
+        refreshCalendarGrid();
+        refreshDetailScreen();
+        if (archived) {
+            JOptionPane.showMessageDialog(this,
+                "기간이 끝난 습관을 보관함으로 옮겼습니다.\n통계 화면의 보관함에서 볼 수 있습니다.",
+                "알림",
+                JOptionPane.INFORMATION_MESSAGE);
+        }
+    }
+    
+    private void mergeExternalChanges() {
+        try {
+            int merged = store.mergeExternalChanges(tracker);
+            if (merged > 0) {
+                Log.info("다른 곳에서 바뀐 습관 {}개를 반영했습니다.", merged);
+                undoLog.clear(); // 다른 곳의 변경 위로는 되돌릴 수 없다
+                refreshMainScreen();
+            }
         } catch (Exception e) {
-            System.err.println("데이터 저장 중 오류: " + e.getMessage());
+            Log.error("외부 변경 반영 중 오류: {}", e, e.getMessage());
+        }
+    }
+    
+    // 대량 가져오기 중 배치마다 저장소에 반영 (스냅샷 파일은 전체를 다시 쓰므로 끝에 한 번만 저장)
+    private void flushAfterBatch() throws Exception {
+        store.flush(tracker);
+    }
+    
+    private JMenuBar createMenuBar() {
+        JMenu fileMenu = new JMenu("파일");
+        JMenuItem importItem = new JMenuItem("가져오기 (CSV / JSON Lines)...");
+        importItem.addActionListener(e -> {
+            EdtMonitor.markAction("메뉴: 가져오기");
+            importHistory();
+        });
+        JMenuItem exportItem = new JMenuItem("내보내기 (CSV / JSON Lines)...");
+        exportItem.addActionListener(e -> {
+            EdtMonitor.markAction("메뉴: 내보내기");
+            exportHistory();
+        });
+        JMenuItem reportItem = new JMenuItem("보고서 저장 (HTML / Markdown)...");
+        reportItem.addActionListener(e -> {
+            EdtMonitor.markAction("메뉴: 보고서 저장");
+            saveReport();
+        });
+        fileMenu.add(importItem);
+        fileMenu.add(exportItem);
+        fileMenu.add(reportItem);
+        
+        JMenu editMenu = new JMenu("편집");
+        JMenuItem undoItem = new JMenuItem("실행 취소");
+        undoItem.setAccelerator(KeyStroke.getKeyStroke(java.awt.event.KeyEvent.VK_Z, java.awt.event.InputEvent.CTRL_DOWN_MASK));
+        undoItem.addActionListener(e -> {
+            EdtMonitor.markAction("메뉴: 실행 취소");
+            applyUndo(true);
+        });
+        JMenuItem redoItem = new JMenuItem("다시 실행");
+        redoItem.setAccelerator(KeyStroke.getKeyStroke(java.awt.event.KeyEvent.VK_Y, java.awt.event.InputEvent.CTRL_DOWN_MASK));
+        redoItem.addActionListener(e -> {
+            EdtMonitor.markAction("메뉴: 다시 실행");
+            applyUndo(false);
+        });
+        editMenu.add(undoItem);
+        editMenu.add(redoItem);
+        editMenu.addMenuListener(new javax.swing.event.MenuListener() {
+            @Override
+            public void menuSelected(javax.swing.event.MenuEvent e) {
+                undoItem.setEnabled(undoLog.canUndo());
+                redoItem.setEnabled(undoLog.canRedo());
+            }
+            
+            @Override
+            public void menuDeselected(javax.swing.event.MenuEvent e) {
+                // 단축키는 메뉴를 열지 않고도 동작해야 하므로 닫힐 때 다시 켠다
+                undoItem.setEnabled(true);
+                redoItem.setEnabled(true);
+            }
+            
+            @Override
+            public void menuCanceled(javax.swing.event.MenuEvent e) {
+                undoItem.setEnabled(true);
+                redoItem.setEnabled(true);
+            }
+        });
+        
+        JMenuBar menuBar = new JMenuBar();
+        menuBar.add(fileMenu);
+        menuBar.add(editMenu);
+        return menuBar;
+    }
+    
+    // 실행 취소(undo = true)/다시 실행 한 단계. 트래커에는 바뀐 부분만 반영되고 저장소에도 한 번만 쓴다.
+    // 글자 입력 칸(검색 상자 등)에 포커스가 있을 때 누른 Ctrl+Z/Ctrl+Y는 습관 변경을 되돌리지 않는다 (메뉴를 눌렀으면 되돌린다)
+    private void applyUndo(boolean undo) {
+        if (EventQueue.getCurrentEvent() instanceof java.awt.event.KeyEvent
+                && KeyboardFocusManager.getCurrentKeyboardFocusManager().getFocusOwner() instanceof javax.swing.text.JTextComponent) {
+            return;
+        }
+        boolean applied = undo ? undoLog.undo() : undoLog.redo();
+        if (!applied) {
+            Toolkit.getDefaultToolkit().beep();
+            return;
+        }
+        try {
+            store.flush(tracker);
+        } catch (Exception e) {
+            Log.error("실행 취소 반영 중 오류: {}", e, e.getMessage());
+        }
+        refreshMainScreen();
+        refreshCalendarGrid();
+        refreshDetailScreen();
+    }
+    
+    // 파일은 백그라운드에서 읽고, 배치마다 EDT에서 트래커에 넣는다
+    private void importHistory() {
+        JFileChooser chooser = new JFileChooser();
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        java.nio.file.Path path = chooser.getSelectedFile().toPath();
+        JProgressBar progressBar = new JProgressBar(0, 100);
+        JDialog dialog = createProgressDialog("가져오는 중...", progressBar);
+        BulkTransfer.Result result = new BulkTransfer.Result();
+        
+        SwingWorker<Void, Void> worker = new SwingWorker<Void, Void>() {
+            @Override
+            protected Void doInBackground() throws Exception {
+                BulkTransfer.importFile(path, BulkTransfer.formatOf(path), batch ->
+                    SwingUtilities.invokeAndWait(() -> {
+                        BulkTransfer.applyBatch(tracker, batch, result);
+                        try {
+                            flushAfterBatch();
+                        } catch (Exception e) {
+                            Log.error("가져오기 중 저장 오류: {}", e, e.getMessage());
+                        }
+                    }),
+                    (done, total, records) -> setProgress(total > 0 ? (int) (done * 100 / total) : 100),
+                    result);
+                return null;
+            }
+            
+            @Override
+            protected void done() {
+                dialog.dispose();
+                undoLog.clear(); // 가져온 기록은 한 단계로 되돌리기에 너무 크다
+                refreshMainScreen();
+                try {
+                    get();
+                    // 외부 변경 병합과 날짜 넘김 정리도 EDT에서 트래커를 바꾸므로 마지막 저장도 EDT에서 한다
+                    store.save(tracker);
+                    JOptionPane.showMessageDialog(Main.this, "가져오기 완료: " + result, "가져오기", JOptionPane.INFORMATION_MESSAGE);
+                } catch (Exception e) {
+                    Log.error("가져오기 실패: {}", e, e.getMessage());
+                    JOptionPane.showMessageDialog(Main.this, "가져오기 중 오류가 발생했습니다.\n" + e.getMessage(), "오류", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        };
+        worker.addPropertyChangeListener(e -> {
+            if ("progress".equals(e.getPropertyName())) {
+                progressBar.setValue((Integer) e.getNewValue());
+            }
+        });
+        worker.execute();
+        dialog.setVisible(true);
+    }
+    
+    private void exportHistory() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setSelectedFile(new java.io.File("habits_export.csv"));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
         }
+        java.nio.file.Path path = chooser.getSelectedFile().toPath();
+        List<Habit> habits = new ArrayList<>(tracker.getHabits());
+        int batchSize = BulkTransfer.historyBatchSize(tracker, habits.size());
+        JProgressBar progressBar = new JProgressBar(0, 100);
+        JDialog dialog = createProgressDialog("내보내는 중...", progressBar);
+        
+        SwingWorker<Long, Void> worker = new SwingWorker<Long, Void>() {
+            @Override
+            protected Long doInBackground() throws Exception {
+                return BulkTransfer.exportFile(habits, Main.this::copyHistoriesOnEdt, batchSize, path, BulkTransfer.formatOf(path),
+                    (done, total, records) -> setProgress(total > 0 ? (int) (done * 100 / total) : 100));
+            }
+            
+            @Override
+            protected void done() {
+                dialog.dispose();
+                try {
+                    JOptionPane.showMessageDialog(Main.this, "내보내기 완료: " + get() + "줄", "내보내기", JOptionPane.INFORMATION_MESSAGE);
+                } catch (Exception e) {
+                    Log.error("내보내기 실패: {}", e, e.getMessage());
+                    JOptionPane.showMessageDialog(Main.this, "내보내기 중 오류가 발생했습니다.\n" + e.getMessage(), "오류", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        };
+        worker.addPropertyChangeListener(e -> {
+            if ("progress".equals(e.getPropertyName())) {
+                progressBar.setValue((Integer) e.getNewValue());
+            }
+        });
+        worker.execute();
+        dialog.setVisible(true);
+    }
+    
+    // 전체 습관 보고서를 백그라운드에서 파일로 쓴다 (확장자가 .md면 Markdown)
+    private void saveReport() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setSelectedFile(new java.io.File("habits_report.html"));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        java.nio.file.Path path = chooser.getSelectedFile().toPath();
+        // 내보내기와 같이 습관 몇 개씩 EDT에서 떼어 낸 복사본으로 만든다 (상세 로그도 복사본을 읽는다)
+        HabitReport.Summary summary = HabitReport.Summary.of(tracker);
+        JProgressBar progressBar = new JProgressBar(0, 100);
+        JDialog dialog = createProgressDialog("보고서 만드는 중...", progressBar);
+        
+        SwingWorker<Integer, Void> worker = new SwingWorker<Integer, Void>() {
+            @Override
+            protected Integer doInBackground() throws Exception {
+                return HabitReport.writeFile(summary, Main.this::copyHistoriesOnEdt, path, HabitReport.formatOf(path), HabitReport.DEFAULT_CALENDAR_MONTHS,
+                    (done, total, records) -> setProgress(total > 0 ? (int) (done * 100 / total) : 100));
+            }
+            
+            @Override
+            protected void done() {
+                dialog.dispose();
+                try {
+                    JOptionPane.showMessageDialog(Main.this, "보고서 저장 완료: 습관 " + get() + "개", "보고서", JOptionPane.INFORMATION_MESSAGE);
+                } catch (Exception e) {
+                    Log.error("보고서 저장 실패: {}", e, e.getMessage());
+                    JOptionPane.showMessageDialog(Main.this, "보고서 저장 중 오류가 발생했습니다.\n" + e.getMessage(), "오류", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        };
+        worker.addPropertyChangeListener(e -> {
+            if ("progress".equals(e.getPropertyName())) {
+                progressBar.setValue((Integer) e.getNewValue());
+            }
+        });
+        worker.execute();
+        dialog.setVisible(true);
+    }
+    
+    // 진행률 대화상자가 떠 있는 동안에도 외부 변경 병합과 날짜 넘김 정리가 EDT에서 트래커를 바꾸므로
+    // 백그라운드 작업은 습관 몇 개씩 EDT에서 떼어 낸 복사본만 읽는다 (전체를 한 번에 복사하지 않는다)
+    private List<HabitTracker.HabitHistory> copyHistoriesOnEdt(List<Habit> habits) throws java.io.IOException {
+        List<List<HabitTracker.HabitHistory>> holder = new ArrayList<>(1);
+        try {
+            SwingUtilities.invokeAndWait(() -> holder.add(tracker.copyHistories(habits)));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new java.io.InterruptedIOException("기록 복사 중 중단되었습니다.");
+        } catch (java.lang.reflect.InvocationTargetException e) {
+            throw new java.io.IOException("기록을 복사할 수 없습니다: " + e.getCause().getMessage(), e.getCause());
+        }
+        return holder.get(0);
+    }
+    
+    // 작업이 끝날 때까지 다른 입력을 막는 진행률 대화상자
+    private JDialog createProgressDialog(String title, JProgressBar progressBar) {
+        JDialog dialog = new JDialog(this, title, true);
+        dialog.setDefaultCloseOperation(JDialog.DO_NOTHING_ON_CLOSE);
+        progressBar.setStringPainted(true);
+        JPanel panel = new JPanel(new BorderLayout());
+        panel.setBorder(new EmptyBorder(15, 15, 15, 15));
+        panel.add(progressBar, BorderLayout.CENTER);
+        dialog.add(panel);
+        dialog.setSize(360, 100);
+        dialog.setLocationRelativeTo(this);
+        return dialog;
     }
     
     // 날짜 선택용 콤보박스 패널 생성 메서드
     private JPanel createDateSelectionPanel() {
         JPanel datePanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 5, 0));
         
-        LocalDate today = LocalDate.now();
+        LocalDate today = HabitClock.today();
         
         JComboBox<Integer> yearCombo = new JComboBox<>();
         for (int year = today.getYear() - 5; year <= today.getYear() + 5; year++) {
@@ -169,7 +576,7 @@ public class Main extends JFrame {
         JPanel datePanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 5, 0));
         
         JComboBox<Integer> yearCombo = new JComboBox<>();
-        for (int year = LocalDate.now().getYear() - 5; year <= LocalDate.now().getYear() + 5; year++) {
+        for (int year = HabitClock.today().getYear() - 5; year <= HabitClock.today().getYear() + 5; year++) {
             yearCombo.addItem(year);
         }
         yearCombo.setSelectedItem(date.getYear());
@@ -228,6 +635,58 @@ public class Main extends JFrame {
         }
     }
     
+    // 알림 시간 선택 콤보박스 (30분 단위, "없음" 포함)
+    private JComboBox<String> createReminderTimeCombo() {
+        JComboBox<String> reminderCombo = new JComboBox<>();
+        reminderCombo.addItem("없음");
+        for (int minutes = 0; minutes < 24 * 60; minutes += 30) {
+            reminderCombo.addItem(LocalTime.of(minutes / 60, minutes % 60).toString());
+        }
+        return reminderCombo;
+    }
+    
+    // 반복 규칙 선택 콤보박스 (RECURRENCE_PRESETS 순서)
+    private JComboBox<String> createRecurrenceCombo() {
+        JComboBox<String> recurrenceCombo = new JComboBox<>();
+        for (Recurrence recurrence : RECURRENCE_PRESETS) {
+            recurrenceCombo.addItem(recurrence.getLabel());
+        }
+        return recurrenceCombo;
+    }
+    
+    // 현재 알림 시간 선택 (30분 단위가 아닌 시간은 목록에 추가)
+    private void selectReminderTime(JComboBox<String> reminderCombo, LocalTime reminderTime) {
+        if (reminderTime == null) {
+            reminderCombo.setSelectedItem("없음");
+            return;
+        }
+        String item = reminderTime.toString();
+        if (((DefaultComboBoxModel<String>) reminderCombo.getModel()).getIndexOf(item) < 0) {
+            reminderCombo.addItem(item);
+        }
+        reminderCombo.setSelectedItem(item);
+    }
+    
+    // 현재 반복 규칙 선택 (목록에 없는 규칙은 맨 뒤에 추가하고, 그대로 두면 바꾸지 않는다)
+    private void selectRecurrence(JComboBox<String> recurrenceCombo, Recurrence recurrence) {
+        for (int i = 0; i < RECURRENCE_PRESETS.length; i++) {
+            if (RECURRENCE_PRESETS[i].equals(recurrence)) {
+                recurrenceCombo.setSelectedIndex(i);
+                return;
+            }
+        }
+        recurrenceCombo.addItem(recurrence.getLabel());
+        recurrenceCombo.setSelectedIndex(RECURRENCE_PRESETS.length);
+    }
+    
+    private LocalTime getReminderTime(JComboBox<String> reminderCombo) {
+        String selected = (String) reminderCombo.getSelectedItem();
+        if (selected == null || "없음".equals(selected)) {
+            return null;
+        }
+        return LocalTime.parse(selected);
+    }
+    
     private LocalDate getDateFromComboBoxes(JPanel datePanel) {
         Component[] components = datePanel.getComponents();
         JComboBox<Integer> yearCombo = (JComboBox<Integer>) components[0];
@@ -241,7 +700,7 @@ public class Main extends JFrame {
         if (year != null && month != null && day != null) {
             return LocalDate.of(year, month, day);
         }
-        return LocalDate.now();
+        return HabitClock.today();
     }
     
     // 1. 메인 화면
@@ -261,11 +720,13 @@ public class Main extends JFrame {
         JButton statsBtn = new JButton("📊 통계");
         
         calendarBtn.addActionListener(e -> {
+            EdtMonitor.markAction("메인: 달력 화면으로 이동");
             refreshCalendarScreen();
             cardLayout.show(mainPanel, CALENDAR_SCREEN);
         });
         
         statsBtn.addActionListener(e -> {
+            EdtMonitor.markAction("메인: 통계 화면으로 이동");
             refreshStatsScreen();
             cardLayout.show(mainPanel, STATS_SCREEN);
         });
@@ -273,8 +734,15 @@ public class Main extends JFrame {
         navPanel.add(calendarBtn);
         navPanel.add(statsBtn);
         
+        // 검색창 (입력할 때마다 목록을 거른다)
+        JPanel searchPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        searchPanel.add(new JLabel("검색:"));
+        searchPanel.add(mainSearchField);
+        onTextChange(mainSearchField, this::refreshHabitList);
+        
         topPanel.add(titleLabel, BorderLayout.CENTER);
         topPanel.add(navPanel, BorderLayout.EAST);
+        topPanel.add(searchPanel, BorderLayout.SOUTH);
         panel.add(topPanel, BorderLayout.NORTH);
         
         // 습관 목록 영역
@@ -300,17 +768,27 @@ public class Main extends JFrame {
         return panel;
     }
     
-    private void refreshMainScreen() {
+    void refreshMainScreen() {
+        long startNanos = System.nanoTime();
+        refreshHabitList();
+        
+        // 변경사항 저장
+        saveDataOnExit();
+        
+        Metrics.histogram("ui.refreshMainScreen").recordSince(startNanos);
+    }
+    
+    // 검색어에 맞는 습관만 다시 그린다 (검색어 입력 중에는 저장하지 않는다)
+    private void refreshHabitList() {
         JPanel mainScreen = (JPanel) mainPanel.getComponent(0);
-        JPanel topPanel = (JPanel) mainScreen.getComponent(0);
         JScrollPane scrollPane = (JScrollPane) mainScreen.getComponent(1);
         JPanel habitListPanel = (JPanel) scrollPane.getViewport().getView();
         
         habitListPanel.removeAll();
         
-        List<Habit> habits = tracker.getHabits();
+        List<Habit> habits = searchIndex.find(mainSearchField.getText());
         if (habits.isEmpty()) {
-            JLabel emptyLabel = new JLabel("등록된 습관이 없습니다.", JLabel.CENTER);
+            JLabel emptyLabel = new JLabel(tracker.getHabits().isEmpty() ? "등록된 습관이 없습니다." : "검색 결과가 없습니다.", JLabel.CENTER);
             emptyLabel.setFont(new Font("맑은 고딕", Font.PLAIN, 16));
             habitListPanel.add(emptyLabel);
         } else {
@@ -323,9 +801,14 @@ public class Main extends JFrame {
         
         habitListPanel.revalidate();
         habitListPanel.repaint();
-        
-        // 변경사항 저장
-        saveDataOnExit();
+    }
+    
+    private static void onTextChange(JTextField field, Runnable action) {
+        field.getDocument().addDocumentListener(new javax.swing.event.DocumentListener() {
+            public void insertUpdate(javax.swing.event.DocumentEvent e) { action.run(); }
+            public void removeUpdate(javax.swing.event.DocumentEvent e) { action.run(); }
+            public void changedUpdate(javax.swing.event.DocumentEvent e) { action.run(); }
+        });
     }
     
     private JPanel createHabitPanel(Habit habit) {
@@ -338,10 +821,11 @@ public class Main extends JFrame {
         panel.setMaximumSize(new Dimension(720, 70));
         
         // 왼쪽: 습관 정보
-        String habitInfo = String.format("%s (%s ~ %s)", 
+        String habitInfo = String.format("%s (%s ~ %s%s)", 
             habit.getName(), 
             habit.getStartDate().toString(),
-            habit.getEndDate().toString());
+            habit.getEndDate().toString(),
+            habit.getRecurrence().isDaily() ? "" : ", " + habit.getRecurrence().getLabel());
         JLabel infoLabel = new JLabel(habitInfo);
         infoLabel.setFont(new Font("맑은 고딕", Font.PLAIN, 14));
         
@@ -350,8 +834,8 @@ public class Main extends JFrame {
         
         // 달성률
         double completionRate = tracker.getCompletionRate(habit.getName());
-        long totalDays = habit.getStartDate().datesUntil(habit.getEndDate().plusDays(1)).count();
-        long completedDays = tracker.getCompletedDaysCount(habit.getName());
+        long totalDays = tracker.getTargetDays(habit.getName());
+        long completedDays = tracker.getScheduledCompletionsCount(habit.getName());
         String rateInfo = String.format("[%d/%d] %.1f%%", completedDays, totalDays, completionRate);
         JLabel rateLabel = new JLabel(rateInfo);
         rateLabel.setFont(new Font("맑은 고딕", Font.BOLD, 14));
@@ -367,18 +851,20 @@ public class Main extends JFrame {
         
         // 오늘 완료 체크박스
         JCheckBox todayCheckBox = new JCheckBox("오늘");
-        LocalDate today = LocalDate.now();
+        LocalDate today = HabitClock.today();
         boolean isTodayCompleted = tracker.isCompleted(habit.getName(), today);
-        boolean isTodayInPeriod = habit.isInPeriod(today);
+        boolean isTodayScheduled = habit.isScheduled(today);
         
         todayCheckBox.setSelected(isTodayCompleted);
-        todayCheckBox.setEnabled(isTodayInPeriod);
+        todayCheckBox.setEnabled(isTodayScheduled);
         todayCheckBox.setFont(new Font("맑은 고딕", Font.PLAIN, 12));
         
-        if (isTodayInPeriod) {
+        if (isTodayScheduled) {
             todayCheckBox.addActionListener(e -> {
+                EdtMonitor.markAction("메인: 오늘 체크박스 - " + habit.getName());
                 if (todayCheckBox.isSelected()) {
-                    tracker.markCompleted(habit.getName(), today);
+                    // 오늘 체크는 완료 시각도 남긴다 (통계 화면의 완료 시간대)
+                    markCompletedNow(habit, today);
                 } else {
                     tracker.removeCompleted(habit.getName(), today);
                 }
@@ -393,7 +879,8 @@ public class Main extends JFrame {
         panel.addMouseListener(new java.awt.event.MouseAdapter() {
             @Override
             public void mouseClicked(java.awt.event.MouseEvent e) {
-                currentHabitName = habit.getName();
+                EdtMonitor.markAction("메인: 상세보기 - " + habit.getName());
+                currentHabitId = habit.getId();
                 refreshDetailScreen();
                 cardLayout.show(mainPanel, DETAIL_SCREEN);
             }
@@ -422,11 +909,13 @@ public class Main extends JFrame {
         monthLabel.setFont(new Font("맑은 고딕", Font.BOLD, 18));
         
         prevMonthBtn.addActionListener(e -> {
+            EdtMonitor.markAction("달력: 이전 달");
             currentCalendarMonth = currentCalendarMonth.minusMonths(1);
             refreshCalendarScreen();
         });
         
         nextMonthBtn.addActionListener(e -> {
+            EdtMonitor.markAction("달력: 다음 달");
             currentCalendarMonth = currentCalendarMonth.plusMonths(1);
             refreshCalendarScreen();
         });
@@ -441,9 +930,24 @@ public class Main extends JFrame {
         for (Habit habit : tracker.getHabits()) {
             habitCombo.addItem(habit.getName());
         }
+        habitCombo.addActionListener(e -> {
+            if (!updatingHabitCombo) {
+                refreshCalendarGrid();
+            }
+        });
+        
+        // 검색창: 콤보박스에 검색어에 맞는 습관만 남긴다
+        JPanel searchPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        searchPanel.add(new JLabel("검색:"));
+        searchPanel.add(calendarSearchField);
+        onTextChange(calendarSearchField, () -> {
+            fillHabitCombo(habitCombo);
+            refreshCalendarGrid();
+        });
         
         topPanel.add(monthNavPanel, BorderLayout.CENTER);
         topPanel.add(habitCombo, BorderLayout.EAST);
+        topPanel.add(searchPanel, BorderLayout.WEST);
         panel.add(topPanel, BorderLayout.NORTH);
         
         // 달력 그리드
@@ -461,7 +965,7 @@ public class Main extends JFrame {
         return panel;
     }
     
-    private void refreshCalendarScreen() {
+    void refreshCalendarScreen() {
         JPanel calendarScreen = (JPanel) mainPanel.getComponent(4);
         JPanel topPanel = (JPanel) calendarScreen.getComponent(0);
         JPanel monthNavPanel = (JPanel) topPanel.getComponent(0);
@@ -470,19 +974,7 @@ public class Main extends JFrame {
         JPanel calendarGrid = (JPanel) calendarScreen.getComponent(1);
         
         // 습관 콤보박스 업데이트 (새로운 습관이 추가되었을 수 있으므로)
-        String selectedHabit = (String) habitCombo.getSelectedItem();
-        habitCombo.removeAllItems();
-        habitCombo.addItem("모든 습관");
-        for (Habit habit : tracker.getHabits()) {
-            habitCombo.addItem(habit.getName());
-        }
-        // 이전 선택 유지
-        if (selectedHabit != null) {
-            habitCombo.setSelectedItem(selectedHabit);
-        }
-        
-        // 콤보박스 변경 이벤트 리스너 추가
-        habitCombo.addActionListener(e -> refreshCalendarGrid());
+        fillHabitCombo(habitCombo);
         
         // 월 라벨 업데이트
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy년 MM월");
@@ -491,7 +983,42 @@ public class Main extends JFrame {
         refreshCalendarGrid();
     }
     
+    // 달력 습관 목록을 "모든 습관", 그룹들, 검색어에 맞는 습관 순으로 채운다. 이전 선택이 남아 있으면 유지하고,
+    // 없으면 검색 중일 때는 첫 번째 습관, 아니면 "모든 습관"을 고른다.
+    private void fillHabitCombo(JComboBox<String> habitCombo) {
+        String selectedHabit = (String) habitCombo.getSelectedItem();
+        List<Habit> habits = searchIndex.find(calendarSearchField.getText());
+        List<HabitGroups.Group> groupList = groups.getGroups();
+        String[] items = new String[1 + groupList.size() + habits.size()];
+        items[0] = "모든 습관";
+        for (int i = 0; i < groupList.size(); i++) {
+            items[1 + i] = GROUP_PREFIX + groupList.get(i).getPath();
+        }
+        int firstHabit = 1 + groupList.size();
+        boolean keep = false;
+        for (int i = 0; i < items.length; i++) {
+            if (i >= firstHabit) {
+                items[i] = habits.get(i - firstHabit).getName();
+            }
+            keep |= items[i].equals(selectedHabit);
+        }
+        updatingHabitCombo = true;
+        try {
+            // 항목마다 이벤트가 나가지 않도록 모델을 한 번에 바꾼다
+            habitCombo.setModel(new DefaultComboBoxModel<>(items));
+            if (keep) {
+                habitCombo.setSelectedItem(selectedHabit);
+            } else {
+                boolean searching = !calendarSearchField.getText().isBlank();
+                habitCombo.setSelectedIndex(searching && !habits.isEmpty() ? firstHabit : 0);
+            }
+        } finally {
+            updatingHabitCombo = false;
+        }
+    }
+    
     private void refreshCalendarGrid() {
+        long startNanos = System.nanoTime();
         JPanel calendarScreen = (JPanel) mainPanel.getComponent(4);
         JPanel topPanel = (JPanel) calendarScreen.getComponent(0);
         JComboBox<String> habitCombo = (JComboBox<String>) topPanel.getComponent(1);
@@ -519,28 +1046,39 @@ public class Main extends JFrame {
             calendarGrid.add(new JLabel());
         }
         
-        // 현재 달 날짜들
+        // 현재 달 날짜들 (선택한 습관은 한 번만 찾고, 칸마다 번호로 조회)
+        String selectedHabit = (String) habitCombo.getSelectedItem();
+        HabitGroups.Group selectedGroup = selectedHabit != null && selectedHabit.startsWith(GROUP_PREFIX)
+            ? groups.findGroup(selectedHabit.substring(GROUP_PREFIX.length())) : null;
+        Habit selectedHabitObj = selectedGroup != null ? null : tracker.getHabit(tracker.getHabitId(selectedHabit));
+        Map<LocalDate, CompletionLog.Entry> entries = selectedHabitObj != null
+            ? tracker.getCompletionEntries(selectedHabitObj.getId(), firstDay, currentCalendarMonth.atEndOfMonth())
+            : Map.of();
         for (int day = 1; day <= currentCalendarMonth.lengthOfMonth(); day++) {
             LocalDate date = currentCalendarMonth.atDay(day);
-            JPanel dayPanel = createDayPanel(date, (String) habitCombo.getSelectedItem());
+            JPanel dayPanel = createDayPanel(date, selectedHabit, selectedHabitObj, selectedGroup, entries.get(date));
             calendarGrid.add(dayPanel);
         }
         
         calendarGrid.revalidate();
         calendarGrid.repaint();
+        
+        Metrics.histogram("ui.refreshCalendarGrid").recordSince(startNanos);
     }
     
-    private JPanel createDayPanel(LocalDate date, String selectedHabit) {
+    private JPanel createDayPanel(LocalDate date, String selectedHabit, Habit selectedHabitObj, HabitGroups.Group selectedGroup,
+                                  CompletionLog.Entry entry) {
         JPanel panel = new JPanel(new BorderLayout());
         panel.setBorder(BorderFactory.createLineBorder(Color.GRAY));
         panel.setPreferredSize(new Dimension(80, 60));
+        panel.putClientProperty(CALENDAR_DATE_KEY, date); // 드래그를 놓은 칸의 날짜를 찾을 때 사용
         
         // 날짜 라벨
         JLabel dayLabel = new JLabel(String.valueOf(date.getDayOfMonth()), JLabel.CENTER);
         dayLabel.setFont(new Font("맑은 고딕", Font.BOLD, 12));
         
         // 오늘 날짜 표시
-        LocalDate today = LocalDate.now();
+        LocalDate today = HabitClock.today();
         boolean isToday = date.equals(today);
         boolean isFutureDate = date.isAfter(today); // 미래 날짜 확인
         
@@ -560,19 +1098,11 @@ public class Main extends JFrame {
         // 습관 완료 상태 표시
         JPanel statusPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 2, 2));
         
-        if ("모든 습관".equals(selectedHabit)) {
-            // 모든 습관의 완료 상태를 작은 점으로 표시
-            int habitCount = 0;
-            int completedCount = 0;
-            
-            for (Habit habit : tracker.getHabits()) {
-                if (habit.isInPeriod(date)) {
-                    habitCount++;
-                    if (tracker.isCompleted(habit.getName(), date)) {
-                        completedCount++;
-                    }
-                }
-            }
+        if ("모든 습관".equals(selectedHabit) || selectedGroup != null) {
+            // 모든 습관(또는 그룹)의 완료 상태를 작은 점으로 표시
+            int[] daySummary = selectedGroup != null ? selectedGroup.getDailySummary(date) : tracker.getDailySummary(date);
+            int completedCount = daySummary[0];
+            int habitCount = daySummary[1];
             
             if (habitCount > 0) {
                 // 전체 습관 중 완료된 비율에 따라 색상 결정
@@ -593,15 +1123,11 @@ public class Main extends JFrame {
             
         } else {
             // 선택된 습관의 완료 상태 표시
-            Habit selectedHabitObj = tracker.getHabits().stream()
-                .filter(h -> h.getName().equals(selectedHabit))
-                .findFirst().orElse(null);
-            
-            if (selectedHabitObj != null && selectedHabitObj.isInPeriod(date)) {
+            if (selectedHabitObj != null && selectedHabitObj.isScheduled(date)) {
                 JLabel statusLabel = new JLabel("●");
                 statusLabel.setFont(new Font("맑은 고딕", Font.PLAIN, 20));
                 
-                boolean isCompleted = tracker.isCompleted(selectedHabit, date);
+                boolean isCompleted = tracker.isCompleted(selectedHabitObj.getId(), date);
                 if (isCompleted) {
                     statusLabel.setForeground(COMPLETED_COLOR);
                     statusLabel.setText("✓");
@@ -612,21 +1138,54 @@ public class Main extends JFrame {
                     statusLabel.setFont(new Font("맑은 고딕", Font.BOLD, 16));
                 }
                 statusPanel.add(statusLabel);
+                if (isCompleted && entry != null) {
+                    LocalTime time = entry.getLocalTime(HabitClock.getClock().getZone());
+                    if (time != null) {
+                        JLabel timeLabel = new JLabel(time.format(DateTimeFormatter.ofPattern("HH:mm")));
+                        timeLabel.setFont(new Font("맑은 고딕", Font.PLAIN, 10));
+                        statusPanel.add(timeLabel);
+                    }
+                    panel.setToolTipText(describeEntry(entry));
+                }
                 
                 // 달력 날짜 제한: 오늘 이전 날짜까지만 클릭 가능
                 if (!isFutureDate) { // 미래 날짜가 아닌 경우에만 클릭 이벤트 추가
                     panel.addMouseListener(new java.awt.event.MouseAdapter() {
                         @Override
                         public void mouseClicked(java.awt.event.MouseEvent e) {
-                            if (tracker.isCompleted(selectedHabit, date)) {
-                                tracker.removeCompleted(selectedHabit, date);
+                            // 오른쪽 클릭: 수량/메모 입력
+                            if (SwingUtilities.isRightMouseButton(e)) {
+                                editCompletionEntry(selectedHabitObj, date);
+                                return;
+                            }
+                            // Shift+클릭: 앞서 누른 날짜부터 이 날짜까지 한 번에
+                            if (e.isShiftDown() && calendarAnchorDate != null && !calendarAnchorDate.equals(date)) {
+                                applyCalendarRange(selectedHabit, calendarAnchorDate, date);
+                                return;
+                            }
+                            EdtMonitor.markAction("달력: 날짜 클릭 - " + selectedHabit + " " + date);
+                            calendarAnchorDate = date;
+                            if (tracker.isCompleted(selectedHabitObj.getId(), date)) {
+                                tracker.removeCompleted(selectedHabitObj.getId(), date);
+                            } else if (isToday) {
+                                markCompletedNow(selectedHabitObj, date);
                             } else {
-                                tracker.markCompleted(selectedHabit, date);
+                                // 지난 날짜를 나중에 채우는 것은 실제 한 시각이 아니므로 시각을 남기지 않는다
+                                tracker.markCompleted(selectedHabitObj.getId(), date);
                             }
                             refreshCalendarGrid();
                             refreshMainScreen(); // 메인 화면도 업데이트
                         }
                         
+                        // 드래그: 누른 칸과 놓은 칸이 다르면 그 사이를 한 번에 채운다 (같은 칸이면 mouseClicked가 처리)
+                        @Override
+                        public void mouseReleased(java.awt.event.MouseEvent e) {
+                            LocalDate end = calendarDateAt(panel, e.getPoint());
+                            if (end != null && !end.equals(date) && !e.isShiftDown()) {
+                                applyCalendarRange(selectedHabit, date, end);
+                            }
+                        }
+                        
                         @Override
                         public void mouseEntered(java.awt.event.MouseEvent e) {
                             panel.setBackground(new Color(230, 230, 230));
@@ -657,6 +1216,109 @@ public class Main extends JFrame {
         return panel;
     }
     
+    // 완료 상세 요약 (달력 칸 툴팁)
+    private static String describeEntry(CompletionLog.Entry entry) {
+        StringBuilder sb = new StringBuilder();
+        LocalTime time = entry.getLocalTime(HabitClock.getClock().getZone());
+        if (time != null) {
+            sb.append("완료 시각: ").append(time.format(DateTimeFormatter.ofPattern("HH:mm")));
+        }
+        if (entry.getQuantity() != null) {
+            sb.append(sb.length() > 0 ? ", " : "").append("수량: ").append(entry.getQuantity());
+        }
+        if (entry.getNote() != null) {
+            sb.append(sb.length() > 0 ? ", " : "").append("메모: ").append(entry.getNote());
+        }
+        return sb.toString();
+    }
+    
+    // 지금 완료: 시각을 남긴다 (상세를 저장하지 못하는 저장소면 완료만)
+    private void markCompletedNow(Habit habit, LocalDate date) {
+        if (store.supportsCompletionDetails()) {
+            tracker.markCompleted(habit.getId(), new CompletionLog.Entry(date, HabitClock.getClock().instant(), null, null));
+        } else {
+            tracker.markCompleted(habit.getId(), date);
+        }
+    }
+    
+    // 날짜의 수량/메모 입력 (완료하지 않은 날이면 완료로 표시한다)
+    private void editCompletionEntry(Habit habit, LocalDate date) {
+        if (!store.supportsCompletionDetails()) {
+            JOptionPane.showMessageDialog(this, "지금 저장 방식(" + DataManager.storageMode() + ")은 수량/메모를 저장하지 않습니다.",
+                "완료 상세", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+        CompletionLog.Entry current = tracker.getCompletionEntry(habit.getId(), date);
+        JTextField quantityField = new JTextField(current != null && current.getQuantity() != null ? String.valueOf(current.getQuantity()) : "", 8);
+        JTextField noteField = new JTextField(current != null && current.getNote() != null ? current.getNote() : "", 20);
+        JPanel form = new JPanel(new GridLayout(0, 2, 5, 5));
+        form.add(new JLabel("수량:"));
+        form.add(quantityField);
+        form.add(new JLabel("메모:"));
+        form.add(noteField);
+        int result = JOptionPane.showConfirmDialog(this, form, habit.getName() + " - " + date,
+            JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+        if (result != JOptionPane.OK_OPTION) {
+            return;
+        }
+        Integer quantity = null;
+        String quantityText = quantityField.getText().trim();
+        if (!quantityText.isEmpty()) {
+            try {
+                quantity = Integer.parseInt(quantityText);
+            } catch (NumberFormatException ex) {
+                JOptionPane.showMessageDialog(this, "수량은 정수로 입력해주세요.", "입력 오류", JOptionPane.WARNING_MESSAGE);
+                return;
+            }
+        }
+        EdtMonitor.markAction("달력: 완료 상세 - " + habit.getName() + " " + date);
+        java.time.Instant time = current != null ? current.getTime()
+            : date.equals(HabitClock.today()) ? HabitClock.getClock().instant() : null;
+        try {
+            tracker.markCompleted(habit.getId(), new CompletionLog.Entry(date, time, quantity, noteField.getText()));
+        } catch (IllegalArgumentException ex) {
+            // 저장소가 받을 수 없는 상세 (데이터베이스 저장소의 메모 길이 제한 등)
+            JOptionPane.showMessageDialog(this, ex.getMessage(), "입력 오류", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        refreshCalendarGrid();
+        refreshMainScreen();
+    }
+    
+    // 달력 칸 기준 좌표의 날짜 (달력 밖이면 null)
+    private LocalDate calendarDateAt(JComponent source, Point point) {
+        Container grid = source.getParent();
+        Point gridPoint = SwingUtilities.convertPoint(source, point, grid);
+        Component target = grid.getComponentAt(gridPoint);
+        return target instanceof JComponent
+            ? (LocalDate) ((JComponent) target).getClientProperty(CALENDAR_DATE_KEY) : null;
+    }
+    
+    // 시작 칸이 완료 상태였으면 범위를 모두 해제하고, 아니면 범위의 하는 날을 모두 완료로 (미래 날짜는 제외)
+    // 트래커 호출 한 번 = 변경 이벤트 한 번이고, 저장소에도 한 번에 반영한다.
+    private void applyCalendarRange(String habitName, LocalDate anchor, LocalDate end) {
+        EdtMonitor.markAction("달력: 범위 선택 - " + habitName + " " + anchor + " ~ " + end);
+        LocalDate from = anchor.isBefore(end) ? anchor : end;
+        LocalDate to = anchor.isBefore(end) ? end : anchor;
+        LocalDate today = HabitClock.today();
+        if (to.isAfter(today)) {
+            to = today;
+        }
+        int changed = tracker.isCompleted(habitName, anchor)
+            ? tracker.unmarkRange(habitName, from, to)
+            : tracker.markRange(habitName, from, to);
+        calendarAnchorDate = end;
+        if (changed > 0) {
+            try {
+                store.flush(tracker);
+            } catch (Exception ex) {
+                Log.error("범위 변경 반영 중 오류: {}", ex, ex.getMessage());
+            }
+        }
+        refreshCalendarGrid();
+        refreshMainScreen();
+    }
+    
     // 6. 통계 화면
     private JPanel createStatsScreen() {
         JPanel panel = new JPanel(new BorderLayout());
@@ -677,15 +1339,92 @@ public class Main extends JFrame {
         // 하단 버튼
         JButton homeBtn = new JButton("HOME");
         homeBtn.addActionListener(e -> cardLayout.show(mainPanel, MAIN_SCREEN));
+        JButton archiveBtn = new JButton("보관함");
+        archiveBtn.addActionListener(e -> {
+            EdtMonitor.markAction("통계: 보관함 보기");
+            showArchiveDialog();
+        });
         
         JPanel bottomPanel = new JPanel(new FlowLayout());
         bottomPanel.add(homeBtn);
+        bottomPanel.add(archiveBtn);
         panel.add(bottomPanel, BorderLayout.SOUTH);
         
         return panel;
     }
     
-    private void refreshStatsScreen() {
+    // 보관된(만료된) 습관 목록과 검색
+    // 보관함 파일은 처음 열 때 백그라운드에서 읽는다
+    private void showArchiveDialog() {
+        JDialog dialog = new JDialog(this, "보관함", true);
+        dialog.setSize(520, 420);
+        dialog.setLocationRelativeTo(this);
+        
+        JTextField searchField = new JTextField();
+        DefaultListModel<HabitArchive.ArchivedHabit> listModel = new DefaultListModel<>();
+        JList<HabitArchive.ArchivedHabit> list = new JList<>(listModel);
+        list.setCellRenderer(new DefaultListCellRenderer() {
+            @Override
+            public Component getListCellRendererComponent(JList<?> l, Object value, int index, boolean selected, boolean focus) {
+                HabitArchive.ArchivedHabit archived = (HabitArchive.ArchivedHabit) value;
+                long totalDays = archived.getTargetDays();
+                String text = String.format("%s  (%s ~ %s)  달성률 %.1f%% (%d/%d일)",
+                    archived.getName(), archived.getStartDate(), archived.getEndDate(),
+                    archived.getCompletionRate(), archived.getCompletedDaysCount(), totalDays);
+                return super.getListCellRendererComponent(l, text, index, selected, focus);
+            }
+        });
+        JLabel statusLabel = new JLabel("보관함을 읽는 중...");
+        
+        Runnable applyFilter = () -> {
+            listModel.clear();
+            List<HabitArchive.ArchivedHabit> found = archive.search(searchField.getText());
+            for (HabitArchive.ArchivedHabit archived : found) {
+                listModel.addElement(archived);
+            }
+            statusLabel.setText("보관된 습관 " + found.size() + "개");
+        };
+        searchField.getDocument().addDocumentListener(new javax.swing.event.DocumentListener() {
+            public void insertUpdate(javax.swing.event.DocumentEvent e) { applyFilter.run(); }
+            public void removeUpdate(javax.swing.event.DocumentEvent e) { applyFilter.run(); }
+            public void changedUpdate(javax.swing.event.DocumentEvent e) { applyFilter.run(); }
+        });
+        searchField.setEnabled(false);
+        
+        new SwingWorker<Void, Void>() {
+            @Override
+            protected Void doInBackground() {
+                archive.entries();
+                return null;
+            }
+            
+            @Override
+            protected void done() {
+                searchField.setEnabled(true);
+                applyFilter.run();
+            }
+        }.execute();
+        
+        JPanel searchPanel = new JPanel(new BorderLayout(5, 0));
+        searchPanel.setBorder(new EmptyBorder(10, 10, 5, 10));
+        searchPanel.add(new JLabel("검색:"), BorderLayout.WEST);
+        searchPanel.add(searchField, BorderLayout.CENTER);
+        
+        JButton closeBtn = new JButton("닫기");
+        closeBtn.addActionListener(e -> dialog.dispose());
+        JPanel bottomPanel = new JPanel(new BorderLayout());
+        bottomPanel.setBorder(new EmptyBorder(5, 10, 10, 10));
+        bottomPanel.add(statusLabel, BorderLayout.WEST);
+        bottomPanel.add(closeBtn, BorderLayout.EAST);
+        
+        dialog.add(searchPanel, BorderLayout.NORTH);
+        dialog.add(new JScrollPane(list), BorderLayout.CENTER);
+        dialog.add(bottomPanel, BorderLayout.SOUTH);
+        dialog.setVisible(true);
+    }
+    
+    void refreshStatsScreen() {
+        long startNanos = System.nanoTime();
         JPanel statsScreen = (JPanel) mainPanel.getComponent(5);
         JScrollPane scrollPane = (JScrollPane) statsScreen.getComponent(1);
         JPanel statsContent = (JPanel) scrollPane.getViewport().getView();
@@ -703,6 +1442,19 @@ public class Main extends JFrame {
             statsContent.add(summaryPanel);
             statsContent.add(Box.createVerticalStrut(20));
             
+            // 완료 시간대 (시각을 남긴 완료가 있을 때만)
+            int[] hours = tracker.getTimeOfDayHistogram(null);
+            if (Arrays.stream(hours).sum() > 0) {
+                statsContent.add(createTimeOfDayPanel("완료 시간대", hours));
+                statsContent.add(Box.createVerticalStrut(20));
+            }
+            
+            // 그룹별 요약
+            if (!groups.getGroups().isEmpty()) {
+                statsContent.add(createGroupStatsPanel());
+                statsContent.add(Box.createVerticalStrut(20));
+            }
+            
             // 각 습관별 상세 통계
             for (Habit habit : habits) {
                 JPanel habitStatsPanel = createHabitStatsPanel(habit);
@@ -713,6 +1465,8 @@ public class Main extends JFrame {
         
         statsContent.revalidate();
         statsContent.repaint();
+        
+        Metrics.histogram("ui.refreshStatsScreen").recordSince(startNanos);
     }
     
     private JPanel createSummaryPanel() {
@@ -725,9 +1479,10 @@ public class Main extends JFrame {
         
         double totalRate = 0;
         int activeHabits = 0;
+        LocalDate today = HabitClock.today();
         
         for (Habit habit : tracker.getHabits()) {
-            if (habit.isInPeriod(LocalDate.now())) {
+            if (habit.isInPeriod(today)) {
                 activeHabits++;
             }
             totalRate += tracker.getCompletionRate(habit.getName());
@@ -747,6 +1502,66 @@ public class Main extends JFrame {
         return panel;
     }
     
+    // 그룹별 통계 (그룹 노드에 모아 둔 값을 그대로 읽는다, 하위 그룹은 들여쓰기)
+    private JPanel createGroupStatsPanel() {
+        JPanel panel = new JPanel(new BorderLayout());
+        panel.setBorder(BorderFactory.createTitledBorder("그룹별 요약"));
+        
+        StringBuilder summary = new StringBuilder();
+        for (HabitGroups.Group group : groups.getGroups()) {
+            summary.append("    ".repeat(group.getDepth()));
+            summary.append(String.format("%s: 습관 %d개, 달성률 %.1f%% (%d/%d일)\n",
+                group.getName(), group.getHabitCount(), group.getCompletionRate(),
+                group.getCompletedCount(), group.getTargetDays()));
+        }
+        
+        JTextArea summaryArea = new JTextArea(summary.toString().trim());
+        summaryArea.setEditable(false);
+        summaryArea.setFont(new Font("맑은 고딕", Font.PLAIN, 14));
+        summaryArea.setBackground(panel.getBackground());
+        
+        panel.add(summaryArea, BorderLayout.CENTER);
+        panel.setMaximumSize(new Dimension(Integer.MAX_VALUE, summaryArea.getPreferredSize().height + 40));
+        return panel;
+    }
+    
+    // 시(0~23)별 완료 수 막대
+    private JPanel createTimeOfDayPanel(String title, int[] hours) {
+        JPanel panel = new JPanel(new BorderLayout());
+        panel.setBorder(BorderFactory.createTitledBorder(title));
+        panel.setMaximumSize(new Dimension(Integer.MAX_VALUE, 160));
+        
+        int max = Arrays.stream(hours).max().orElse(0);
+        JPanel bars = new JPanel(new GridLayout(1, 24, 2, 0));
+        for (int hour = 0; hour < 24; hour++) {
+            JProgressBar bar = new JProgressBar(SwingConstants.VERTICAL, 0, Math.max(max, 1));
+            bar.setValue(hours[hour]);
+            bar.setForeground(COMPLETED_COLOR);
+            bar.setToolTipText(String.format("%02d시: %d회", hour, hours[hour]));
+            JLabel hourLabel = new JLabel(String.valueOf(hour), JLabel.CENTER);
+            hourLabel.setFont(new Font("맑은 고딕", Font.PLAIN, 10));
+            JPanel column = new JPanel(new BorderLayout());
+            column.add(bar, BorderLayout.CENTER);
+            column.add(hourLabel, BorderLayout.SOUTH);
+            bars.add(column);
+        }
+        bars.setPreferredSize(new Dimension(600, 110));
+        panel.add(bars, BorderLayout.CENTER);
+        return panel;
+    }
+    
+    // 가장 많이 완료한 시간대 ("07시대 (12회)", 시각 기록이 없으면 null)
+    private String peakHour(String habitName) {
+        int[] hours = tracker.getTimeOfDayHistogram(habitName);
+        int peak = 0;
+        for (int hour = 1; hour < 24; hour++) {
+            if (hours[hour] > hours[peak]) {
+                peak = hour;
+            }
+        }
+        return hours[peak] > 0 ? String.format("%02d시대 (%d회)", peak, hours[peak]) : null;
+    }
+    
     private JPanel createHabitStatsPanel(Habit habit) {
         JPanel panel = new JPanel(new BorderLayout());
         panel.setBorder(BorderFactory.createTitledBorder(habit.getName()));
@@ -756,8 +1571,8 @@ public class Main extends JFrame {
         JPanel infoPanel = new JPanel(new GridLayout(0, 2, 10, 5));
         
         double completionRate = tracker.getCompletionRate(habit.getName());
-        long totalDays = habit.getStartDate().datesUntil(habit.getEndDate().plusDays(1)).count();
-        long completedDays = tracker.getCompletedDaysCount(habit.getName());
+        long totalDays = tracker.getTargetDays(habit.getName());
+        long completedDays = tracker.getScheduledCompletionsCount(habit.getName());
         
         // 연속 달성 일수 계산
         int streakDays = calculateStreakDays(habit.getName());
@@ -765,6 +1580,9 @@ public class Main extends JFrame {
         infoPanel.add(new JLabel("기간:"));
         infoPanel.add(new JLabel(habit.getStartDate() + " ~ " + habit.getEndDate()));
         
+        infoPanel.add(new JLabel("반복:"));
+        infoPanel.add(new JLabel(habit.getRecurrence().getLabel()));
+        
         infoPanel.add(new JLabel("달성률:"));
         JLabel rateLabel = new JLabel(String.format("%.1f%% (%d/%d일)", completionRate, completedDays, totalDays));
         if (completionRate >= 80) {
@@ -777,12 +1595,19 @@ public class Main extends JFrame {
         infoPanel.add(rateLabel);
         
         infoPanel.add(new JLabel("연속 달성:"));
-        infoPanel.add(new JLabel(streakDays + "일"));
+        infoPanel.add(new JLabel(streakDays + streakUnit(habit)));
         
         infoPanel.add(new JLabel("상태:"));
-        String status = habit.isInPeriod(LocalDate.now()) ? "진행 중" : "완료됨";
+        String status = habit.isInPeriod(HabitClock.today()) ? "진행 중" : "완료됨";
         infoPanel.add(new JLabel(status));
         
+        String peak = peakHour(habit.getName());
+        if (peak != null) {
+            infoPanel.add(new JLabel("주 완료 시간:"));
+            infoPanel.add(new JLabel(peak));
+            panel.setMaximumSize(new Dimension(Integer.MAX_VALUE, 225));
+        }
+        
         // 시각적 진행바
         JPanel progressPanel = new JPanel(new BorderLayout());
         progressPanel.setBorder(new EmptyBorder(10, 0, 0, 0));
@@ -811,26 +1636,18 @@ public class Main extends JFrame {
     
     // 연속 달성 일수 계산
     private int calculateStreakDays(String habitName) {
-        Habit habit = tracker.getHabits().stream()
-            .filter(h -> h.getName().equals(habitName))
-            .findFirst().orElse(null);
-        
-        if (habit == null) return 0;
-        
-        int streak = 0;
-        LocalDate checkDate = LocalDate.now();
-        
-        // 오늘부터 거꾸로 확인하면서 연속 달성 일수 계산
-        while (habit.isInPeriod(checkDate)) {
-            if (tracker.isCompleted(habitName, checkDate)) {
-                streak++;
-                checkDate = checkDate.minusDays(1);
-            } else {
-                break;
-            }
-        }
-        
-        return streak;
+        return tracker.getStreakDays(habitName, HabitClock.today());
+    }
+    
+    // 상세보기 중인 습관의 지금 이름 (삭제되었으면 빈 문자열)
+    private String currentHabitName() {
+        Habit habit = tracker.getHabit(currentHabitId);
+        return habit != null ? habit.getName() : "";
+    }
+    
+    // 주 N회 습관의 연속 달성은 주 단위
+    private String streakUnit(Habit habit) {
+        return habit.getRecurrence().isWeeklyQuota() ? "주" : "일";
     }
     
     // 2. 새로운 습관 등록 화면
@@ -852,6 +1669,8 @@ public class Main extends JFrame {
         JTextField nameField = new JTextField(20);
         JPanel startDatePanel = createDateSelectionPanel();
         JPanel endDatePanel = createDateSelectionPanel();
+        JComboBox<String> reminderCombo = createReminderTimeCombo();
+        JComboBox<String> recurrenceCombo = createRecurrenceCombo();
         
         gbc.gridx = 0; gbc.gridy = 0; gbc.anchor = GridBagConstraints.EAST;
         formPanel.add(new JLabel("습관이름 :"), gbc);
@@ -868,6 +1687,16 @@ public class Main extends JFrame {
         gbc.gridx = 1; gbc.anchor = GridBagConstraints.WEST;
         formPanel.add(endDatePanel, gbc);
         
+        gbc.gridx = 0; gbc.gridy = 3; gbc.anchor = GridBagConstraints.EAST;
+        formPanel.add(new JLabel("알림시간 :"), gbc);
+        gbc.gridx = 1; gbc.anchor = GridBagConstraints.WEST;
+        formPanel.add(reminderCombo, gbc);
+        
+        gbc.gridx = 0; gbc.gridy = 4; gbc.anchor = GridBagConstraints.EAST;
+        formPanel.add(new JLabel("반복 :"), gbc);
+        gbc.gridx = 1; gbc.anchor = GridBagConstraints.WEST;
+        formPanel.add(recurrenceCombo, gbc);
+        
         panel.add(formPanel, BorderLayout.CENTER);
         
         // 하단 버튼들과 메시지
@@ -882,6 +1711,7 @@ public class Main extends JFrame {
         JButton homeButton = new JButton("HOME");
         
         registerButton.addActionListener(e -> {
+            EdtMonitor.markAction("등록: 습관 등록");
             String name = nameField.getText().trim();
             if (name.isEmpty()) {
                 messageLabel.setText("습관 이름을 입력해주세요.");
@@ -900,7 +1730,7 @@ public class Main extends JFrame {
             
             LocalDate start = getDateFromComboBoxes(startDatePanel);
             LocalDate end = getDateFromComboBoxes(endDatePanel);
-            LocalDate today = LocalDate.now();
+            LocalDate today = HabitClock.today();
             
             // 시작날짜 검증
             if (start.isBefore(today)) {
@@ -928,7 +1758,15 @@ public class Main extends JFrame {
                 return;
             }
             
-            tracker.addHabit(new Habit(name, start, end));
+            try {
+                tracker.addHabit(new Habit(name, start, end, getReminderTime(reminderCombo),
+                    RECURRENCE_PRESETS[recurrenceCombo.getSelectedIndex()]));
+            } catch (IllegalArgumentException ex) {
+                // 저장소가 받을 수 없는 이름 (매핑 파일 저장소의 이름 길이 제한 등)
+                messageLabel.setText(ex.getMessage());
+                messageLabel.setForeground(Color.RED);
+                return;
+            }
             
             // 등록 완료 후 홈 화면으로 이동
             refreshMainScreen();
@@ -984,6 +1822,8 @@ public class Main extends JFrame {
         // 하단 버튼
         JPanel buttonPanel = new JPanel(new FlowLayout());
         JButton editButton = new JButton("날짜 변경");
+        JButton renameButton = new JButton("이름 변경");
+        JButton groupButton = new JButton("그룹 변경");
         JButton deleteButton = new JButton("습관 삭제");
         JButton calendarButton = new JButton("📅 달력보기");
         JButton homeButton = new JButton("HOME");
@@ -993,6 +1833,68 @@ public class Main extends JFrame {
             cardLayout.show(mainPanel, EDIT_SCREEN);
         });
         
+        renameButton.addActionListener(e -> {
+            String oldName = currentHabitName();
+            String newName = (String) JOptionPane.showInputDialog(
+                this,
+                "새 습관 이름을 입력하세요.",
+                "이름 변경",
+                JOptionPane.PLAIN_MESSAGE,
+                null,
+                null,
+                oldName
+            );
+            if (newName == null || newName.trim().equals(oldName)) {
+                return;
+            }
+            newName = newName.trim();
+            if (newName.isEmpty()) {
+                JOptionPane.showMessageDialog(this, "습관 이름을 입력하세요.");
+                return;
+            }
+            if (tracker.hasHabit(newName)) {
+                JOptionPane.showMessageDialog(this, "이미 같은 이름의 습관이 있습니다.");
+                return;
+            }
+            EdtMonitor.markAction("상세: 이름 변경 - " + oldName + " -> " + newName);
+            try {
+                tracker.renameHabit(currentHabitId, newName);
+            } catch (IllegalArgumentException ex) {
+                JOptionPane.showMessageDialog(this, ex.getMessage());
+                return;
+            }
+            refreshDetailScreen();
+            refreshMainScreen();
+        });
+        
+        groupButton.addActionListener(e -> {
+            String habitName = currentHabitName();
+            String current = groups.getGroupPath(habitName);
+            String input = (String) JOptionPane.showInputDialog(
+                this,
+                "그룹을 입력하세요. 하위 그룹은 /로 나눕니다. (예: 건강/운동, 비우면 그룹 없음)",
+                "그룹 변경",
+                JOptionPane.PLAIN_MESSAGE,
+                null,
+                null,
+                current != null ? current : ""
+            );
+            if (input == null) {
+                return;
+            }
+            EdtMonitor.markAction("상세: 그룹 변경 - " + habitName + " -> " + input);
+            try {
+                groups.assign(habitName, input);
+            } catch (java.io.IOException ex) {
+                Log.error("그룹 저장 중 오류: {}", ex, ex.getMessage());
+                JOptionPane.showMessageDialog(this,
+                    "그룹을 저장할 수 없습니다.\n오류: " + ex.getMessage(),
+                    "오류",
+                    JOptionPane.WARNING_MESSAGE);
+            }
+            refreshDetailScreen();
+        });
+        
         deleteButton.addActionListener(e -> {
             int result = JOptionPane.showConfirmDialog(
                 this, 
@@ -1002,7 +1904,8 @@ public class Main extends JFrame {
             );
             
             if (result == JOptionPane.YES_OPTION) {
-                tracker.removeHabit(currentHabitName);
+                EdtMonitor.markAction("상세: 습관 삭제 - " + currentHabitName());
+                tracker.removeHabit(currentHabitId);
                 refreshMainScreen();
                 cardLayout.show(mainPanel, MAIN_SCREEN);
             }
@@ -1016,6 +1919,8 @@ public class Main extends JFrame {
         homeButton.addActionListener(e -> cardLayout.show(mainPanel, MAIN_SCREEN));
         
         buttonPanel.add(editButton);
+        buttonPanel.add(renameButton);
+        buttonPanel.add(groupButton);
         buttonPanel.add(deleteButton);
         buttonPanel.add(calendarButton);
         buttonPanel.add(homeButton);
@@ -1029,24 +1934,26 @@ public class Main extends JFrame {
         JScrollPane scrollPane = (JScrollPane) detailScreen.getComponent(1);
         JTextArea detailArea = (JTextArea) scrollPane.getViewport().getView();
         
-        Habit habit = tracker.getHabits().stream()
-            .filter(h -> h.getName().equals(currentHabitName))
-            .findFirst()
-            .orElse(null);
+        Habit habit = tracker.getHabit(currentHabitId);
         
         if (habit != null) {
-            double rate = tracker.getCompletionRate(currentHabitName);
-            int streakDays = calculateStreakDays(currentHabitName);
-            long totalDays = habit.getStartDate().datesUntil(habit.getEndDate().plusDays(1)).count();
-            long completedDays = tracker.getCompletedDaysCount(currentHabitName);
+            double rate = tracker.getCompletionRate(currentHabitId);
+            int streakDays = tracker.getStreakDays(currentHabitId, HabitClock.today());
+            long totalDays = habit.getTargetDays();
+            long completedDays = tracker.getScheduledCompletionsCount(currentHabitId);
             
             StringBuilder sb = new StringBuilder();
             sb.append(String.format("습관: %s\n", habit.getName()));
             sb.append(String.format("기간: %s ~ %s\n", habit.getStartDate(), habit.getEndDate()));
-            sb.append(String.format("전체 일수: %d일\n", totalDays));
+            sb.append(String.format("반복: %s\n", habit.getRecurrence().getLabel()));
+            String groupPath = groups.getGroupPath(habit.getName());
+            if (groupPath != null) {
+                sb.append(String.format("그룹: %s\n", groupPath));
+            }
+            sb.append(String.format("목표 일수: %d일\n", totalDays));
             sb.append(String.format("완료한 일수: %d일\n", completedDays));
             sb.append(String.format("달성률: %.1f%%\n", rate));
-            sb.append(String.format("연속 달성: %d일\n\n", streakDays));
+            sb.append(String.format("연속 달성: %d%s\n\n", streakDays, streakUnit(habit)));
             
             if (rate >= 80) {
                 sb.append("훌륭해요! 계속 이어가세요!");
@@ -1078,6 +1985,8 @@ public class Main extends JFrame {
         
         JPanel startDatePanel = createDateSelectionPanel();
         JPanel endDatePanel = createDateSelectionPanel();
+        JComboBox<String> reminderCombo = createReminderTimeCombo();
+        JComboBox<String> recurrenceCombo = createRecurrenceCombo();
         
         gbc.gridx = 0; gbc.gridy = 0; gbc.anchor = GridBagConstraints.EAST;
         formPanel.add(new JLabel("시작날짜 :"), gbc);
@@ -1089,6 +1998,16 @@ public class Main extends JFrame {
         gbc.gridx = 1; gbc.anchor = GridBagConstraints.WEST;
         formPanel.add(endDatePanel, gbc);
         
+        gbc.gridx = 0; gbc.gridy = 2; gbc.anchor = GridBagConstraints.EAST;
+        formPanel.add(new JLabel("알림시간 :"), gbc);
+        gbc.gridx = 1; gbc.anchor = GridBagConstraints.WEST;
+        formPanel.add(reminderCombo, gbc);
+        
+        gbc.gridx = 0; gbc.gridy = 3; gbc.anchor = GridBagConstraints.EAST;
+        formPanel.add(new JLabel("반복 :"), gbc);
+        gbc.gridx = 1; gbc.anchor = GridBagConstraints.WEST;
+        formPanel.add(recurrenceCombo, gbc);
+        
         panel.add(formPanel, BorderLayout.CENTER);
         
         // 하단 버튼들과 메시지
@@ -1105,7 +2024,7 @@ public class Main extends JFrame {
         changeButton.addActionListener(e -> {
             LocalDate newStart = getDateFromComboBoxes(startDatePanel);
             LocalDate newEnd = getDateFromComboBoxes(endDatePanel);
-            LocalDate today = LocalDate.now();
+            LocalDate today = HabitClock.today();
             
             // 시작날짜 검증
             if (newStart.isBefore(today)) {
@@ -1133,7 +2052,18 @@ public class Main extends JFrame {
                 return;
             }
             
-            tracker.updateHabitDates(currentHabitName, newStart, newEnd);
+            EdtMonitor.markAction("수정: 날짜 변경 - " + currentHabitName());
+            undoLog.beginGroup(); // 기간, 알림 시간, 반복 규칙 변경을 한 단계로 되돌린다
+            try {
+                tracker.updateHabitDates(currentHabitName(), newStart, newEnd);
+                tracker.updateHabitReminder(currentHabitName(), getReminderTime(reminderCombo));
+                int recurrenceIndex = recurrenceCombo.getSelectedIndex();
+                if (recurrenceIndex >= 0 && recurrenceIndex < RECURRENCE_PRESETS.length) {
+                    tracker.updateHabitRecurrence(currentHabitName(), RECURRENCE_PRESETS[recurrenceIndex]);
+                }
+            } finally {
+                undoLog.endGroup();
+            }
             messageLabel.setText("변경되었습니다!");
             messageLabel.setForeground(Color.BLUE);
             
@@ -1152,10 +2082,7 @@ public class Main extends JFrame {
     }
     
     private void refreshEditScreen() {
-        Habit habit = tracker.getHabits().stream()
-            .filter(h -> h.getName().equals(currentHabitName))
-            .findFirst()
-            .orElse(null);
+        Habit habit = tracker.getHabit(currentHabitId);
         
         if (habit != null) {
             mainPanel.remove(3);
@@ -1180,6 +2107,10 @@ public class Main extends JFrame {
         
         JPanel startDatePanel = createDateSelectionPanelWithDate(habit.getStartDate());
         JPanel endDatePanel = createDateSelectionPanelWithDate(habit.getEndDate());
+        JComboBox<String> reminderCombo = createReminderTimeCombo();
+        selectReminderTime(reminderCombo, habit.getReminderTime());
+        JComboBox<String> recurrenceCombo = createRecurrenceCombo();
+        selectRecurrence(recurrenceCombo, habit.getRecurrence());
         
         gbc.gridx = 0; gbc.gridy = 0; gbc.anchor = GridBagConstraints.EAST;
         formPanel.add(new JLabel("시작날짜 :"), gbc);
@@ -1191,6 +2122,16 @@ public class Main extends JFrame {
         gbc.gridx = 1; gbc.anchor = GridBagConstraints.WEST;
         formPanel.add(endDatePanel, gbc);
         
+        gbc.gridx = 0; gbc.gridy = 2; gbc.anchor = GridBagConstraints.EAST;
+        formPanel.add(new JLabel("알림시간 :"), gbc);
+        gbc.gridx = 1; gbc.anchor = GridBagConstraints.WEST;
+        formPanel.add(reminderCombo, gbc);
+        
+        gbc.gridx = 0; gbc.gridy = 3; gbc.anchor = GridBagConstraints.EAST;
+        formPanel.add(new JLabel("반복 :"), gbc);
+        gbc.gridx = 1; gbc.anchor = GridBagConstraints.WEST;
+        formPanel.add(recurrenceCombo, gbc);
+        
         panel.add(formPanel, BorderLayout.CENTER);
         
         // 하단 버튼들과 메시지
@@ -1207,7 +2148,7 @@ public class Main extends JFrame {
         changeButton.addActionListener(e -> {
             LocalDate newStart = getDateFromComboBoxes(startDatePanel);
             LocalDate newEnd = getDateFromComboBoxes(endDatePanel);
-            LocalDate today = LocalDate.now();
+            LocalDate today = HabitClock.today();
             
             // 시작날짜 검증
             if (newStart.isBefore(today)) {
@@ -1235,7 +2176,18 @@ public class Main extends JFrame {
                 return;
             }
             
-            tracker.updateHabitDates(currentHabitName, newStart, newEnd);
+            EdtMonitor.markAction("수정: 날짜 변경 - " + currentHabitName());
+            undoLog.beginGroup(); // 기간, 알림 시간, 반복 규칙 변경을 한 단계로 되돌린다
+            try {
+                tracker.updateHabitDates(currentHabitName(), newStart, newEnd);
+                tracker.updateHabitReminder(currentHabitName(), getReminderTime(reminderCombo));
+                int recurrenceIndex = recurrenceCombo.getSelectedIndex();
+                if (recurrenceIndex >= 0 && recurrenceIndex < RECURRENCE_PRESETS.length) {
+                    tracker.updateHabitRecurrence(currentHabitName(), RECURRENCE_PRESETS[recurrenceIndex]);
+                }
+            } finally {
+                undoLog.endGroup();
+            }
             messageLabel.setText("변경되었습니다!");
             messageLabel.setForeground(Color.BLUE);
             
@@ -1254,6 +2206,7 @@ public class Main extends JFrame {
     }
     
     public static void main(String[] args) {
+        EdtMonitor.install();
         SwingUtilities.invokeLater(() -> new Main());
     }
 }
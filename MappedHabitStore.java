@@ -0,0 +1,397 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// 메모리 매핑(FileChannel.map) 저장소
+// 습관마다 고정 크기 영역을 하나씩 차지하고, 영역 안의 비트 하나가 하루의 완료 여부다.
+// 완료/해제는 매핑된 버퍼의 비트 하나만 바꾸므로 파일 전체를 다시 쓰지 않는다.
+// 디스크 반영(force)은 백그라운드에서 주기적으로 한다.
+//
+// 파일 구조: [헤더 64바이트][영역 0][영역 1]...
+// 영역 구조: 사용여부(1) | 이름 길이(2) | 이름(최대 255, UTF-8) | 시작일 | 종료일 | 알림(초, 없으면 -1) | 기준일 | 반복 규칙 | 완료 비트
+public class MappedHabitStore implements HabitStore {
+    private static final int MAGIC = 0x4842544D; // "HBTM"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 64;
+    private static final int REGION_BYTES = 1024;
+    private static final int INITIAL_REGIONS = 64;
+
+    private static final int OFF_FLAG = 0;
+    private static final int OFF_NAME_LENGTH = 2;
+    private static final int OFF_NAME = 4;
+    private static final int MAX_NAME_BYTES = 255;
+    private static final int OFF_START = 264;
+    private static final int OFF_END = 272;
+    private static final int OFF_REMINDER = 280;
+    private static final int OFF_BASE = 284;
+    private static final int OFF_RECURRENCE = 292; // 이전 파일에서는 0 (매일)
+    private static final int OFF_BITS = 320;
+    static final int BIT_DAYS = (REGION_BYTES - OFF_BITS) * 8; // 약 15년
+
+    private static final long FORCE_INTERVAL_SECONDS = 2;
+
+    private final File file;
+    private final RandomAccessFile raf;
+    private final FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int capacity;
+    private final BitSet usedRegions = new BitSet();
+    private final Map<String, Integer> regionByName = new HashMap<>();
+    private final ScheduledExecutorService flusher;
+    private volatile boolean dirty;
+    private boolean detailWarned;
+
+    private MappedHabitStore(File file) throws IOException {
+        this.file = file;
+        boolean exists = file.exists() && file.length() >= HEADER_BYTES;
+        this.raf = new RandomAccessFile(file, "rw");
+        this.channel = raf.getChannel();
+
+        if (exists) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            channel.read(header, 0);
+            header.flip();
+            if (header.getInt() != MAGIC || header.getInt() != VERSION || header.getInt() != REGION_BYTES) {
+                close();
+                throw new IOException("매핑 파일 형식이 올바르지 않습니다: " + file);
+            }
+            capacity = header.getInt();
+            map(capacity);
+            for (int region = 0; region < capacity; region++) {
+                if (buffer.get(offset(region) + OFF_FLAG) != 0) {
+                    usedRegions.set(region);
+                    regionByName.put(readName(region), region);
+                }
+            }
+        } else {
+            map(INITIAL_REGIONS);
+            writeHeader();
+        }
+
+        flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "habit-mapped-force");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::forceIfDirty, FORCE_INTERVAL_SECONDS, FORCE_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    public static MappedHabitStore open(String path) throws IOException {
+        return new MappedHabitStore(new File(path));
+    }
+
+    public static boolean exists(String path) {
+        return new File(path).length() >= HEADER_BYTES;
+    }
+
+    // 매핑된 영역을 읽어 트래커를 만들고, 이후 변경은 이 저장소에 바로 기록되도록 연결한다
+    @Override
+    public synchronized HabitTracker load() {
+        long startNanos = System.nanoTime();
+        HabitTracker tracker = new HabitTracker();
+        for (int region = usedRegions.nextSetBit(0); region >= 0; region = usedRegions.nextSetBit(region + 1)) {
+            int base = offset(region);
+            String name = readName(region);
+            LocalDate start = LocalDate.ofEpochDay(buffer.getLong(base + OFF_START));
+            LocalDate end = LocalDate.ofEpochDay(buffer.getLong(base + OFF_END));
+            int reminderSeconds = buffer.getInt(base + OFF_REMINDER);
+            LocalTime reminder = reminderSeconds >= 0 ? LocalTime.ofSecondOfDay(reminderSeconds) : null;
+            Recurrence recurrence = Recurrence.fromCode(buffer.getInt(base + OFF_RECURRENCE));
+            tracker.addHabit(new Habit(name, start, end, reminder, recurrence));
+
+            long baseDay = buffer.getLong(base + OFF_BASE);
+            for (int word = 0; word < BIT_DAYS / 64; word++) {
+                long bits = buffer.getLong(base + OFF_BITS + word * 8);
+                while (bits != 0) {
+                    int bit = Long.numberOfTrailingZeros(bits);
+                    tracker.markCompleted(name, LocalDate.ofEpochDay(baseDay + word * 64L + bit));
+                    bits &= bits - 1;
+                }
+            }
+        }
+        tracker.addChangeListener(this);
+        Metrics.histogram("mappedStore.load").recordSince(startNanos);
+        Log.info("매핑 파일 로드 완료: {} (습관 {}개)", file.getName(), regionByName.size());
+        return tracker;
+    }
+
+    // 기존 트래커 내용을 통째로 옮긴다 (직렬화 파일에서 처음 전환할 때)
+    public synchronized void importFrom(HabitTracker tracker) {
+        for (Habit habit : tracker.getHabits()) {
+            checkName(habit.getName());
+        }
+        for (Habit habit : tracker.getHabits()) {
+            habitAdded(habit);
+            for (LocalDate date : tracker.getCompletedDates(habit.getName())) {
+                setBit(habit.getName(), date, true);
+            }
+        }
+    }
+
+    @Override
+    public void checkHabitName(String habitName) {
+        checkName(habitName);
+    }
+
+    // 이름 칸은 MAX_NAME_BYTES 바이트라 더 긴 이름은 잘려 다른 습관과 겹칠 수 있으므로 추가/이름 변경/이전 전에 거부한다
+    static void checkName(String habitName) {
+        int length = habitName.getBytes(StandardCharsets.UTF_8).length;
+        if (length > MAX_NAME_BYTES) {
+            throw new IllegalArgumentException("습관 이름이 너무 깁니다 (UTF-8 " + length + "바이트, 최대 " + MAX_NAME_BYTES + "바이트): " + habitName);
+        }
+    }
+
+    @Override
+    public synchronized void habitAdded(Habit habit) {
+        if (regionByName.containsKey(habit.getName())) {
+            habitUpdated(habit);
+            return;
+        }
+        int region = allocate();
+        int base = offset(region);
+        clearRegion(region);
+        writeName(region, habit.getName());
+        writeMeta(base, habit);
+        buffer.putLong(base + OFF_BASE, habit.getStartDate().toEpochDay());
+        buffer.put(base + OFF_FLAG, (byte) 1);
+        regionByName.put(habit.getName(), region);
+        dirty = true;
+    }
+
+    @Override
+    public synchronized void habitRemoved(String habitName) {
+        Integer region = regionByName.remove(habitName);
+        if (region == null) {
+            return;
+        }
+        buffer.put(offset(region) + OFF_FLAG, (byte) 0);
+        usedRegions.clear(region);
+        dirty = true;
+    }
+
+    @Override
+    public synchronized void habitUpdated(Habit habit) {
+        Integer region = regionByName.get(habit.getName());
+        if (region == null) {
+            habitAdded(habit);
+            return;
+        }
+        writeMeta(offset(region), habit);
+        dirty = true;
+    }
+
+    @Override
+    public synchronized void completionChanged(String habitName, LocalDate date, boolean completed) {
+        setBit(habitName, date, completed);
+    }
+
+    // 영역에는 완료 비트만 있어서 시각/수량/메모는 저장하지 않는다
+    @Override
+    public boolean supportsCompletionDetails() {
+        return false;
+    }
+
+    @Override
+    public synchronized void completionDetailChanged(String habitName, LocalDate date, CompletionLog.Entry entry) {
+        if (entry != null && !detailWarned) {
+            detailWarned = true;
+            Log.warn("메모리 매핑 저장소는 완료 상세(시각/수량/메모)를 저장하지 않습니다. 다시 시작하면 사라집니다: {} {}", habitName, date);
+        }
+    }
+
+    @Override
+    public synchronized void completionsChanged(String habitName, List<LocalDate> dates, boolean completed) {
+        for (LocalDate date : dates) {
+            setBit(habitName, date, completed);
+        }
+    }
+
+    private void setBit(String habitName, LocalDate date, boolean completed) {
+        Integer region = regionByName.get(habitName);
+        if (region == null) {
+            return;
+        }
+        int base = offset(region);
+        long dayIndex = date.toEpochDay() - buffer.getLong(base + OFF_BASE);
+        if (dayIndex < 0 || dayIndex >= BIT_DAYS) {
+            if (!completed || !rebase(region, date.toEpochDay())) {
+                Log.warn("매핑 영역 범위 밖의 완료 기록은 저장하지 않습니다: {} {}", habitName, date);
+                return;
+            }
+            dayIndex = date.toEpochDay() - buffer.getLong(base + OFF_BASE);
+        }
+        int byteOffset = base + OFF_BITS + (int) (dayIndex >>> 3);
+        int mask = 1 << (dayIndex & 7);
+        byte current = buffer.get(byteOffset);
+        buffer.put(byteOffset, (byte) (completed ? current | mask : current & ~mask));
+        dirty = true;
+    }
+
+    // 기준일을 옮겨서 새 날짜와 기존 완료 비트를 모두 담을 수 있으면 비트를 다시 배치한다
+    private boolean rebase(int region, long epochDay) {
+        int base = offset(region);
+        long oldBase = buffer.getLong(base + OFF_BASE);
+        long first = epochDay;
+        long last = epochDay;
+        BitSet bits = readBits(region);
+        if (!bits.isEmpty()) {
+            first = Math.min(first, oldBase + bits.nextSetBit(0));
+            last = Math.max(last, oldBase + bits.length() - 1);
+        }
+        if (last - first >= BIT_DAYS) {
+            return false;
+        }
+        long newBase = epochDay < oldBase ? first : last - BIT_DAYS + 1;
+        newBase = Math.min(newBase, first);
+        byte[] zero = new byte[REGION_BYTES - OFF_BITS];
+        buffer.put(base + OFF_BITS, zero);
+        buffer.putLong(base + OFF_BASE, newBase);
+        for (int bit = bits.nextSetBit(0); bit >= 0; bit = bits.nextSetBit(bit + 1)) {
+            long index = oldBase + bit - newBase;
+            int byteOffset = base + OFF_BITS + (int) (index >>> 3);
+            buffer.put(byteOffset, (byte) (buffer.get(byteOffset) | (1 << (index & 7))));
+        }
+        return true;
+    }
+
+    private BitSet readBits(int region) {
+        byte[] bytes = new byte[REGION_BYTES - OFF_BITS];
+        buffer.get(offset(region) + OFF_BITS, bytes);
+        return BitSet.valueOf(bytes);
+    }
+
+    // 빈 영역 찾기 (없으면 파일을 두 배로 늘려서 다시 매핑)
+    private int allocate() {
+        int region = usedRegions.nextClearBit(0);
+        if (region >= capacity) {
+            try {
+                map(capacity * 2);
+                writeHeader();
+            } catch (IOException e) {
+                throw new IllegalStateException("매핑 파일을 늘릴 수 없습니다: " + e.getMessage(), e);
+            }
+        }
+        usedRegions.set(region);
+        return region;
+    }
+
+    private void map(int regions) throws IOException {
+        if (buffer != null) {
+            buffer.force();
+        }
+        capacity = regions;
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES + (long) regions * REGION_BYTES);
+        buffer.order(ByteOrder.LITTLE_ENDIAN); // 완료 비트를 long 단위로 읽으므로 바이트 순서를 비트 순서와 맞춘다
+    }
+
+    private void writeHeader() {
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        buffer.putInt(8, REGION_BYTES);
+        buffer.putInt(12, capacity);
+        dirty = true;
+    }
+
+    private void writeMeta(int base, Habit habit) {
+        buffer.putLong(base + OFF_START, habit.getStartDate().toEpochDay());
+        buffer.putLong(base + OFF_END, habit.getEndDate().toEpochDay());
+        buffer.putInt(base + OFF_REMINDER, habit.getReminderTime() != null ? habit.getReminderTime().toSecondOfDay() : -1);
+        buffer.putInt(base + OFF_RECURRENCE, habit.getRecurrence().toCode());
+    }
+
+    private void clearRegion(int region) {
+        buffer.put(offset(region), new byte[REGION_BYTES]);
+    }
+
+    // 길이는 checkName()에서 이미 걸렀다
+    private void writeName(int region, String name) {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        int base = offset(region);
+        buffer.putShort(base + OFF_NAME_LENGTH, (short) bytes.length);
+        buffer.put(base + OFF_NAME, bytes);
+    }
+
+    private String readName(int region) {
+        int base = offset(region);
+        int length = buffer.getShort(base + OFF_NAME_LENGTH);
+        byte[] bytes = new byte[length];
+        buffer.get(base + OFF_NAME, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int offset(int region) {
+        return HEADER_BYTES + region * REGION_BYTES;
+    }
+
+    // 변경은 이미 매핑된 버퍼에 들어가 있으므로 디스크 반영만 하면 된다
+    @Override
+    public void save(HabitTracker tracker) {
+        forceIfDirty();
+    }
+
+    // 바뀐 내용을 지금 디스크에 반영 (대량 가져오기에서 배치마다 호출)
+    @Override
+    public void flush(HabitTracker tracker) {
+        forceIfDirty();
+    }
+
+    // 트래커를 거치지 않고 영역의 완료 비트에서 바로 읽는다
+    @Override
+    public synchronized List<LocalDate> queryRange(String habitName, LocalDate from, LocalDate to) {
+        Integer region = regionByName.get(habitName);
+        if (region == null || from.isAfter(to)) {
+            return Collections.emptyList();
+        }
+        long baseDay = buffer.getLong(offset(region) + OFF_BASE);
+        BitSet bits = readBits(region);
+        int first = (int) Math.min(BIT_DAYS, Math.max(0, from.toEpochDay() - baseDay));
+        long last = to.toEpochDay() - baseDay;
+        List<LocalDate> dates = new ArrayList<>();
+        for (int bit = bits.nextSetBit(first); bit >= 0 && bit <= last; bit = bits.nextSetBit(bit + 1)) {
+            dates.add(LocalDate.ofEpochDay(baseDay + bit));
+        }
+        return dates;
+    }
+
+    private synchronized void forceIfDirty() {
+        if (!dirty) {
+            return;
+        }
+        long startNanos = System.nanoTime();
+        dirty = false;
+        buffer.force();
+        Metrics.histogram("mappedStore.force").recordSince(startNanos);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (flusher != null) {
+            flusher.shutdown();
+        }
+        try {
+            if (buffer != null) {
+                buffer.force();
+            }
+            channel.close();
+            raf.close();
+        } catch (IOException e) {
+            Log.error("매핑 파일 닫기 중 오류: {}", e, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,257 @@
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanOperationInfo;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.ReflectionException;
+
+// 가벼운 메트릭 레지스트리 (카운터, 게이지, 지연시간 히스토그램)
+// 모든 값은 플랫폼 MBean "habittracker:type=Metrics"로 노출된다 (jconsole에서 확인).
+// -Dhabit.metrics.dumpSeconds=60 으로 실행하면 주기적으로 콘솔에 출력한다.
+// -Dhabit.metrics.jmx=false 면 MBean을 등록하지 않는다 (MBean 서버 초기화가 명령줄 도구의 시작 시간 대부분을 차지한다).
+public class Metrics {
+    private static final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private static final Map<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+    private static final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+    private static final String OBJECT_NAME = "habittracker:type=Metrics";
+
+    static {
+        gauge("jvm.heap.usedBytes", () -> ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed());
+        if (Boolean.parseBoolean(System.getProperty("habit.metrics.jmx", "true"))) {
+            registerMBean();
+        }
+        startPeriodicDump(Long.getLong("habit.metrics.dumpSeconds", 0L));
+    }
+
+    private Metrics() {
+    }
+
+    public static Counter counter(String name) {
+        return counters.computeIfAbsent(name, n -> new Counter());
+    }
+
+    // 같은 이름으로 다시 등록하면 마지막 공급자로 교체된다
+    public static void gauge(String name, LongSupplier supplier) {
+        gauges.put(name, supplier);
+    }
+
+    public static LatencyHistogram histogram(String name) {
+        return histograms.computeIfAbsent(name, n -> new LatencyHistogram());
+    }
+
+    // 현재 값 스냅샷 (이름 순)
+    public static Map<String, Object> snapshot() {
+        Map<String, Object> values = new TreeMap<>();
+        counters.forEach((name, counter) -> values.put(name, counter.get()));
+        gauges.forEach((name, supplier) -> values.put(name, readGauge(supplier)));
+        histograms.forEach((name, histogram) -> {
+            values.put(name + ".count", histogram.getCount());
+            values.put(name + ".meanMillis", histogram.getMeanMillis());
+            values.put(name + ".p50Millis", histogram.getPercentileMillis(50));
+            values.put(name + ".p90Millis", histogram.getPercentileMillis(90));
+            values.put(name + ".p99Millis", histogram.getPercentileMillis(99));
+            values.put(name + ".maxMillis", histogram.getMaxMillis());
+        });
+        return values;
+    }
+
+    public static void dump() {
+        StringBuilder sb = new StringBuilder("[metrics]");
+        snapshot().forEach((name, value) -> sb.append("\n  ").append(name).append(" = ").append(value));
+        Log.info(sb.toString());
+    }
+
+    private static long readGauge(LongSupplier supplier) {
+        try {
+            return supplier.getAsLong();
+        } catch (RuntimeException e) {
+            return -1;
+        }
+    }
+
+    private static void registerMBean() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(new MetricsMBean(), name);
+            }
+        } catch (Exception e) {
+            Log.warn("메트릭 MBean 등록 실패: {}", e.getMessage());
+        }
+    }
+
+    private static void startPeriodicDump(long periodSeconds) {
+        if (periodSeconds <= 0) {
+            return;
+        }
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "habit-metrics-dump");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleAtFixedRate(Metrics::dump, periodSeconds, periodSeconds, TimeUnit.SECONDS);
+    }
+
+    public static class Counter {
+        private final LongAdder value = new LongAdder();
+
+        public void increment() {
+            value.increment();
+        }
+
+        public void add(long delta) {
+            value.add(delta);
+        }
+
+        public long get() {
+            return value.sum();
+        }
+    }
+
+    // HDR 방식 로그-선형 버킷 히스토그램 (2의 거듭제곱 구간마다 16칸, 상대 오차 약 6%)
+    // 기록은 락 없이 원자 연산만 사용한다.
+    public static class LatencyHistogram {
+        private static final int SUB_BUCKET_BITS = 4;
+        private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+        private static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        public void recordNanos(long nanos) {
+            long value = Math.max(0, nanos);
+            buckets.incrementAndGet(indexOf(value));
+            count.increment();
+            totalNanos.add(value);
+            maxNanos.accumulateAndGet(value, Math::max);
+        }
+
+        // 시작 시각(System.nanoTime)부터 지금까지 기록
+        public void recordSince(long startNanos) {
+            recordNanos(System.nanoTime() - startNanos);
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public double getMeanMillis() {
+            long n = count.sum();
+            return n == 0 ? 0.0 : totalNanos.sum() / (double) n / 1_000_000.0;
+        }
+
+        public double getMaxMillis() {
+            return maxNanos.get() / 1_000_000.0;
+        }
+
+        public double getPercentileMillis(double percentile) {
+            long n = count.sum();
+            if (n == 0) {
+                return 0.0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(n * percentile / 100.0));
+            long seen = 0;
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                seen += buckets.get(i);
+                if (seen >= rank) {
+                    return Math.min(upperBoundOf(i), maxNanos.get()) / 1_000_000.0;
+                }
+            }
+            return getMaxMillis();
+        }
+
+        private static int indexOf(long value) {
+            if (value < SUB_BUCKETS) {
+                return (int) value;
+            }
+            int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+            int sub = (int) (value >>> shift) - SUB_BUCKETS;
+            return (shift + 1) * SUB_BUCKETS + sub;
+        }
+
+        private static long upperBoundOf(int index) {
+            int magnitude = index / SUB_BUCKETS;
+            int sub = index % SUB_BUCKETS;
+            if (magnitude == 0) {
+                return sub;
+            }
+            return ((long) (SUB_BUCKETS + sub + 1) << (magnitude - 1)) - 1;
+        }
+    }
+
+    // 레지스트리 전체를 읽기 전용 속성으로 노출하는 동적 MBean
+    private static class MetricsMBean implements DynamicMBean {
+        @Override
+        public Object getAttribute(String attribute) throws AttributeNotFoundException {
+            Object value = snapshot().get(attribute);
+            if (value == null) {
+                throw new AttributeNotFoundException(attribute);
+            }
+            return value;
+        }
+
+        @Override
+        public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+            // 쓸 수 있는 속성이 없다 (모두 읽기 전용)
+            throw new AttributeNotFoundException("메트릭은 읽기 전용입니다: " + attribute.getName());
+        }
+
+        @Override
+        public AttributeList getAttributes(String[] attributes) {
+            Map<String, Object> values = snapshot();
+            AttributeList list = new AttributeList();
+            for (String attribute : attributes) {
+                if (values.containsKey(attribute)) {
+                    list.add(new Attribute(attribute, values.get(attribute)));
+                }
+            }
+            return list;
+        }
+
+        @Override
+        public AttributeList setAttributes(AttributeList attributes) {
+            return new AttributeList();
+        }
+
+        @Override
+        public Object invoke(String actionName, Object[] params, String[] signature) throws ReflectionException {
+            if ("dump".equals(actionName)) {
+                dump();
+                return null;
+            }
+            throw new ReflectionException(new NoSuchMethodException(actionName));
+        }
+
+        @Override
+        public MBeanInfo getMBeanInfo() {
+            List<MBeanAttributeInfo> attributes = new ArrayList<>();
+            snapshot().forEach((name, value) -> attributes.add(new MBeanAttributeInfo(
+                name, value.getClass().getName(), name, true, false, false)));
+            return new MBeanInfo(Metrics.class.getName(), "Habit tracker metrics",
+                attributes.toArray(new MBeanAttributeInfo[0]), null,
+                new MBeanOperationInfo[] {
+                    new MBeanOperationInfo("dump", "콘솔에 메트릭 출력", null, "void", MBeanOperationInfo.ACTION)
+                }, null);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+// 로드용 병렬 디코더
+// 읽는 쪽(호출 스레드)은 원본 조각(블록, 세그먼트 파일 등)을 add로 넘기기만 하고,
+// 조각을 어느 정도 모은 묶음 단위로 작업 스레드들이 디코딩한다 (날짜 변환, 완료 집합 만들기).
+// 디코딩이 끝난 결과는 넣은 순서 그대로 호출 스레드에서 sink로 넘기므로 트래커는 한 스레드에서만 바뀐다.
+//
+// 스레드 수: -Dhabit.load.threads (기본값 코어 수, 1이면 호출 스레드에서 바로 디코딩)
+public class ParallelDecoder<S, T> {
+    static final int THREADS = Math.max(1, Integer.getInteger("habit.load.threads", Runtime.getRuntime().availableProcessors()));
+    private static final int CHUNK_WEIGHT = 256 * 1024; // 묶음 하나에 모을 원본 크기 (바이트 또는 그에 준하는 값)
+    private static final int MAX_IN_FLIGHT = THREADS * 4; // 읽기가 디코딩보다 너무 앞서 나가지 않게
+
+    private static ExecutorService pool;
+
+    private final Function<S, T> decoder;
+    private final Consumer<T> sink;
+    private final Deque<Future<List<T>>> inFlight = new ArrayDeque<>();
+    private List<S> chunk = new ArrayList<>();
+    private int chunkWeight;
+
+    // decoder는 작업 스레드에서 불리므로 공유 상태를 건드리면 안 된다. null을 돌려주면 sink로 넘기지 않는다.
+    public ParallelDecoder(Function<S, T> decoder, Consumer<T> sink) {
+        this.decoder = decoder;
+        this.sink = sink;
+    }
+
+    private static synchronized ExecutorService pool() {
+        if (pool == null) {
+            pool = Executors.newFixedThreadPool(THREADS, r -> {
+                Thread thread = new Thread(r, "habit-load-worker");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return pool;
+    }
+
+    public void add(S item, int weight) {
+        if (THREADS == 1) {
+            deliver(decoder.apply(item));
+            return;
+        }
+        chunk.add(item);
+        chunkWeight += weight;
+        if (chunkWeight >= CHUNK_WEIGHT) {
+            submit();
+        }
+        drain(false);
+    }
+
+    // 남은 묶음을 보내고 모든 결과를 순서대로 넘길 때까지 기다린다
+    public void finish() {
+        if (!chunk.isEmpty()) {
+            submit();
+        }
+        drain(true);
+    }
+
+    private void submit() {
+        List<S> items = chunk;
+        chunk = new ArrayList<>();
+        chunkWeight = 0;
+        inFlight.add(pool().submit(() -> {
+            List<T> results = new ArrayList<>(items.size());
+            for (S item : items) {
+                results.add(decoder.apply(item));
+            }
+            return results;
+        }));
+    }
+
+    // 앞에서부터 끝난 묶음만 넘긴다. 너무 많이 쌓였거나 마지막이면 기다린다.
+    private void drain(boolean all) {
+        while (!inFlight.isEmpty() && (all || inFlight.size() > MAX_IN_FLIGHT || inFlight.peekFirst().isDone())) {
+            List<T> results;
+            try {
+                results = inFlight.pollFirst().get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("로드가 중단되었습니다.", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("디코딩 중 오류: " + e.getCause().getMessage(), e.getCause());
+            }
+            for (T result : results) {
+                deliver(result);
+            }
+        }
+    }
+
+    private void deliver(T result) {
+        if (result != null) {
+            sink.accept(result);
+        }
+    }
+}
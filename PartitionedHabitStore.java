@@ -0,0 +1,344 @@
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+// 연도별로 나눈 저장소
+// 디렉터리 안에 작은 목록 파일(습관 정보 + 습관별/연도별 완료 수)과 연도마다 완료 기록 파일을 둔다.
+// 시작할 때는 목록과 올해 이후 기록만 읽고, 지난 연도는 달력/통계가 그 날짜를 볼 때 읽는다.
+// 저장할 때는 목록과 바뀐 연도의 파일만 다시 쓴다. (파일 형식은 SnapshotFile의 체크섬 블록)
+//
+// 목록 블록: 습관 정보 | 연도 수 | (연도, 완료 수)...
+// 연도 블록: 이름 | 완료 수 | 그 해의 날짜(day of year)...
+public class PartitionedHabitStore implements HabitStore, HabitTracker.PartitionLoader {
+    private static final int MANIFEST_MAGIC = 0x48425450; // "HBTP"
+    private static final int SEGMENT_MAGIC = 0x48425459; // "HBTY"
+    private static final String MANIFEST_FILE = "manifest.blk";
+
+    private final File directory;
+    private final Map<String, Map<Integer, Integer>> yearCounts = new HashMap<>(); // 습관 -> 연도 -> 완료 수
+    private final Set<Integer> storedYears = new TreeSet<>();
+    private final Set<Integer> dirtyYears = new HashSet<>();
+    // 삭제된 습관의 기록이 아직 남아 있는 연도 파일 (같은 이름으로 다시 추가해도 옛 기록이 살아나지 않게 한다)
+    private final Map<Integer, Set<String>> removedByYear = new HashMap<>();
+    private HabitTracker loaded;
+    private boolean detailWarned;
+
+    private PartitionedHabitStore(File directory) {
+        this.directory = directory;
+    }
+
+    public static PartitionedHabitStore open(String path) throws IOException {
+        File directory = new File(path);
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("저장 디렉터리를 만들 수 없습니다: " + directory);
+        }
+        PartitionedHabitStore store = new PartitionedHabitStore(directory);
+        for (String name : directory.list()) {
+            if (name.startsWith("year-") && name.endsWith(".blk")) {
+                try {
+                    store.storedYears.add(Integer.parseInt(name.substring(5, name.length() - 4)));
+                } catch (NumberFormatException e) {
+                    Log.warn("알 수 없는 파일을 건너뜁니다: {}", name);
+                }
+            }
+        }
+        return store;
+    }
+
+    public static boolean exists(String path) {
+        return new File(path, MANIFEST_FILE).exists();
+    }
+
+    // 올해 기록만 먼저 읽는다
+    @Override
+    public HabitTracker load() throws IOException {
+        return load(HabitClock.today().getYear());
+    }
+
+    // 목록과 fromYear 이후 연도만 읽는다. 나머지 연도는 트래커가 처음 볼 때 loadYear로 읽는다.
+    public HabitTracker load(int fromYear) throws IOException {
+        long startNanos = System.nanoTime();
+        HabitTracker tracker = new HabitTracker();
+        File manifest = new File(directory, MANIFEST_FILE);
+        if (manifest.exists()) {
+            SnapshotFile.BlockStats stats = new SnapshotFile.BlockStats();
+            SnapshotFile.readBlocks(manifest, MANIFEST_MAGIC, payload -> readManifestEntry(payload, tracker), stats);
+            if (stats.isDamaged()) {
+                Log.warn("습관 목록 파일 일부가 손상되어 손상 블록 {}개를 건너뛰었습니다.", stats.corruptBlocks);
+            }
+        }
+
+        Set<Integer> pending = new HashSet<>();
+        Map<String, Long> pendingCounts = new HashMap<>();
+        for (int year : storedYears) {
+            if (year >= fromYear) {
+                loadYear(tracker, year);
+                continue;
+            }
+            pending.add(year);
+            for (Map.Entry<String, Map<Integer, Integer>> entry : yearCounts.entrySet()) {
+                Integer count = entry.getValue().get(year);
+                if (count != null) {
+                    pendingCounts.merge(entry.getKey(), (long) count, Long::sum);
+                }
+            }
+        }
+        tracker.setPendingPartitions(this, pending, pendingCounts);
+        tracker.addChangeListener(this);
+        loaded = tracker;
+
+        Metrics.histogram("partitionedStore.load").recordSince(startNanos);
+        Log.info("연도별 저장소 로드 완료: 습관 {}개, 읽은 연도 {}개, 나중에 읽을 연도 {}개",
+            tracker.getHabits().size(), storedYears.size() - pending.size(), pending.size());
+        return tracker;
+    }
+
+    private void readManifestEntry(ByteBuffer payload, HabitTracker tracker) {
+        Habit habit = SnapshotFile.readHabitInfo(payload);
+        int years = payload.getInt();
+        Map<Integer, Integer> counts = new HashMap<>();
+        for (int i = 0; i < years; i++) {
+            counts.put(payload.getInt(), payload.getInt());
+        }
+        tracker.addHabit(habit);
+        yearCounts.put(habit.getName(), counts);
+    }
+
+    @Override
+    public int countInYear(String habitName, int year) {
+        return yearCounts.getOrDefault(habitName, Collections.emptyMap()).getOrDefault(year, 0);
+    }
+
+    @Override
+    public void loadYear(HabitTracker tracker, int year) {
+        readYear(year, null, tracker::restoreCompleted);
+    }
+
+    // habitNames가 null이면 모든 습관
+    @Override
+    public void readYear(int year, Set<String> habitNames, HabitTracker.PartitionSink sink) {
+        File segment = segmentFile(year);
+        if (!segment.exists()) {
+            return;
+        }
+        long startNanos = System.nanoTime();
+        Set<String> removed = removedByYear.getOrDefault(year, Collections.emptySet());
+        SnapshotFile.BlockStats stats = new SnapshotFile.BlockStats();
+        try {
+            SnapshotFile.readBlocks(segment, SEGMENT_MAGIC, payload -> {
+                String name = SnapshotFile.readName(payload);
+                if (removed.contains(name) || (habitNames != null && !habitNames.contains(name))) {
+                    return;
+                }
+                int count = payload.getInt();
+                if (count < 0 || count > payload.remaining() / 2) {
+                    throw new IllegalArgumentException("완료 기록 수가 올바르지 않습니다: " + count);
+                }
+                LocalDate firstDay = LocalDate.of(year, 1, 1);
+                for (int i = 0; i < count; i++) {
+                    sink.accept(name, firstDay.plusDays(payload.getShort()));
+                }
+            }, stats);
+        } catch (IOException e) {
+            Log.error("{}년 기록을 읽을 수 없습니다: {}", e, year, e.getMessage());
+            return;
+        }
+        if (stats.isDamaged()) {
+            Log.warn("{}년 기록 파일 일부가 손상되어 손상 블록 {}개를 건너뛰었습니다.", year, stats.corruptBlocks);
+        }
+        Metrics.histogram("partitionedStore.pageIn").recordSince(startNanos);
+        Log.debug("{}년 기록을 읽었습니다. (습관 {}개)", year, stats.blocks);
+    }
+
+    // 직렬화 파일에서 처음 옮겨 올 때: 모든 연도를 새로 쓴다
+    public void importFrom(HabitTracker tracker) throws IOException {
+        yearCounts.clear();
+        for (Habit habit : tracker.getHabits()) {
+            Map<Integer, Integer> counts = new HashMap<>();
+            for (LocalDate date : tracker.getCompletedDates(habit.getName())) {
+                counts.merge(date.getYear(), 1, Integer::sum);
+                dirtyYears.add(date.getYear());
+            }
+            yearCounts.put(habit.getName(), counts);
+        }
+        save(tracker);
+    }
+
+    // 바뀐 연도 파일과 목록만 다시 쓴다
+    @Override
+    public void save(HabitTracker tracker) throws IOException {
+        long startNanos = System.nanoTime();
+        List<Integer> years = new ArrayList<>(dirtyYears);
+        Collections.sort(years);
+        for (int year : years) {
+            if (tracker.isYearLoaded(year)) {
+                writeSegment(tracker, year);
+            } else {
+                // 습관 삭제로만 바뀐 연도: 메모리로 읽지 않고 파일에서 삭제된 습관 블록만 뺀다
+                removeFromSegment(year, removedByYear.getOrDefault(year, Collections.emptySet()));
+            }
+            removedByYear.remove(year);
+        }
+        dirtyYears.clear();
+        writeManifest(tracker);
+        Metrics.histogram("partitionedStore.save").recordSince(startNanos);
+        Log.info("연도별 저장소 저장 완료: 다시 쓴 연도 {}개", years.size());
+    }
+
+    // 바뀐 연도만 다시 쓰므로 대량 작업 중간에도 그대로 저장한다
+    @Override
+    public void flush(HabitTracker tracker) throws IOException {
+        save(tracker);
+    }
+
+    // 기간에 걸친 연도만 읽어 들인 뒤 트래커에서 찾는다
+    @Override
+    public List<LocalDate> queryRange(String habitName, LocalDate from, LocalDate to) {
+        if (loaded == null || from.isAfter(to)) {
+            return Collections.emptyList();
+        }
+        for (int year = from.getYear(); year <= to.getYear(); year++) {
+            loaded.ensureYearLoaded(year);
+        }
+        List<LocalDate> dates = new ArrayList<>();
+        for (LocalDate date : loaded.getLoadedCompletedDates(habitName)) {
+            if (!date.isBefore(from) && !date.isAfter(to)) {
+                dates.add(date);
+            }
+        }
+        Collections.sort(dates);
+        return dates;
+    }
+
+    private void writeSegment(HabitTracker tracker, int year) throws IOException {
+        File segment = segmentFile(year);
+        int written = 0;
+        try (SnapshotFile.BlockWriter writer = new SnapshotFile.BlockWriter(segment, SEGMENT_MAGIC)) {
+            for (Habit habit : tracker.getHabits()) {
+                List<Integer> days = new ArrayList<>();
+                for (LocalDate date : tracker.getLoadedCompletedDates(habit.getName())) {
+                    if (date.getYear() == year) {
+                        days.add(date.getDayOfYear() - 1);
+                    }
+                }
+                if (days.isEmpty()) {
+                    continue;
+                }
+                Collections.sort(days);
+                DataOutputStream out = writer.begin();
+                SnapshotFile.writeName(out, habit.getName());
+                out.writeInt(days.size());
+                for (int day : days) {
+                    out.writeShort(day);
+                }
+                writer.end();
+                written++;
+            }
+            if (written > 0) {
+                writer.commit();
+            }
+        }
+        if (written > 0) {
+            storedYears.add(year);
+        } else if (storedYears.remove(year)) {
+            segment.delete();
+        }
+    }
+
+    private void removeFromSegment(int year, Set<String> removed) throws IOException {
+        File segment = segmentFile(year);
+        if (!segment.exists()) {
+            return;
+        }
+        List<byte[]> kept = new ArrayList<>();
+        SnapshotFile.readBlocks(segment, SEGMENT_MAGIC, payload -> {
+            if (!removed.contains(SnapshotFile.readName(payload.duplicate()))) {
+                byte[] bytes = new byte[payload.remaining()];
+                payload.get(bytes);
+                kept.add(bytes);
+            }
+        }, new SnapshotFile.BlockStats());
+
+        if (kept.isEmpty()) {
+            storedYears.remove(year);
+            segment.delete();
+            return;
+        }
+        try (SnapshotFile.BlockWriter writer = new SnapshotFile.BlockWriter(segment, SEGMENT_MAGIC)) {
+            for (byte[] bytes : kept) {
+                writer.begin().write(bytes);
+                writer.end();
+            }
+            writer.commit();
+        }
+    }
+
+    private void writeManifest(HabitTracker tracker) throws IOException {
+        try (SnapshotFile.BlockWriter writer = new SnapshotFile.BlockWriter(new File(directory, MANIFEST_FILE), MANIFEST_MAGIC)) {
+            for (Habit habit : tracker.getHabits()) {
+                Map<Integer, Integer> counts = yearCounts.getOrDefault(habit.getName(), Collections.emptyMap());
+                DataOutputStream out = writer.begin();
+                SnapshotFile.writeHabitInfo(out, habit);
+                out.writeInt(counts.size());
+                for (Map.Entry<Integer, Integer> entry : counts.entrySet()) {
+                    out.writeInt(entry.getKey());
+                    out.writeInt(entry.getValue());
+                }
+                writer.end();
+            }
+            writer.commit();
+        }
+    }
+
+    private File segmentFile(int year) {
+        return new File(directory, "year-" + year + ".blk");
+    }
+
+    @Override
+    public void habitAdded(Habit habit) {
+        yearCounts.put(habit.getName(), new HashMap<>());
+    }
+
+    @Override
+    public void habitRemoved(String habitName) {
+        Map<Integer, Integer> counts = yearCounts.remove(habitName);
+        if (counts != null) {
+            for (int year : counts.keySet()) {
+                removedByYear.computeIfAbsent(year, y -> new HashSet<>()).add(habitName);
+                dirtyYears.add(year);
+            }
+        }
+    }
+
+    // 연도 파일에는 날짜만 있어서 시각/수량/메모는 저장하지 않는다
+    @Override
+    public boolean supportsCompletionDetails() {
+        return false;
+    }
+
+    @Override
+    public void completionDetailChanged(String habitName, LocalDate date, CompletionLog.Entry entry) {
+        if (entry != null && !detailWarned) {
+            detailWarned = true;
+            Log.warn("연도별 저장소는 완료 상세(시각/수량/메모)를 저장하지 않습니다. 다시 시작하면 사라집니다: {} {}", habitName, date);
+        }
+    }
+
+    @Override
+    public void completionChanged(String habitName, LocalDate date, boolean completed) {
+        Map<Integer, Integer> counts = yearCounts.computeIfAbsent(habitName, name -> new HashMap<>());
+        counts.merge(date.getYear(), completed ? 1 : -1, Integer::sum);
+        counts.remove(date.getYear(), 0);
+        dirtyYears.add(date.getYear());
+    }
+}
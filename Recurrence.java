@@ -0,0 +1,197 @@
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.BitSet;
+
+// 습관 반복 규칙 (매일 / 요일 지정 / N일마다 / 주 N회)
+// 규칙은 습관 기간에 대한 일정 비트맵으로 한 번만 펼쳐 두고 (비트 i = 시작일 + i일),
+// 달성률·연속 달성·달력의 "하는 날" 판단은 그 비트맵과 완료 비트맵의 AND/개수 세기로 한다.
+//
+// 문자열 형식 (내보내기 파일 등): daily | days:MON,WED,FRI | every:3 | weekly:3
+// 숫자 형식 (이진 파일): 종류(상위 8비트) | 값(하위 24비트), 매일 = 0
+public final class Recurrence {
+    public enum Kind { DAILY, DAYS_OF_WEEK, EVERY_N_DAYS, WEEKLY_QUOTA }
+
+    public static final Recurrence DAILY = new Recurrence(Kind.DAILY, 0);
+    public static final int WEEKDAYS = 0b0011111; // 월~금
+    public static final int WEEKEND = 0b1100000;  // 토, 일
+
+    private final Kind kind;
+    private final int value; // 요일 마스크(비트 0 = 월요일) / 간격 일수 / 주당 횟수
+
+    private Recurrence(Kind kind, int value) {
+        this.kind = kind;
+        this.value = value;
+    }
+
+    public static Recurrence daysOfWeek(int mask) {
+        if ((mask & 0x7F) == 0 || (mask & ~0x7F) != 0) {
+            throw new IllegalArgumentException("요일 마스크가 올바르지 않습니다: " + mask);
+        }
+        return mask == 0x7F ? DAILY : new Recurrence(Kind.DAYS_OF_WEEK, mask);
+    }
+
+    public static Recurrence everyNDays(int days) {
+        if (days < 1 || days > 365) {
+            throw new IllegalArgumentException("반복 간격이 올바르지 않습니다: " + days);
+        }
+        return days == 1 ? DAILY : new Recurrence(Kind.EVERY_N_DAYS, days);
+    }
+
+    public static Recurrence timesPerWeek(int times) {
+        if (times < 1 || times > 7) {
+            throw new IllegalArgumentException("주당 횟수가 올바르지 않습니다: " + times);
+        }
+        return times == 7 ? DAILY : new Recurrence(Kind.WEEKLY_QUOTA, times);
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public int getValue() {
+        return value;
+    }
+
+    public boolean isDaily() {
+        return kind == Kind.DAILY;
+    }
+
+    // 주 N회는 날짜가 아니라 주 단위로 목표를 센다
+    public boolean isWeeklyQuota() {
+        return kind == Kind.WEEKLY_QUOTA;
+    }
+
+    // 기간 [start, end]의 일정 비트맵. 주 N회는 어느 날이든 할 수 있으므로 모든 날이 켜진다.
+    BitSet compile(LocalDate start, LocalDate end) {
+        int length = (int) (end.toEpochDay() - start.toEpochDay() + 1);
+        BitSet schedule = new BitSet(Math.max(length, 0));
+        if (length <= 0) {
+            return schedule;
+        }
+        switch (kind) {
+            case DAYS_OF_WEEK:
+                // 첫 주의 요일을 켜고 7일씩 건너뛰며 같은 요일을 켠다
+                int firstDow = start.getDayOfWeek().getValue() - 1;
+                for (int offset = 0; offset < 7 && offset < length; offset++) {
+                    if ((value & (1 << ((firstDow + offset) % 7))) != 0) {
+                        for (int i = offset; i < length; i += 7) {
+                            schedule.set(i);
+                        }
+                    }
+                }
+                break;
+            case EVERY_N_DAYS:
+                for (int i = 0; i < length; i += value) {
+                    schedule.set(i);
+                }
+                break;
+            default:
+                schedule.set(0, length);
+                break;
+        }
+        return schedule;
+    }
+
+    public int toCode() {
+        return kind.ordinal() << 24 | value;
+    }
+
+    public static Recurrence fromCode(int code) {
+        int value = code & 0xFFFFFF;
+        switch (code >>> 24) {
+            case 0: return DAILY;
+            case 1: return daysOfWeek(value);
+            case 2: return everyNDays(value);
+            case 3: return timesPerWeek(value);
+            default: throw new IllegalArgumentException("알 수 없는 반복 규칙: " + code);
+        }
+    }
+
+    // 빈 문자열이나 null은 매일
+    public static Recurrence parse(String text) {
+        if (text == null || text.isBlank() || "daily".equals(text.trim())) {
+            return DAILY;
+        }
+        String[] parts = text.trim().split(":", 2);
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("알 수 없는 반복 규칙: " + text);
+        }
+        switch (parts[0]) {
+            case "days":
+                int mask = 0;
+                for (String day : parts[1].split(",")) {
+                    mask |= 1 << (parseDay(day.trim()).getValue() - 1);
+                }
+                return daysOfWeek(mask);
+            case "every":
+                return everyNDays(Integer.parseInt(parts[1].trim()));
+            case "weekly":
+                return timesPerWeek(Integer.parseInt(parts[1].trim()));
+            default:
+                throw new IllegalArgumentException("알 수 없는 반복 규칙: " + text);
+        }
+    }
+
+    // MON, TUE ... (세 글자 약자)
+    private static DayOfWeek parseDay(String text) {
+        for (DayOfWeek day : DayOfWeek.values()) {
+            if (day.name().startsWith(text.toUpperCase()) && text.length() >= 3) {
+                return day;
+            }
+        }
+        throw new IllegalArgumentException("알 수 없는 요일: " + text);
+    }
+
+    @Override
+    public String toString() {
+        switch (kind) {
+            case DAYS_OF_WEEK:
+                StringBuilder sb = new StringBuilder("days:");
+                for (DayOfWeek day : DayOfWeek.values()) {
+                    if ((value & (1 << (day.getValue() - 1))) != 0) {
+                        sb.append(sb.length() > 5 ? "," : "").append(day.name().substring(0, 3));
+                    }
+                }
+                return sb.toString();
+            case EVERY_N_DAYS:
+                return "every:" + value;
+            case WEEKLY_QUOTA:
+                return "weekly:" + value;
+            default:
+                return "daily";
+        }
+    }
+
+    // 화면 표시용
+    public String getLabel() {
+        switch (kind) {
+            case DAYS_OF_WEEK:
+                if (value == WEEKDAYS) return "평일";
+                if (value == WEEKEND) return "주말";
+                String names = "월화수목금토일";
+                StringBuilder sb = new StringBuilder();
+                for (int i = 0; i < 7; i++) {
+                    if ((value & (1 << i)) != 0) {
+                        sb.append(sb.length() > 0 ? "·" : "").append(names.charAt(i));
+                    }
+                }
+                return sb.toString();
+            case EVERY_N_DAYS:
+                return value + "일마다";
+            case WEEKLY_QUOTA:
+                return "주 " + value + "회";
+            default:
+                return "매일";
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Recurrence && ((Recurrence) o).kind == kind && ((Recurrence) o).value == value;
+    }
+
+    @Override
+    public int hashCode() {
+        return toCode();
+    }
+}
@@ -0,0 +1,172 @@
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// 습관 알림 스케줄러
+// - 습관별 알림 시간에 알림
+// - 오늘 진행 중인데 아직 완료하지 않은 습관은 하루가 끝나기 전에 "연속 달성 위기" 알림
+// HabitTracker 변경 이벤트를 받아 자동으로 다시 예약하므로, 예약된 작업은 예약 시점의 Habit만 사용하고
+// 스케줄러 스레드에서 트래커를 직접 읽지 않는다.
+public class ReminderScheduler implements HabitChangeListener {
+    private static final LocalTime STREAK_RISK_TIME = LocalTime.of(21, 0);
+
+    public interface ReminderHandler {
+        void onReminder(Habit habit);
+
+        void onStreakAtRisk(Habit habit);
+    }
+
+    private final HabitTracker tracker;
+    private final ReminderHandler handler;
+    private final TimerWheel wheel = new TimerWheel(1, TimeUnit.SECONDS, "habit-reminder-scheduler");
+    private final Map<String, TimerWheel.Timeout> reminders = new HashMap<>();
+    private final Map<String, TimerWheel.Timeout> riskAlerts = new HashMap<>();
+
+    public ReminderScheduler(HabitTracker tracker, ReminderHandler handler) {
+        this.tracker = tracker;
+        this.handler = handler;
+        for (Habit habit : tracker.getHabits()) {
+            reschedule(habit);
+        }
+        tracker.addChangeListener(this);
+    }
+
+    public void shutdown() {
+        tracker.removeChangeListener(this);
+        wheel.shutdown();
+    }
+
+    @Override
+    public void habitAdded(Habit habit) {
+        reschedule(habit);
+    }
+
+    @Override
+    public void habitRemoved(String habitName) {
+        cancel(habitName);
+    }
+
+    @Override
+    public void habitUpdated(Habit habit) {
+        reschedule(habit);
+    }
+
+    @Override
+    public void completionChanged(String habitName, LocalDate date, boolean completed) {
+        if (!date.equals(HabitClock.today())) {
+            return;
+        }
+        Habit habit = findHabit(habitName);
+        if (habit != null) {
+            scheduleRiskAlert(habit);
+        }
+    }
+
+    private synchronized void reschedule(Habit habit) {
+        cancel(habit.getName());
+        scheduleReminder(habit);
+        scheduleRiskAlert(habit);
+    }
+
+    private synchronized void cancel(String habitName) {
+        TimerWheel.Timeout reminder = reminders.remove(habitName);
+        if (reminder != null) {
+            reminder.cancel();
+        }
+        TimerWheel.Timeout risk = riskAlerts.remove(habitName);
+        if (risk != null) {
+            risk.cancel();
+        }
+    }
+
+    private synchronized void scheduleReminder(Habit habit) {
+        TimerWheel.Timeout previous = reminders.remove(habit.getName());
+        if (previous != null) {
+            previous.cancel();
+        }
+        if (habit.getReminderTime() == null) {
+            return;
+        }
+
+        LocalDateTime next = nextOccurrence(habit, habit.getReminderTime(), false);
+        if (next == null) {
+            return;
+        }
+        TimerWheel.Timeout[] self = new TimerWheel.Timeout[1];
+        self[0] = wheel.schedule(() -> {
+            if (!isCurrent(reminders, habit, self[0])) {
+                return;
+            }
+            handler.onReminder(habit);
+            scheduleReminder(habit);
+        }, delayMillis(next), TimeUnit.MILLISECONDS);
+        reminders.put(habit.getName(), self[0]);
+    }
+
+    private void scheduleRiskAlert(Habit habit) {
+        // 오늘 이미 완료했다면 내일 알림부터 예약
+        scheduleRiskAlert(habit, tracker.isCompleted(habit.getName(), HabitClock.today()));
+    }
+
+    private synchronized void scheduleRiskAlert(Habit habit, boolean skipToday) {
+        TimerWheel.Timeout previous = riskAlerts.remove(habit.getName());
+        if (previous != null) {
+            previous.cancel();
+        }
+
+        // 주 N회 습관은 하루 빠져도 연속이 끊기지 않는다
+        if (habit.getRecurrence().isWeeklyQuota()) {
+            return;
+        }
+        LocalDateTime next = nextOccurrence(habit, STREAK_RISK_TIME, skipToday);
+        if (next == null) {
+            return;
+        }
+        // 완료 처리되면 completionChanged에서 취소되므로 실행 시점에는 미완료 상태
+        TimerWheel.Timeout[] self = new TimerWheel.Timeout[1];
+        self[0] = wheel.schedule(() -> {
+            if (!isCurrent(riskAlerts, habit, self[0])) {
+                return;
+            }
+            handler.onStreakAtRisk(habit);
+            scheduleRiskAlert(habit, true);
+        }, delayMillis(next), TimeUnit.MILLISECONDS);
+        riskAlerts.put(habit.getName(), self[0]);
+    }
+
+    // 실행 직전에 다른 스레드에서 취소/재예약되었는지 확인
+    private synchronized boolean isCurrent(Map<String, TimerWheel.Timeout> timeouts, Habit habit,
+            TimerWheel.Timeout timeout) {
+        return timeouts.get(habit.getName()) == timeout;
+    }
+
+    // 습관 기간 안에서 하는 날 중 다음 알림 시각 계산 (없으면 null)
+    private LocalDateTime nextOccurrence(Habit habit, LocalTime time, boolean skipToday) {
+        LocalDateTime now = HabitClock.now();
+        LocalDate date = now.toLocalDate();
+        if (skipToday || !now.toLocalTime().isBefore(time)) {
+            date = date.plusDays(1);
+        }
+        date = habit.nextScheduledDate(date);
+        return date != null ? date.atTime(time) : null;
+    }
+
+    private long delayMillis(LocalDateTime target) {
+        return Math.max(0, Duration.between(HabitClock.now(), target).toMillis());
+    }
+
+    private Habit findHabit(String habitName) {
+        return tracker.getHabits().stream()
+                .filter(h -> h.getName().equals(habitName))
+                .findFirst()
+                .orElse(null);
+    }
+
+    public int pendingCount() {
+        return wheel.pendingCount();
+    }
+}
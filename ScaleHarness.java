@@ -0,0 +1,184 @@
+import java.awt.GraphicsEnvironment;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+import javax.swing.SwingUtilities;
+
+// 규모별 성능 측정: 시작 로드, 저장, 메인/달력/통계 화면 새로고침 시간과 힙 사용량
+// 앱과 같이 DataManager.openStore()로 -Dhabit.storage 저장소를 열어 잰다 (표 첫 줄에 저장 방식을 적는다).
+// 사용법: java [-Dhabit.storage=segmented] ScaleHarness sizes=100,1000,20000 days=1825 density=0.6 pattern=streaky seed=42
+// (화면이 없는 환경에서는 새로고침 항목을 건너뛴다)
+public class ScaleHarness {
+    private static final int REPEAT = 3;
+
+    public static void main(String[] args) throws Exception {
+        int[] sizes = { 100, 1000, 10000 };
+        for (String arg : args) {
+            if (arg.startsWith("sizes=")) {
+                String[] parts = arg.substring(6).split(",");
+                sizes = new int[parts.length];
+                for (int i = 0; i < parts.length; i++) {
+                    sizes[i] = Integer.parseInt(parts[i].trim());
+                }
+            }
+        }
+
+        String storage = DataManager.storageMode();
+        if ("memory".equals(storage) || "jdbc".equals(storage)) {
+            // memory는 다시 열면 비어 있고, jdbc는 임시 디렉터리 밖의 데이터베이스라 크기별로 비울 수 없다
+            System.err.println(storage + " 저장 방식은 측정할 수 없습니다. -Dhabit.storage로 파일 저장소를 고르세요.");
+            System.exit(1);
+        }
+
+        // 측정 중 저장/로드 로그가 표와 섞이지 않도록 경고 이상만 출력
+        Log.setLevel(Log.Level.WARN);
+        boolean headless = GraphicsEnvironment.isHeadless();
+        System.out.println("저장 방식: " + storage);
+        System.out.println("습관 수 | 로드(ms) | 저장(ms) | 메인(ms) | 달력(ms) | 통계(ms) | 힙(MB) | 파일(KB)");
+
+        for (int size : sizes) {
+            String[] sizeArgs = new String[args.length + 1];
+            System.arraycopy(args, 0, sizeArgs, 0, args.length);
+            sizeArgs[args.length] = "habits=" + size;
+            System.out.println(measure(DatasetGenerator.fromArgs(sizeArgs), headless));
+        }
+    }
+
+    private static String measure(DatasetGenerator generator, boolean headless) throws Exception {
+        Path directory = Files.createTempDirectory("habits-scale");
+        String path = directory.resolve("habits_data.dat").toString();
+        try {
+            // 생성한 데이터를 직렬화 파일로 쓰고, 처음 열 때 설정된 저장소로 옮긴다 (앱을 처음 켰을 때와 같다)
+            DataManager.saveData(generator.generate(), path);
+            try (HabitStore store = DataManager.openStore(path)) {
+                store.load();
+            }
+
+            // 시작 로드: 저장소 열기 + 읽기
+            double loadMs = median(() -> {
+                try (HabitStore store = DataManager.openStore(path)) {
+                    store.load();
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+
+            try (HabitStore store = DataManager.openStore(path)) {
+                HabitTracker loaded = store.load();
+                // 생성용 트래커는 이미 버려졌으므로 로드된 트래커 하나만 힙에 남은 상태
+                long heapBytes = usedHeapAfterGc();
+                int habitCount = loaded.getHabits().size();
+                double saveMs = measureSave(store, loaded);
+
+                String mainMs = "-";
+                String calendarMs = "-";
+                String statsMs = "-";
+                if (!headless) {
+                    double[] screens = measureScreens(store, loaded, path);
+                    mainMs = String.format("%.1f", screens[0]);
+                    calendarMs = String.format("%.1f", screens[1]);
+                    statsMs = String.format("%.1f", screens[2]);
+                }
+
+                return String.format("%7d | %8.1f | %8.1f | %8s | %8s | %8s | %6.1f | %8d",
+                    habitCount, loadMs, saveMs, mainMs, calendarMs, statsMs,
+                    heapBytes / (1024.0 * 1024.0), storeBytes(directory, path) / 1024);
+            }
+        } finally {
+            deleteRecursively(directory);
+        }
+    }
+
+    // 앱에서 체크 하나를 바꾼 뒤 저장하는 것과 같은 일 (바뀐 습관만 다시 쓰는 저장소는 그만큼만 쓴다)
+    private static double measureSave(HabitStore store, HabitTracker tracker) {
+        if (tracker.getHabits().isEmpty()) {
+            return 0;
+        }
+        Habit habit = tracker.getHabits().get(0);
+        return median(() -> {
+            if (tracker.isCompleted(habit.getName(), habit.getStartDate())) {
+                tracker.removeCompleted(habit.getName(), habit.getStartDate());
+            } else {
+                tracker.markCompleted(habit.getName(), habit.getStartDate());
+            }
+            try {
+                store.save(tracker);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    // 저장소가 쓰는 파일 크기 합 (직렬화 방식이 아니면 옮기기 전의 직렬화 파일은 빼고 센다)
+    private static long storeBytes(Path directory, String dataFile) throws IOException {
+        boolean serialized = "serialized".equals(DataManager.storageMode());
+        try (Stream<Path> files = Files.walk(directory)) {
+            return files.filter(Files::isRegularFile)
+                .filter(file -> serialized || !file.toString().equals(dataFile))
+                .mapToLong(file -> file.toFile().length())
+                .sum();
+        }
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    // EDT에서 각 화면 새로고침 시간 측정 (메인 화면 새로고침에는 저장도 포함된다)
+    private static double[] measureScreens(HabitStore store, HabitTracker tracker, String path)
+            throws InvocationTargetException, InterruptedException {
+        double[] result = new double[3];
+        Main[] holder = new Main[1];
+        SwingUtilities.invokeAndWait(() -> holder[0] = new Main(store, tracker, path, false));
+        Main main = holder[0];
+
+        try {
+            result[0] = median(() -> onEdt(main::refreshMainScreen));
+            result[1] = median(() -> onEdt(main::refreshCalendarScreen));
+            result[2] = median(() -> onEdt(main::refreshStatsScreen));
+        } finally {
+            SwingUtilities.invokeAndWait(main::dispose);
+        }
+        return result;
+    }
+
+    private static void onEdt(Runnable action) {
+        try {
+            SwingUtilities.invokeAndWait(action);
+        } catch (InterruptedException | InvocationTargetException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static double median(Runnable action) {
+        List<Double> samples = new ArrayList<>();
+        for (int i = 0; i < REPEAT; i++) {
+            long start = System.nanoTime();
+            action.run();
+            samples.add((System.nanoTime() - start) / 1_000_000.0);
+        }
+        samples.sort(null);
+        return samples.get(samples.size() / 2);
+    }
+
+    private static long usedHeapAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
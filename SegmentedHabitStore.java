@@ -0,0 +1,517 @@
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+// 습관별 파일 저장소 (기본값)
+// 디렉터리 안에 작은 목록 파일(세그먼트 번호 + 이름)과 습관마다 세그먼트 파일 하나를 둔다.
+// 저장할 때는 트래커가 알려 준 바뀐 습관(getDirtyHabits)의 세그먼트만 다시 쓰고,
+// 습관이 추가/삭제된 경우에만 목록을 다시 쓴다. 바뀌지 않은 세그먼트는 읽지도 쓰지도 않는다.
+//
+// 세그먼트 파일이 기준이다. 새 습관은 세그먼트를 쓴 다음 목록을, 삭제는 세그먼트를 지운 다음 목록을 쓰므로
+// 그 사이에 죽으면 읽을 때 목록에 없는 세그먼트는 다시 등록하고, 파일이 없는 목록 항목은 버린다.
+//
+// 여러 프로세스가 같은 디렉터리를 쓸 수 있다. 쓰기는 잠금 파일의 배타 잠금 안에서 하고,
+// 다른 프로세스가 쓴 세그먼트는 WatchService로 알아채서 그 습관만 다시 읽어 합친다. (충돌은 습관 단위로 나중에 쓴 쪽이 이긴다)
+//
+// 목록 블록: 세그먼트 번호 | 이름
+// 세그먼트: 데이터 블록 하나 (스냅샷 파일의 습관 블록과 같은 내용)
+public class SegmentedHabitStore implements HabitStore {
+    private static final int INDEX_MAGIC = 0x48425349; // "HBSI"
+    private static final int SEGMENT_MAGIC = 0x48425347; // "HBSG"
+    private static final String INDEX_FILE = "index.blk";
+    private static final String LOCK_FILE = "lock";
+    static final String RESCAN = "*"; // 감시 이벤트가 넘쳐서 무엇이 바뀌었는지 모를 때
+    private static final int SEGMENT_WEIGHT = 16 * 1024; // 병렬 로드에서 세그먼트 하나를 이만큼의 작업으로 친다
+
+    private final File directory;
+    private final Map<String, Integer> segmentIds = new LinkedHashMap<>(); // 이름 -> 세그먼트 번호
+    private final Map<Integer, String> namesById = new HashMap<>();
+    private final Map<String, Habit> habits = new HashMap<>(); // 세그먼트를 쓸 때 습관 정보를 이름으로 바로 찾는다
+    private final Set<String> changedFiles = new HashSet<>(); // 감시 스레드가 모아 둔, 다른 곳에서 바뀐 파일
+    private int nextId;
+    private boolean indexDirty;
+    private HabitTracker loaded;
+    private WatchService watchService;
+
+    private SegmentedHabitStore(File directory) {
+        this.directory = directory;
+    }
+
+    public static SegmentedHabitStore open(String path) throws IOException {
+        File directory = new File(path);
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("저장 디렉터리를 만들 수 없습니다: " + directory);
+        }
+        return new SegmentedHabitStore(directory);
+    }
+
+    public static boolean exists(String path) {
+        return new File(path, INDEX_FILE).exists();
+    }
+
+    // 읽다가 목록을 고칠 수도 있으므로 배타 잠금으로 읽는다
+    @Override
+    @SuppressWarnings("try") // 잠금은 블록 동안 쥐고 있기만 한다
+    public HabitTracker load() throws IOException {
+        long startNanos = System.nanoTime();
+        HabitTracker tracker = new HabitTracker();
+        segmentIds.clear();
+        namesById.clear();
+        habits.clear();
+        nextId = 0;
+        indexDirty = false;
+
+        try (DataManager.StoreLock lock = DataManager.lock(lockFile(), false)) {
+            // 세그먼트 파일 읽기와 디코딩은 작업 스레드들이 하고, 트래커에는 목록 순서대로 이 스레드에서 넣는다
+            int[] damaged = new int[1];
+            ParallelDecoder<Integer, SegmentRead> decoder = new ParallelDecoder<>(
+                id -> new SegmentRead(id, readSegment(segmentFile(id))),
+                read -> {
+                    if (!addSegment(read, tracker)) {
+                        damaged[0]++;
+                        indexDirty = true;
+                    }
+                });
+            for (int id : readIndex().values()) {
+                decoder.add(id, SEGMENT_WEIGHT);
+            }
+            decoder.finish();
+            damaged[0] += recoverUnlisted(tracker);
+            if (damaged[0] > 0) {
+                Log.warn("습관 세그먼트 {}개를 읽을 수 없어 건너뛰었습니다.", damaged[0]);
+                Metrics.counter("segmentedStore.load.corruptSegments").add(damaged[0]);
+            }
+            if (indexDirty) {
+                writeIndex(Collections.emptySet());
+            }
+        }
+        for (Habit habit : tracker.getHabits()) {
+            habits.put(habit.getName(), habit);
+        }
+
+        tracker.clearDirty();
+        tracker.addChangeListener(this);
+        loaded = tracker;
+        Metrics.histogram("segmentedStore.load").recordSince(startNanos);
+        Log.info("습관별 저장소 로드 완료: 습관 {}개", tracker.getHabits().size());
+        return tracker;
+    }
+
+    private Map<String, Integer> readIndex() throws IOException {
+        Map<String, Integer> entries = new LinkedHashMap<>();
+        File index = new File(directory, INDEX_FILE);
+        if (!index.exists()) {
+            return entries;
+        }
+        SnapshotFile.BlockStats stats = new SnapshotFile.BlockStats();
+        SnapshotFile.readBlocks(index, INDEX_MAGIC, payload -> {
+            int id = payload.getInt();
+            entries.put(SnapshotFile.readName(payload), id);
+        }, stats);
+        if (stats.isDamaged()) {
+            Log.warn("습관 목록 파일 일부가 손상되어 손상 블록 {}개를 건너뛰었습니다.", stats.corruptBlocks);
+        }
+        return entries;
+    }
+
+    // 세그먼트 하나를 읽는다 (없거나 깨졌으면 null). 트래커를 건드리지 않으므로 작업 스레드에서 불린다.
+    private SnapshotFile.LoadedHabit readSegment(File segment) {
+        if (!segment.exists()) {
+            return null;
+        }
+        SnapshotFile.BlockStats stats = new SnapshotFile.BlockStats();
+        SnapshotFile.LoadedHabit[] loaded = new SnapshotFile.LoadedHabit[1];
+        try {
+            SnapshotFile.readBlocks(segment, SEGMENT_MAGIC, payload -> loaded[0] = SnapshotFile.decodeHabit(payload), stats);
+        } catch (IOException e) {
+            Log.error("세그먼트를 읽을 수 없습니다: {} ({})", e, segment.getName(), e.getMessage());
+            return null;
+        }
+        return stats.blocks == 1 && !stats.isDamaged() ? loaded[0] : null;
+    }
+
+    // 읽은 세그먼트를 트래커에 넣는다. 파일이 없으면 목록에서 빼고, 깨졌거나 이름이 겹치면 백업으로 옮긴다.
+    private boolean addSegment(SegmentRead read, HabitTracker tracker) {
+        File segment = segmentFile(read.id);
+        if (read.loaded == null || tracker.hasHabit(read.loaded.habit.getName())) {
+            if (!segment.exists()) {
+                indexDirty = true;
+                return true;
+            }
+            DataManager.backupDamagedFile(segment, true);
+            return false;
+        }
+        SnapshotFile.restore(tracker, read.loaded);
+        assign(read.loaded.habit.getName(), read.id);
+        return true;
+    }
+
+    // 목록에 없는 세그먼트 (목록을 쓰기 전에 죽었거나 목록이 손상된 경우) 를 다시 등록한다
+    private int recoverUnlisted(HabitTracker tracker) {
+        int damaged = 0;
+        for (String fileName : directory.list()) {
+            int id = segmentIdOf(fileName);
+            if (id < 0 || namesById.containsKey(id)) {
+                continue;
+            }
+            SegmentRead read = new SegmentRead(id, readSegment(new File(directory, fileName)));
+            if (!addSegment(read, tracker)) {
+                damaged++;
+            } else if (read.loaded != null) {
+                indexDirty = true;
+                Log.debug("목록에 없던 세그먼트를 다시 등록했습니다: {} ({})", fileName, read.loaded.habit.getName());
+            }
+        }
+        return damaged;
+    }
+
+    private static class SegmentRead {
+        final int id;
+        final SnapshotFile.LoadedHabit loaded;
+
+        SegmentRead(int id, SnapshotFile.LoadedHabit loaded) {
+            this.id = id;
+            this.loaded = loaded;
+        }
+    }
+
+    // 기존 트래커 내용을 통째로 옮긴다 (스냅샷 파일에서 처음 전환할 때)
+    public void importFrom(HabitTracker tracker) throws IOException {
+        for (Habit habit : tracker.getHabits()) {
+            habits.put(habit.getName(), habit);
+        }
+        writeDirty(tracker, tracker.getHabits().stream().map(Habit::getName).toList());
+    }
+
+    // 바뀐 습관의 세그먼트만 다시 쓴다
+    @Override
+    public void save(HabitTracker tracker) throws IOException {
+        if (tracker.getDirtyHabits().isEmpty()) {
+            return;
+        }
+        writeDirty(tracker, new ArrayList<>(tracker.getDirtyHabits()));
+        tracker.clearDirty();
+    }
+
+    // 바뀐 습관만 쓰므로 대량 작업 중간에도 그대로 저장한다
+    @Override
+    public void flush(HabitTracker tracker) throws IOException {
+        save(tracker);
+    }
+
+    @SuppressWarnings("try") // 잠금은 블록 동안 쥐고 있기만 한다
+    private void writeDirty(HabitTracker tracker, List<String> names) throws IOException {
+        long startNanos = System.nanoTime();
+        int written = 0;
+        Set<String> deleted = new HashSet<>();
+        try (DataManager.StoreLock lock = DataManager.lock(lockFile(), false)) {
+            for (String name : names) {
+                if (tracker.hasHabit(name)) {
+                    Integer id = segmentIds.get(name);
+                    if (id == null) {
+                        id = allocateId();
+                        assign(name, id);
+                        indexDirty = true;
+                    }
+                    try (SnapshotFile.BlockWriter writer = new SnapshotFile.BlockWriter(segmentFile(id), SEGMENT_MAGIC)) {
+                        SnapshotFile.writeHabit(writer.begin(), habits.get(name), tracker);
+                        writer.end();
+                        writer.commit();
+                    }
+                    written++;
+                } else {
+                    Integer id = unassign(name);
+                    if (id != null) {
+                        segmentFile(id).delete();
+                        deleted.add(name);
+                        indexDirty = true;
+                    }
+                }
+            }
+            if (indexDirty) {
+                writeIndex(deleted);
+            }
+        }
+        Metrics.histogram("segmentedStore.save").recordSince(startNanos);
+        Log.debug("습관별 저장소 저장 완료: 세그먼트 {}개 쓰기, {}개 삭제", written, deleted.size());
+    }
+
+    // 다른 프로세스가 만든 번호와 겹치지 않게 배타 잠금 안에서 디렉터리를 보고 고른다
+    private int allocateId() {
+        int id = nextId;
+        while (namesById.containsKey(id) || segmentFile(id).exists()) {
+            id++;
+        }
+        nextId = id + 1;
+        return id;
+    }
+
+    // 디스크의 목록에는 다른 프로세스가 추가한 (아직 합치지 않은) 습관이 있을 수 있으므로 남겨 둔다.
+    // 반대로 이쪽 목록에 있어도 세그먼트 파일이 없으면 다른 곳에서 지운 습관이므로 뺀다.
+    private void writeIndex(Set<String> deletedHere) throws IOException {
+        Map<String, Integer> entries = new LinkedHashMap<>();
+        for (Map.Entry<String, Integer> entry : segmentIds.entrySet()) {
+            if (segmentFile(entry.getValue()).exists()) {
+                entries.put(entry.getKey(), entry.getValue());
+            }
+        }
+        for (Map.Entry<String, Integer> entry : readIndex().entrySet()) {
+            if (!entries.containsKey(entry.getKey()) && !deletedHere.contains(entry.getKey())
+                    && !namesById.containsKey(entry.getValue()) && segmentFile(entry.getValue()).exists()) {
+                entries.put(entry.getKey(), entry.getValue());
+            }
+        }
+        try (SnapshotFile.BlockWriter writer = new SnapshotFile.BlockWriter(new File(directory, INDEX_FILE), INDEX_MAGIC)) {
+            for (Map.Entry<String, Integer> entry : entries.entrySet()) {
+                DataOutputStream payload = writer.begin();
+                payload.writeInt(entry.getValue());
+                SnapshotFile.writeName(payload, entry.getKey());
+                writer.end();
+            }
+            writer.commit();
+        }
+        indexDirty = false;
+    }
+
+    // ---- 다른 프로세스의 변경 감지 ----
+
+    @Override
+    public void watchExternalChanges(Runnable listener) throws IOException {
+        Path path = directory.toPath();
+        WatchService service = path.getFileSystem().newWatchService();
+        path.register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY,
+            StandardWatchEventKinds.ENTRY_DELETE);
+        watchService = service;
+        Thread thread = new Thread(() -> watchLoop(service, listener), "habit-store-watch");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void watchLoop(WatchService service, Runnable listener) {
+        try {
+            while (true) {
+                WatchKey key = service.take();
+                boolean relevant = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    String name = event.kind() == StandardWatchEventKinds.OVERFLOW ? RESCAN : event.context().toString();
+                    if (name.equals(RESCAN) || name.equals(INDEX_FILE) || segmentIdOf(name) >= 0) {
+                        externalFileChanged(name);
+                        relevant = true;
+                    }
+                }
+                if (relevant) {
+                    listener.run();
+                }
+                if (!key.reset()) {
+                    return;
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // close()에서 감시를 끝냈다
+        }
+    }
+
+    // 다른 곳에서 바뀐 파일 이름을 모아 둔다 (RESCAN이면 전체). 다음 mergeExternalChanges에서 합친다.
+    void externalFileChanged(String fileName) {
+        synchronized (changedFiles) {
+            changedFiles.add(fileName);
+        }
+    }
+
+    // 이 프로세스가 쓴 파일도 이벤트가 오지만, 읽어 보면 메모리와 같으므로 합칠 것이 없다
+    @Override
+    @SuppressWarnings("try") // 잠금은 블록 동안 쥐고 있기만 한다
+    public int mergeExternalChanges(HabitTracker tracker) throws IOException {
+        Set<String> changed;
+        synchronized (changedFiles) {
+            if (changedFiles.isEmpty()) {
+                return 0;
+            }
+            changed = new HashSet<>(changedFiles);
+            changedFiles.clear();
+        }
+        long startNanos = System.nanoTime();
+        int merged = 0;
+        try (DataManager.StoreLock lock = DataManager.lock(lockFile(), true)) {
+            Set<Integer> ids = new HashSet<>();
+            for (String fileName : changed) {
+                int id = segmentIdOf(fileName);
+                if (id >= 0) {
+                    ids.add(id);
+                }
+            }
+            if (changed.contains(INDEX_FILE) || changed.contains(RESCAN)) {
+                merged += mergeIndex(tracker, ids);
+            }
+            if (changed.contains(RESCAN)) {
+                ids.addAll(namesById.keySet());
+            }
+            for (int id : ids) {
+                String name = namesById.get(id);
+                SnapshotFile.LoadedHabit disk = name != null ? readSegment(segmentFile(id)) : null;
+                // 목록에 아직 없는 번호이거나 지워진 파일이면 목록이 바뀔 때 처리한다
+                if (disk != null && disk.habit.getName().equals(name) && mergeHabit(tracker, disk)) {
+                    merged++;
+                }
+            }
+        }
+        Metrics.histogram("segmentedStore.mergeExternal").recordSince(startNanos);
+        return merged;
+    }
+
+    // 목록을 비교해서 다른 곳에서 지운 습관은 빼고, 새로 생긴 습관은 읽을 번호로 넘긴다
+    private int mergeIndex(HabitTracker tracker, Set<Integer> idsToRead) throws IOException {
+        Map<String, Integer> disk = readIndex();
+        int merged = 0;
+        for (Map.Entry<String, Integer> entry : new ArrayList<>(segmentIds.entrySet())) {
+            String name = entry.getKey();
+            if (entry.getValue().equals(disk.get(name))) {
+                continue;
+            }
+            unassign(name);
+            // 아직 저장하지 않은 이쪽 변경이 있으면 습관은 남기고 다음 저장 때 새 번호로 쓴다
+            if (!tracker.getDirtyHabits().contains(name)) {
+                tracker.removeHabit(name);
+                tracker.markClean(name);
+                merged++;
+            }
+        }
+        for (Map.Entry<String, Integer> entry : disk.entrySet()) {
+            if (!segmentIds.containsKey(entry.getKey()) && !namesById.containsKey(entry.getValue())) {
+                assign(entry.getKey(), entry.getValue());
+                idsToRead.add(entry.getValue());
+            }
+        }
+        return merged;
+    }
+
+    // 디스크의 습관 하나를 트래커에 맞춘다. 아직 저장하지 않은 이쪽 변경이 있으면 이쪽이 우선이다.
+    private boolean mergeHabit(HabitTracker tracker, SnapshotFile.LoadedHabit loaded) {
+        Habit disk = loaded.habit;
+        String name = disk.getName();
+        if (tracker.getDirtyHabits().contains(name)) {
+            Log.debug("저장하지 않은 변경이 있어 다른 곳의 변경을 합치지 않습니다: {}", name);
+            return false;
+        }
+        boolean changed = false;
+        Habit local = habits.get(name);
+        if (local == null) {
+            tracker.addHabit(disk);
+            changed = true;
+        } else {
+            if (!Objects.equals(local.getReminderTime(), disk.getReminderTime())) {
+                tracker.updateHabitReminder(name, disk.getReminderTime());
+                changed = true;
+            }
+            if (!local.getRecurrence().equals(disk.getRecurrence())) {
+                tracker.updateHabitRecurrence(name, disk.getRecurrence());
+                changed = true;
+            }
+            if (!local.getStartDate().equals(disk.getStartDate()) || !local.getEndDate().equals(disk.getEndDate())) {
+                tracker.updateHabitDates(name, disk.getStartDate(), disk.getEndDate());
+                changed = true;
+            }
+        }
+        Set<LocalDate> localDates = new HashSet<>(tracker.getCompletedDates(name));
+        for (LocalDate date : loaded.dates) {
+            if (!localDates.remove(date)) {
+                tracker.markCompleted(name, date);
+                changed = true;
+            }
+        }
+        for (LocalDate date : localDates) {
+            tracker.removeCompleted(name, date);
+            changed = true;
+        }
+        tracker.restoreCompletionLog(name, loaded.completionLog);
+        tracker.markClean(name);
+        return changed;
+    }
+
+    // 모든 기록이 메모리에 있으므로 로드한 트래커에서 찾는다
+    @Override
+    public List<LocalDate> queryRange(String habitName, LocalDate from, LocalDate to) {
+        if (loaded == null) {
+            return Collections.emptyList();
+        }
+        List<LocalDate> dates = new ArrayList<>();
+        for (LocalDate date : loaded.getCompletedDates(habitName)) {
+            if (!date.isBefore(from) && !date.isAfter(to)) {
+                dates.add(date);
+            }
+        }
+        Collections.sort(dates);
+        return dates;
+    }
+
+    private void assign(String name, int id) {
+        segmentIds.put(name, id);
+        namesById.put(id, name);
+        nextId = Math.max(nextId, id + 1);
+    }
+
+    private Integer unassign(String name) {
+        Integer id = segmentIds.remove(name);
+        if (id != null) {
+            namesById.remove(id);
+        }
+        return id;
+    }
+
+    private static int segmentIdOf(String fileName) {
+        if (!fileName.startsWith("seg-") || !fileName.endsWith(".blk")) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(fileName.substring(4, fileName.length() - 4));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private File segmentFile(int id) {
+        return new File(directory, "seg-" + id + ".blk");
+    }
+
+    private File lockFile() {
+        return new File(directory, LOCK_FILE);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+
+    @Override
+    public void habitAdded(Habit habit) {
+        habits.put(habit.getName(), habit);
+    }
+
+    @Override
+    public void habitRemoved(String habitName) {
+        habits.remove(habitName);
+    }
+
+    @Override
+    public void habitUpdated(Habit habit) {
+        habits.put(habit.getName(), habit);
+    }
+}
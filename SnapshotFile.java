@@ -0,0 +1,388 @@
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32C;
+
+// 체크섬 블록 스냅샷 파일
+// 임시 파일에 전부 쓰고 fsync 한 뒤 원자적으로 교체하므로 저장 중에 죽어도 이전 파일이 남는다.
+// 습관 하나가 블록 하나이고 블록마다 CRC32C가 붙어 있어서, 읽을 때 깨진 블록만 건너뛰고 나머지는 살린다.
+//
+// 파일 구조: [MAGIC][VERSION] 블록... [끝 블록]
+// 블록 구조: [BLOCK_MAGIC][길이][CRC32C(길이+내용)][내용]
+// 내용: 종류(1) 다음에 데이터 블록이면 파일마다 정한 내용, 끝 블록이면 데이터 블록 수
+// 스냅샷의 데이터 블록: 이름 | 시작일 | 종료일 | 알림(초, 없으면 -1) [| 반복 규칙] | 완료 수 | 완료일...
+// 반복 규칙은 매일이 아닐 때만 쓰고, 알림 값에 HAS_RECURRENCE 비트를 켜서 표시한다 (매일 습관은 이전 형식 그대로).
+// 완료 상세(시각, 수량, 메모)가 있으면 완료일 뒤에 DETAILS 표시와 CompletionLog 열들을 붙인다 (이전 버전은 뒤를 읽지 않는다).
+public class SnapshotFile {
+    private static final int MAGIC = 0x48425453; // "HBTS"
+    private static final int VERSION = 1;
+    private static final int BLOCK_MAGIC = 0x424C4B31; // "BLK1"
+    private static final int BLOCK_HEADER_BYTES = 12;
+    private static final int MAX_BLOCK_BYTES = 64 * 1024 * 1024;
+
+    private static final int HAS_RECURRENCE = 1 << 30;
+    private static final int NO_REMINDER = 0x1FFFF; // HAS_RECURRENCE와 함께 쓸 때 "알림 없음"
+
+    private static final byte TYPE_DATA = 'H';
+    private static final byte TYPE_END = 'E';
+    private static final byte DETAILS = 'T';
+
+    private SnapshotFile() {
+    }
+
+    // 이 형식의 파일인지 (이전 버전은 자바 직렬화 파일)
+    public static boolean isSnapshot(File file) {
+        return hasMagic(file, MAGIC);
+    }
+
+    static boolean hasMagic(File file, int magic) {
+        if (file.length() < 8) {
+            return false;
+        }
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(file.toPath()))) {
+            return in.readInt() == magic;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    // 임시 파일에 쓰고 디스크에 반영한 다음 대상 파일과 교체한다
+    public static void write(HabitTracker tracker, File target) throws IOException {
+        try (BlockWriter writer = new BlockWriter(target, MAGIC)) {
+            for (Habit habit : tracker.getHabits()) {
+                writeHabit(writer.begin(), habit, tracker);
+                writer.end();
+            }
+            writer.commit();
+        }
+    }
+
+    static void writeHabit(DataOutputStream payload, Habit habit, HabitTracker tracker) throws IOException {
+        writeHabitInfo(payload, habit);
+        List<LocalDate> dates = new ArrayList<>(tracker.getCompletedDates(habit.getName()));
+        Collections.sort(dates);
+        payload.writeInt(dates.size());
+        for (LocalDate date : dates) {
+            payload.writeLong(date.toEpochDay());
+        }
+        CompletionLog completionLog = tracker.getCompletionLog(habit.getName());
+        if (completionLog != null && !completionLog.isEmpty()) {
+            payload.writeByte(DETAILS);
+            completionLog.write(payload);
+        }
+    }
+
+    // 이름 | 시작일 | 종료일 | 알림 [| 반복 규칙] (다른 블록 파일에서도 같은 순서로 쓴다)
+    static void writeHabitInfo(DataOutputStream payload, Habit habit) throws IOException {
+        writeName(payload, habit.getName());
+        payload.writeLong(habit.getStartDate().toEpochDay());
+        payload.writeLong(habit.getEndDate().toEpochDay());
+        if (habit.getRecurrence().isDaily()) {
+            payload.writeInt(habit.getReminderTime() != null ? habit.getReminderTime().toSecondOfDay() : -1);
+        } else {
+            payload.writeInt(HAS_RECURRENCE | (habit.getReminderTime() != null ? habit.getReminderTime().toSecondOfDay() : NO_REMINDER));
+            payload.writeInt(habit.getRecurrence().toCode());
+        }
+    }
+
+    static Habit readHabitInfo(ByteBuffer payload) {
+        String name = readName(payload);
+        LocalDate start = LocalDate.ofEpochDay(payload.getLong());
+        LocalDate end = LocalDate.ofEpochDay(payload.getLong());
+        int reminderSeconds = payload.getInt();
+        Recurrence recurrence = Recurrence.DAILY;
+        if (reminderSeconds >= 0 && (reminderSeconds & HAS_RECURRENCE) != 0) {
+            reminderSeconds &= ~HAS_RECURRENCE;
+            if (reminderSeconds == NO_REMINDER) {
+                reminderSeconds = -1;
+            }
+            recurrence = Recurrence.fromCode(payload.getInt());
+        }
+        LocalTime reminder = reminderSeconds >= 0 ? LocalTime.ofSecondOfDay(reminderSeconds) : null;
+        return new Habit(name, start, end, reminder, recurrence);
+    }
+
+    static void writeName(DataOutputStream payload, String name) throws IOException {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        payload.writeShort(bytes.length);
+        payload.write(bytes);
+    }
+
+    static String readName(ByteBuffer payload) {
+        byte[] bytes = new byte[Short.toUnsignedInt(payload.getShort())];
+        payload.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // 이 스레드는 블록 경계와 체크섬만 확인하고, 블록 내용의 디코딩은 ParallelDecoder의 작업 스레드들이 나눠 한다
+    public static ReadResult read(File file) throws IOException {
+        ReadResult result = new ReadResult();
+        AtomicInteger undecodable = new AtomicInteger();
+        ParallelDecoder<ByteBuffer, LoadedHabit> decoder = new ParallelDecoder<>(payload -> {
+            try {
+                return decodeHabit(payload);
+            } catch (BufferUnderflowException | IllegalArgumentException | DateTimeException e) {
+                undecodable.incrementAndGet();
+                return null;
+            }
+        }, loaded -> restore(result.tracker, loaded));
+        readBlocks(file, MAGIC, payload -> decoder.add(payload, payload.remaining()), result);
+        decoder.finish();
+        result.blocks -= undecodable.get();
+        result.corruptBlocks += undecodable.get();
+        return result;
+    }
+
+    // 습관 블록 하나를 디코딩한다 (형식이 맞지 않으면 예외). 트래커를 건드리지 않으므로 어느 스레드에서나 부를 수 있다.
+    static LoadedHabit decodeHabit(ByteBuffer payload) {
+        Habit habit = readHabitInfo(payload);
+        int count = payload.getInt();
+        if (count < 0 || count > payload.remaining() / 8) {
+            throw new IllegalArgumentException("완료 기록 수가 올바르지 않습니다: " + count);
+        }
+        Set<LocalDate> dates = new HashSet<>(Math.max(16, count * 4 / 3 + 1));
+        for (int i = 0; i < count; i++) {
+            dates.add(LocalDate.ofEpochDay(payload.getLong()));
+        }
+        CompletionLog completionLog = null;
+        if (payload.hasRemaining()) {
+            if (payload.get() != DETAILS) {
+                throw new IllegalArgumentException("알 수 없는 습관 블록 내용");
+            }
+            completionLog = CompletionLog.read(payload);
+        }
+        return new LoadedHabit(habit, dates, completionLog);
+    }
+
+    static void readHabit(ByteBuffer payload, HabitTracker tracker) {
+        restore(tracker, decodeHabit(payload));
+    }
+
+    // 디코딩한 습관을 완료 상세까지 트래커에 넣는다
+    static void restore(HabitTracker tracker, LoadedHabit loaded) {
+        tracker.restoreHabit(loaded.habit, loaded.dates);
+        if (loaded.completionLog != null) {
+            tracker.restoreCompletionLog(loaded.habit.getName(), loaded.completionLog);
+        }
+    }
+
+    // 파일을 한 번 순서대로 훑으면서 블록마다 체크섬을 확인한다.
+    // 깨진 블록은 다음 BLOCK_MAGIC까지 건너뛰고, 온전한 블록은 모두 handler에 넘긴다.
+    static void readBlocks(File file, int fileMagic, BlockHandler handler, BlockStats stats) throws IOException {
+        ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(file.toPath()));
+        if (data.remaining() < 8 || data.getInt() != fileMagic) {
+            throw new IOException("블록 파일 형식이 아닙니다: " + file);
+        }
+        int version = data.getInt();
+        if (version != VERSION) {
+            throw new IOException("지원하지 않는 블록 파일 버전: " + version);
+        }
+
+        CRC32C crc = new CRC32C();
+        while (data.remaining() >= BLOCK_HEADER_BYTES) {
+            int blockStart = data.position();
+            int magic = data.getInt();
+            int length = data.getInt();
+            int checksum = data.getInt();
+            if (magic != BLOCK_MAGIC || length < 1 || length > MAX_BLOCK_BYTES || length > data.remaining()) {
+                stats.corruptBlocks++;
+                resync(data, blockStart + 1);
+                continue;
+            }
+
+            crc.reset();
+            crc.update(lengthBytes(length));
+            crc.update(data.array(), data.position(), length);
+            if ((int) crc.getValue() != checksum) {
+                stats.corruptBlocks++;
+                resync(data, blockStart + 1);
+                continue;
+            }
+
+            ByteBuffer payload = data.slice(data.position(), length);
+            data.position(data.position() + length);
+            try {
+                byte type = payload.get();
+                if (type == TYPE_END) {
+                    stats.expectedBlocks = payload.getInt();
+                    stats.complete = true;
+                } else if (type == TYPE_DATA) {
+                    handler.block(payload);
+                    stats.blocks++;
+                }
+            } catch (BufferUnderflowException | IllegalArgumentException | DateTimeException e) {
+                stats.corruptBlocks++;
+            }
+        }
+        if (data.hasRemaining()) {
+            stats.corruptBlocks++;
+        }
+    }
+
+    // 다음 블록 시작 표시를 찾아 위치를 옮긴다 (없으면 끝으로)
+    private static void resync(ByteBuffer data, int from) {
+        for (int i = from; i + 4 <= data.limit(); i++) {
+            if (data.getInt(i) == BLOCK_MAGIC) {
+                data.position(i);
+                return;
+            }
+        }
+        data.position(data.limit());
+    }
+
+    private static void writeBlock(DataOutputStream out, byte[] bytes, CRC32C crc) throws IOException {
+        crc.reset();
+        crc.update(lengthBytes(bytes.length));
+        crc.update(bytes);
+        out.writeInt(BLOCK_MAGIC);
+        out.writeInt(bytes.length);
+        out.writeInt((int) crc.getValue());
+        out.write(bytes);
+    }
+
+    // 덧붙이기 전용 파일: 기존 내용은 건드리지 않고 데이터 블록만 뒤에 붙인다 (끝 블록 없음)
+    // 쓰다가 죽으면 마지막 블록만 잘린 채 남고, 읽을 때 그 블록만 손상으로 센다.
+    static void appendBlocks(File file, int fileMagic, List<byte[]> payloads) throws IOException {
+        boolean isNew = file.length() == 0;
+        try (FileOutputStream fos = new FileOutputStream(file, true);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fos, 64 * 1024))) {
+            if (isNew) {
+                out.writeInt(fileMagic);
+                out.writeInt(VERSION);
+            }
+            CRC32C crc = new CRC32C();
+            for (byte[] payload : payloads) {
+                byte[] bytes = new byte[payload.length + 1];
+                bytes[0] = TYPE_DATA;
+                System.arraycopy(payload, 0, bytes, 1, payload.length);
+                writeBlock(out, bytes, crc);
+            }
+            out.flush();
+            fos.getFD().sync();
+        }
+    }
+
+    private static byte[] lengthBytes(int length) {
+        return ByteBuffer.allocate(4).putInt(length).array();
+    }
+
+    // 블록 내용 처리 (형식이 맞지 않으면 예외를 던지고, 손상 블록으로 센다)
+    interface BlockHandler {
+        void block(ByteBuffer payload);
+    }
+
+    static class BlockStats {
+        int blocks;
+        int corruptBlocks;
+        int expectedBlocks = -1;
+        boolean complete; // 끝 블록까지 읽었는지 (없으면 파일이 중간에 잘린 것)
+
+        boolean isDamaged() {
+            return corruptBlocks > 0 || !complete;
+        }
+    }
+
+    // 디코딩을 마친 습관 하나 (트래커에 넣기 전)
+    static class LoadedHabit {
+        final Habit habit;
+        final Set<LocalDate> dates;
+        final CompletionLog completionLog; // 완료 상세가 없으면 null
+
+        LoadedHabit(Habit habit, Set<LocalDate> dates) {
+            this(habit, dates, null);
+        }
+
+        LoadedHabit(Habit habit, Set<LocalDate> dates, CompletionLog completionLog) {
+            this.habit = habit;
+            this.dates = dates;
+            this.completionLog = completionLog;
+        }
+    }
+
+    public static class ReadResult extends BlockStats {
+        final HabitTracker tracker = new HabitTracker();
+    }
+
+    // 블록 단위로 임시 파일에 쓰고 commit()에서 fsync 후 대상 파일과 교체한다.
+    // commit() 전에 닫히면 임시 파일을 지우고 대상 파일은 건드리지 않는다.
+    static class BlockWriter implements Closeable {
+        private final File target;
+        private final File temp;
+        private final FileOutputStream fos;
+        private final DataOutputStream out;
+        private final ByteArrayOutputStream block = new ByteArrayOutputStream(256);
+        private final DataOutputStream payload = new DataOutputStream(block);
+        private final CRC32C crc = new CRC32C();
+        private int count;
+        private boolean committed;
+
+        BlockWriter(File target, int fileMagic) throws IOException {
+            this.target = target;
+            this.temp = new File(target.getPath() + ".tmp");
+            this.fos = new FileOutputStream(temp);
+            this.out = new DataOutputStream(new BufferedOutputStream(fos, 64 * 1024));
+            out.writeInt(fileMagic);
+            out.writeInt(VERSION);
+        }
+
+        // 새 블록의 내용 스트림
+        DataOutputStream begin() throws IOException {
+            block.reset();
+            payload.writeByte(TYPE_DATA);
+            return payload;
+        }
+
+        void end() throws IOException {
+            writeBlock();
+            count++;
+        }
+
+        void commit() throws IOException {
+            block.reset();
+            payload.writeByte(TYPE_END);
+            payload.writeInt(count);
+            writeBlock();
+            out.flush();
+            fos.getFD().sync();
+            out.close();
+            try {
+                Files.move(temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            committed = true;
+        }
+
+        private void writeBlock() throws IOException {
+            SnapshotFile.writeBlock(out, block.toByteArray(), crc);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!committed) {
+                out.close();
+                temp.delete();
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// 단일 스냅샷 파일 저장소 (-Dhabit.storage=serialized)
+// 변경은 메모리의 트래커에만 쌓이고 save()에서 파일 전체를 원자적으로 다시 쓴다.
+public class SnapshotHabitStore implements HabitStore {
+    private final String dataFile;
+    private HabitTracker loaded;
+
+    public SnapshotHabitStore(String dataFile) {
+        this.dataFile = dataFile;
+    }
+
+    @Override
+    public HabitTracker load() {
+        loaded = DataManager.loadData(dataFile);
+        return loaded;
+    }
+
+    @Override
+    public void save(HabitTracker tracker) {
+        DataManager.saveData(tracker, dataFile);
+    }
+
+    // 모든 기록이 메모리에 있으므로 로드한 트래커에서 찾는다
+    @Override
+    public List<LocalDate> queryRange(String habitName, LocalDate from, LocalDate to) {
+        if (loaded == null) {
+            return Collections.emptyList();
+        }
+        List<LocalDate> dates = new ArrayList<>();
+        for (LocalDate date : loaded.getCompletedDates(habitName)) {
+            if (!date.isBefore(from) && !date.isAfter(to)) {
+                dates.add(date);
+            }
+        }
+        Collections.sort(dates);
+        return dates;
+    }
+}
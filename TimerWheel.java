@@ -0,0 +1,193 @@
+import java.util.concurrent.TimeUnit;
+
+// 계층형 타이머 휠 (4단계 x 64칸, 등록/취소 O(1))
+// 전용 스레드 하나가 틱마다 휠을 돌리면서 만료된 작업을 실행한다.
+public class TimerWheel {
+    private static final int LEVELS = 4;
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+
+    private final long tickNanos;
+    private final long startNanos;
+    private final Slot[][] wheels = new Slot[LEVELS][SLOTS];
+    private final Thread worker;
+    private long currentTick = 0;
+    private int pendingCount = 0;
+    private volatile boolean running = true;
+
+    public TimerWheel(long tickDuration, TimeUnit unit, String threadName) {
+        this.tickNanos = unit.toNanos(tickDuration);
+        this.startNanos = System.nanoTime();
+        for (int level = 0; level < LEVELS; level++) {
+            for (int i = 0; i < SLOTS; i++) {
+                wheels[level][i] = new Slot();
+            }
+        }
+        worker = new Thread(this::run, threadName);
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    // 지연 시간 후 task 실행 예약
+    public synchronized Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        if (!running) {
+            throw new IllegalStateException("타이머 휠이 이미 종료되었습니다.");
+        }
+        long elapsed = System.nanoTime() - startNanos + unit.toNanos(Math.max(0, delay));
+        long deadlineTick = Math.max(currentTick + 1, (elapsed + tickNanos - 1) / tickNanos);
+        Timeout timeout = new Timeout(this, task, deadlineTick);
+        place(timeout);
+        pendingCount++;
+        return timeout;
+    }
+
+    public synchronized int pendingCount() {
+        return pendingCount;
+    }
+
+    public void shutdown() {
+        running = false;
+        worker.interrupt();
+    }
+
+    private synchronized boolean cancel(Timeout timeout) {
+        if (timeout.slot == null) {
+            return false;
+        }
+        timeout.slot.unlink(timeout);
+        pendingCount--;
+        return true;
+    }
+
+    // 남은 틱 수에 맞는 단계의 칸에 넣는다
+    private void place(Timeout timeout) {
+        long delta = timeout.deadlineTick - currentTick;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        int index = (int) (timeout.deadlineTick >>> (SLOT_BITS * level)) & SLOT_MASK;
+        wheels[level][index].link(timeout);
+    }
+
+    // 한 틱 전진: 상위 단계를 먼저 내려보낸 뒤 0단계의 만료 작업을 꺼낸다
+    private synchronized Timeout advance() {
+        currentTick++;
+        for (int level = LEVELS - 1; level > 0; level--) {
+            long lowerSpan = 1L << (SLOT_BITS * level);
+            if ((currentTick & (lowerSpan - 1)) == 0) {
+                int index = (int) (currentTick >>> (SLOT_BITS * level)) & SLOT_MASK;
+                Timeout timeout = wheels[level][index].detachAll();
+                while (timeout != null) {
+                    Timeout next = timeout.next;
+                    timeout.next = null;
+                    timeout.prev = null;
+                    place(timeout);
+                    timeout = next;
+                }
+            }
+        }
+
+        Slot slot = wheels[0][(int) currentTick & SLOT_MASK];
+        Timeout expired = slot.detachAll();
+        Timeout count = expired;
+        while (count != null) {
+            pendingCount--;
+            count = count.next;
+        }
+        return expired;
+    }
+
+    private void run() {
+        while (running) {
+            long nextTickNanos = startNanos + (currentTickSnapshot() + 1) * tickNanos;
+            long sleepNanos = nextTickNanos - System.nanoTime();
+            if (sleepNanos > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(sleepNanos);
+                } catch (InterruptedException e) {
+                    if (!running) {
+                        return;
+                    }
+                    continue;
+                }
+            }
+
+            Timeout timeout = advance();
+            while (timeout != null) {
+                Timeout next = timeout.next;
+                timeout.next = null;
+                timeout.prev = null;
+                try {
+                    timeout.task.run();
+                } catch (Exception e) {
+                    Log.error("예약 작업 실행 중 오류: {}", e, e.getMessage());
+                }
+                timeout = next;
+            }
+        }
+    }
+
+    private synchronized long currentTickSnapshot() {
+        return currentTick;
+    }
+
+    // 예약된 작업 핸들 (이중 연결 리스트 노드)
+    public static class Timeout {
+        private final TimerWheel wheel;
+        private final Runnable task;
+        private final long deadlineTick;
+        private Slot slot;
+        private Timeout prev;
+        private Timeout next;
+
+        private Timeout(TimerWheel wheel, Runnable task, long deadlineTick) {
+            this.wheel = wheel;
+            this.task = task;
+            this.deadlineTick = deadlineTick;
+        }
+
+        public boolean cancel() {
+            return wheel.cancel(this);
+        }
+    }
+
+    private static class Slot {
+        private Timeout head;
+
+        void link(Timeout timeout) {
+            timeout.slot = this;
+            timeout.prev = null;
+            timeout.next = head;
+            if (head != null) {
+                head.prev = timeout;
+            }
+            head = timeout;
+        }
+
+        void unlink(Timeout timeout) {
+            if (timeout.prev != null) {
+                timeout.prev.next = timeout.next;
+            } else {
+                head = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.prev = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.slot = null;
+        }
+
+        // 칸을 비우고 기존 목록의 머리를 반환 (slot 참조는 해제)
+        Timeout detachAll() {
+            Timeout first = head;
+            head = null;
+            for (Timeout t = first; t != null; t = t.next) {
+                t.slot = null;
+            }
+            return first;
+        }
+    }
+}
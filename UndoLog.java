@@ -0,0 +1,319 @@
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+// 실행 취소/다시 실행 기록
+// HabitTracker의 변경(완료/해제, 습관 추가/삭제/수정)을 되돌릴 수 있는 명령으로 쌓는다.
+// 완료 변경이 대부분이므로 명령 하나를 long 하나로 묶어 배열에 넣는다: 종류(8) | 습관 번호(24) | epoch day(32)
+// 습관 번호는 트래커의 번호를 그대로 쓴다 (이름이 바뀌어도 같은 습관을 가리킨다).
+// 습관 추가/삭제/수정/이름 변경은 되돌릴 때 필요한 값(삭제면 완료일까지)을 따로 두고 그 번호를 넣는다.
+// 완료 상세(시각, 수량, 메모)가 바뀌면 완료 변경 바로 앞에 바뀌기 전/후 상세를 남긴다.
+//
+// 사용자 동작 하나(트래커 호출 하나, 또는 beginGroup~endGroup)가 한 단계이고,
+// 되돌릴 때는 같은 습관의 연속된 완료 변경을 applyBatch 한 번으로 반영한다 (트래커를 다시 만들지 않는다).
+// 단계 수와 명령 수가 한도를 넘으면 오래된 단계부터 버린다.
+public class UndoLog {
+    static final int MAX_STEPS = Integer.getInteger("habit.undo.steps", 200);
+    static final int MAX_OPS = Integer.getInteger("habit.undo.ops", 1 << 20);
+
+    private static final int MARK = 1;
+    private static final int UNMARK = 2;
+    private static final int ADD_HABIT = 3;
+    private static final int REMOVE_HABIT = 4;
+    private static final int UPDATE_HABIT = 5;
+    private static final int RENAME_HABIT = 6;
+    private static final int DETAIL = 7;
+
+    private final HabitTracker tracker;
+
+    private long[] ops = new long[256];
+    private int opCount;
+    private int[] stepEnds = new int[16];        // 단계마다 명령 끝 위치
+    private int[] stepPayloadEnds = new int[16]; // 단계마다 payload 끝 번호 (절대값)
+    private int stepCount;
+    private int cursor; // 여기까지가 실행된 단계, 뒤는 다시 실행할 수 있는 단계
+
+    private final List<Object> payloads = new ArrayList<>();
+    private int payloadBase; // payloads.get(0)의 절대 번호
+
+    private boolean stepOpen;
+    private int groupDepth;
+    private boolean replaying;
+
+    // 삭제한 습관과 그 완료일, 완료 상세 (삭제 취소용)
+    private static final class RemovedHabit {
+        final Habit habit;
+        final int[] days;
+        final CompletionLog completionLog;
+
+        RemovedHabit(Habit habit, int[] days, CompletionLog completionLog) {
+            this.habit = habit;
+            this.days = days;
+            this.completionLog = completionLog;
+        }
+    }
+
+    // 완료 상세 변경 (없던 상세면 before, 지운 상세면 after가 null)
+    private static final class DetailChange {
+        final LocalDate date;
+        final CompletionLog.Entry before;
+        final CompletionLog.Entry after;
+
+        DetailChange(LocalDate date, CompletionLog.Entry before, CompletionLog.Entry after) {
+            this.date = date;
+            this.before = before;
+            this.after = after;
+        }
+    }
+
+    public UndoLog(HabitTracker tracker) {
+        this.tracker = tracker;
+        tracker.setUndoLog(this);
+    }
+
+    public boolean canUndo() {
+        return cursor > 0;
+    }
+
+    public boolean canRedo() {
+        return cursor < stepCount;
+    }
+
+    // 되돌릴 수 있는 단계 수
+    public int size() {
+        return cursor;
+    }
+
+    // 여러 트래커 호출을 한 단계로 묶는다
+    public void beginGroup() {
+        groupDepth++;
+    }
+
+    public void endGroup() {
+        if (--groupDepth == 0 && stepOpen) {
+            closeStep();
+        }
+    }
+
+    // 기록을 모두 버린다 (다른 곳의 변경을 합쳤거나 대량으로 가져온 뒤에는 되돌리기가 의미 없다)
+    public void clear() {
+        opCount = 0;
+        stepCount = 0;
+        cursor = 0;
+        payloadBase += payloads.size();
+        payloads.clear();
+        stepOpen = false;
+    }
+
+    // ---- 트래커가 부른다 ----
+
+    void completionChanged(int id, LocalDate date, boolean completed) {
+        append(completed ? MARK : UNMARK, id, (int) date.toEpochDay());
+    }
+
+    void completionsChanged(int id, List<LocalDate> dates, boolean completed) {
+        for (LocalDate date : dates) {
+            append(completed ? MARK : UNMARK, id, (int) date.toEpochDay());
+        }
+    }
+
+    void habitAdded(Habit habit) {
+        append(ADD_HABIT, habit.getId(), payload(habit));
+    }
+
+    void habitRemoved(Habit habit, Set<LocalDate> dates, CompletionLog completionLog) {
+        int[] days = new int[dates.size()];
+        int i = 0;
+        for (LocalDate date : dates) {
+            days[i++] = (int) date.toEpochDay();
+        }
+        Arrays.sort(days);
+        append(REMOVE_HABIT, habit.getId(), payload(new RemovedHabit(habit, days, completionLog)));
+    }
+
+    void habitUpdated(Habit before, Habit after) {
+        append(UPDATE_HABIT, after.getId(), payload(new Habit[] { before, after }));
+    }
+
+    void habitRenamed(int id, String oldName, String newName) {
+        append(RENAME_HABIT, id, payload(new String[] { oldName, newName }));
+    }
+
+    void detailChanged(int id, LocalDate date, CompletionLog.Entry before, CompletionLog.Entry after) {
+        append(DETAIL, id, payload(new DetailChange(date, before, after)));
+    }
+
+    // 트래커 변경 하나가 끝났다 (묶음 중이 아니면 단계를 닫는다)
+    void mutationDone() {
+        if (groupDepth == 0 && stepOpen) {
+            closeStep();
+        }
+    }
+
+    boolean isRecording() {
+        return !replaying;
+    }
+
+    // ---- 실행 취소 / 다시 실행 ----
+
+    public boolean undo() {
+        if (!canUndo()) {
+            return false;
+        }
+        int step = cursor - 1;
+        replay(step > 0 ? stepEnds[step - 1] : 0, stepEnds[step], true);
+        cursor--;
+        return true;
+    }
+
+    public boolean redo() {
+        if (!canRedo()) {
+            return false;
+        }
+        replay(cursor > 0 ? stepEnds[cursor - 1] : 0, stepEnds[cursor], false);
+        cursor++;
+        return true;
+    }
+
+    // [from, to) 명령을 (되돌리기면 거꾸로, 반대 동작으로) 트래커에 반영한다
+    private void replay(int from, int to, boolean inverse) {
+        replaying = true;
+        try {
+            int i = inverse ? to - 1 : from;
+            int step = inverse ? -1 : 1;
+            List<LocalDate> run = new ArrayList<>();
+            while (inverse ? i >= from : i < to) {
+                long op = ops[i];
+                int kind = kind(op);
+                int id = habitId(op);
+                if (kind == MARK || kind == UNMARK) {
+                    // 같은 습관, 같은 방향의 완료 변경은 모아서 한 번에
+                    run.clear();
+                    while ((inverse ? i >= from : i < to) && ops[i] >>> 32 == op >>> 32) {
+                        run.add(LocalDate.ofEpochDay(value(ops[i])));
+                        i += step;
+                    }
+                    tracker.applyBatch(id, run, (kind == MARK) != inverse);
+                    continue;
+                }
+                Object payload = payloads.get(value(op) - payloadBase);
+                if (kind == ADD_HABIT) {
+                    if (inverse) {
+                        tracker.removeHabit(id);
+                    } else {
+                        tracker.readdHabit((Habit) payload, List.of(), null);
+                    }
+                } else if (kind == REMOVE_HABIT) {
+                    RemovedHabit removed = (RemovedHabit) payload;
+                    if (inverse) {
+                        List<LocalDate> dates = new ArrayList<>(removed.days.length);
+                        for (int day : removed.days) {
+                            dates.add(LocalDate.ofEpochDay(day));
+                        }
+                        tracker.readdHabit(removed.habit, dates, removed.completionLog);
+                    } else {
+                        tracker.removeHabit(id);
+                    }
+                } else if (kind == UPDATE_HABIT) {
+                    Habit[] versions = (Habit[]) payload;
+                    tracker.restoreHabitInfo(inverse ? versions[0] : versions[1]);
+                } else if (kind == RENAME_HABIT) {
+                    String[] names = (String[]) payload;
+                    tracker.renameHabit(id, inverse ? names[0] : names[1]);
+                } else if (kind == DETAIL) {
+                    // 완료보다 앞에 기록했으므로 되돌릴 때는 완료를 되살린 뒤에, 다시 할 때는 완료 전에 반영된다
+                    DetailChange change = (DetailChange) payload;
+                    tracker.restoreCompletionEntry(id, change.date, inverse ? change.before : change.after);
+                }
+                i += step;
+            }
+        } finally {
+            replaying = false;
+        }
+    }
+
+    // ---- 기록 배열 ----
+
+    private void append(int kind, int habitId, int value) {
+        if (!stepOpen) {
+            openStep();
+        }
+        if (opCount == ops.length) {
+            ops = Arrays.copyOf(ops, ops.length * 2);
+        }
+        ops[opCount++] = (long) kind << 56 | (long) habitId << 32 | (value & 0xFFFFFFFFL);
+    }
+
+    // 새 단계를 시작하면 다시 실행할 수 있던 단계는 버린다
+    private void openStep() {
+        opCount = cursor > 0 ? stepEnds[cursor - 1] : 0;
+        int keepPayloads = (cursor > 0 ? stepPayloadEnds[cursor - 1] : payloadBase) - payloadBase;
+        payloads.subList(keepPayloads, payloads.size()).clear();
+        stepCount = cursor;
+        stepOpen = true;
+    }
+
+    private void closeStep() {
+        stepOpen = false;
+        if (stepCount == stepEnds.length) {
+            stepEnds = Arrays.copyOf(stepEnds, stepEnds.length * 2);
+            stepPayloadEnds = Arrays.copyOf(stepPayloadEnds, stepPayloadEnds.length * 2);
+        }
+        stepEnds[stepCount] = opCount;
+        stepPayloadEnds[stepCount] = payloadBase + payloads.size();
+        stepCount++;
+        cursor = stepCount;
+
+        int stepOps = opCount - (stepCount > 1 ? stepEnds[stepCount - 2] : 0);
+        if (stepOps > MAX_OPS) {
+            // 한 단계가 한도보다 크면 (대량 변경) 되돌릴 수 없는 것으로 본다
+            Log.debug("변경이 너무 커서 실행 취소 기록을 비웁니다: {}개", stepOps);
+            clear();
+            return;
+        }
+        int drop = 0;
+        while (stepCount - drop > MAX_STEPS || opCount - (drop > 0 ? stepEnds[drop - 1] : 0) > MAX_OPS) {
+            drop++;
+        }
+        if (drop > 0) {
+            dropOldest(drop);
+        }
+    }
+
+    private void dropOldest(int count) {
+        int opShift = stepEnds[count - 1];
+        System.arraycopy(ops, opShift, ops, 0, opCount - opShift);
+        opCount -= opShift;
+        int newPayloadBase = stepPayloadEnds[count - 1];
+        payloads.subList(0, newPayloadBase - payloadBase).clear();
+        payloadBase = newPayloadBase;
+        for (int i = count; i < stepCount; i++) {
+            stepEnds[i - count] = stepEnds[i] - opShift;
+            stepPayloadEnds[i - count] = stepPayloadEnds[i];
+        }
+        stepCount -= count;
+        cursor -= count;
+    }
+
+    private int payload(Object value) {
+        if (!stepOpen) {
+            openStep();
+        }
+        payloads.add(value);
+        return payloadBase + payloads.size() - 1;
+    }
+
+    private static int kind(long op) {
+        return (int) (op >>> 56);
+    }
+
+    private static int habitId(long op) {
+        return (int) (op >>> 32) & 0xFFFFFF;
+    }
+
+    private static int value(long op) {
+        return (int) op;
+    }
+}
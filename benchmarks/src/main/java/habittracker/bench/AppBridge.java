@@ -0,0 +1,174 @@
+package habittracker.bench;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.time.LocalDate;
+import java.util.List;
+
+// 앱 클래스는 기본 패키지에 있어서 import할 수 없고, JMH는 기본 패키지 벤치마크를 허용하지 않는다.
+// static final MethodHandle은 JIT가 상수로 접어서 직접 호출과 비용 차이가 거의 없다.
+final class AppBridge {
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.publicLookup();
+
+    private static final MethodHandle NEW_TRACKER;
+    private static final MethodHandle NEW_HABIT;
+    private static final MethodHandle ADD_HABIT;
+    private static final MethodHandle GET_HABITS;
+    private static final MethodHandle MARK_COMPLETED;
+    private static final MethodHandle REMOVE_COMPLETED;
+    private static final MethodHandle IS_COMPLETED;
+    private static final MethodHandle GET_COMPLETION_RATE;
+    private static final MethodHandle GET_STREAK_DAYS;
+    private static final MethodHandle GET_DAILY_SUMMARY;
+    private static final MethodHandle SAVE_DATA;
+    private static final MethodHandle LOAD_DATA;
+
+    static {
+        try {
+            Class<?> tracker = Class.forName("HabitTracker");
+            Class<?> habit = Class.forName("Habit");
+            Class<?> dataManager = Class.forName("DataManager");
+
+            NEW_TRACKER = LOOKUP.findConstructor(tracker, MethodType.methodType(void.class))
+                    .asType(MethodType.methodType(Object.class));
+            NEW_HABIT = LOOKUP.findConstructor(habit,
+                    MethodType.methodType(void.class, String.class, LocalDate.class, LocalDate.class))
+                    .asType(MethodType.methodType(Object.class, String.class, LocalDate.class, LocalDate.class));
+            ADD_HABIT = virtual(tracker, "addHabit", void.class, habit);
+            GET_HABITS = virtual(tracker, "getHabits", List.class);
+            MARK_COMPLETED = virtual(tracker, "markCompleted", void.class, String.class, LocalDate.class);
+            REMOVE_COMPLETED = virtual(tracker, "removeCompleted", void.class, String.class, LocalDate.class);
+            IS_COMPLETED = virtual(tracker, "isCompleted", boolean.class, String.class, LocalDate.class);
+            GET_COMPLETION_RATE = virtual(tracker, "getCompletionRate", double.class, String.class);
+            GET_STREAK_DAYS = virtual(tracker, "getStreakDays", int.class, String.class, LocalDate.class);
+            GET_DAILY_SUMMARY = virtual(tracker, "getDailySummary", int[].class, LocalDate.class);
+            SAVE_DATA = LOOKUP.findStatic(dataManager, "saveData",
+                    MethodType.methodType(void.class, tracker, String.class))
+                    .asType(MethodType.methodType(void.class, Object.class, String.class));
+            LOAD_DATA = LOOKUP.findStatic(dataManager, "loadData",
+                    MethodType.methodType(tracker, String.class))
+                    .asType(MethodType.methodType(Object.class, String.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private AppBridge() {
+    }
+
+    // 첫 번째 인자(수신 객체)와 앱 타입 인자를 Object로 바꿔서 invokeExact로 호출할 수 있게 한다
+    private static MethodHandle virtual(Class<?> owner, String name, Class<?> returnType, Class<?>... params)
+            throws ReflectiveOperationException {
+        MethodHandle handle = LOOKUP.findVirtual(owner, name, MethodType.methodType(returnType, params));
+        return handle.asType(handle.type().generic()
+                .changeReturnType(returnType)
+                .changeParameterType(0, Object.class));
+    }
+
+    static Object newTracker() {
+        try {
+            return (Object) NEW_TRACKER.invokeExact();
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static Object newHabit(String name, LocalDate start, LocalDate end) {
+        try {
+            return (Object) NEW_HABIT.invokeExact(name, start, end);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static void addHabit(Object tracker, Object habit) {
+        try {
+            ADD_HABIT.invokeExact(tracker, habit);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static List<?> getHabits(Object tracker) {
+        try {
+            return (List<?>) GET_HABITS.invokeExact(tracker);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static void markCompleted(Object tracker, String habitName, LocalDate date) {
+        try {
+            MARK_COMPLETED.invokeExact(tracker, (Object) habitName, (Object) date);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static void removeCompleted(Object tracker, String habitName, LocalDate date) {
+        try {
+            REMOVE_COMPLETED.invokeExact(tracker, (Object) habitName, (Object) date);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static boolean isCompleted(Object tracker, String habitName, LocalDate date) {
+        try {
+            return (boolean) IS_COMPLETED.invokeExact(tracker, (Object) habitName, (Object) date);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static double getCompletionRate(Object tracker, String habitName) {
+        try {
+            return (double) GET_COMPLETION_RATE.invokeExact(tracker, (Object) habitName);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static int getStreakDays(Object tracker, String habitName, LocalDate today) {
+        try {
+            return (int) GET_STREAK_DAYS.invokeExact(tracker, (Object) habitName, (Object) today);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static int[] getDailySummary(Object tracker, LocalDate date) {
+        try {
+            return (int[]) GET_DAILY_SUMMARY.invokeExact(tracker, (Object) date);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static void saveData(Object tracker, String dataFile) {
+        try {
+            SAVE_DATA.invokeExact(tracker, dataFile);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static Object loadData(String dataFile) {
+        try {
+            return (Object) LOAD_DATA.invokeExact(dataFile);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable t) {
+        if (t instanceof RuntimeException) {
+            return (RuntimeException) t;
+        }
+        if (t instanceof Error) {
+            throw (Error) t;
+        }
+        return new IllegalStateException(t);
+    }
+}
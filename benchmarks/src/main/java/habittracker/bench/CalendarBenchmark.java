@@ -0,0 +1,43 @@
+package habittracker.bench;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+// 달력 화면 한 달치 데이터 조립 (Swing 컴포넌트 생성은 제외)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CalendarBenchmark {
+
+    // "모든 습관" 선택 시 날짜 칸마다 완료/진행 중 습관 수
+    @Benchmark
+    public void allHabitsMonthGrid(TrackerState state, Blackhole blackhole) {
+        YearMonth month = YearMonth.from(state.today);
+        for (int day = 1; day <= month.lengthOfMonth(); day++) {
+            blackhole.consume(AppBridge.getDailySummary(state.tracker, month.atDay(day)));
+        }
+    }
+
+    // 습관 하나 선택 시 날짜 칸마다 완료 여부
+    @Benchmark
+    public void singleHabitMonthGrid(TrackerState state, Blackhole blackhole) {
+        YearMonth month = YearMonth.from(state.today);
+        String name = state.habitNames[state.habitCount / 2];
+        for (int day = 1; day <= month.lengthOfMonth(); day++) {
+            LocalDate date = month.atDay(day);
+            blackhole.consume(AppBridge.isCompleted(state.tracker, name, date));
+        }
+    }
+}
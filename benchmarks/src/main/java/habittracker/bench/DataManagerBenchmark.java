@@ -0,0 +1,53 @@
+package habittracker.bench;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+// DataManager 저장/로드 (작업 디렉터리의 habits_data.dat 대신 임시 파일 사용)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DataManagerBenchmark {
+    private String saveFile;
+    private String loadFile;
+
+    @Setup(Level.Trial)
+    public void setUp(TrackerState state) throws IOException {
+        saveFile = File.createTempFile("habits-save", ".dat").getAbsolutePath();
+        loadFile = File.createTempFile("habits-load", ".dat").getAbsolutePath();
+        AppBridge.saveData(state.tracker, loadFile);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        new File(saveFile).delete();
+        new File(loadFile).delete();
+    }
+
+    @Benchmark
+    public void saveData(TrackerState state) {
+        AppBridge.saveData(state.tracker, saveFile);
+    }
+
+    @Benchmark
+    public Object loadData() {
+        return AppBridge.loadData(loadFile);
+    }
+}
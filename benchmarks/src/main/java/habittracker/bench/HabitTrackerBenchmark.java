@@ -0,0 +1,61 @@
+package habittracker.bench;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// HabitTracker 단건 조회/수정 경로
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HabitTrackerBenchmark {
+    private int cursor;
+
+    private String nextHabit(TrackerState state) {
+        cursor = (cursor + 7919) % state.habitCount;
+        return state.habitNames[cursor];
+    }
+
+    // 체크박스 토글 한 번 (완료 -> 해제로 상태를 원래대로 되돌린다)
+    @Benchmark
+    public void markCompletedToggle(TrackerState state) {
+        String name = nextHabit(state);
+        LocalDate date = state.dayAt(cursor);
+        if (AppBridge.isCompleted(state.tracker, name, date)) {
+            AppBridge.removeCompleted(state.tracker, name, date);
+            AppBridge.markCompleted(state.tracker, name, date);
+        } else {
+            AppBridge.markCompleted(state.tracker, name, date);
+            AppBridge.removeCompleted(state.tracker, name, date);
+        }
+    }
+
+    @Benchmark
+    public boolean isCompleted(TrackerState state) {
+        String name = nextHabit(state);
+        return AppBridge.isCompleted(state.tracker, name, state.dayAt(cursor));
+    }
+
+    @Benchmark
+    public double getCompletionRate(TrackerState state) {
+        return AppBridge.getCompletionRate(state.tracker, nextHabit(state));
+    }
+
+    // Main.calculateStreakDays와 같은 로직 (HabitTracker.getStreakDays)
+    @Benchmark
+    public int streakDays(TrackerState state) {
+        return AppBridge.getStreakDays(state.tracker, nextHabit(state), state.today);
+    }
+}
@@ -0,0 +1,68 @@
+package habittracker.bench;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// 10만 습관 x 10년 기록에서의 HabitTracker 조회 경로
+// 완료 약 2.5억 개가 메모리에 올라가므로 큰 힙을 잡은 별도 포크에서만 돈다. (힙이 모자라면 -jvmArgsAppend로 바꾼다)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx24g")
+@State(Scope.Thread)
+public class LargeHistoryBenchmark {
+    private int cursor;
+
+    @State(Scope.Benchmark)
+    public static class LargeTrackerState {
+        static final int HABIT_COUNT = 100_000;
+        static final int HISTORY_DAYS = 3650;
+
+        public Object tracker;
+        public String[] habitNames;
+        public LocalDate today;
+        public LocalDate firstDay;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            today = LocalDate.of(2025, 6, 30);
+            firstDay = today.minusDays(HISTORY_DAYS - 1L);
+            tracker = AppBridge.newTracker();
+            habitNames = TrackerState.fill(tracker, HABIT_COUNT, firstDay, today, 0.7);
+        }
+    }
+
+    private String nextHabit(LargeTrackerState state) {
+        cursor = (cursor + 7919) % LargeTrackerState.HABIT_COUNT;
+        return state.habitNames[cursor];
+    }
+
+    @Benchmark
+    public boolean isCompleted(LargeTrackerState state) {
+        String name = nextHabit(state);
+        return AppBridge.isCompleted(state.tracker, name, state.firstDay.plusDays(cursor % LargeTrackerState.HISTORY_DAYS));
+    }
+
+    @Benchmark
+    public double getCompletionRate(LargeTrackerState state) {
+        return AppBridge.getCompletionRate(state.tracker, nextHabit(state));
+    }
+
+    @Benchmark
+    public int streakDays(LargeTrackerState state) {
+        return AppBridge.getStreakDays(state.tracker, nextHabit(state), state.today);
+    }
+}
@@ -0,0 +1,60 @@
+package habittracker.bench;
+
+import java.time.LocalDate;
+import java.util.Random;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+// 습관 수 x 기록 기간별로 채워 둔 트래커
+// 10만 습관 x 10년(완료 약 2.5억 개)은 기본 힙에 들어가지 않으므로 이 격자에서 빼고 LargeHistoryBenchmark에서 따로 잰다.
+@State(Scope.Benchmark)
+public class TrackerState {
+    @Param({ "10", "1000", "10000" })
+    public int habitCount;
+
+    // 1개월, 1년, 10년
+    @Param({ "30", "365", "3650" })
+    public int historyDays;
+
+    @Param("0.7")
+    public double completionDensity;
+
+    public Object tracker;
+    public String[] habitNames;
+    public LocalDate today;
+    public LocalDate firstDay;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        today = LocalDate.of(2025, 6, 30);
+        firstDay = today.minusDays(historyDays - 1L);
+        tracker = AppBridge.newTracker();
+        habitNames = fill(tracker, habitCount, firstDay, today, completionDensity);
+    }
+
+    public LocalDate dayAt(int offset) {
+        return firstDay.plusDays(Math.floorMod(offset, historyDays));
+    }
+
+    // 습관 habitCount개를 추가하고 [firstDay, today]를 density 비율로 완료 표시한다 (같은 시드라 실행마다 같은 데이터)
+    static String[] fill(Object tracker, int habitCount, LocalDate firstDay, LocalDate today, double density) {
+        String[] names = new String[habitCount];
+        Random random = new Random(42);
+        for (int i = 0; i < habitCount; i++) {
+            String name = "habit-" + i;
+            names[i] = name;
+            // 기록 기간 끝까지 + 앞으로 30일 진행 중인 습관
+            AppBridge.addHabit(tracker, AppBridge.newHabit(name, firstDay, today.plusDays(30)));
+            for (LocalDate date = firstDay; !date.isAfter(today); date = date.plusDays(1)) {
+                if (random.nextDouble() < density) {
+                    AppBridge.markCompleted(tracker, name, date);
+                }
+            }
+        }
+        return names;
+    }
+}
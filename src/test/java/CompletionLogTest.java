@@ -0,0 +1,118 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+// CompletionLog 열 형식을 쓰고 다시 읽었을 때 같은 상세가 나오는지
+class CompletionLogTest {
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+
+    @Test
+    void roundTripKeepsNegativeTimeOffsets() throws IOException {
+        // 한국 시간 오전에 한 완료는 그날 UTC 0시보다 앞선 시각이라 오프셋이 음수다
+        List<CompletionLog.Entry> entries = List.of(
+            entry(0, Instant.parse("2023-12-31T22:30:00Z"), null, null),
+            entry(1, Instant.parse("2024-01-02T12:00:00Z"), null, null),
+            entry(2, Instant.parse("2024-01-02T23:59:59Z"), null, null),
+            entry(5, Instant.parse("2024-01-06T00:00:00Z"), null, null));
+        CompletionLog log = logOf(entries);
+
+        assertEquals(entries, roundTrip(log).entries());
+    }
+
+    @Test
+    void roundTripWithColumnsAddedPartway() throws IOException {
+        List<CompletionLog.Entry> entries = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            Instant time = i % 3 == 0 && i >= 4 ? null : START.plusDays(i).atTime(7, i).toInstant(java.time.ZoneOffset.UTC);
+            Integer quantity = i >= 4 ? Integer.valueOf(i * 10 - 50) : null; // 다섯 번째 기록부터 수량 열이 생긴다
+            String note = i >= 8 && i % 2 == 0 ? "메모 " + i : null;       // 아홉 번째 기록부터 메모 열이 생긴다
+            entries.add(entry(i, time, quantity, note));
+        }
+        CompletionLog log = logOf(entries);
+        CompletionLog read = roundTrip(log);
+
+        assertEquals(entries, read.entries());
+        assertEquals(entries.get(9), read.get(START.plusDays(9)));
+        assertNull(read.get(START.plusDays(100)));
+    }
+
+    @Test
+    void removeFromMiddleThenRoundTrip() throws IOException {
+        List<CompletionLog.Entry> entries = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            entries.add(entry(i * 2, START.plusDays(i * 2).atTime(6, 0).toInstant(java.time.ZoneOffset.UTC),
+                i, i == 5 ? "가운데" : null));
+        }
+        CompletionLog log = logOf(entries);
+
+        assertEquals(entries.get(5), log.remove(START.plusDays(10)));
+        assertNull(log.remove(START.plusDays(11)));
+        entries.remove(5);
+        assertEquals(entries, log.entries());
+        // 지운 뒤 끝에 붙이는 경로도 어긋나지 않아야 한다
+        CompletionLog.Entry appended = entry(40, null, 7, "끝");
+        log.put(appended);
+        entries.add(appended);
+
+        assertEquals(entries, roundTrip(log).entries());
+    }
+
+    @Test
+    void readRejectsTruncatedColumn() throws IOException {
+        List<CompletionLog.Entry> entries = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            entries.add(entry(i, START.plusDays(i).atTime(21, 0).toInstant(java.time.ZoneOffset.UTC), i * 1000, "메모" + i));
+        }
+        byte[] bytes = bytesOf(logOf(entries));
+
+        for (int length = 0; length < bytes.length; length++) {
+            byte[] truncated = Arrays.copyOf(bytes, length);
+            assertThrows(IllegalArgumentException.class, () -> CompletionLog.read(ByteBuffer.wrap(truncated)),
+                "잘린 길이 " + length);
+        }
+        // 열 길이는 맞지만 기록 수가 더 많으면 열이 모자란 것이다
+        ByteBuffer wrongCount = ByteBuffer.wrap(bytes.clone());
+        wrongCount.putInt(0, entries.size() + 1);
+        assertThrows(IllegalArgumentException.class, () -> CompletionLog.read(wrongCount));
+    }
+
+    private static CompletionLog.Entry entry(int day, Instant time, Integer quantity, String note) {
+        return new CompletionLog.Entry(START.plusDays(day), time, quantity, note);
+    }
+
+    private static CompletionLog logOf(List<CompletionLog.Entry> entries) {
+        CompletionLog log = new CompletionLog();
+        for (CompletionLog.Entry entry : entries) {
+            log.put(entry);
+        }
+        return log;
+    }
+
+    private static byte[] bytesOf(CompletionLog log) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            log.write(out);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static CompletionLog roundTrip(CompletionLog log) throws IOException {
+        ByteBuffer in = ByteBuffer.wrap(bytesOf(log));
+        CompletionLog read = CompletionLog.read(in);
+        assertEquals(0, in.remaining());
+        assertEquals(log.size(), read.size());
+        return read;
+    }
+}
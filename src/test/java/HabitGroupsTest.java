@@ -0,0 +1,112 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+// 그룹 집계가 습관별 달성률과 같은 규칙으로 세는지 (주 N회는 주마다 N회까지만)
+class HabitGroupsTest {
+    private static final LocalDate START = LocalDate.of(2024, 1, 1); // 월요일
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void weeklyQuotaIsCappedPerWeek() throws IOException {
+        HabitTracker tracker = new HabitTracker();
+        tracker.addHabit(new Habit("매일 함", START, START.plusDays(13), null, Recurrence.timesPerWeek(3)));
+        tracker.addHabit(new Habit("안 함", START, START.plusDays(13), null, Recurrence.timesPerWeek(3)));
+        tracker.markRange("매일 함", START, START.plusDays(13));
+        HabitGroups groups = new HabitGroups(tracker, dir.resolve("g.groups").toString());
+        groups.assign("매일 함", "운동");
+        groups.assign("안 함", "운동");
+
+        HabitGroups.Group group = groups.findGroup("운동");
+        assertEquals(12, group.getTargetDays());
+        assertEquals(6, group.getCompletedCount());
+        assertEquals(50.0, group.getCompletionRate(), 1e-9);
+        assertEquals((tracker.getCompletionRate("매일 함") + tracker.getCompletionRate("안 함")) / 2, group.getCompletionRate(), 1e-9);
+        // 그날 완료한 습관 수는 목표를 넘긴 날도 센다
+        assertEquals(1, group.getDailySummary(START.plusDays(6))[0]);
+    }
+
+    @Test
+    void groupRateMatchesHabitRatesAfterEachChange() throws IOException {
+        List<Recurrence> recurrences = List.of(Recurrence.DAILY, Recurrence.daysOfWeek(Recurrence.WEEKDAYS),
+            Recurrence.everyNDays(3), Recurrence.timesPerWeek(2), Recurrence.timesPerWeek(5));
+        HabitTracker tracker = new HabitTracker();
+        HabitGroups groups = new HabitGroups(tracker, dir.resolve("g.groups").toString());
+        for (int i = 0; i < recurrences.size(); i++) {
+            // 시작 요일이 다르면 첫 주와 마지막 주가 잘린다
+            tracker.addHabit(new Habit("습관 " + i, START.plusDays(i), START.plusDays(40 + i * 3), null, recurrences.get(i)));
+            groups.assign("습관 " + i, i % 2 == 0 ? "건강/운동" : "건강");
+        }
+
+        Random random = new Random(7);
+        for (int step = 0; step < 400; step++) {
+            String name = "습관 " + random.nextInt(recurrences.size());
+            LocalDate date = START.plusDays(random.nextInt(60) - 5);
+            if (random.nextInt(3) == 0) {
+                tracker.removeCompleted(name, date);
+            } else {
+                tracker.markCompleted(name, date);
+            }
+            if (step % 50 == 0) {
+                tracker.markRange(name, date, date.plusDays(10));
+            }
+            assertMatchesHabits(tracker, groups.findGroup("건강"));
+            assertMatchesHabits(tracker, groups.findGroup("건강/운동"));
+        }
+    }
+
+    @Test
+    void partitionedTrackerKeepsPastYearsUnloaded() throws IOException {
+        String storeDir = dir.resolve("habits.parts").toString();
+        String groupsFile = dir.resolve("g.groups").toString();
+        LocalDate past = LocalDate.of(2015, 1, 1);
+        PartitionedHabitStore store = PartitionedHabitStore.open(storeDir);
+        HabitTracker tracker = store.load();
+        tracker.addHabit(new Habit("운동", past, HabitClock.today().plusDays(30)));
+        tracker.markRange("운동", past, past.plusDays(9));
+        tracker.markCompleted("운동", past.plusYears(5));
+        new HabitGroups(tracker, groupsFile).assign("운동", "건강");
+        store.save(tracker);
+
+        HabitTracker reloaded = PartitionedHabitStore.open(storeDir).load();
+        assertFalse(reloaded.isYearLoaded(2015));
+        HabitGroups groups = new HabitGroups(reloaded, groupsFile);
+        assertFalse(reloaded.isYearLoaded(2015));
+        assertFalse(reloaded.isYearLoaded(2020));
+
+        HabitGroups.Group group = groups.findGroup("건강");
+        assertEquals(11, group.getCompletedCount());
+        assertEquals(1, group.getDailySummary(past.plusDays(3))[0]);
+
+        // 읽지 않은 연도의 날짜를 바꾸면 그 해를 읽어 오지만 이미 센 완료를 두 번 세지 않는다
+        reloaded.markCompleted("운동", past.plusDays(3));
+        reloaded.markCompleted("운동", past.plusDays(20));
+        assertEquals(12, group.getCompletedCount());
+        assertEquals(reloaded.getCompletionRate("운동"), group.getCompletionRate(), 1e-9);
+    }
+
+    // 하위 습관들의 목표 일수로 가중한 습관별 달성률 평균과 같아야 한다
+    private static void assertMatchesHabits(HabitTracker tracker, HabitGroups.Group group) {
+        long target = 0;
+        double weighted = 0;
+        for (Habit habit : tracker.getHabits()) {
+            if (group.getPath().equals("건강/운동") && habit.getId() % 2 != 0) {
+                continue;
+            }
+            target += habit.getTargetDays();
+            weighted += tracker.getCompletionRate(habit.getId()) * habit.getTargetDays();
+        }
+        assertEquals(target, group.getTargetDays());
+        assertEquals(weighted / target, group.getCompletionRate(), 1e-9);
+    }
+}
@@ -0,0 +1,132 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+// 자모/초성 검색과, 습관을 넣고 빼고 이름을 바꿀 때 조각 목록이 따라가는지
+class HabitSearchIndexTest {
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+
+    @Test
+    void normalizeSplitsSyllablesAndCompoundJamo() {
+        assertEquals("ㅁㅜㄹ", HabitSearchIndex.normalize("물"));
+        assertEquals("ㄷㅏㄹㄱ", HabitSearchIndex.normalize("닭"));       // 겹받침 ㄺ
+        assertEquals("ㄱㅗㅏㅈㅏ", HabitSearchIndex.normalize("과자"));  // 이중모음 ㅘ
+        assertEquals("ㅇㅓㅂㅅㄷㅏ", HabitSearchIndex.normalize("없다")); // 겹받침 ㅄ
+        assertEquals("run fast", HabitSearchIndex.normalize("  Run \t Fast "));
+    }
+
+    @Test
+    void partialSyllablesAndInitialsMatch() {
+        HabitTracker tracker = trackerWith("물 마시기", "닭가슴살 먹기", "무술 연습", "영어 공부");
+        HabitSearchIndex index = new HabitSearchIndex(tracker);
+
+        assertEquals(names("물 마시기", "무술 연습"), found(index, "무"));
+        assertEquals(names("닭가슴살 먹기"), found(index, "달"));  // "닭"을 입력하는 중
+        assertEquals(names("물 마시기"), found(index, "물 마"));
+        assertEquals(names("물 마시기", "무술 연습"), found(index, "ㅁㅅ"));
+        assertEquals(names("물 마시기"), found(index, "ㅁ ㅁㅅ"));
+        assertEquals(names("닭가슴살 먹기"), found(index, "가슴살"));
+        assertEquals(names("영어 공부"), found(index, "ㅇㅇㄱ"));
+        assertEquals(names(), found(index, "마시멜로"));
+        assertEquals(tracker.getHabits(), index.find("  "));
+    }
+
+    @Test
+    void searchMatchesBruteForce() {
+        String syllables = "물마시기닭가슴살먹운동독서영어공부산책읽없과";
+        Random random = new Random(11);
+        HabitTracker tracker = new HabitTracker();
+        for (int i = 0; i < 200; i++) {
+            tracker.addHabit(new Habit(randomText(random, syllables, 2 + random.nextInt(6)) + " " + i, START, START.plusDays(30)));
+        }
+        HabitSearchIndex index = new HabitSearchIndex(tracker);
+
+        for (int q = 0; q < 300; q++) {
+            Habit habit = tracker.getHabits().get(random.nextInt(tracker.getHabits().size()));
+            String name = habit.getName();
+            int from = random.nextInt(name.length());
+            String query = name.substring(from, Math.min(name.length(), from + 1 + random.nextInt(4)));
+            if (HabitSearchIndex.normalize(query).isEmpty()) {
+                continue; // 빈 검색어는 find()가 전체 목록으로 처리한다
+            }
+            assertArrayEquals(bruteForce(tracker, query), index.search(query), query);
+        }
+        for (int q = 0; q < 100; q++) {
+            String query = randomText(random, syllables, 1 + random.nextInt(3));
+            assertArrayEquals(bruteForce(tracker, query), index.search(query), query);
+        }
+    }
+
+    @Test
+    void addRemoveAndRenameKeepPostingsCurrent() {
+        HabitTracker tracker = trackerWith("물 마시기", "독서");
+        HabitSearchIndex index = new HabitSearchIndex(tracker);
+        assertEquals(2, index.size());
+
+        tracker.addHabit(new Habit("물구나무서기", START, START.plusDays(30)));
+        assertEquals(names("물 마시기", "물구나무서기"), found(index, "물"));
+        assertEquals(names("물 마시기"), found(index, "ㅁㅁ"));
+
+        tracker.removeHabit("물 마시기");
+        assertEquals(2, index.size());
+        assertEquals(names("물구나무서기"), found(index, "물"));
+        assertEquals(names(), found(index, "ㅁㅁ"));
+
+        int id = tracker.getHabitId("독서");
+        tracker.renameHabit("독서", "책 읽기");
+        assertEquals(2, index.size());
+        assertEquals(names(), found(index, "독서"));
+        assertEquals(names("책 읽기"), found(index, "책 일"));      // 겹받침 ㄺ 앞부분
+        assertArrayEquals(new int[] { id }, index.search("ㅊㅇ"));
+
+        index.close();
+        tracker.addHabit(new Habit("물 끓이기", START, START.plusDays(30)));
+        assertEquals(names("물구나무서기"), found(index, "물"));
+    }
+
+    private static HabitTracker trackerWith(String... names) {
+        HabitTracker tracker = new HabitTracker();
+        for (String name : names) {
+            tracker.addHabit(new Habit(name, START, START.plusDays(30)));
+        }
+        return tracker;
+    }
+
+    private static List<String> found(HabitSearchIndex index, String query) {
+        List<String> result = new ArrayList<>();
+        for (Habit habit : index.find(query)) {
+            result.add(habit.getName());
+        }
+        return result;
+    }
+
+    private static List<String> names(String... names) {
+        return List.of(names);
+    }
+
+    private static String randomText(Random random, String syllables, int length) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            sb.append(syllables.charAt(random.nextInt(syllables.length())));
+        }
+        return sb.toString();
+    }
+
+    // 자모로 푼 이름에 자모로 푼 검색어가 들어 있는 습관 번호
+    private static int[] bruteForce(HabitTracker tracker, String query) {
+        String key = HabitSearchIndex.normalize(query);
+        List<Integer> ids = new ArrayList<>();
+        for (Habit habit : tracker.getHabits()) {
+            if (HabitSearchIndex.normalize(habit.getName()).contains(key)) {
+                ids.add(habit.getId());
+            }
+        }
+        return ids.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
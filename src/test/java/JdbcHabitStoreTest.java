@@ -0,0 +1,106 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+// 내장 데이터베이스(H2) 저장소: 닫았다 다시 열어도 같은 내용이 나오는지, 삭제 후 다시 추가한 이름에 옛 기록이 남지 않는지
+class JdbcHabitStoreTest {
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+    private static final LocalDate END = LocalDate.of(2024, 12, 31);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void habitsCompletionsAndDetailsSurviveReopen() throws IOException {
+        CompletionLog.Entry detail = new CompletionLog.Entry(START.plusDays(2), Instant.parse("2024-01-03T12:30:00Z"), 30, "1장, 2장");
+        try (JdbcHabitStore store = new JdbcHabitStore(url())) {
+            HabitTracker tracker = store.load();
+            tracker.addHabit(new Habit("독서", START, END, LocalTime.of(21, 0), Recurrence.timesPerWeek(3)));
+            tracker.addHabit(new Habit("운동", START, END));
+            tracker.markRange("운동", START, START.plusDays(9));
+            tracker.markCompleted("독서", START);
+            tracker.markCompleted("독서", detail);
+            tracker.removeCompleted("운동", START.plusDays(4));
+            store.save(tracker);
+        }
+
+        try (JdbcHabitStore store = new JdbcHabitStore(url())) {
+            HabitTracker tracker = store.load();
+            Habit reading = tracker.getHabit(tracker.getHabitId("독서"));
+            assertEquals(LocalTime.of(21, 0), reading.getReminderTime());
+            assertEquals(Recurrence.timesPerWeek(3), reading.getRecurrence());
+            assertEquals(Set.of(START, START.plusDays(2)), tracker.getCompletedDates("독서"));
+            assertEquals(detail, tracker.getCompletionEntry("독서", START.plusDays(2)));
+            assertNull(tracker.getCompletionEntry("독서", START));
+            assertEquals(9, tracker.getCompletedDates("운동").size());
+            assertFalse(tracker.isCompleted("운동", START.plusDays(4)));
+            assertEquals(List.of(START.plusDays(3), START.plusDays(5)), store.queryRange("운동", START.plusDays(3), START.plusDays(5)));
+        }
+    }
+
+    @Test
+    void removeThenReaddBeforeFlushDropsOldCompletions() throws IOException {
+        try (JdbcHabitStore store = new JdbcHabitStore(url())) {
+            HabitTracker tracker = store.load();
+            tracker.addHabit(new Habit("운동", START, END));
+            tracker.markRange("운동", START, START.plusDays(4));
+            tracker.markCompleted("운동", new CompletionLog.Entry(START, null, 5, "옛 메모"));
+            store.save(tracker);
+
+            // 같은 flush 안에서 지우고 같은 이름으로 다시 추가하면 새 기록만 남아야 한다
+            tracker.removeHabit("운동");
+            tracker.addHabit(new Habit("운동", START, END));
+            tracker.markCompleted("운동", START.plusDays(10));
+            store.save(tracker);
+        }
+
+        try (JdbcHabitStore store = new JdbcHabitStore(url())) {
+            HabitTracker tracker = store.load();
+            assertEquals(Set.of(START.plusDays(10)), tracker.getCompletedDates("운동"));
+            assertNull(tracker.getCompletionEntry("운동", START));
+        }
+    }
+
+    @Test
+    void namesAndNotesLongerThanColumnsAreRejectedBeforeTheTrackerChanges() throws IOException {
+        try (JdbcHabitStore store = new JdbcHabitStore(url())) {
+            HabitTracker tracker = store.load();
+            String longName = "가".repeat(JdbcHabitStore.MAX_NAME_LENGTH + 1);
+            assertThrows(IllegalArgumentException.class, () -> tracker.addHabit(new Habit(longName, START, END)));
+            assertFalse(tracker.hasHabit(longName));
+
+            tracker.addHabit(new Habit("독서", START, END));
+            String longNote = "x".repeat(JdbcHabitStore.MAX_NOTE_LENGTH + 1);
+            assertThrows(IllegalArgumentException.class,
+                () -> tracker.markCompleted("독서", new CompletionLog.Entry(START, null, null, longNote)));
+            assertFalse(tracker.isCompleted("독서", START));
+
+            // 거부된 값이 쌓이지 않았으므로 이후 저장은 그대로 된다
+            tracker.markCompleted("독서", START.plusDays(1));
+            store.save(tracker);
+        }
+
+        try (JdbcHabitStore store = new JdbcHabitStore(url())) {
+            HabitTracker tracker = store.load();
+            assertTrue(tracker.isCompleted("독서", START.plusDays(1)));
+            assertEquals(1, tracker.getHabits().size());
+        }
+    }
+
+    private String url() {
+        return "jdbc:h2:" + dir.resolve("habits").toAbsolutePath();
+    }
+}
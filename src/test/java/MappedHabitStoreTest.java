@@ -0,0 +1,80 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+// 메모리 매핑 저장소: 기준일 재배치, 영역 64개를 넘는 파일 확장, 삭제한 영역 재사용이 다시 연 뒤에도 맞는지
+class MappedHabitStoreTest {
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+    private static final LocalDate END = LocalDate.of(2024, 12, 31);
+    private static final int HABITS = 100; // 처음 영역 64개를 넘겨 파일이 늘어나게 한다
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void completionsSurviveReopenAfterRebaseAndGrowth() throws IOException {
+        try (MappedHabitStore store = open()) {
+            HabitTracker tracker = store.load();
+            for (int i = 0; i < HABITS; i++) {
+                tracker.addHabit(new Habit("습관" + i, START, END));
+                tracker.markCompleted("습관" + i, START.plusDays(i));
+            }
+            // 기준일(시작일)보다 이른 날은 기준일을 앞으로 옮겨 기존 비트와 함께 담는다
+            tracker.markCompleted("습관0", START.minusDays(40));
+            tracker.markCompleted("습관0", START.plusDays(200));
+            store.save(tracker);
+        }
+
+        try (MappedHabitStore store = open()) {
+            HabitTracker tracker = store.load();
+            assertEquals(HABITS, tracker.getHabits().size());
+            assertEquals(Set.of(START.minusDays(40), START, START.plusDays(200)), tracker.getCompletedDates("습관0"));
+            for (int i = 1; i < HABITS; i++) {
+                assertEquals(Set.of(START.plusDays(i)), tracker.getCompletedDates("습관" + i), "습관" + i);
+            }
+        }
+    }
+
+    @Test
+    void reusedRegionDoesNotInheritOldCompletions() throws IOException {
+        try (MappedHabitStore store = open()) {
+            HabitTracker tracker = store.load();
+            for (int i = 0; i < HABITS; i++) {
+                tracker.addHabit(new Habit("습관" + i, START, END));
+                tracker.markRange("습관" + i, START, START.plusDays(9));
+            }
+            store.save(tracker);
+
+            // 지운 영역을 다른 이름이 물려받아도, 같은 이름을 다시 추가해도 옛 완료 비트는 없어야 한다
+            tracker.removeHabit("습관5");
+            tracker.addHabit(new Habit("새 습관", START, END, LocalTime.of(7, 30), Recurrence.DAILY));
+            tracker.removeHabit("습관70");
+            tracker.addHabit(new Habit("습관70", START, END));
+            tracker.markCompleted("습관70", START.plusDays(20));
+            store.save(tracker);
+        }
+
+        try (MappedHabitStore store = open()) {
+            HabitTracker tracker = store.load();
+            assertEquals(HABITS, tracker.getHabits().size());
+            assertFalse(tracker.hasHabit("습관5"));
+            assertTrue(tracker.getCompletedDates("새 습관").isEmpty());
+            assertEquals(LocalTime.of(7, 30), tracker.getHabit(tracker.getHabitId("새 습관")).getReminderTime());
+            assertEquals(Set.of(START.plusDays(20)), tracker.getCompletedDates("습관70"));
+            assertEquals(10, tracker.getCompletedDates("습관99").size());
+        }
+    }
+
+    private MappedHabitStore open() throws IOException {
+        return MappedHabitStore.open(dir.resolve("habits.map").toString());
+    }
+}
@@ -0,0 +1,95 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+// 같은 디렉터리를 쓰는 두 저장소: 한쪽이 쓴 습관만 다른 쪽에 합쳐지고, 저장하지 않은 이쪽 변경은 덮어쓰지 않는지
+// (감시 스레드 대신 externalFileChanged로 바뀐 파일을 알린다)
+class SegmentedHabitStoreTest {
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+    private static final LocalDate END = LocalDate.of(2024, 12, 31);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void mergeTakesOtherWritesButKeepsUnsavedLocalChanges() throws IOException {
+        SegmentedHabitStore storeA = open();
+        HabitTracker a = storeA.load();
+        a.addHabit(new Habit("운동", START, END));
+        a.addHabit(new Habit("독서", START, END));
+        a.markCompleted("운동", START);
+        a.markCompleted("독서", START);
+        storeA.save(a);
+
+        SegmentedHabitStore storeB = open();
+        HabitTracker b = storeB.load();
+        b.markCompleted("독서", START.plusDays(1)); // B에서 아직 저장하지 않은 변경
+
+        a.markCompleted("운동", START.plusDays(2));
+        a.markCompleted("독서", START.plusDays(3));
+        a.addHabit(new Habit("명상", START, END));
+        a.markCompleted("명상", START.plusDays(4));
+        storeA.save(a);
+
+        storeB.externalFileChanged(SegmentedHabitStore.RESCAN);
+        assertEquals(2, storeB.mergeExternalChanges(b));
+
+        assertEquals(Set.of(START, START.plusDays(2)), b.getCompletedDates("운동"));
+        assertEquals(Set.of(START.plusDays(4)), b.getCompletedDates("명상"));
+        assertEquals(Set.of(START, START.plusDays(1)), b.getCompletedDates("독서"));
+        assertEquals(Set.of("독서"), b.getDirtyHabits());
+
+        // B가 나중에 저장하면 습관 단위로 B의 내용이 남는다
+        storeB.save(b);
+        HabitTracker reopened = open().load();
+        assertEquals(Set.of(START, START.plusDays(1)), reopened.getCompletedDates("독서"));
+        assertEquals(Set.of(START, START.plusDays(2)), reopened.getCompletedDates("운동"));
+        assertTrue(reopened.hasHabit("명상"));
+        storeA.close();
+        storeB.close();
+    }
+
+    @Test
+    void habitRemovedElsewhereIsRemovedUnlessChangedLocally() throws IOException {
+        SegmentedHabitStore storeA = open();
+        HabitTracker a = storeA.load();
+        a.addHabit(new Habit("운동", START, END));
+        a.addHabit(new Habit("독서", START, END));
+        storeA.save(a);
+
+        SegmentedHabitStore storeB = open();
+        HabitTracker b = storeB.load();
+        b.markCompleted("독서", START);
+
+        a.removeHabit("운동");
+        a.removeHabit("독서");
+        storeA.save(a);
+
+        storeB.externalFileChanged(SegmentedHabitStore.RESCAN);
+        storeB.mergeExternalChanges(b);
+
+        assertFalse(b.hasHabit("운동"));
+        assertTrue(b.hasHabit("독서"));
+        assertEquals(Set.of(START), b.getCompletedDates("독서"));
+
+        // 남겨 둔 습관은 다음 저장 때 새 세그먼트로 다시 쓰인다
+        storeB.save(b);
+        HabitTracker reopened = open().load();
+        assertFalse(reopened.hasHabit("운동"));
+        assertEquals(Set.of(START), reopened.getCompletedDates("독서"));
+        storeA.close();
+        storeB.close();
+    }
+
+    private SegmentedHabitStore open() throws IOException {
+        return SegmentedHabitStore.open(dir.resolve("habits.segs").toString());
+    }
+}
@@ -0,0 +1,152 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+// 스냅샷 파일의 블록 하나가 깨지거나 끝이 잘렸을 때 어떤 습관이 살아남는지
+class SnapshotFileTest {
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+    private static final int BLOCK_HEADER_BYTES = 12; // 시작 표시, 길이, 체크섬
+    private static final List<String> NAMES = List.of("물 마시기", "운동", "독서", "명상");
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void corruptContentSkipsOnlyThatBlock() throws IOException {
+        HabitTracker tracker = sampleTracker();
+        byte[] bytes = bytesOf(tracker);
+        List<Integer> starts = blockStarts(bytes);
+
+        // 두 번째 습관 블록의 내용 한 바이트를 뒤집으면 체크섬이 맞지 않는다
+        byte[] corrupted = bytes.clone();
+        corrupted[starts.get(1) + BLOCK_HEADER_BYTES + 3] ^= 0x5A;
+        SnapshotFile.ReadResult result = read(corrupted);
+
+        assertEquals(1, result.corruptBlocks);
+        assertEquals(NAMES.size() - 1, result.blocks);
+        assertTrue(result.complete);
+        assertSurvivors(tracker, result.tracker, List.of("물 마시기", "독서", "명상"));
+    }
+
+    @Test
+    void brokenHeaderResyncsToNextBlock() throws IOException {
+        HabitTracker tracker = sampleTracker();
+        byte[] bytes = bytesOf(tracker);
+        List<Integer> starts = blockStarts(bytes);
+
+        // 길이가 망가지면 다음 BLOCK_MAGIC을 찾아 거기서부터 다시 읽어야 한다
+        byte[] corrupted = bytes.clone();
+        ByteBuffer.wrap(corrupted).putInt(starts.get(2) + 4, Integer.MAX_VALUE);
+        SnapshotFile.ReadResult result = read(corrupted);
+
+        assertEquals(1, result.corruptBlocks);
+        assertTrue(result.complete);
+        assertSurvivors(tracker, result.tracker, List.of("물 마시기", "운동", "명상"));
+
+        // 블록 시작 표시가 깨져도 마찬가지다
+        corrupted = bytes.clone();
+        corrupted[starts.get(0)] ^= 0x01;
+        result = read(corrupted);
+
+        assertEquals(1, result.corruptBlocks);
+        assertTrue(result.complete);
+        assertSurvivors(tracker, result.tracker, List.of("운동", "독서", "명상"));
+    }
+
+    @Test
+    void truncatedTailKeepsWholeBlocks() throws IOException {
+        HabitTracker tracker = sampleTracker();
+        byte[] bytes = bytesOf(tracker);
+        List<Integer> starts = blockStarts(bytes);
+
+        for (int length = 0; length < bytes.length; length++) {
+            byte[] truncated = Arrays.copyOf(bytes, length);
+            if (length < 8) {
+                assertThrows(IOException.class, () -> read(truncated), "잘린 길이 " + length);
+                continue;
+            }
+            SnapshotFile.ReadResult result = read(truncated);
+            // 잘린 자리 앞에서 끝난 블록만 남는다 (끝 블록은 starts의 마지막)
+            int whole = 0;
+            while (whole < NAMES.size() && starts.get(whole + 1) <= length) {
+                whole++;
+            }
+            String message = "잘린 길이 " + length;
+            assertFalse(result.complete, message);
+            assertTrue(result.isDamaged(), message);
+            assertEquals(whole, result.blocks, message);
+            assertEquals(starts.contains(length) ? 0 : 1, result.corruptBlocks, message);
+            assertSurvivors(tracker, result.tracker, NAMES.subList(0, whole));
+        }
+
+        SnapshotFile.ReadResult full = read(bytes);
+        assertFalse(full.isDamaged());
+        assertEquals(NAMES.size(), full.expectedBlocks);
+        assertSurvivors(tracker, full.tracker, NAMES);
+    }
+
+    private static HabitTracker sampleTracker() {
+        HabitTracker tracker = new HabitTracker();
+        for (String name : NAMES) {
+            tracker.addHabit(new Habit(name, START, START.plusDays(30)));
+        }
+        tracker.markRange("물 마시기", START, START.plusDays(9));
+        tracker.markCompleted("운동", new CompletionLog.Entry(START.plusDays(2), Instant.parse("2024-01-03T07:30:00Z"), 40, "달리기"));
+        tracker.markCompleted("운동", START.plusDays(5));
+        tracker.markCompleted("독서", new CompletionLog.Entry(START, null, 25, null));
+        tracker.markRange("명상", START.plusDays(10), START.plusDays(20));
+        return tracker;
+    }
+
+    private byte[] bytesOf(HabitTracker tracker) throws IOException {
+        File file = dir.resolve("original.dat").toFile();
+        SnapshotFile.write(tracker, file);
+        return Files.readAllBytes(file.toPath());
+    }
+
+    private SnapshotFile.ReadResult read(byte[] bytes) throws IOException {
+        File file = dir.resolve("damaged.dat").toFile();
+        Files.write(file.toPath(), bytes);
+        return SnapshotFile.read(file);
+    }
+
+    // 블록마다 시작 위치 (끝 블록 포함)
+    private static List<Integer> blockStarts(byte[] bytes) {
+        ByteBuffer data = ByteBuffer.wrap(bytes);
+        List<Integer> starts = new ArrayList<>();
+        for (int position = 8; position < bytes.length; position += BLOCK_HEADER_BYTES + data.getInt(position + 4)) {
+            starts.add(position);
+        }
+        assertEquals(NAMES.size() + 1, starts.size());
+        return starts;
+    }
+
+    private static void assertSurvivors(HabitTracker original, HabitTracker read, List<String> names) {
+        List<String> readNames = new ArrayList<>();
+        for (Habit habit : read.getHabits()) {
+            readNames.add(habit.getName());
+        }
+        assertEquals(names, readNames);
+        for (String name : names) {
+            assertEquals(original.getCompletedDates(name), read.getCompletedDates(name), name);
+            for (LocalDate date : original.getCompletedDates(name)) {
+                assertEquals(original.getCompletionEntry(name, date), read.getCompletionEntry(name, date), name);
+            }
+        }
+    }
+}
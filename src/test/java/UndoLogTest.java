@@ -0,0 +1,178 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+// 실행 취소/다시 실행이 완료, 상세, 습관 삭제/이름 변경을 원래대로 돌리는지와 한도를 넘었을 때 오래된 단계를 버리는지
+// (한도는 pom.xml의 surefire 설정에서 habit.undo.ops를 작게 잡아 둔다)
+class UndoLogTest {
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+
+    @Test
+    void markDetailUnmarkThenUndoAndRedo() {
+        HabitTracker tracker = trackerWith("독서");
+        UndoLog undoLog = new UndoLog(tracker);
+        CompletionLog.Entry first = entry(START, Instant.parse("2024-01-01T12:00:00Z"), 10, null);
+        CompletionLog.Entry second = entry(START, Instant.parse("2024-01-01T12:00:00Z"), 25, "다 읽음");
+
+        tracker.markCompleted("독서", first);   // 완료 + 상세
+        tracker.markCompleted("독서", second);  // 상세만
+        tracker.removeCompleted("독서", START); // 해제하면 상세도 지운다
+        assertEquals(3, undoLog.size());
+        assertFalse(tracker.isCompleted("독서", START));
+        assertNull(tracker.getCompletionEntry("독서", START));
+
+        assertTrue(undoLog.undo());
+        assertTrue(tracker.isCompleted("독서", START));
+        assertEquals(second, tracker.getCompletionEntry("독서", START));
+        assertTrue(undoLog.undo());
+        assertEquals(first, tracker.getCompletionEntry("독서", START));
+        assertTrue(undoLog.undo());
+        assertFalse(tracker.isCompleted("독서", START));
+        assertNull(tracker.getCompletionEntry("독서", START));
+        assertFalse(undoLog.undo());
+
+        // 다시 할 때는 상세가 완료보다 먼저 반영되어도 결과가 같아야 한다
+        assertTrue(undoLog.redo());
+        assertTrue(tracker.isCompleted("독서", START));
+        assertEquals(first, tracker.getCompletionEntry("독서", START));
+        assertTrue(undoLog.redo());
+        assertEquals(second, tracker.getCompletionEntry("독서", START));
+        assertTrue(undoLog.redo());
+        assertFalse(tracker.isCompleted("독서", START));
+        assertNull(tracker.getCompletionEntry("독서", START));
+        assertFalse(undoLog.redo());
+    }
+
+    @Test
+    void newStepDropsRedo() {
+        HabitTracker tracker = trackerWith("독서");
+        UndoLog undoLog = new UndoLog(tracker);
+        tracker.markCompleted("독서", START);
+        tracker.markCompleted("독서", START.plusDays(1));
+        undoLog.undo();
+        tracker.markCompleted("독서", START.plusDays(2));
+
+        assertFalse(undoLog.canRedo());
+        assertEquals(Set.of(START, START.plusDays(2)), tracker.getCompletedDates("독서"));
+    }
+
+    @Test
+    void undoRemoveRestoresCompletionsAndDetailsUnderSameId() {
+        HabitTracker tracker = trackerWith("운동", "독서");
+        tracker.markRange("운동", START, START.plusDays(4));
+        tracker.markCompleted("운동", entry(START.plusDays(2), null, 30, "달리기"));
+        UndoLog undoLog = new UndoLog(tracker);
+        int id = tracker.getHabitId("운동");
+        Set<LocalDate> dates = Set.copyOf(tracker.getCompletedDates("운동"));
+
+        assertTrue(tracker.removeHabit("운동"));
+        assertTrue(undoLog.undo());
+        assertEquals(id, tracker.getHabitId("운동"));
+        assertEquals(dates, tracker.getCompletedDates("운동"));
+        assertEquals(entry(START.plusDays(2), null, 30, "달리기"), tracker.getCompletionEntry("운동", START.plusDays(2)));
+
+        assertTrue(undoLog.redo());
+        assertFalse(tracker.hasHabit("운동"));
+        assertTrue(tracker.hasHabit("독서"));
+        assertTrue(undoLog.undo());
+        assertEquals(id, tracker.getHabitId("운동"));
+
+        // 되살린 뒤의 변경도 같은 번호로 기록되고 되돌릴 수 있다
+        tracker.removeCompleted("운동", START.plusDays(2));
+        assertNull(tracker.getCompletionEntry("운동", START.plusDays(2)));
+        assertTrue(undoLog.undo());
+        assertEquals(30, tracker.getCompletionEntry("운동", START.plusDays(2)).getQuantity());
+        assertEquals(dates, tracker.getCompletedDates("운동"));
+    }
+
+    @Test
+    void renameThenUndo() {
+        HabitTracker tracker = trackerWith("운동");
+        tracker.markCompleted("운동", entry(START, null, 5, null));
+        UndoLog undoLog = new UndoLog(tracker);
+        int id = tracker.getHabitId("운동");
+
+        assertTrue(tracker.renameHabit("운동", "달리기"));
+        tracker.markCompleted("달리기", START.plusDays(1));
+        assertTrue(undoLog.undo());
+        assertTrue(undoLog.undo());
+        assertFalse(tracker.hasHabit("달리기"));
+        assertEquals(id, tracker.getHabitId("운동"));
+        assertEquals(Set.of(START), tracker.getCompletedDates("운동"));
+        assertEquals(5, tracker.getCompletionEntry("운동", START).getQuantity());
+
+        assertTrue(undoLog.redo());
+        assertTrue(undoLog.redo());
+        assertEquals(id, tracker.getHabitId("달리기"));
+        assertEquals(Set.of(START, START.plusDays(1)), tracker.getCompletedDates("달리기"));
+    }
+
+    @Test
+    void oldestStepsAreDroppedBeyondMaxSteps() {
+        HabitTracker tracker = trackerWith("운동", "독서", "명상");
+        UndoLog undoLog = new UndoLog(tracker);
+        // 버려질 단계에 payload(삭제한 습관)를 두어 payload 번호가 밀린 뒤에도 남은 단계가 맞게 읽히는지 본다
+        tracker.removeHabit("명상");
+        int extra = 10;
+        for (int i = 0; i < UndoLog.MAX_STEPS + extra - 2; i++) {
+            tracker.markCompleted("운동", START.plusDays(i));
+        }
+        tracker.removeHabit("독서");
+        assertEquals(UndoLog.MAX_STEPS, undoLog.size());
+
+        assertTrue(undoLog.undo());
+        assertTrue(tracker.hasHabit("독서"));
+        while (undoLog.undo()) {
+            // 남은 단계를 모두 되돌린다
+        }
+        // 버린 단계(삭제 + 완료 extra - 1개)는 되돌리지 않는다
+        assertFalse(tracker.hasHabit("명상"));
+        assertEquals(extra - 1, tracker.getCompletedDates("운동").size());
+        for (int i = 0; i < extra - 1; i++) {
+            assertTrue(tracker.isCompleted("운동", START.plusDays(i)));
+        }
+    }
+
+    @Test
+    void stepBeyondMaxOpsClearsAndOldStepsAreDroppedByOps() {
+        HabitTracker tracker = new HabitTracker();
+        tracker.addHabit(new Habit("운동", START, START.plusDays(UndoLog.MAX_OPS * 3L)));
+        UndoLog undoLog = new UndoLog(tracker);
+
+        tracker.markRange("운동", START, START.plusDays(UndoLog.MAX_OPS));
+        assertFalse(undoLog.canUndo());
+
+        // 세 단계의 합이 한도를 넘으면 가장 오래된 단계만 버린다
+        int quarter = UndoLog.MAX_OPS / 4;
+        LocalDate from = START.plusDays(UndoLog.MAX_OPS + 1);
+        for (int i = 0; i < 3; i++) {
+            LocalDate stepStart = from.plusDays((long) i * (quarter + quarter));
+            tracker.markRange("운동", stepStart, stepStart.plusDays(quarter + quarter / 2));
+        }
+        assertEquals(2, undoLog.size());
+        assertTrue(undoLog.undo());
+        assertTrue(undoLog.undo());
+        assertFalse(undoLog.canUndo());
+        assertTrue(tracker.isCompleted("운동", from));
+        assertFalse(tracker.isCompleted("운동", from.plusDays(quarter + quarter)));
+    }
+
+    private static HabitTracker trackerWith(String... names) {
+        HabitTracker tracker = new HabitTracker();
+        for (String name : names) {
+            tracker.addHabit(new Habit(name, START, START.plusDays(60)));
+        }
+        return tracker;
+    }
+
+    private static CompletionLog.Entry entry(LocalDate date, Instant time, Integer quantity, String note) {
+        return new CompletionLog.Entry(date, time, quantity, note);
+    }
+}